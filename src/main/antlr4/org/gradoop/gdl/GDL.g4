@@ -40,7 +40,12 @@ graph
     ;
 
 query
-    : match where*
+    : queryMode? match where*
+    ;
+
+queryMode
+    : EXPLAIN
+    | PROFILE
     ;
 
 match
@@ -69,7 +74,7 @@ edgeLength
     ;
 
 header
-    : Identifier? label*
+    : identifier? label*
     ;
 
 properties
@@ -77,11 +82,19 @@ properties
     ;
 
 property
-    : Identifier Colon (literal | listLiteral)
+    : identifier Colon (literal | listLiteral)
     ;
 
 label
-    : Colon Identifier
+    : Colon identifier
+    ;
+
+// keywords that are only reserved at the start of a query or within a time stamp
+identifier
+    : Identifier
+    | EXPLAIN
+    | PROFILE
+    | Infinity
     ;
 
 where
@@ -112,7 +125,7 @@ comparisonExpression
 
 
 comparisonElement
-    : Identifier
+    : identifier
     | propertyLookup
     | literal
     ;
@@ -120,7 +133,7 @@ comparisonElement
 parenthesizedExpression : '(' expression ')' ;
 
 propertyLookup
-    : Identifier '.' Identifier
+    : identifier '.' identifier
     ;
 
 listLiteral
@@ -164,7 +177,7 @@ interval
     ;
 
 intervalSelector
-    : Identifier '.' IntervalConst
+    : identifier '.' IntervalConst
     | IntervalConst
     ;
 
@@ -197,10 +210,11 @@ timeLiteral
 timeStamp
     : Datetime
     | Date
-    | Now;
+    | Now
+    | '-'? Infinity;
 
 timeSelector
-    : Identifier '.' TimeProp
+    : identifier '.' TimeProp
     | TimeProp
     ;
 
@@ -444,6 +458,10 @@ Now
     : ('N'|'n')('O'|'o')('W'|'w')
     ;
 
+Infinity
+    : 'Infinity'
+    ;
+
 //-------------------------------
 // General fragments
 //-------------------------------
@@ -456,6 +474,14 @@ CREATE
     : 'CREATE'
     ;
 
+EXPLAIN
+    : 'EXPLAIN'
+    ;
+
+PROFILE
+    : 'PROFILE'
+    ;
+
 NaN
     : 'NaN'
     ;
@@ -18,16 +18,27 @@ package org.gradoop.gdl;
 
 import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.gradoop.gdl.matching.BitemporalIndex;
+import org.gradoop.gdl.matching.TemporalIndex;
+import org.gradoop.gdl.matching.TemporalView;
 import org.gradoop.gdl.model.Edge;
 import org.gradoop.gdl.model.Graph;
+import org.gradoop.gdl.model.QueryMode;
 import org.gradoop.gdl.model.Vertex;
 import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.statistics.GraphStatistics;
 import org.gradoop.gdl.utils.ContinuousId;
+import org.gradoop.gdl.model.comparables.time.NowPoint;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -36,11 +47,40 @@ import java.util.function.Function;
  * Helper class that wraps ANTLR initialization logic.
  */
 public class GDLHandler {
+  /**
+   * Receives the vertices and edges added by {@link GDLHandler#append(String)}.
+   */
+  @FunctionalInterface
+  public interface AppendListener {
+    /**
+     * Called after a script was appended.
+     *
+     * @param vertices vertices created by the script
+     * @param edges edges created by the script
+     */
+    void appended(List<Vertex> vertices, List<Edge> edges);
+  }
+
   /**
    * GDL listener implementation.
    */
   private final GDLLoader loader;
 
+  /**
+   * Listeners notified about appended elements
+   */
+  private final List<AppendListener> appendListeners = new ArrayList<>();
+
+  /**
+   * Index used for temporal views, created on first use and dropped by {@link #append(String)}
+   */
+  private TemporalIndex temporalIndex;
+
+  /**
+   * Index used for bitemporal views, created on first use and dropped by {@link #append(String)}
+   */
+  private BitemporalIndex bitemporalIndex;
+
   /**
    * Private constructor to avoid external initialization.
    *
@@ -62,8 +102,45 @@ public class GDLHandler {
     ANTLRInputStream antlrInputStream = new ANTLRInputStream(asciiString);
     GDLLexer lexer = new GDLLexer(antlrInputStream);
     GDLParser parser = new GDLParser(new CommonTokenStream(lexer));
-    // update the loader state while walking the parse tree
-    new ParseTreeWalker().walk(loader, parser.database());
+    temporalIndex = null;
+    bitemporalIndex = null;
+    if (appendListeners.isEmpty()) {
+      // update the loader state while walking the parse tree
+      new ParseTreeWalker().walk(loader, parser.database());
+      return;
+    }
+    List<Vertex> vertices;
+    List<Edge> edges;
+    loader.startRecording();
+    try {
+      new ParseTreeWalker().walk(loader, parser.database());
+      vertices = Collections.unmodifiableList(loader.getRecordedVertices());
+      edges = Collections.unmodifiableList(loader.getRecordedEdges());
+    } finally {
+      loader.stopRecording();
+    }
+    for (AppendListener listener : new ArrayList<>(appendListeners)) {
+      listener.appended(vertices, edges);
+    }
+  }
+
+  /**
+   * Registers a listener that is notified about the vertices and edges created by each call of
+   * {@link #append(String)}.
+   *
+   * @param listener the listener
+   */
+  public void addAppendListener(AppendListener listener) {
+    appendListeners.add(listener);
+  }
+
+  /**
+   * Removes a listener registered by {@link #addAppendListener(AppendListener)}.
+   *
+   * @param listener the listener
+   */
+  public void removeAppendListener(AppendListener listener) {
+    appendListeners.remove(listener);
   }
 
   /**
@@ -93,6 +170,130 @@ public class GDLHandler {
     return loader.getEdges();
   }
 
+  /**
+   * Returns the state of the database at a point in valid time, i.e. all vertices and edges
+   * {@code x} with {@code x.val.asOf(asOf)}. Elements without valid time are always valid.
+   * Edges are only contained if their source and target vertex are contained.
+   *
+   * @param asOf point in time (UNIX epoch milliseconds)
+   * @return snapshot view
+   */
+  public TemporalView snapshot(long asOf) {
+    return snapshot(TemporalIndex.Dimension.VAL, asOf);
+  }
+
+  /**
+   * Returns the state of the database at a point in time, see {@link #snapshot(long)}.
+   *
+   * @param dimension time dimension
+   * @param asOf point in time (UNIX epoch milliseconds)
+   * @return snapshot view
+   */
+  public TemporalView snapshot(TemporalIndex.Dimension dimension, long asOf) {
+    return getTemporalIndex().snapshot(dimension, asOf);
+  }
+
+  /**
+   * Returns the state of the database at a point in valid time as recorded at a point in
+   * transaction time, i.e. all vertices and edges {@code x} with
+   * {@code x.tx.asOf(txAsOf) AND x.val.asOf(valAsOf)}. Edges are only contained if their source
+   * and target vertex are contained.
+   *
+   * @param txAsOf point in transaction time (UNIX epoch milliseconds)
+   * @param valAsOf point in valid time (UNIX epoch milliseconds)
+   * @return bitemporal snapshot view
+   */
+  public TemporalView snapshot(long txAsOf, long valAsOf) {
+    if (bitemporalIndex == null) {
+      bitemporalIndex = BitemporalIndex.of(this);
+    }
+    return bitemporalIndex.snapshot(txAsOf, valAsOf);
+  }
+
+  /**
+   * Returns all vertices and edges {@code x} with {@code x.val.fromTo(from, to)}, i.e. that are
+   * valid at some point in the interval {@code (from, to)}. Edges are only contained if their
+   * source and target vertex are contained.
+   *
+   * @param from start of the interval (UNIX epoch milliseconds), exclusive
+   * @param to end of the interval (UNIX epoch milliseconds), exclusive
+   * @return slice view
+   */
+  public TemporalView slice(long from, long to) {
+    return slice(TemporalIndex.Dimension.VAL, from, to);
+  }
+
+  /**
+   * Returns all vertices and edges valid at some point in an interval, see
+   * {@link #slice(long, long)}.
+   *
+   * @param dimension time dimension
+   * @param from start of the interval (UNIX epoch milliseconds), exclusive
+   * @param to end of the interval (UNIX epoch milliseconds), exclusive
+   * @return slice view
+   */
+  public TemporalView slice(TemporalIndex.Dimension dimension, long from, long to) {
+    return getTemporalIndex().slice(dimension, from, to);
+  }
+
+  /**
+   * Returns the difference between the snapshots at two points in valid time.
+   *
+   * @param t1 first point in time (UNIX epoch milliseconds)
+   * @param t2 second point in time (UNIX epoch milliseconds)
+   * @return elements added and removed between {@code t1} and {@code t2}
+   */
+  public TemporalView.Diff diff(long t1, long t2) {
+    return diff(TemporalIndex.Dimension.VAL, t1, t2);
+  }
+
+  /**
+   * Returns the difference between the snapshots at two points in time.
+   *
+   * @param dimension time dimension
+   * @param t1 first point in time (UNIX epoch milliseconds)
+   * @param t2 second point in time (UNIX epoch milliseconds)
+   * @return elements added and removed between {@code t1} and {@code t2}
+   */
+  public TemporalView.Diff diff(TemporalIndex.Dimension dimension, long t1, long t2) {
+    return getTemporalIndex().diff(dimension, t1, t2);
+  }
+
+  /**
+   * Returns the currently valid state of the database, i.e. the snapshot at the time of the
+   * clock set via {@link Builder#setClock(Clock)}. Elements whose valid time ends with
+   * {@code Infinity} are contained once they have started, elements without valid time are
+   * always contained (see {@link #snapshot(long)}).
+   *
+   * @return snapshot view at the current valid time
+   */
+  public TemporalView current() {
+    return current(TemporalIndex.Dimension.VAL);
+  }
+
+  /**
+   * Returns the currently valid state of the database in a time dimension, see
+   * {@link #current()}.
+   *
+   * @param dimension time dimension
+   * @return snapshot view at the current time
+   */
+  public TemporalView current(TemporalIndex.Dimension dimension) {
+    return snapshot(dimension, loader.getClock().millis());
+  }
+
+  /**
+   * Returns the temporal index over the current database, creating it if necessary.
+   *
+   * @return temporal index
+   */
+  private TemporalIndex getTemporalIndex() {
+    if (temporalIndex == null) {
+      temporalIndex = TemporalIndex.of(this);
+    }
+    return temporalIndex;
+  }
+
   /**
    * Returns the predicates defined by the query in CNF.
    *
@@ -100,6 +301,27 @@ public class GDLHandler {
    */
   public Optional<Predicate> getPredicates() { return loader.getPredicates(); }
 
+  /**
+   * Returns how the query is to be executed, i.e. whether it was prefixed by {@code EXPLAIN} or
+   * {@code PROFILE}.
+   *
+   * @return query mode
+   */
+  public QueryMode getQueryMode() {
+    return loader.getQueryMode();
+  }
+
+  /**
+   * Returns the statistics of all vertices and edges defined in the GDL script, including
+   * appended ones. Statistics are only collected if enabled by
+   * {@link Builder#enableStatistics()}.
+   *
+   * @return statistics, empty if statistics are not collected
+   */
+  public Optional<GraphStatistics> getStatistics() {
+    return loader.getStatistics();
+  }
+
   /**
    * Returns a cache that contains a mapping from user-defined variables to graph instances.
    *
@@ -164,10 +386,22 @@ public class GDLHandler {
   }
 
   /**
-   * Returns the literal for all "Now" literals in the query
+   * Returns the time point used for all "Now" literals in the query. It is resolved by the
+   * clock set via {@link Builder#setClock(Clock)} whenever the query is evaluated.
    *
-   * @return literal for all "Now" literals in the query
+   * @return time point for all "Now" literals in the query
    */
+  public NowPoint getNow(){
+    return loader.getNow();
+  }
+
+  /**
+   * Returns the current value of "Now" as a literal
+   *
+   * @return literal holding the current time of the clock
+   * @deprecated "Now" is resolved at evaluation time, use {@link #getNow()}
+   */
+  @Deprecated
   public TimeLiteral getNowLit(){
     return loader.getNowLit();
   }
@@ -207,6 +441,11 @@ public class GDLHandler {
      */
     private boolean useDefaultEdgeLabel = true;
 
+    /**
+     * Flag to indicate if statistics of the loaded graph shall be collected.
+     */
+    private boolean collectStatistics = false;
+
     /**
      * Id function for graphs.
      */
@@ -227,6 +466,16 @@ public class GDLHandler {
      */
     private ANTLRErrorStrategy errorStrategy = new DefaultErrorStrategy();
 
+    /**
+     * Clock used to resolve {@code Timestamp(Now)}
+     */
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Flag to indicate if interval functions are represented by {@link IntervalRelation}s.
+     */
+    private boolean useIntervalRelations = false;
+
     /**
      * Default graph label is used if none is set in the GDL script.
      *
@@ -320,6 +569,26 @@ public class GDLHandler {
       return this;
     }
 
+    /**
+     * Enable collecting {@link GraphStatistics} of the loaded vertices and edges.
+     *
+     * @return builder
+     */
+    public Builder enableStatistics() {
+      this.collectStatistics = true;
+      return this;
+    }
+
+    /**
+     * Disable collecting statistics.
+     *
+     * @return builder
+     */
+    public Builder disableStatistics() {
+      this.collectStatistics = false;
+      return this;
+    }
+
     /**
      * Sets the id generation function for graphs.
      *
@@ -364,6 +633,40 @@ public class GDLHandler {
       return this;
     }
 
+    /**
+     * Sets the clock that is used to resolve {@code Timestamp(Now)} when a query is evaluated.
+     * If not set, the UTC system clock is used. A fixed clock makes temporal queries
+     * deterministic, e.g. in tests.
+     *
+     * @param clock clock (must not be {@code null})
+     * @return builder
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    /**
+     * Represent interval functions like {@code a.val.overlaps(b.val)} by
+     * {@link IntervalRelation}s, which are evaluated in a single step.
+     *
+     * @return builder
+     */
+    public Builder enableIntervalRelations() {
+      this.useIntervalRelations = true;
+      return this;
+    }
+
+    /**
+     * Represent interval functions by equivalent time point comparisons (default).
+     *
+     * @return builder
+     */
+    public Builder disableIntervalRelations() {
+      this.useIntervalRelations = false;
+      return this;
+    }
+
     /**
      * Initialize GDL Handler from given ASCII String.
      *
@@ -426,6 +729,9 @@ public class GDLHandler {
       if (nextEdgeId == null) {
         throw new IllegalArgumentException("Edge id function must not be null.");
       }
+      if (clock == null) {
+        throw new IllegalArgumentException("Clock must not be null.");
+      }
 
       GDLLexer lexer = new GDLLexer(antlrInputStream);
       GDLParser parser = new GDLParser(new CommonTokenStream(lexer));
@@ -434,7 +740,8 @@ public class GDLHandler {
       GDLLoader loader = new GDLLoader(
               graphLabel, vertexLabel, edgeLabel,
               useDefaultGraphLabel, useDefaultVertexLabel, useDefaultEdgeLabel,
-              nextGraphId, nextVertexId, nextEdgeId
+              nextGraphId, nextVertexId, nextEdgeId, collectStatistics, clock,
+              useIntervalRelations
       );
       new ParseTreeWalker().walk(loader, parser.database());
       return new GDLHandler(loader);
@@ -22,6 +22,7 @@ import org.gradoop.gdl.exceptions.InvalidReferenceException;
 import org.gradoop.gdl.model.Edge;
 import org.gradoop.gdl.model.Graph;
 import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.QueryMode;
 import org.gradoop.gdl.model.comparables.ComparableExpression;
 import org.gradoop.gdl.model.comparables.ElementSelector;
 import org.gradoop.gdl.model.comparables.Literal;
@@ -33,11 +34,16 @@ import org.gradoop.gdl.model.predicates.booleans.Not;
 import org.gradoop.gdl.model.predicates.booleans.Or;
 import org.gradoop.gdl.model.predicates.booleans.Xor;
 import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.optimizer.CommonSubexpressions;
+import org.gradoop.gdl.statistics.GraphStatistics;
 import org.gradoop.gdl.utils.Comparator;
 import org.gradoop.gdl.utils.ContinuousId;
 import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.time.NowPoint;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
 
+import java.time.Clock;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -65,6 +71,16 @@ class GDLLoader extends GDLBaseListener {
   // stores the predicates tree for that query
   private Predicate predicates;
 
+  // how the query is to be executed, set by EXPLAIN or PROFILE
+  private QueryMode queryMode = QueryMode.EXECUTE;
+
+  // statistics of the loaded elements, null if statistics are not collected
+  private final GraphStatistics statistics;
+
+  // vertices and edges created since recording was started, null if not recording
+  private List<Vertex> recordedVertices;
+  private List<Edge> recordedEdges;
+
   private final boolean useDefaultGraphLabel;
   private final boolean useDefaultVertexLabel;
   private final boolean useDefaultEdgeLabel;
@@ -73,6 +89,12 @@ class GDLLoader extends GDLBaseListener {
   private final String defaultVertexLabel;
   private final String defaultEdgeLabel;
 
+  // used to resolve "Now" literals
+  private final Clock clock;
+
+  // true iff interval functions are represented by IntervalRelations instead of comparisons
+  private final boolean useIntervalRelations;
+
   // used to generate ids
   private final Function<Optional<String>, Long> nextGraphId;
   private final Function<Optional<String>, Long> nextVertexId;
@@ -126,6 +148,48 @@ class GDLLoader extends GDLBaseListener {
     boolean useDefaultGraphLabel, boolean useDefaultVertexLabel, boolean useDefaultEdgeLabel,
     Function<Optional<String>, Long> nextGraphId, Function<Optional<String>, Long> nextVertexId,
     Function<Optional<String>, Long> nextEdgeId) {
+    this(defaultGraphLabel, defaultVertexLabel, defaultEdgeLabel, useDefaultGraphLabel,
+      useDefaultVertexLabel, useDefaultEdgeLabel, nextGraphId, nextVertexId, nextEdgeId, false);
+  }
+
+  /**
+   * Initializes a new GDL Loader.
+   *
+   * @param defaultGraphLabel     graph label to be used if no label is given in the GDL script
+   * @param defaultVertexLabel    vertex label to be used if no label is given in the GDL script
+   * @param defaultEdgeLabel      edge label to be used if no label is given in the GDL script
+   * @param useDefaultGraphLabel  enable default graph label
+   * @param useDefaultVertexLabel enable default vertex label
+   * @param useDefaultEdgeLabel   enable default edge label
+   * @param collectStatistics     collect {@link GraphStatistics} while loading
+   */
+  GDLLoader(String defaultGraphLabel, String defaultVertexLabel, String defaultEdgeLabel,
+    boolean useDefaultGraphLabel, boolean useDefaultVertexLabel, boolean useDefaultEdgeLabel,
+    Function<Optional<String>, Long> nextGraphId, Function<Optional<String>, Long> nextVertexId,
+    Function<Optional<String>, Long> nextEdgeId, boolean collectStatistics) {
+    this(defaultGraphLabel, defaultVertexLabel, defaultEdgeLabel, useDefaultGraphLabel,
+      useDefaultVertexLabel, useDefaultEdgeLabel, nextGraphId, nextVertexId, nextEdgeId,
+      collectStatistics, Clock.systemUTC(), false);
+  }
+
+  /**
+   * Initializes a new GDL Loader.
+   *
+   * @param defaultGraphLabel     graph label to be used if no label is given in the GDL script
+   * @param defaultVertexLabel    vertex label to be used if no label is given in the GDL script
+   * @param defaultEdgeLabel      edge label to be used if no label is given in the GDL script
+   * @param useDefaultGraphLabel  enable default graph label
+   * @param useDefaultVertexLabel enable default vertex label
+   * @param useDefaultEdgeLabel   enable default edge label
+   * @param collectStatistics     collect {@link GraphStatistics} while loading
+   * @param clock                 clock used to resolve "Now" literals
+   * @param useIntervalRelations  represent interval functions by {@link IntervalRelation}s
+   */
+  GDLLoader(String defaultGraphLabel, String defaultVertexLabel, String defaultEdgeLabel,
+    boolean useDefaultGraphLabel, boolean useDefaultVertexLabel, boolean useDefaultEdgeLabel,
+    Function<Optional<String>, Long> nextGraphId, Function<Optional<String>, Long> nextVertexId,
+    Function<Optional<String>, Long> nextEdgeId, boolean collectStatistics, Clock clock,
+    boolean useIntervalRelations) {
 
     this.useDefaultGraphLabel = useDefaultGraphLabel;
     this.useDefaultVertexLabel = useDefaultVertexLabel;
@@ -139,6 +203,9 @@ class GDLLoader extends GDLBaseListener {
     this.nextVertexId = nextVertexId;
     this.nextEdgeId = nextEdgeId;
 
+    this.clock = clock;
+    this.useIntervalRelations = useIntervalRelations;
+
     this.userGraphCache = new HashMap<>();
     this.userVertexCache = new HashMap<>();
     this.userEdgeCache = new HashMap<>();
@@ -156,6 +223,8 @@ class GDLLoader extends GDLBaseListener {
     this.currentPredicates = new ArrayDeque<>();
 
     this.temporalLoader = new GDLLoaderTemporal(this);
+
+    this.statistics = collectStatistics ? new GraphStatistics() : null;
   }
 
 
@@ -222,6 +291,59 @@ class GDLLoader extends GDLBaseListener {
     return predicates != null ? Optional.of(predicates) : Optional.empty();
   }
 
+  /**
+   * Returns how the query is to be executed.
+   *
+   * @return query mode, {@link QueryMode#EXECUTE} if no query mode keyword was given
+   */
+  QueryMode getQueryMode() {
+    return queryMode;
+  }
+
+  /**
+   * Starts recording the vertices and edges that are created from now on.
+   */
+  void startRecording() {
+    recordedVertices = new ArrayList<>();
+    recordedEdges = new ArrayList<>();
+  }
+
+  /**
+   * Returns the vertices created since recording was started.
+   *
+   * @return recorded vertices in creation order
+   */
+  List<Vertex> getRecordedVertices() {
+    return recordedVertices;
+  }
+
+  /**
+   * Returns the edges created since recording was started. Edges are complete, i.e. their source
+   * and target are set, once the script was processed.
+   *
+   * @return recorded edges in creation order
+   */
+  List<Edge> getRecordedEdges() {
+    return recordedEdges;
+  }
+
+  /**
+   * Stops recording created vertices and edges.
+   */
+  void stopRecording() {
+    recordedVertices = null;
+    recordedEdges = null;
+  }
+
+  /**
+   * Returns the statistics of the loaded vertices and edges.
+   *
+   * @return statistics, empty if statistics are not collected
+   */
+  Optional<GraphStatistics> getStatistics() {
+    return Optional.ofNullable(statistics);
+  }
+
   /**
    * Returns a cache that contains a mapping from user-defined variables used in the GDL script to
    * graph instances.
@@ -336,7 +458,19 @@ class GDLLoader extends GDLBaseListener {
   }
 
   /**
-   * When leaving a query context its save to add the pattern predicates to the filters
+   * Called when the parser enters a query mode context, i.e. an EXPLAIN or PROFILE keyword.
+   *
+   * @param ctx query mode context
+   */
+  @Override
+  public void enterQueryMode(GDLParser.QueryModeContext ctx) {
+    queryMode = ctx.PROFILE() != null ? QueryMode.PROFILE : QueryMode.EXPLAIN;
+  }
+
+  /**
+   * When leaving a query context its save to add the pattern predicates to the filters.
+   * Global time selectors are replaced by terms over all query variables, which are shared by
+   * all occurrences.
    *
    * @param ctx query context
    */
@@ -349,7 +483,7 @@ class GDLLoader extends GDLBaseListener {
     vars.addAll(autoVertexCache.keySet());
     vars.remove(TimeSelector.GLOBAL_SELECTOR);
     if (predicates != null) {
-      predicates = predicates.replaceGlobalByLocal(vars);
+      predicates = CommonSubexpressions.share(predicates.replaceGlobalByLocal(vars));
     }
     for (Vertex v : vertices) {
       addPredicates(Predicate.fromGraphElement(v, getDefaultVertexLabel()));
@@ -388,6 +522,12 @@ class GDLLoader extends GDLBaseListener {
       }
       v.setVariable(variable);
       vertices.add(v);
+      if (statistics != null) {
+        statistics.addVertex(v);
+      }
+      if (recordedVertices != null) {
+        recordedVertices.add(v);
+      }
     }
     updateGraphElement(v);
     setLastSeenVertex(v);
@@ -467,14 +607,44 @@ class GDLLoader extends GDLBaseListener {
   }
 
   /**
-   * Returns the literal for all "Now" literals in the query
+   * Returns the time point used for all "Now" literals in the query
    *
-   * @return literal for all "Now" literals in the query
+   * @return time point for all "Now" literals in the query
    */
+  public NowPoint getNow() {
+    return temporalLoader.getNow();
+  }
+
+  /**
+   * Returns the current value of "Now" as a literal
+   *
+   * @return literal holding the current time of the clock
+   * @deprecated "Now" is resolved at evaluation time, use {@link #getNow()}
+   */
+  @Deprecated
   public TimeLiteral getNowLit() {
     return temporalLoader.getNowLit();
   }
 
+  /**
+   * Returns the clock used to resolve "Now" literals.
+   *
+   * @return clock
+   */
+  Clock getClock() {
+    return clock;
+  }
+
+  /**
+   * Checks whether interval functions are represented by {@link IntervalRelation}s instead of
+   * their expansion into comparisons.
+   *
+   * @return true iff interval relations are used
+   */
+  boolean useIntervalRelations() {
+    return useIntervalRelations;
+  }
+
   /**
    * Called when we leave an NotExpression.
    * <p>
@@ -558,6 +728,9 @@ class GDLLoader extends GDLBaseListener {
       }
       e.setVariable(variable);
       edges.add(e);
+      if (recordedEdges != null) {
+        recordedEdges.add(e);
+      }
     }
     updateGraphElement(e);
     setLastSeenEdge(e);
@@ -691,8 +864,8 @@ class GDLLoader extends GDLBaseListener {
    * @return element variable or {@code null} if context was null
    */
   private String getVariable(GDLParser.HeaderContext header) {
-    if (header != null && header.Identifier() != null) {
-      return header.Identifier().getText();
+    if (header != null && header.identifier() != null) {
+      return header.identifier().getText();
     }
     return null;
   }
@@ -725,9 +898,9 @@ class GDLLoader extends GDLBaseListener {
           List<Object> list =
             property.listLiteral().literalList().literal().stream().map(this::getPropertyValue)
               .collect(Collectors.toList());
-          properties.put(property.Identifier().getText(), list);
+          properties.put(property.identifier().getText(), list);
         } else {
-          properties.put(property.Identifier().getText(), getPropertyValue(property.literal()));
+          properties.put(property.identifier().getText(), getPropertyValue(property.literal()));
         }
       }
       return properties;
@@ -824,7 +997,7 @@ class GDLLoader extends GDLBaseListener {
     } else if (element.propertyLookup() != null) {
       return buildPropertySelector(element.propertyLookup());
     } else {
-      return new ElementSelector(element.Identifier().getText());
+      return new ElementSelector(element.identifier().getText());
     }
   }
 
@@ -835,8 +1008,8 @@ class GDLLoader extends GDLBaseListener {
    * @return parsed property selector expression
    */
   private PropertySelector buildPropertySelector(GDLParser.PropertyLookupContext ctx) {
-    String identifier = resolveIdentifier(ctx.Identifier(0).getText());
-    String property = ctx.Identifier(1).getText();
+    String identifier = resolveIdentifier(ctx.identifier(0).getText());
+    String property = ctx.identifier(1).getText();
     return new PropertySelector(identifier, property);
   }
 
@@ -944,17 +1117,24 @@ class GDLLoader extends GDLBaseListener {
   }
 
   /**
-   * Updates the source or target vertex identifier of the last seen edge.
+   * Updates the source or target vertex identifier of the last seen edge. A new edge is
+   * complete once both vertex identifiers are set, it is then added to the statistics.
    *
    * @param v current vertex
    */
   private void updateLastSeenEdge(Vertex v) {
     Edge lastSeenEdge = getLastSeenEdge();
     if (lastSeenEdge != null) {
+      boolean completed = true;
       if (lastSeenEdge.getSourceVertexId() == null) {
         lastSeenEdge.setSourceVertexId(v.getId());
       } else if (lastSeenEdge.getTargetVertexId() == null) {
         lastSeenEdge.setTargetVertexId(v.getId());
+      } else {
+        completed = false;
+      }
+      if (completed && statistics != null) {
+        statistics.addEdge(lastSeenEdge);
       }
     }
   }
@@ -20,10 +20,14 @@ import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.gradoop.gdl.model.predicates.Predicate;
 import org.gradoop.gdl.model.predicates.booleans.And;
 import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation.Relation;
 import org.gradoop.gdl.utils.Comparator;
-import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.IntervalExpression;
 import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
 import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.NowPoint;
+import org.gradoop.gdl.model.comparables.time.TimeAtom;
 import org.gradoop.gdl.model.comparables.time.TimeConstant;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
 import org.gradoop.gdl.model.comparables.time.TimePoint;
@@ -50,7 +54,7 @@ public class GDLLoaderTemporal {
     /**
      * Used as value for all "Now" literals in the query
      */
-    private final TimeLiteral nowLit;
+    private final NowPoint now;
 
     /**
      * Creates a new instance
@@ -60,7 +64,7 @@ public class GDLLoaderTemporal {
     public GDLLoaderTemporal(GDLLoader loader) {
         this.predicateStack = new ArrayDeque<>();
         this.loader = loader;
-        this.nowLit = new TimeLiteral("Now");
+        this.now = new NowPoint(loader.getClock());
     }
 
     /**
@@ -95,15 +99,17 @@ public class GDLLoaderTemporal {
     }
 
     /**
-     * Builds a TimeLiteral given a context.
+     * Builds a TimeLiteral given a context. {@code Now} is represented by a {@link NowPoint}
+     * that is resolved when the query is evaluated, {@code Infinity} and {@code -Infinity} by the
+     * open bound sentinels of {@link TimeLiteral}.
      *
      * @param ctx context containing the literal
-     * @return TimeLiteral
+     * @return TimeLiteral or NowPoint
      */
-    private TimeLiteral buildTimeLiteral(GDLParser.TimeLiteralContext ctx) {
+    private TimeAtom buildTimeLiteral(GDLParser.TimeLiteralContext ctx) {
         GDLParser.TimeStampContext stamp = ctx.timeStamp();
         if(stamp.getText().trim().equalsIgnoreCase("now")){
-            return new TimeLiteral(nowLit.getMilliseconds());
+            return now;
         } else{
             return new TimeLiteral(stamp.getText().trim());
         }
@@ -116,10 +122,10 @@ public class GDLLoaderTemporal {
      * @return TimeSelector
      */
     private TimeSelector buildTimeSelector(GDLParser.TimeSelectorContext ctx) {
-        boolean global = ctx.Identifier() == null;
+        boolean global = ctx.identifier() == null;
         // checks whether ID is even there (is a vertex or edge) and returns its variable
         String var = global ?
-            TimeSelector.GLOBAL_SELECTOR : loader.resolveIdentifier(ctx.Identifier().getText());
+            TimeSelector.GLOBAL_SELECTOR : loader.resolveIdentifier(ctx.identifier().getText());
         String field = ctx.TimeProp().getText();
         if(global){
             boolean tx = field.trim().startsWith("tx");
@@ -165,117 +171,101 @@ public class GDLLoaderTemporal {
     }
 
     /**
-     * Converts an interval function into a (complex) predicate
-     * For example, i.between(x,y) would be translated to a predicate ((i.from<= y) AND (i.to>x))
+     * Converts an interval function into a predicate.
+     * For example, i.between(x,y) would be translated to an {@link IntervalRelation}, or to the
+     * equivalent predicate ((i.from<= y) AND (i.to>x)) if interval relations are disabled.
      *
      * @param ctx interval function context
-     * @return complex predicate that encodes the interval function. Atoms are time stamp comparisons
+     * @return predicate that encodes the interval function
      */
     Predicate buildIntervalFunction(GDLParser.IntvFContext ctx) {
-        int predicateSizeBefore = predicateStack.size();
-        TimePoint[] intv = buildInterval(ctx.interval());
-        TimePoint from = intv[0];
-        TimePoint to = intv[1];
-        Predicate predicate = createIntervalPredicates(from, to, ctx.intervalFunc());
-        // additional constraints?
-        int countConstraints = predicateStack.size() - predicateSizeBefore;
-        for (int i = 0; i < countConstraints; i++) {
-            predicate = new And(predicate, predicateStack.removeFirst());
-        }
-        return predicate;
+        IntervalExpression interval = buildIntervalExpression(ctx.interval());
+        IntervalRelation relation = buildIntervalRelation(interval, ctx.intervalFunc());
+        return loader.useIntervalRelations() ? relation : relation.expand();
     }
 
     /**
-     * Creates a new predicate about an interval. There are different types of interval predicates/
+     * Creates a new relation of an interval. There are different types of interval relations/
      * functions: precedes, fromTo,...
      *
-     * @param from         represents the start time (from value) of the interval
-     * @param to           represents the end time (to value) of the interval
-     * @param intervalFunc contains the context information needed to create the correct predicate
-     * @return new predicate (according to {@code intervalFunc}) about the interval represented by
-     * {@code from} and {@code to}.
+     * @param interval     the calling interval
+     * @param intervalFunc contains the context information needed to create the correct relation
+     * @return new relation (according to {@code intervalFunc}) of the interval
      */
-    private Predicate createIntervalPredicates(TimePoint from, TimePoint to, GDLParser.IntervalFuncContext intervalFunc) {
+    private IntervalRelation buildIntervalRelation(IntervalExpression interval,
+                                                   GDLParser.IntervalFuncContext intervalFunc) {
         if (intervalFunc.overlapsIntervallOperator() != null) {
-            return createOverlapsPredicates(from, to, intervalFunc.overlapsIntervallOperator());
+            return new IntervalRelation(interval, Relation.OVERLAPS,
+                    buildIntervalExpression(intervalFunc.overlapsIntervallOperator().interval()));
         } else if (intervalFunc.fromToOperator() != null) {
-            return createFromToPredicates(from, to, intervalFunc.fromToOperator());
+            GDLParser.FromToOperatorContext ctx = intervalFunc.fromToOperator();
+            return new IntervalRelation(interval, Relation.FROM_TO,
+                    buildPointInterval(ctx.timePoint(0), ctx.timePoint(1)));
         } else if (intervalFunc.betweenOperator() != null) {
-            return createBetweenPredicates(from, to, intervalFunc.betweenOperator());
+            GDLParser.BetweenOperatorContext ctx = intervalFunc.betweenOperator();
+            return new IntervalRelation(interval, Relation.BETWEEN,
+                    buildPointInterval(ctx.timePoint(0), ctx.timePoint(1)));
         } else if (intervalFunc.precedesOperator() != null) {
-            return createPrecedesPredicates(to, intervalFunc.precedesOperator());
+            return new IntervalRelation(interval, Relation.PRECEDES,
+                    buildIntervalExpression(intervalFunc.precedesOperator().interval()));
         } else if (intervalFunc.succeedsOperator() != null) {
-            return createSucceedsPredicates(from, intervalFunc.succeedsOperator());
+            return new IntervalRelation(interval, Relation.SUCCEEDS,
+                    buildIntervalExpression(intervalFunc.succeedsOperator().interval()));
         } else if (intervalFunc.containsOperator() != null) {
-            return createContainsPredicates(from, to, intervalFunc.containsOperator());
+            GDLParser.ContainsOperatorContext ctx = intervalFunc.containsOperator();
+            IntervalExpression arg = ctx.interval() != null ?
+                    buildIntervalExpression(ctx.interval()) :
+                    buildPointInterval(ctx.timePoint(), null);
+            return new IntervalRelation(interval, Relation.CONTAINS, arg);
         } else if (intervalFunc.immediatelyPrecedesOperator() != null) {
-            return createImmediatelyPrecedesPredicates(to, intervalFunc.immediatelyPrecedesOperator());
+            return new IntervalRelation(interval, Relation.IMMEDIATELY_PRECEDES,
+                    buildIntervalExpression(intervalFunc.immediatelyPrecedesOperator().interval()));
         } else if (intervalFunc.immediatelySucceedsOperator() != null) {
-            return createImmediatelySucceedsPredicates(from, intervalFunc.immediatelySucceedsOperator());
+            return new IntervalRelation(interval, Relation.IMMEDIATELY_SUCCEEDS,
+                    buildIntervalExpression(intervalFunc.immediatelySucceedsOperator().interval()));
         } else if (intervalFunc.equalsOperator() != null) {
-            return createEqualsPredicates(from, to, intervalFunc.equalsOperator());
+            return new IntervalRelation(interval, Relation.EQUALS,
+                    buildIntervalExpression(intervalFunc.equalsOperator().interval()));
         } else if (intervalFunc.longerThanOperator() != null) {
-            return createLongerThanPredicates(from, to, intervalFunc.longerThanOperator());
+            GDLParser.LongerThanOperatorContext ctx = intervalFunc.longerThanOperator();
+            return buildLengthRelation(interval, Relation.LONGER_THAN, ctx.timeConstant(),
+                    ctx.interval());
         } else if (intervalFunc.shorterThanOperator() != null) {
-            return createShorterThanPredicates(from, to, intervalFunc.shorterThanOperator());
+            GDLParser.ShorterThanOperatorContext ctx = intervalFunc.shorterThanOperator();
+            return buildLengthRelation(interval, Relation.SHORTER_THAN, ctx.timeConstant(),
+                    ctx.interval());
         } else if (intervalFunc.lengthAtLeastOperator() != null) {
-            return createLengthAtLeastPredicates(from, to, intervalFunc.lengthAtLeastOperator());
+            GDLParser.LengthAtLeastOperatorContext ctx = intervalFunc.lengthAtLeastOperator();
+            return buildLengthRelation(interval, Relation.LENGTH_AT_LEAST, ctx.timeConstant(),
+                    ctx.interval());
         } else if (intervalFunc.lengthAtMostOperator() != null) {
-            return createLengthAtMostPredicates(from, to, intervalFunc.lengthAtMostOperator());
+            GDLParser.LengthAtMostOperatorContext ctx = intervalFunc.lengthAtMostOperator();
+            return buildLengthRelation(interval, Relation.LENGTH_AT_MOST, ctx.timeConstant(),
+                    ctx.interval());
         } else if(intervalFunc.asOfOperator() != null){
-            return createAsOfPredicates(from, to, intervalFunc.asOfOperator());
+            return new IntervalRelation(interval, Relation.AS_OF,
+                    buildPointInterval(intervalFunc.asOfOperator().timePoint(), null));
         }
         return null;
     }
 
     /**
-     * Creates a predicate a.overlaps(b)=max(a.from,b.from)<min(a.to,b.to)
-     *
-     * @param from the from value of the calling interval
-     * @param to   the to value of the calling interval
-     * @param ctx  the context containing the called interval
-     * @return overlaps predicate
-     */
-    private Predicate createOverlapsPredicates(TimePoint from, TimePoint to, GDLParser.OverlapsIntervallOperatorContext ctx) {
-        TimePoint[] arg = buildInterval(ctx.interval());
-        TimePoint arg_from = arg[0];
-        TimePoint arg_to = arg[1];
-        TimePoint mx = new MaxTimePoint(from, arg_from);
-        TimePoint mn = new MinTimePoint(to, arg_to);
-        return new Comparison(mx, Comparator.LT, mn);
-    }
-
-
-    /**
-     * Creates a predicate a.fromTo(x,y)= a.from<y AND a.to>x
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context of the call, containing x and y
-     * @return fromTo predicate
-     */
-    private Predicate createFromToPredicates(TimePoint from, TimePoint to, GDLParser.FromToOperatorContext ctx) {
-        TimePoint x = buildTimePoint(ctx.timePoint(0));
-        TimePoint y = buildTimePoint(ctx.timePoint(1));
-        return new And(
-          new Comparison(from, Comparator.LT, y),
-          new Comparison(to, Comparator.GT, x));
-    }
-
-    /**
-     * Creates a predicate a.between(x,y) = a.from<=y AND a.to>x
+     * Creates a relation that compares the length of an interval to a constant or to the
+     * length of another interval, e.g. {@code a.val.longerThan(Days(2))}
      *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context of the call, containing x and y
-     * @return between predicate
-     */
-    private Predicate createBetweenPredicates(TimePoint from, TimePoint to, GDLParser.BetweenOperatorContext ctx) {
-        TimePoint x = buildTimePoint(ctx.timePoint(0));
-        TimePoint y = buildTimePoint(ctx.timePoint(1));
-        return new And(
-          new Comparison(from, Comparator.LTE, y),
-          new Comparison(to, Comparator.GT, x));
+     * @param interval the calling interval
+     * @param relation the length comparison
+     * @param constant context of the constant, null if the argument is an interval
+     * @param arg      context of the interval, null if the argument is a constant
+     * @return length relation
+     */
+    private IntervalRelation buildLengthRelation(IntervalExpression interval, Relation relation,
+                                                 GDLParser.TimeConstantContext constant,
+                                                 GDLParser.IntervalContext arg) {
+        if (constant != null) {
+            return new IntervalRelation(interval, relation, buildTimeConstant(constant));
+        }
+        return new IntervalRelation(interval, relation, buildIntervalExpression(arg));
     }
 
     /**
@@ -293,19 +283,6 @@ public class GDLLoaderTemporal {
         return new Comparison(to, Comparator.LTE, arg_from);
     }
 
-    /**
-     * Creates a predicate a.immediatelyPrecedes(b) = (a.to == b.from).
-     *
-     * @param to  the time stamp of the caller to compare
-     * @param ctx the context containing the from value to be compared
-     * @return immediatelyPrecedes predicate
-     */
-    private Predicate createImmediatelyPrecedesPredicates(TimePoint to, GDLParser.ImmediatelyPrecedesOperatorContext ctx) {
-        TimePoint[] arg = buildInterval(ctx.interval());
-        TimePoint arg_from = arg[0];
-        return new Comparison(to, Comparator.EQ, arg_from);
-    }
-
     /**
      * Creates a predicate a.succeeds(b) = a >= b.
      * Function is used for interval and timestamp function {@code precedes}, as they both
@@ -321,187 +298,6 @@ public class GDLLoaderTemporal {
         return new Comparison(point, Comparator.GTE, arg_to);
     }
 
-    /**
-     * Creates a predicate a.immediatelySucceeds(b) = (a.from == b.to).
-     * Function is used for interval and timestamp function {@code precedes}, as they both
-     * only compare two time stamps
-     *
-     * @param from the from value of the caller interval
-     * @param ctx  the context containing the to value of the interval to be compared
-     * @return immediatelySucceeds predicate
-     */
-    private Predicate createImmediatelySucceedsPredicates(TimePoint from,
-                                                          GDLParser.ImmediatelySucceedsOperatorContext ctx) {
-        TimePoint[] arg = buildInterval(ctx.interval());
-        TimePoint arg_to = arg[1];
-        return new Comparison(from, Comparator.EQ, arg_to);
-    }
-
-    /**
-     * Creates a predicate a.contains(b) = a.from<=b.from AND a.to>=b.to
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context of the call, containing b
-     * @return contains predicate
-     */
-    private Predicate createContainsPredicates(TimePoint from, TimePoint to, GDLParser.ContainsOperatorContext ctx) {
-        if (ctx.interval() != null) {
-            TimePoint[] arg = buildInterval(ctx.interval());
-            TimePoint arg_from = arg[0];
-            TimePoint arg_to = arg[1];
-            return new And(
-              new Comparison(from, Comparator.LTE, arg_from),
-              new Comparison(to, Comparator.GTE, arg_to));
-        }
-        // argument is only a timestamp
-        else {
-            TimePoint arg = buildTimePoint(ctx.timePoint());
-            return new And(
-              new Comparison(from, Comparator.LTE, arg),
-              new Comparison(to, Comparator.GTE, arg));
-        }
-    }
-
-    /**
-     * Creates a predicate a.equals(b) = (a.from = b.from AND a.to = b.to).
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context containing the callee interval
-     * @return equals predicate
-     */
-    private Predicate createEqualsPredicates(TimePoint from, TimePoint to, GDLParser.EqualsOperatorContext ctx) {
-        TimePoint[] arg = buildInterval(ctx.interval());
-        TimePoint arg_from = arg[0];
-        TimePoint arg_to = arg[1];
-        return new And(
-          new Comparison(from, Comparator.EQ, arg_from),
-          new Comparison(to, Comparator.EQ, arg_to));
-    }
-
-    /**
-     * Creates a predicate a.longerThan(b) = (length(a) > length(b))
-     * Implicitly adds constraints that ensure that durations are always positive
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context containing the callee interval
-     * @return longerThan predicate
-     */
-    private Predicate createLongerThanPredicates(TimePoint from, TimePoint to, GDLParser.LongerThanOperatorContext ctx) {
-        Predicate durationPredicate;
-        Duration rhs = new Duration(from, to);
-        durationPredicate = new Comparison(from, Comparator.LTE, to);
-        if (ctx.timeConstant() != null) {
-            TimeConstant constant = buildTimeConstant(ctx.timeConstant());
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.GT, constant));
-        } else if (ctx.interval() != null) {
-            TimePoint[] interval = buildInterval(ctx.interval());
-            Duration lhs = new Duration(interval[0], interval[1]);
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(interval[0], Comparator.LTE, interval[1]));
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.GT, lhs));
-        }
-        return durationPredicate;
-    }
-
-    /**
-     * Creates a predicate a.shorterThan(b) = (length(a) < length(b))
-     * Implicitly adds constraints that ensure that durations are always positive
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context containing the callee interval
-     * @return shorterThan predicate
-     */
-    private Predicate createShorterThanPredicates(TimePoint from, TimePoint to, GDLParser.ShorterThanOperatorContext ctx) {
-        Predicate durationPredicate;
-        Duration rhs = new Duration(from, to);
-        durationPredicate = new Comparison(from, Comparator.LTE, to);
-        if (ctx.timeConstant() != null) {
-            TimeConstant constant = buildTimeConstant(ctx.timeConstant());
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.LT, constant));
-        } else if (ctx.interval() != null) {
-            TimePoint[] interval = buildInterval(ctx.interval());
-            Duration lhs = new Duration(interval[0], interval[1]);
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(interval[0], Comparator.LTE, interval[1]));
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.LT, lhs));
-        }
-        return durationPredicate;
-    }
-
-    /**
-     * Creates a predicate a.lengthAtLeast(b) = (length(a) >= length(b))
-     * Implicitly adds constraints that ensure that durations are always positive
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context containing the callee interval
-     * @return lengthAtLeast predicate
-     */
-    private Predicate createLengthAtLeastPredicates(TimePoint from, TimePoint to,
-                                                    GDLParser.LengthAtLeastOperatorContext ctx) {
-        Predicate durationPredicate;
-        Duration rhs = new Duration(from, to);
-        durationPredicate = new Comparison(from, Comparator.LTE, to);
-        if (ctx.timeConstant() != null) {
-            TimeConstant constant = buildTimeConstant(ctx.timeConstant());
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.GTE, constant));
-        } else if (ctx.interval() != null) {
-            TimePoint[] interval = buildInterval(ctx.interval());
-            Duration lhs = new Duration(interval[0], interval[1]);
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(interval[0], Comparator.LTE, interval[1]));
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.GTE, lhs));
-        }
-        return durationPredicate;
-    }
-
-    /**
-     * Creates a predicate a.lengthAtMost(b) = (length(a) <= length(b))
-     * Implicitly adds constraints that ensure that durations are always positive
-     *
-     * @param from from value of the calling interval
-     * @param to   to value of the calling interval
-     * @param ctx  context containing the callee interval
-     * @return lengthAtMost predicate
-     */
-    private Predicate createLengthAtMostPredicates(TimePoint from, TimePoint to,
-                                                   GDLParser.LengthAtMostOperatorContext ctx) {
-        Predicate durationPredicate;
-        Duration rhs = new Duration(from, to);
-        durationPredicate = new Comparison(from, Comparator.LTE, to);
-        if (ctx.timeConstant() != null) {
-            TimeConstant constant = buildTimeConstant(ctx.timeConstant());
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.LTE, constant));
-        } else if (ctx.interval() != null) {
-            TimePoint[] interval = buildInterval(ctx.interval());
-            Duration lhs = new Duration(interval[0], interval[1]);
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(interval[0], Comparator.LTE, interval[1]));
-            durationPredicate = new And(durationPredicate,
-                    new Comparison(rhs, Comparator.LTE, lhs));
-        }
-        return durationPredicate;
-    }
-
-    private Predicate createAsOfPredicates(TimePoint from, TimePoint to,
-                                           GDLParser.AsOfOperatorContext ctx){
-        TimePoint arg = buildTimePoint(ctx.timePoint());
-        return new And(
-            new Comparison(from, Comparator.LTE, arg),
-            new Comparison(arg, Comparator.LTE, to));
-    }
-
     /**
      * Creates a TimeConstant given a suitable context. Constants can be a constant number
      * of days ({@code Days(n)}), hours ({@code Hours(n)}), minutes ({@code Minutes(n)}),
@@ -527,116 +323,92 @@ public class GDLLoaderTemporal {
     }
 
     /**
-     * Creates an array {@code {from, to}} representing an interval.
+     * Creates an array {@code {from, to}} representing an interval. The implicit constraints of
+     * the interval are pushed to the predicate stack.
      *
      * @param ctx context from which to derive {@code from} and {@code to}
      * @return {@code {from, to}} representing an interval
      */
     private TimePoint[] buildInterval(GDLParser.IntervalContext ctx) {
+        IntervalExpression interval = buildIntervalExpression(ctx);
+        for (Comparison constraint : interval.getConstraints()) {
+            predicateStack.addFirst(constraint);
+        }
+        return new TimePoint[]{interval.getFrom(), interval.getTo()};
+    }
+
+    /**
+     * Creates an interval from an interval context. Custom intervals like
+     * {@code Interval(1970-01-01, 2020-01-01)} must be ordered.
+     *
+     * @param ctx context from which to derive the interval
+     * @return the interval
+     */
+    private IntervalExpression buildIntervalExpression(GDLParser.IntervalContext ctx) {
         if (ctx.intervalSelector() != null) {
-            GDLParser.IntervalSelectorContext selector = ctx.intervalSelector();
             // throws exception, if variable invalid
-            return buildIntervalFromSelector(selector);
+            return buildIntervalFromSelector(ctx.intervalSelector());
         } else if (ctx.intervalFromStamps() != null) {
             GDLParser.IntervalFromStampsContext fs = ctx.intervalFromStamps();
-            TimePoint[] intv = buildIntervalFromStamps(fs);
-            // custom interval: make sure that from <= to
-            predicateStack.addFirst(new Comparison(intv[0], Comparator.LTE, intv[1]));
-            return intv;
+            return new IntervalExpression(buildTimePoint(fs.timePoint(0)),
+                    buildTimePoint(fs.timePoint(1)), true);
         } else if (ctx.complexInterval() != null) {
-            GDLParser.ComplexIntervalArgumentContext arg1 = ctx.complexInterval()
-                    .complexIntervalArgument(0);
-            GDLParser.ComplexIntervalArgumentContext arg2 = ctx.complexInterval()
-                    .complexIntervalArgument(1);
-            boolean join = ctx.getText().contains(".join(");
-            return buildIntervalFromComplex(arg1, arg2, join);
+            IntervalExpression i1 = buildComplexIntervalArgument(
+                    ctx.complexInterval().complexIntervalArgument(0));
+            IntervalExpression i2 = buildComplexIntervalArgument(
+                    ctx.complexInterval().complexIntervalArgument(1));
+            return ctx.getText().contains(".join(") ? i1.join(i2) : i1.merge(i2);
         } else {
             throw new IllegalArgumentException("Can not parse two time points from the given interval ctx.");
         }
     }
 
     /**
-     * Creates an interval as an array {@code {from, to}} from a selector context.
+     * Creates an interval from a selector context.
      * I.e., a interval like {@code a.val} would result in {@code {a.val_from, a.val_to}}.
      * What is more, {@code val} results in {@code GLOBAL_SELECTOR.val_from, GLOBAL_SELECTOR.val_to}
+     * which must be ordered.
      *
      * @param ctx context from which to derive the interval
-     * @return {@code {from, to}} representing the interval
+     * @return the interval
      */
-    private TimePoint[] buildIntervalFromSelector(GDLParser.IntervalSelectorContext ctx) {
-        boolean global = ctx.Identifier() == null;
+    private IntervalExpression buildIntervalFromSelector(GDLParser.IntervalSelectorContext ctx) {
+        boolean global = ctx.identifier() == null;
         String var = global ?
-            TimeSelector.GLOBAL_SELECTOR : loader.resolveIdentifier(ctx.Identifier().getText());
-        String intId = ctx.IntervalConst().getText();
-        TimePoint from = new TimeSelector(var, intId + "_from");
-        TimePoint to = new TimeSelector(var, intId + "_to");
-        if(global){
-            // make sure that global from <= global to
-            predicateStack.addFirst(new Comparison(from, Comparator.LTE, to));
-        }
-        return new TimePoint[]{from, to};
+            TimeSelector.GLOBAL_SELECTOR : loader.resolveIdentifier(ctx.identifier().getText());
+        return IntervalExpression.of(var, ctx.IntervalConst().getText());
     }
 
     /**
-     * Creates an interval as an array {@code {from, to}} from a interval constant context.
-     * I.e., a interval like {@code Interval(1970-01-01, 2020-01-01)} would result in
-     * {@code {1970-01-01, 2020-01-01}}.
+     * Creates an argument of a {@code merge} or {@code join} expression. Custom intervals are not
+     * required to be ordered here, as the arguments of a merge or join must overlap or meet
+     * anyway.
      *
      * @param ctx context from which to derive the interval
-     * @return {@code {from, to}} representing the interval
+     * @return the interval
      */
-    private TimePoint[] buildIntervalFromStamps(GDLParser.IntervalFromStampsContext ctx) {
-        TimePoint from = buildTimePoint(ctx.timePoint(0));
-        TimePoint to = buildTimePoint(ctx.timePoint(1));
-        return new TimePoint[]{from, to};
+    private IntervalExpression buildComplexIntervalArgument(
+            GDLParser.ComplexIntervalArgumentContext ctx) {
+        if (ctx.intervalFromStamps() != null) {
+            GDLParser.IntervalFromStampsContext fs = ctx.intervalFromStamps();
+            return new IntervalExpression(buildTimePoint(fs.timePoint(0)),
+                    buildTimePoint(fs.timePoint(1)), false);
+        }
+        return buildIntervalFromSelector(ctx.intervalSelector());
     }
 
     /**
-     * Creates an interval as an array {@code {from, to}} from a complex interval context, i.e.
-     * {@code merge} and {@code join} expressions.
-     * An interval like {@code a.merge(b)} would result in {@code {max(a.from, b.from), min(a.to, b.to}}
-     * while {@code a.join(b)} results in {@code {min(a.from, b.from), max(a.to, b.to)}}.
-     * Furthermore, a constraint {max(a.from, b.from)<= min(a.to, b.to)} is added (intervals must overlap,
-     * in at least one ms)
+     * Creates an unconstrained interval from time point arguments of an interval function, e.g.
+     * {@code [x, y]} for {@code fromTo(x, y)} or {@code [x, x]} for {@code asOf(x)}.
      *
-     * @param arg1 context from which to derive the calling interval
-     * @param arg2 context from which to derive the callee interval
-     * @param join true iff join should be performed, false iff merge is desired
-     * @return {@code {from, to}} representing the interval
+     * @param from context of the start
+     * @param to   context of the end, null if the interval consists of {@code from} only
+     * @return the interval
      */
-    private TimePoint[] buildIntervalFromComplex(GDLParser.ComplexIntervalArgumentContext arg1,
-                                                 GDLParser.ComplexIntervalArgumentContext arg2,
-                                                 boolean join) {
-        TimePoint[] i1;
-        TimePoint[] i2;
-        if (arg1.intervalFromStamps() != null) {
-            i1 = buildIntervalFromStamps(arg1.intervalFromStamps());
-        } else {
-            i1 = buildIntervalFromSelector(arg1.intervalSelector());
-        }
-        if (arg2.intervalFromStamps() != null) {
-            i2 = buildIntervalFromStamps(arg2.intervalFromStamps());
-        } else {
-            i2 = buildIntervalFromSelector(arg2.intervalSelector());
-        }
-        // constraint: merge and join only when overlapping or meeting
-        Comparison constraint = new Comparison(
-                new MaxTimePoint(i1[0], i2[0]), Comparator.LTE, new MinTimePoint(i1[1], i2[1])
-        );
-        predicateStack.addFirst(constraint);
-        // now build complex interval from i1, i2
-        TimePoint start;
-        TimePoint end;
-        if (join) {
-            start = new MinTimePoint(i1[0], i2[0]);
-            end = new MaxTimePoint(i1[1], i2[1]);
-        }
-        // merge
-        else {
-            start = new MaxTimePoint(i1[0], i2[0]);
-            end = new MinTimePoint(i1[1], i2[1]);
-        }
-        return new TimePoint[]{start, end};
+    private IntervalExpression buildPointInterval(GDLParser.TimePointContext from,
+                                                  GDLParser.TimePointContext to) {
+        TimePoint start = buildTimePoint(from);
+        return new IntervalExpression(start, to == null ? start : buildTimePoint(to), false);
     }
 
     /**
@@ -704,10 +476,20 @@ public class GDLLoaderTemporal {
     }
 
     /**
-     * Returns the literal for all "Now" literals in the query
-     * @return literal for all "Now" literals in the query
+     * Returns the time point used for all "Now" literals in the query
+     * @return time point for all "Now" literals in the query
+     */
+    public NowPoint getNow(){
+        return now;
+    }
+
+    /**
+     * Returns the current value of "Now" as a literal
+     * @return literal holding the current time of the clock
+     * @deprecated "Now" is resolved at evaluation time, use {@link #getNow()}
      */
+    @Deprecated
     public TimeLiteral getNowLit(){
-        return nowLit;
+        return new TimeLiteral(now.currentMillis());
     }
 }
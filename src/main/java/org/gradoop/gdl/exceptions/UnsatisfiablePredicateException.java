@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.exceptions;
+
+import org.gradoop.gdl.model.predicates.Predicate;
+
+/**
+ * Raised when a query predicate can never be satisfied, regardless of the data it is evaluated on.
+ */
+public class UnsatisfiablePredicateException extends RuntimeException {
+
+  /**
+   * Creates a new exception
+   *
+   * @param predicate the predicate which was found to be unsatisfiable
+   */
+  public UnsatisfiablePredicateException(Predicate predicate) {
+    super("Predicate " + predicate + " can never be satisfied");
+  }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.comparables.time.TimeSelector.TimeField;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor.Range;
+import org.gradoop.gdl.utils.IntList;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Two-dimensional index over the transaction and valid time intervals of the elements of a
+ * {@link GraphIndex}, answering bitemporal window queries such as
+ * {@code a.tx.asOf(t) AND a.val.overlaps(Interval(x, y))}.
+ * <p>
+ * The {@code tx} and {@code val} intervals of an element form a rectangle, which is stored as the
+ * point {@code (val_from, val_to, tx_from, tx_to)}. Every conjunction of bounds on the four time
+ * fields, e.g. the ranges extracted by {@link TimeRangeExtractor}, is a box query on these points.
+ * The points are bulk loaded into a packed R-tree using Sort-Tile-Recursive (STR): they are sorted
+ * by the first field, cut into slabs, each slab is sorted by the next field and so on, and the
+ * resulting order is chunked into leaves of a fixed capacity. The tree is stored as flat arrays
+ * (the field values in leaf order and the bounding boxes of each level) instead of node objects.
+ * Nodes whose box lies within the query box are reported without checking their entries.
+ * <p>
+ * As in {@link TemporalIndex}, an element without a start (end) value is valid since (until)
+ * forever. The index does not reflect elements added to the graph index after its creation.
+ */
+public class BitemporalIndex {
+
+  /**
+   * Default number of entries of a leaf and children of an inner node
+   */
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  /**
+   * Number of time fields
+   */
+  private static final int FIELDS = TimeField.values().length;
+
+  /**
+   * The indexed graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Tree over the vertices
+   */
+  private final PackedTree vertexTree;
+
+  /**
+   * Tree over the edges
+   */
+  private final PackedTree edgeTree;
+
+  /**
+   * Creates an index over the current elements of a graph index.
+   *
+   * @param graph the graph index
+   */
+  public BitemporalIndex(GraphIndex graph) {
+    this(graph, DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * Creates an index over the current elements of a graph index.
+   *
+   * @param graph the graph index
+   * @param nodeCapacity number of entries of a leaf and children of an inner node
+   */
+  public BitemporalIndex(GraphIndex graph, int nodeCapacity) {
+    if (nodeCapacity < 2) {
+      throw new IllegalArgumentException("Node capacity must be at least 2: " + nodeCapacity);
+    }
+    this.graph = graph;
+    this.vertexTree = new PackedTree(graph.getVertexCount(), graph::getVertex, nodeCapacity);
+    this.edgeTree = new PackedTree(graph.getEdgeCount(), graph::getEdge, nodeCapacity);
+  }
+
+  /**
+   * Creates an index over all vertices and edges of a handler.
+   *
+   * @param handler the handler holding the data graph
+   * @return bitemporal index over the data graph
+   */
+  public static BitemporalIndex of(GDLHandler handler) {
+    return new BitemporalIndex(GraphIndex.of(handler));
+  }
+
+  /**
+   * Returns the indexed graph.
+   *
+   * @return graph index the positions refer to
+   */
+  public GraphIndex getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the positions of all vertices whose time values lie within the given ranges.
+   *
+   * @param window ranges of the time fields, missing fields are unbounded
+   * @return vertex positions
+   */
+  public BitSet findVertices(Map<TimeField, Range> window) {
+    return vertexTree.query(window);
+  }
+
+  /**
+   * Returns the positions of all edges whose time values lie within the given ranges.
+   *
+   * @param window ranges of the time fields, missing fields are unbounded
+   * @return edge positions
+   */
+  public BitSet findEdges(Map<TimeField, Range> window) {
+    return edgeTree.query(window);
+  }
+
+  /**
+   * Returns all elements whose time values lie within the given ranges. Edges are only
+   * contained if their source and target vertex are contained.
+   *
+   * @param window ranges of the time fields, missing fields are unbounded
+   * @return view of the elements within the window
+   */
+  public TemporalView window(Map<TimeField, Range> window) {
+    return TemporalView.of(graph, findVertices(window), findEdges(window));
+  }
+
+  /**
+   * Returns all elements {@code x} with {@code x.tx.asOf(txAsOf) AND x.val.asOf(valAsOf)}, i.e.
+   * the state of the world at {@code valAsOf} as recorded at {@code txAsOf}.
+   *
+   * @param txAsOf point in transaction time (UNIX epoch milliseconds)
+   * @param valAsOf point in valid time (UNIX epoch milliseconds)
+   * @return bitemporal snapshot view
+   */
+  public TemporalView snapshot(long txAsOf, long valAsOf) {
+    Map<TimeField, Range> window = new EnumMap<>(TimeField.class);
+    window.put(TimeField.TX_FROM, new Range(Long.MIN_VALUE, txAsOf));
+    window.put(TimeField.TX_TO, new Range(txAsOf, Long.MAX_VALUE));
+    window.put(TimeField.VAL_FROM, new Range(Long.MIN_VALUE, valAsOf));
+    window.put(TimeField.VAL_TO, new Range(valAsOf, Long.MAX_VALUE));
+    return window(window);
+  }
+
+  /**
+   * Returns the candidates of a query variable according to the time ranges implied by the query
+   * predicate, see {@link QueryGraph#getTimeRanges()}. The candidates are a superset of the
+   * elements that can be bound to the variable, other conditions (e.g. labels) are not applied.
+   *
+   * @param query the query
+   * @param variable variable id
+   * @return candidate positions in ascending order
+   */
+  public IntList getCandidates(QueryGraph query, int variable) {
+    TimeRangeExtractor.TimeRanges ranges = query.getTimeRanges();
+    IntList candidates = new IntList();
+    if (!ranges.isSatisfiable()) {
+      return candidates;
+    }
+    Map<TimeField, Range> window = ranges.getRanges(query.getElement(variable).getVariable());
+    BitSet positions = query.isEdge(variable) ? findEdges(window) : findVertices(window);
+    for (int p = positions.nextSetBit(0); p >= 0; p = positions.nextSetBit(p + 1)) {
+      candidates.add(p);
+    }
+    return candidates;
+  }
+
+  @Override
+  public String toString() {
+    return "BitemporalIndex{vertices=" + vertexTree + ", edges=" + edgeTree + "}";
+  }
+
+  /**
+   * STR packed R-tree over the time values of the vertices or edges
+   */
+  private static final class PackedTree {
+
+    /**
+     * Number of entries of a leaf and children of an inner node
+     */
+    private final int capacity;
+
+    /**
+     * Element positions in leaf order
+     */
+    private final int[] order;
+
+    /**
+     * Time values in leaf order, indexed by field ordinal
+     */
+    private final long[][] values;
+
+    /**
+     * Bounding boxes of the nodes, indexed by level (0 = leaves), {@code 2 * field} for the
+     * minimum and {@code 2 * field + 1} for the maximum of a field, and node
+     */
+    private final long[][][] bounds;
+
+    /**
+     * Number of entries below a node, by level
+     */
+    private final long[] spans;
+
+    /**
+     * Loads the time values of some elements and packs them.
+     *
+     * @param count number of elements
+     * @param elements returns the element at a position
+     * @param capacity number of entries of a leaf and children of an inner node
+     */
+    PackedTree(int count, IntFunction<? extends GraphElement> elements, int capacity) {
+      this.capacity = capacity;
+      TimeField[] fields = TimeField.values();
+      long[][] raw = new long[FIELDS][count];
+      for (int i = 0; i < count; i++) {
+        GraphElement element = elements.apply(i);
+        for (TimeField field : fields) {
+          boolean start = field == TimeField.TX_FROM || field == TimeField.VAL_FROM;
+          raw[field.ordinal()][i] = TimeProperties.getTime(element, field)
+            .orElse(start ? Long.MIN_VALUE : Long.MAX_VALUE);
+        }
+      }
+      this.order = new int[count];
+      for (int i = 0; i < count; i++) {
+        order[i] = i;
+      }
+      tile(raw, 0, count, 0);
+      this.values = new long[FIELDS][count];
+      for (int f = 0; f < FIELDS; f++) {
+        for (int i = 0; i < count; i++) {
+          values[f][i] = raw[f][order[i]];
+        }
+      }
+
+      List<long[][]> levels = new ArrayList<>();
+      List<Long> levelSpans = new ArrayList<>();
+      int nodes = ceilDiv(count, capacity);
+      long span = capacity;
+      while (nodes > 0) {
+        long[][] level = new long[2 * FIELDS][nodes];
+        long[][] below = levels.isEmpty() ? null : levels.get(levels.size() - 1);
+        for (int node = 0; node < nodes; node++) {
+          // children are entries on the leaf level and nodes of the level below otherwise
+          int first = node * capacity;
+          int last = Math.min(first + capacity, below == null ? count : below[0].length);
+          for (int f = 0; f < FIELDS; f++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int child = first; child < last; child++) {
+              min = Math.min(min, below == null ? values[f][child] : below[2 * f][child]);
+              max = Math.max(max, below == null ? values[f][child] : below[2 * f + 1][child]);
+            }
+            level[2 * f][node] = min;
+            level[2 * f + 1][node] = max;
+          }
+        }
+        levels.add(level);
+        levelSpans.add(span);
+        if (nodes == 1) {
+          break;
+        }
+        nodes = ceilDiv(nodes, capacity);
+        span *= capacity;
+      }
+      this.bounds = levels.toArray(new long[0][][]);
+      this.spans = new long[levelSpans.size()];
+      for (int i = 0; i < spans.length; i++) {
+        spans[i] = levelSpans.get(i);
+      }
+    }
+
+    /**
+     * Sorts a range of the element order by a field and recursively tiles it into slabs that
+     * are sorted by the following fields.
+     *
+     * @param raw time values by field and position
+     * @param from first index of the range
+     * @param to end index of the range, exclusive
+     * @param field ordinal of the field to sort by
+     */
+    private void tile(long[][] raw, int from, int to, int field) {
+      int count = to - from;
+      if (count <= capacity) {
+        return;
+      }
+      long[] keys = new long[count];
+      for (int i = 0; i < count; i++) {
+        keys[i] = raw[field][order[from + i]];
+      }
+      int[] sorted = TemporalJoin.sortedOrder(keys, count);
+      int[] positions = new int[count];
+      for (int i = 0; i < count; i++) {
+        positions[i] = order[from + sorted[i]];
+      }
+      System.arraycopy(positions, 0, order, from, count);
+      if (field == FIELDS - 1) {
+        return;
+      }
+      int leaves = ceilDiv(count, capacity);
+      int slabs = (int) Math.ceil(Math.pow(leaves, 1.0 / (FIELDS - field)));
+      int slabSize = ceilDiv(leaves, slabs) * capacity;
+      for (int start = from; start < to; start += slabSize) {
+        tile(raw, start, Math.min(start + slabSize, to), field + 1);
+      }
+    }
+
+    /**
+     * Returns the positions of all elements within a window.
+     *
+     * @param window ranges of the time fields, missing fields are unbounded
+     * @return element positions
+     */
+    BitSet query(Map<TimeField, Range> window) {
+      BitSet result = new BitSet(order.length);
+      long[] lower = new long[FIELDS];
+      long[] upper = new long[FIELDS];
+      for (TimeField field : TimeField.values()) {
+        Range range = window.getOrDefault(field, Range.UNBOUNDED);
+        if (range.isEmpty()) {
+          return result;
+        }
+        lower[field.ordinal()] = range.getLower();
+        upper[field.ordinal()] = range.getUpper();
+      }
+      if (bounds.length > 0) {
+        visit(bounds.length - 1, 0, lower, upper, result);
+      }
+      return result;
+    }
+
+    /**
+     * Adds the elements of a node that lie within a window.
+     *
+     * @param level level of the node
+     * @param node index of the node within its level
+     * @param lower lower bounds of the window by field
+     * @param upper upper bounds of the window by field
+     * @param result positions of the elements within the window
+     */
+    private void visit(int level, int node, long[] lower, long[] upper, BitSet result) {
+      long[][] box = bounds[level];
+      boolean contained = true;
+      for (int f = 0; f < FIELDS; f++) {
+        long min = box[2 * f][node];
+        long max = box[2 * f + 1][node];
+        if (max < lower[f] || min > upper[f]) {
+          return;
+        }
+        contained &= lower[f] <= min && max <= upper[f];
+      }
+      int first = (int) Math.min(node * spans[level], order.length);
+      int last = (int) Math.min(first + spans[level], order.length);
+      if (contained) {
+        for (int i = first; i < last; i++) {
+          result.set(order[i]);
+        }
+      } else if (level == 0) {
+        entries:
+        for (int i = first; i < last; i++) {
+          for (int f = 0; f < FIELDS; f++) {
+            if (values[f][i] < lower[f] || values[f][i] > upper[f]) {
+              continue entries;
+            }
+          }
+          result.set(order[i]);
+        }
+      } else {
+        int end = Math.min((node + 1) * capacity, bounds[level - 1][0].length);
+        for (int child = node * capacity; child < end; child++) {
+          visit(level - 1, child, lower, upper, result);
+        }
+      }
+    }
+
+    /**
+     * Divides and rounds up.
+     *
+     * @param dividend non-negative dividend
+     * @param divisor positive divisor
+     * @return dividend / divisor, rounded up
+     */
+    private static int ceilDiv(int dividend, int divisor) {
+      return (dividend + divisor - 1) / divisor;
+    }
+
+    @Override
+    public String toString() {
+      return "PackedTree{entries=" + order.length + ", levels=" + bounds.length + "}";
+    }
+  }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.statistics.GraphStatistics;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates {@link MatchPlan}s that minimize the estimated number of intermediate results.
+ * <p>
+ * The cardinality of a set of bound variables is estimated from {@link GraphStatistics}: each
+ * vertex variable contributes the number of vertices with its label, each edge variable the number
+ * of edges between vertices with the labels of its endpoints, divided by the number of vertices
+ * with the label of each bound endpoint. Single-variable conjuncts comparing a property with a
+ * constant are estimated from the property statistics, all other conjuncts with a fixed
+ * selectivity. The cost of a binding order is the sum of the cardinalities after each step plus the
+ * number of elements read by scans of variables that are not connected to a bound variable. Since
+ * the cardinality only depends on the set of bound variables, the cheapest order is found by
+ * dynamic programming over all subsets of variables. Queries with more than
+ * {@link #MAX_DP_VARIABLES} variables are planned greedily.
+ * <p>
+ * Plans are left-deep, i.e. a binding order as followed by {@link GDLMatcher}, and annotated
+ * with the estimated cardinality after each step.
+ */
+public class CostBasedPlanner {
+
+  /**
+   * Maximum number of variables planned by dynamic programming
+   */
+  public static final int MAX_DP_VARIABLES = 16;
+
+  /**
+   * Selectivity of equality conjuncts without statistics
+   */
+  static final double EQUALITY_SELECTIVITY = 0.1;
+
+  /**
+   * Selectivity of all other conjuncts without statistics
+   */
+  static final double DEFAULT_SELECTIVITY = 1.0 / 3;
+
+  /**
+   * Statistics of the data graph
+   */
+  private final GraphStatistics statistics;
+
+  /**
+   * Creates a planner.
+   *
+   * @param statistics statistics of the data graph
+   */
+  public CostBasedPlanner(GraphStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Creates a planner for an indexed data graph by computing its statistics.
+   *
+   * @param graph the data graph
+   * @return planner
+   */
+  public static CostBasedPlanner of(GraphIndex graph) {
+    GraphStatistics statistics = new GraphStatistics();
+    for (int i = 0; i < graph.getVertexCount(); i++) {
+      statistics.addVertex(graph.getVertex(i));
+    }
+    for (int i = 0; i < graph.getEdgeCount(); i++) {
+      statistics.addEdge(graph.getEdge(i));
+    }
+    return new CostBasedPlanner(statistics);
+  }
+
+  /**
+   * Plans a query.
+   *
+   * @param query the query
+   * @return plan with the lowest estimated cost
+   */
+  public MatchPlan plan(QueryGraph query) {
+    Estimator estimator = new Estimator(query);
+    int[] order = query.size() <= MAX_DP_VARIABLES ?
+      dynamicProgramming(estimator, query) : greedy(estimator, query.size());
+
+    double[] estimates = new double[order.length];
+    BitSet bound = new BitSet(order.length);
+    double cardinality = 1;
+    for (int i = 0; i < order.length; i++) {
+      cardinality *= estimator.factor(order[i], bound);
+      bound.set(order[i]);
+      estimates[i] = cardinality;
+    }
+    return new MatchPlan(query, order, estimates);
+  }
+
+  /**
+   * Estimates the number of embeddings of a query.
+   *
+   * @param query the query
+   * @return estimated number of embeddings
+   */
+  public double estimateCardinality(QueryGraph query) {
+    Estimator estimator = new Estimator(query);
+    BitSet bound = new BitSet(query.size());
+    double cardinality = 1;
+    for (int variable = 0; variable < query.size(); variable++) {
+      cardinality *= estimator.factor(variable, bound);
+      bound.set(variable);
+    }
+    return cardinality;
+  }
+
+  /**
+   * Finds the cheapest order by dynamic programming over all subsets of variables.
+   *
+   * @param estimator cardinality estimator
+   * @param query the query
+   * @return cheapest binding order
+   */
+  private static int[] dynamicProgramming(Estimator estimator, QueryGraph query) {
+    int size = query.size();
+    int subsets = 1 << size;
+    int[] neighbours = new int[size];
+    for (int edge = query.getVertexCount(); edge < size; edge++) {
+      int endpoints = (1 << query.getSource(edge)) | (1 << query.getTarget(edge));
+      neighbours[edge] = endpoints;
+      neighbours[query.getSource(edge)] |= 1 << edge;
+      neighbours[query.getTarget(edge)] |= 1 << edge;
+    }
+    double[] cardinalities = new double[subsets];
+    double[] costs = new double[subsets];
+    int[] last = new int[subsets];
+    cardinalities[0] = 1;
+    BitSet bound = new BitSet(size);
+    for (int subset = 1; subset < subsets; subset++) {
+      // the cardinality only depends on the set, derive it from the subset without the top bit
+      int top = 31 - Integer.numberOfLeadingZeros(subset);
+      int rest = subset & ~(1 << top);
+      bound.clear();
+      for (int v = 0; v < top; v++) {
+        if ((rest & (1 << v)) != 0) {
+          bound.set(v);
+        }
+      }
+      cardinalities[subset] = cardinalities[rest] * estimator.factor(top, bound);
+
+      costs[subset] = Double.POSITIVE_INFINITY;
+      for (int v = 0; v < size; v++) {
+        int previous = subset ^ (1 << v);
+        if ((subset & (1 << v)) == 0) {
+          continue;
+        }
+        double cost = costs[previous] +
+          ((neighbours[v] & previous) == 0 ? estimator.scanCost(v) : 0);
+        if (cost < costs[subset]) {
+          costs[subset] = cost;
+          last[subset] = v;
+        }
+      }
+      costs[subset] += cardinalities[subset];
+    }
+
+    int[] order = new int[size];
+    int subset = subsets - 1;
+    for (int i = size - 1; i >= 0; i--) {
+      order[i] = last[subset];
+      subset ^= 1 << order[i];
+    }
+    return order;
+  }
+
+  /**
+   * Orders the variables greedily, always binding the variable that leads to the smallest
+   * cardinality.
+   *
+   * @param estimator cardinality estimator
+   * @param size number of variables
+   * @return binding order
+   */
+  private static int[] greedy(Estimator estimator, int size) {
+    int[] order = new int[size];
+    BitSet bound = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      int next = -1;
+      double nextFactor = Double.POSITIVE_INFINITY;
+      for (int v = bound.nextClearBit(0); v < size; v = bound.nextClearBit(v + 1)) {
+        double factor = estimator.factor(v, bound) +
+          (estimator.isConnected(v, bound) ? 0 : estimator.scanCost(v));
+        if (next < 0 || factor < nextFactor) {
+          next = v;
+          nextFactor = factor;
+        }
+      }
+      order[i] = next;
+      bound.set(next);
+    }
+    return order;
+  }
+
+  /**
+   * Estimates the cardinality of sets of bound variables of a query
+   */
+  private class Estimator {
+
+    /**
+     * The query
+     */
+    private final QueryGraph query;
+
+    /**
+     * Number of elements with the label of each variable
+     */
+    private final double[] counts;
+
+    /**
+     * Estimated number of candidates of each variable on its own, i.e. the count reduced by
+     * the selectivity of its conjuncts
+     */
+    private final double[] sizes;
+
+    /**
+     * Variables of conjuncts referencing more than one variable
+     */
+    private final List<BitSet> joinVariables = new ArrayList<>();
+
+    /**
+     * Selectivity of each entry of {@link #joinVariables}
+     */
+    private final List<Double> joinSelectivities = new ArrayList<>();
+
+    /**
+     * Creates an estimator for a query.
+     *
+     * @param query the query
+     */
+    Estimator(QueryGraph query) {
+      this.query = query;
+      this.counts = new double[query.size()];
+      for (int variable = 0; variable < query.size(); variable++) {
+        String label = query.getLabel(variable);
+        if (query.isEdge(variable)) {
+          counts[variable] = statistics.getEdgeCount(query.getLabel(query.getSource(variable)),
+            label, query.getLabel(query.getTarget(variable)));
+        } else {
+          counts[variable] = statistics.getVertexCount(label);
+        }
+      }
+      this.sizes = counts.clone();
+      for (Map.Entry<BitSet, List<Predicate>> group :
+        query.getConjuncts().getConjunctsByVariables().entrySet()) {
+        BitSet variables = group.getKey();
+        if (variables.cardinality() == 1) {
+          int variable = variables.nextSetBit(0);
+          for (Predicate conjunct : group.getValue()) {
+            sizes[variable] *= selectivity(conjunct, variable);
+          }
+        } else if (variables.cardinality() > 1) {
+          double selectivity = 1;
+          for (Predicate conjunct : group.getValue()) {
+            selectivity *= defaultSelectivity(conjunct);
+          }
+          joinVariables.add(variables);
+          joinSelectivities.add(selectivity);
+        }
+      }
+    }
+
+    /**
+     * Returns the factor by which the cardinality of a set of bound variables changes when a
+     * variable is bound additionally.
+     *
+     * @param variable the variable to bind
+     * @param bound the bound variables, not containing the variable
+     * @return cardinality factor
+     */
+    double factor(int variable, BitSet bound) {
+      double factor = sizes[variable];
+      if (query.isEdge(variable)) {
+        int source = query.getSource(variable);
+        int target = query.getTarget(variable);
+        if (bound.get(source)) {
+          factor /= counts[source];
+        }
+        if (target != source && bound.get(target)) {
+          factor /= counts[target];
+        }
+      } else {
+        IntList incidentEdges = query.getIncidentEdges(variable);
+        for (int i = 0; i < incidentEdges.size(); i++) {
+          int edge = incidentEdges.get(i);
+          if (bound.get(edge)) {
+            factor /= counts[variable];
+          }
+        }
+      }
+      for (int i = 0; i < joinVariables.size(); i++) {
+        BitSet variables = joinVariables.get(i);
+        if (variables.get(variable) && containsAllBut(bound, variables, variable)) {
+          factor *= joinSelectivities.get(i);
+        }
+      }
+      return Double.isNaN(factor) ? 0 : factor;
+    }
+
+    /**
+     * Returns the number of elements read by a scan of a variable, i.e. the number of elements
+     * with its label.
+     *
+     * @param variable the variable
+     * @return number of scanned elements
+     */
+    double scanCost(int variable) {
+      String label = query.getLabel(variable);
+      return query.isEdge(variable) ?
+        statistics.getEdgeCount(label) : statistics.getVertexCount(label);
+    }
+
+    /**
+     * Checks whether a variable is connected to a bound variable, i.e. whether its candidates
+     * can be derived from a bound variable instead of a scan.
+     *
+     * @param variable the variable
+     * @param bound the bound variables
+     * @return true iff the variable is an endpoint or incident edge of a bound variable
+     */
+    boolean isConnected(int variable, BitSet bound) {
+      if (query.isEdge(variable)) {
+        return bound.get(query.getSource(variable)) || bound.get(query.getTarget(variable));
+      }
+      IntList incidentEdges = query.getIncidentEdges(variable);
+      for (int i = 0; i < incidentEdges.size(); i++) {
+        if (bound.get(incidentEdges.get(i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Checks whether all variables of a set but one are bound.
+     *
+     * @param bound the bound variables
+     * @param variables the set
+     * @param except the variable that is not required to be bound
+     * @return true iff all variables except {@code except} are bound
+     */
+    private boolean containsAllBut(BitSet bound, BitSet variables, int except) {
+      for (int v = variables.nextSetBit(0); v >= 0; v = variables.nextSetBit(v + 1)) {
+        if (v != except && !bound.get(v)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Estimates the selectivity of a conjunct referencing a single variable.
+     *
+     * @param conjunct the conjunct
+     * @param variable the variable
+     * @return estimated selectivity
+     */
+    private double selectivity(Predicate conjunct, int variable) {
+      String label = query.getLabel(variable);
+      if (!(conjunct instanceof Comparison) || label == null) {
+        return defaultSelectivity(conjunct);
+      }
+      Comparison comparison = (Comparison) conjunct;
+      ComparableExpression lhs = comparison.getLhs();
+      ComparableExpression rhs = comparison.getRhs();
+      Comparator comparator = comparison.getComparator();
+      if (lhs instanceof Literal && rhs instanceof PropertySelector) {
+        comparison = comparison.switchSides();
+        lhs = comparison.getLhs();
+        rhs = comparison.getRhs();
+        comparator = comparison.getComparator();
+      }
+      if (!(lhs instanceof PropertySelector) || !(rhs instanceof Literal)) {
+        return defaultSelectivity(conjunct);
+      }
+      String key = ((PropertySelector) lhs).getPropertyName();
+      if (QueryGraph.LABEL_PROPERTY.equals(key)) {
+        // already part of the label count
+        return 1;
+      }
+      Object value = ((Literal) rhs).getValue();
+      return query.isEdge(variable) ?
+        statistics.estimateEdgeSelectivity(label, key, comparator, value) :
+        statistics.estimateVertexSelectivity(label, key, comparator, value);
+    }
+
+    /**
+     * Returns the selectivity of a conjunct without statistics.
+     *
+     * @param conjunct the conjunct
+     * @return fixed selectivity depending on the comparator
+     */
+    private double defaultSelectivity(Predicate conjunct) {
+      return conjunct instanceof Comparison &&
+        ((Comparison) conjunct).getComparator() == Comparator.EQ ?
+        EQUALITY_SELECTIVITY : DEFAULT_SELECTIVITY;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.Vertex;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A match of a query, i.e. a binding of every query variable to a data vertex or edge.
+ */
+public class Embedding {
+
+  /**
+   * The matched query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Element position bound to each variable
+   */
+  private final int[] positions;
+
+  /**
+   * Creates a new embedding
+   *
+   * @param query the matched query
+   * @param graph the data graph
+   * @param positions element position bound to each variable
+   */
+  public Embedding(QueryGraph query, GraphIndex graph, int[] positions) {
+    this.query = query;
+    this.graph = graph;
+    this.positions = positions;
+  }
+
+  /**
+   * Returns the element position bound to a variable.
+   *
+   * @param variable variable id
+   * @return element position in the data graph
+   */
+  public int getPosition(int variable) {
+    return positions[variable];
+  }
+
+  /**
+   * Returns the vertex bound to a vertex variable.
+   *
+   * @param variable the variable
+   * @return bound vertex
+   */
+  public Vertex getVertex(String variable) {
+    return (Vertex) getElement(variable);
+  }
+
+  /**
+   * Returns the edge bound to an edge variable.
+   *
+   * @param variable the variable
+   * @return bound edge
+   */
+  public Edge getEdge(String variable) {
+    return (Edge) getElement(variable);
+  }
+
+  /**
+   * Returns the element bound to a variable.
+   *
+   * @param variable the variable
+   * @return bound vertex or edge
+   * @throws IllegalArgumentException if the variable is not part of the query
+   */
+  public GraphElement getElement(String variable) {
+    int id = query.getDictionary().lookup(variable);
+    if (id < 0) {
+      throw new IllegalArgumentException("Unknown variable: " + variable);
+    }
+    return getElement(id);
+  }
+
+  /**
+   * Returns the element bound to a variable.
+   *
+   * @param variable variable id
+   * @return bound vertex or edge
+   */
+  public GraphElement getElement(int variable) {
+    return query.isEdge(variable) ?
+      graph.getEdge(positions[variable]) : graph.getVertex(positions[variable]);
+  }
+
+  /**
+   * Returns the bound elements by variable.
+   *
+   * @return mapping from variables to elements
+   */
+  public Map<String, GraphElement> toMap() {
+    Map<String, GraphElement> map = new LinkedHashMap<>();
+    for (int variable = 0; variable < positions.length; variable++) {
+      map.put(query.getDictionary().getVariable(variable), getElement(variable));
+    }
+    return map;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Embedding that = (Embedding) o;
+    return query == that.query && graph == that.graph && Arrays.equals(positions, that.positions);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(positions);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int variable = 0; variable < positions.length; variable++) {
+      if (variable > 0) {
+        sb.append(", ");
+      }
+      sb.append(query.getDictionary().getVariable(variable)).append('=')
+        .append(getElement(variable).getId());
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,985 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.exceptions.UnsatisfiablePredicateException;
+import org.gradoop.gdl.model.QueryMode;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.booleans.Or;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.optimizer.PredicateOptimizer;
+import org.gradoop.gdl.statistics.GraphStatistics;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Matches the MATCH query of one {@link GDLHandler} against the data graph of another.
+ * <p>
+ * Embeddings are enumerated lazily by a backtracking search that follows a {@link MatchPlan}:
+ * each step binds one variable to a candidate taken from the label or adjacency index of a
+ * {@link GraphIndex}, checks the structure of the pattern and evaluates all conjuncts of the
+ * query predicate that became applicable.
+ * <p>
+ * By default, distinct vertex variables may be bound to the same vertex (homomorphism), while
+ * distinct edge variables must be bound to distinct edges (isomorphism).
+ * <p>
+ * Every variable is bound to a single element, queries with variable length edges like
+ * {@code [*1..3]} are rejected, see {@link QueryGraph#checkFixedLength()}.
+ * <p>
+ * The parallel methods partition the candidates of the first step of the plan across a
+ * {@link ForkJoinPool}. Every task runs its own search with its own {@link PartialMatch}, i.e.
+ * the evaluation state is confined to a thread. If a single candidate leads to many candidates
+ * in the next step, e.g. a high-degree vertex, the search below it is split again so that idle
+ * workers can steal parts of it.
+ * <p>
+ * The clock of {@code Timestamp(Now)} is read once when a search starts, all embeddings and
+ * tasks of the search are evaluated with this value.
+ */
+public class GDLMatcher implements Iterable<Embedding> {
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Plan followed by the search
+   */
+  private MatchPlan plan;
+
+  /**
+   * Statistics of the data graph, null if the default plan is created greedily
+   */
+  private GraphStatistics statistics;
+
+  /**
+   * Number of candidates of a step below a single candidate of the previous step from which the
+   * parallel search splits the step
+   */
+  static final int SPLIT_THRESHOLD = 256;
+
+  /**
+   * Number of tasks per worker the first step is initially split into
+   */
+  private static final int TASKS_PER_WORKER = 8;
+
+  /**
+   * Semantics for vertex variables
+   */
+  private MatchStrategy vertexStrategy = MatchStrategy.HOMOMORPHISM;
+
+  /**
+   * Semantics for edge variables
+   */
+  private MatchStrategy edgeStrategy = MatchStrategy.ISOMORPHISM;
+
+  /**
+   * How the query is to be executed
+   */
+  private QueryMode queryMode = QueryMode.EXECUTE;
+
+  /**
+   * Creates a matcher for the query of a handler and the data graph of another handler. If the
+   * data handler collected statistics, the default plan is created by a
+   * {@link CostBasedPlanner}.
+   *
+   * @param query handler holding the MATCH query
+   * @param data handler holding the data graph
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public GDLMatcher(GDLHandler query, GDLHandler data) {
+    this(new QueryGraph(query), GraphIndex.of(data));
+    this.statistics = data.getStatistics().orElse(null);
+    this.queryMode = query.getQueryMode();
+  }
+
+  /**
+   * Creates a matcher for a query and an indexed data graph.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public GDLMatcher(QueryGraph query, GraphIndex graph) {
+    query.checkFixedLength();
+    this.query = query;
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the semantics for both vertex and edge variables.
+   *
+   * @param strategy match strategy
+   * @return this matcher
+   */
+  public GDLMatcher setMatchStrategy(MatchStrategy strategy) {
+    return setMatchStrategy(strategy, strategy);
+  }
+
+  /**
+   * Sets the semantics for vertex and edge variables.
+   *
+   * @param vertexStrategy match strategy for vertex variables
+   * @param edgeStrategy match strategy for edge variables
+   * @return this matcher
+   */
+  public GDLMatcher setMatchStrategy(MatchStrategy vertexStrategy, MatchStrategy edgeStrategy) {
+    this.vertexStrategy = vertexStrategy;
+    this.edgeStrategy = edgeStrategy;
+    return this;
+  }
+
+  /**
+   * Sets the plan to follow. By default, a {@link MatchPlan#greedy greedy} plan is used, or a
+   * {@link CostBasedPlanner cost-based} one if statistics of the data graph are available.
+   *
+   * @param plan plan for the query of this matcher
+   * @return this matcher
+   */
+  public GDLMatcher setPlan(MatchPlan plan) {
+    if (plan.getQuery() != query) {
+      throw new IllegalArgumentException("The plan was created for another query");
+    }
+    this.plan = plan;
+    return this;
+  }
+
+  /**
+   * Returns the plan followed by the search.
+   *
+   * @return match plan
+   */
+  public MatchPlan getPlan() {
+    if (plan == null) {
+      plan = statistics != null ?
+        new CostBasedPlanner(statistics).plan(query) : MatchPlan.greedy(query, graph);
+    }
+    return plan;
+  }
+
+  /**
+   * Returns how the query is to be executed, i.e. whether it was prefixed by {@code EXPLAIN} or
+   * {@code PROFILE}. The mode is only a hint for callers, all methods can be used in any mode.
+   *
+   * @return query mode
+   */
+  public QueryMode getQueryMode() {
+    return queryMode;
+  }
+
+  /**
+   * Describes how the query is evaluated without running it: the normalized predicate tree (see
+   * {@link PredicateOptimizer}) and the plan with its estimated cardinalities.
+   *
+   * @return description of the query evaluation
+   */
+  public String explain() {
+    StringBuilder sb = new StringBuilder("Predicate:\n");
+    Optional<Predicate> predicate = query.getPredicate();
+    if (!predicate.isPresent()) {
+      sb.append("  none\n");
+    } else {
+      try {
+        Optional<Predicate> normalized = PredicateOptimizer.optimize(predicate.get());
+        if (normalized.isPresent()) {
+          appendPredicate(sb, normalized.get(), 1);
+        } else {
+          sb.append("  true\n");
+        }
+      } catch (UnsatisfiablePredicateException e) {
+        sb.append("  unsatisfiable: ").append(e.getMessage()).append('\n');
+      }
+    }
+    MatchPlan matchPlan = getPlan();
+    sb.append("Plan:\n").append(matchPlan);
+    matchPlan.getEstimatedCost().ifPresent(
+      cost -> sb.append(String.format("Estimated cost: %.1f\n", cost)));
+    return sb.toString();
+  }
+
+  /**
+   * Appends a predicate as indented tree. Nested conjunctions and disjunctions are shown as a
+   * single node.
+   *
+   * @param sb builder to append to
+   * @param predicate the predicate
+   * @param depth indentation depth
+   */
+  private static void appendPredicate(StringBuilder sb, Predicate predicate, int depth) {
+    for (int i = 0; i < depth; i++) {
+      sb.append("  ");
+    }
+    if (predicate instanceof Comparison || predicate instanceof IntervalRelation) {
+      sb.append(predicate).append('\n');
+      return;
+    }
+    sb.append(predicate.getClass().getSimpleName().toUpperCase()).append('\n');
+    List<Predicate> arguments = new ArrayList<>();
+    collectArguments(predicate, predicate.getClass(), arguments);
+    for (Predicate argument : arguments) {
+      appendPredicate(sb, argument, depth + 1);
+    }
+  }
+
+  /**
+   * Collects the arguments of a predicate, flattening nested predicates of the same type.
+   *
+   * @param predicate the predicate
+   * @param type type of the predicates to flatten
+   * @param arguments list to add the arguments to
+   */
+  private static void collectArguments(Predicate predicate, Class<?> type,
+    List<Predicate> arguments) {
+    for (Predicate argument : predicate.getArguments()) {
+      if (argument.getClass() == type && (argument instanceof And || argument instanceof Or)) {
+        collectArguments(argument, type, arguments);
+      } else {
+        arguments.add(argument);
+      }
+    }
+  }
+
+  /**
+   * Runs the query and collects counters per plan step and conjunct. The embeddings are only
+   * counted.
+   *
+   * @return counters of the run
+   */
+  public QueryProfile profile() {
+    QueryProfile profile = new QueryProfile(getPlan());
+    MatchIterator search = new MatchIterator();
+    search.profile = profile;
+    long allocated = QueryProfile.currentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    long rows = 0;
+    while (search.advance()) {
+      rows++;
+    }
+    long nanos = System.nanoTime() - start;
+    long allocatedAfter = QueryProfile.currentThreadAllocatedBytes();
+    profile.finish(rows, nanos,
+      allocated < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocated);
+    return profile;
+  }
+
+  /**
+   * Returns the query.
+   *
+   * @return query graph
+   */
+  public QueryGraph getQuery() {
+    return query;
+  }
+
+  /**
+   * Returns the data graph.
+   *
+   * @return graph index
+   */
+  public GraphIndex getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns an iterator that enumerates the embeddings lazily.
+   *
+   * @return iterator over all embeddings
+   */
+  @Override
+  public Iterator<Embedding> iterator() {
+    return new MatchIterator();
+  }
+
+  /**
+   * Returns a sequential stream of all embeddings.
+   *
+   * @return stream of embeddings
+   */
+  public Stream<Embedding> stream() {
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(iterator(), Spliterator.NONNULL | Spliterator.DISTINCT),
+      false);
+  }
+
+  /**
+   * Returns a cursor that enumerates the embeddings lazily as rows of element positions.
+   *
+   * @return cursor over all embeddings
+   */
+  public MatchCursor cursor() {
+    return cursor(Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns a cursor that enumerates at most {@code limit} embeddings lazily as rows of element
+   * positions. The search stops as soon as the limit is reached.
+   *
+   * @param limit maximum number of embeddings
+   * @return cursor over the first {@code limit} embeddings
+   */
+  public MatchCursor cursor(long limit) {
+    return new MatchCursor(query, new MatchIterator(), limit);
+  }
+
+  /**
+   * Collects all embeddings.
+   *
+   * @return list of all embeddings
+   */
+  public List<Embedding> match() {
+    return match(Long.MAX_VALUE);
+  }
+
+  /**
+   * Collects the first {@code limit} embeddings. The search stops as soon as the limit is
+   * reached.
+   *
+   * @param limit maximum number of embeddings
+   * @return list of at most {@code limit} embeddings
+   */
+  public List<Embedding> match(long limit) {
+    List<Embedding> result = new ArrayList<>();
+    try (MatchCursor cursor = cursor(limit)) {
+      while (cursor.next()) {
+        result.add(cursor.toEmbedding());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Counts the embeddings without materializing them.
+   *
+   * @return number of embeddings
+   */
+  public long count() {
+    MatchIterator iterator = new MatchIterator();
+    long count = 0;
+    while (iterator.advance()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns a search over the embeddings in which the variable of the first step of the plan is
+   * bound to an element at a position of at least {@code firstPosition} and every variable
+   * {@code v} to an element at a position below {@code bounds[v]}. Since positions are assigned
+   * in insertion order, this restricts the search to embeddings containing new elements, see
+   * {@link StandingQuery}.
+   *
+   * @param firstPosition minimum position of the element bound by the first step
+   * @param bounds exclusive upper bound of the position of each variable
+   * @return restricted search
+   */
+  MatchIterator deltaIterator(int firstPosition, int[] bounds) {
+    MatchIterator iterator = new MatchIterator();
+    iterator.restrict(firstPosition, bounds);
+    return iterator;
+  }
+
+  /**
+   * Passes all embeddings to a sink, searching in parallel on the common pool.
+   *
+   * @param sink receives the embeddings, must be thread-safe
+   */
+  public void forEachParallel(Consumer<Embedding> sink) {
+    forEachParallel(ForkJoinPool.commonPool(), sink);
+  }
+
+  /**
+   * Passes all embeddings to a sink, searching in parallel on the given pool.
+   *
+   * @param pool pool executing the search
+   * @param sink receives the embeddings, must be thread-safe
+   */
+  public void forEachParallel(ForkJoinPool pool, Consumer<Embedding> sink) {
+    searchParallel(pool, sink);
+  }
+
+  /**
+   * Collects all embeddings, searching in parallel on the common pool. The order of the
+   * embeddings is not defined.
+   *
+   * @return list of all embeddings
+   */
+  public List<Embedding> matchParallel() {
+    Queue<Embedding> result = new ConcurrentLinkedQueue<>();
+    forEachParallel(result::add);
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * Counts the embeddings in parallel on the common pool without materializing them.
+   *
+   * @return number of embeddings
+   */
+  public long countParallel() {
+    return countParallel(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Counts the embeddings in parallel on the given pool without materializing them.
+   *
+   * @param pool pool executing the search
+   * @return number of embeddings
+   */
+  public long countParallel(ForkJoinPool pool) {
+    return searchParallel(pool, null);
+  }
+
+  /**
+   * Runs the parallel search.
+   *
+   * @param pool pool executing the search
+   * @param sink receives the embeddings, null to only count them
+   * @return number of embeddings
+   */
+  private long searchParallel(ForkJoinPool pool, Consumer<Embedding> sink) {
+    MatchIterator root = new MatchIterator();
+    if (getPlan().getSteps().isEmpty() || !root.isOpen()) {
+      long count = 0;
+      while (root.advance()) {
+        count++;
+        if (sink != null) {
+          sink.accept(new Embedding(query, graph, root.match.toArray()));
+        }
+      }
+      return count;
+    }
+    int candidates = root.getCandidateCount();
+    int grain = Math.max(1, candidates / (pool.getParallelism() * TASKS_PER_WORKER));
+    LongAdder count = new LongAdder();
+    pool.invoke(new MatchTask(new int[0], 0, 0, candidates, grain, root.now, sink, count));
+    return count.sum();
+  }
+
+  /**
+   * Task of the parallel search: searches all embeddings that extend a fixed binding of the
+   * first steps (the prefix) with a range of the candidates of the next step.
+   */
+  private class MatchTask extends RecursiveAction {
+
+    /**
+     * Positions bound by the first steps
+     */
+    private final int[] prefix;
+
+    /**
+     * Index of the step whose candidates are partitioned
+     */
+    private final int depth;
+
+    /**
+     * First candidate of the range (inclusive)
+     */
+    private final int from;
+
+    /**
+     * Last candidate of the range (exclusive)
+     */
+    private final int to;
+
+    /**
+     * Maximum number of candidates searched without splitting the range
+     */
+    private final int grain;
+
+    /**
+     * Value of {@code Now} for the whole search
+     */
+    private final long now;
+
+    /**
+     * Receives the embeddings, null to only count them
+     */
+    private final Consumer<Embedding> sink;
+
+    /**
+     * Number of embeddings found by all tasks
+     */
+    private final LongAdder count;
+
+    /**
+     * Creates a new task.
+     *
+     * @param prefix positions bound by the first steps
+     * @param depth index of the step whose candidates are partitioned
+     * @param from first candidate of the range (inclusive)
+     * @param to last candidate of the range (exclusive)
+     * @param grain maximum number of candidates searched without splitting the range
+     * @param now value of {@code Now} for the whole search
+     * @param sink receives the embeddings, null to only count them
+     * @param count number of embeddings found by all tasks
+     */
+    MatchTask(int[] prefix, int depth, int from, int to, int grain, long now,
+      Consumer<Embedding> sink, LongAdder count) {
+      this.prefix = prefix;
+      this.depth = depth;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.now = now;
+      this.sink = sink;
+      this.count = count;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > grain) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new MatchTask(prefix, depth, from, middle, grain, now, sink, count),
+          new MatchTask(prefix, depth, middle, to, grain, now, sink, count));
+        return;
+      }
+      boolean last = depth == getPlan().getSteps().size() - 1;
+      List<MatchTask> forked = new ArrayList<>();
+      long found = 0;
+      for (int candidate = from; candidate < to; candidate++) {
+        MatchIterator iterator = new MatchIterator(prefix, depth, candidate, candidate + 1, now);
+        if (!last) {
+          if (!iterator.descend()) {
+            continue;
+          }
+          int width = iterator.getCandidateCount();
+          if (width >= SPLIT_THRESHOLD) {
+            // skewed candidate, let other workers steal parts of the search below it
+            MatchTask task = new MatchTask(iterator.getPrefix(), depth + 1, 0, width,
+              Math.max(1, width / TASKS_PER_WORKER), now, sink, count);
+            task.fork();
+            forked.add(task);
+            continue;
+          }
+        }
+        while (iterator.advance()) {
+          found++;
+          if (sink != null) {
+            sink.accept(new Embedding(query, graph, iterator.match.toArray()));
+          }
+        }
+      }
+      count.add(found);
+      for (MatchTask task : forked) {
+        task.join();
+      }
+    }
+  }
+
+  /**
+   * Backtracking search over the steps of the plan, driven by calls to {@link #advance()}.
+   */
+  class MatchIterator implements Iterator<Embedding> {
+
+    /**
+     * Steps of the plan
+     */
+    private final MatchPlan.Step[] steps;
+
+    /**
+     * Current binding
+     */
+    private final PartialMatch match;
+
+    /**
+     * Value of {@code Now} for the whole search, read once when the search starts
+     */
+    private final long now;
+
+    /**
+     * Candidates of each depth, null if the candidates are a range {@code 0..end-1}
+     */
+    private final int[][] candidates;
+
+    /**
+     * Single candidate arrays, reused for steps with exactly one candidate
+     */
+    private final int[][] singles;
+
+    /**
+     * Index of the next candidate of each depth
+     */
+    private final int[] cursors;
+
+    /**
+     * Depth of the first step that is searched, all steps before are bound to a fixed prefix
+     */
+    private final int floor;
+
+    /**
+     * Number of candidates of each depth
+     */
+    private final int[] ends;
+
+    /**
+     * Exclusive upper bound of the position of each variable, null if unrestricted
+     */
+    private int[] bounds;
+
+    /**
+     * Counters to record the search in, null if the search is not profiled
+     */
+    private QueryProfile profile;
+
+    /**
+     * Current depth, -1 if the search is exhausted
+     */
+    private int depth;
+
+    /**
+     * True iff the current binding is an embedding that was not returned yet
+     */
+    private boolean ready;
+
+    /**
+     * True iff the search found the current binding
+     */
+    private boolean found;
+
+    /**
+     * Creates the iterator and opens the first step
+     */
+    MatchIterator() {
+      this(new int[0], 0, 0, Integer.MAX_VALUE, query.readNow());
+      for (Predicate conjunct : getPlan().getConstantConjuncts()) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          depth = -1;
+        }
+      }
+      // contradicting temporal constraints can not match any data
+      if (!query.getTemporalConstraints().isSatisfiable()) {
+        depth = -1;
+      }
+    }
+
+    /**
+     * Creates an iterator over the embeddings that extend a prefix, i.e. a binding of the first
+     * steps, with the candidates {@code from..to-1} of the next step. The prefix is not checked
+     * again.
+     *
+     * @param prefix positions bound by the steps before {@code floor}
+     * @param floor index of the first step that is searched
+     * @param from first candidate of the step (inclusive)
+     * @param to last candidate of the step (exclusive)
+     * @param now value of {@code Now} for the whole search
+     */
+    MatchIterator(int[] prefix, int floor, int from, int to, long now) {
+      this.steps = getPlan().getSteps().toArray(new MatchPlan.Step[0]);
+      this.match = new PartialMatch(query, graph);
+      this.now = now;
+      match.fixNow(now);
+      this.candidates = new int[steps.length][];
+      this.singles = new int[steps.length][1];
+      this.cursors = new int[steps.length];
+      this.ends = new int[steps.length];
+      this.floor = floor;
+      this.depth = floor;
+      for (int i = 0; i < prefix.length; i++) {
+        match.bind(steps[i].getVariable(), prefix[i]);
+      }
+      if (floor < steps.length) {
+        open(floor);
+        cursors[floor] = Math.min(from, ends[floor]);
+        ends[floor] = Math.min(to, ends[floor]);
+      }
+    }
+
+    /**
+     * Restricts the search, see {@link #deltaIterator(int, int[])}.
+     *
+     * @param firstPosition minimum position of the element bound by the first step
+     * @param bounds exclusive upper bound of the position of each variable
+     */
+    void restrict(int firstPosition, int[] bounds) {
+      this.bounds = bounds;
+      if (depth != 0 || steps.length == 0) {
+        return;
+      }
+      int[] stepCandidates = candidates[0];
+      if (stepCandidates == null) {
+        cursors[0] = Math.min(firstPosition, ends[0]);
+      } else {
+        // candidates of scans are sorted by position
+        int index = Arrays.binarySearch(stepCandidates, 0, ends[0], firstPosition);
+        cursors[0] = index >= 0 ? index : -index - 1;
+      }
+    }
+
+    /**
+     * Returns the current binding, which holds the last embedding found by {@link #advance()}.
+     *
+     * @return current binding
+     */
+    PartialMatch getMatch() {
+      return match;
+    }
+
+    /**
+     * Checks whether the search was not yet exhausted.
+     *
+     * @return true iff there may be further embeddings
+     */
+    boolean isOpen() {
+      return depth >= floor;
+    }
+
+    /**
+     * Returns the number of candidates of the current depth.
+     *
+     * @return number of candidates
+     */
+    int getCandidateCount() {
+      return ends[depth];
+    }
+
+    /**
+     * Returns the positions bound by all steps before the current depth.
+     *
+     * @return bound positions in step order
+     */
+    int[] getPrefix() {
+      int[] prefix = new int[depth];
+      for (int i = 0; i < depth; i++) {
+        prefix[i] = match.get(steps[i].getVariable());
+      }
+      return prefix;
+    }
+
+    /**
+     * Binds the next candidate of the current depth and opens the next depth. Must not be called
+     * for the last step.
+     *
+     * @return true iff the candidate was accepted, the search continues below it
+     */
+    boolean descend() {
+      MatchPlan.Step step = steps[depth];
+      if (cursors[depth] >= ends[depth]) {
+        return false;
+      }
+      int[] stepCandidates = candidates[depth];
+      int cursor = cursors[depth]++;
+      match.bind(step.getVariable(), stepCandidates == null ? cursor : stepCandidates[cursor]);
+      if (!accept(step)) {
+        return false;
+      }
+      open(++depth);
+      return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!ready) {
+        ready = advance();
+      }
+      return ready;
+    }
+
+    @Override
+    public Embedding next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      ready = false;
+      return new Embedding(query, graph, match.toArray());
+    }
+
+    /**
+     * Searches the next embedding.
+     *
+     * @return true iff an embedding was found, it is held by {@link #match}
+     */
+    boolean advance() {
+      if (steps.length == 0) {
+        // the empty pattern has one (empty) embedding
+        boolean result = depth == 0 && !found;
+        found = true;
+        return result;
+      }
+      while (depth >= floor) {
+        MatchPlan.Step step = steps[depth];
+        if (cursors[depth] < ends[depth]) {
+          int[] stepCandidates = candidates[depth];
+          int cursor = cursors[depth]++;
+          match.bind(step.getVariable(), stepCandidates == null ? cursor : stepCandidates[cursor]);
+          if (accept(step)) {
+            if (depth == steps.length - 1) {
+              return true;
+            }
+            open(++depth);
+          }
+        } else {
+          match.unbind(step.getVariable());
+          depth--;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Initializes the candidates of a depth.
+     *
+     * @param depth the depth
+     */
+    private void open(int depth) {
+      MatchPlan.Step step = steps[depth];
+      cursors[depth] = 0;
+      IntList list = null;
+      switch (step.getType()) {
+      case SCAN_VERTICES:
+        if (step.getLabel() == null) {
+          candidates[depth] = null;
+          ends[depth] = graph.getVertexCount();
+          return;
+        }
+        list = graph.getVerticesByLabel(step.getLabel());
+        break;
+      case SCAN_EDGES:
+        if (step.getLabel() == null) {
+          candidates[depth] = null;
+          ends[depth] = graph.getEdgeCount();
+          return;
+        }
+        list = graph.getEdgesByLabel(step.getLabel());
+        break;
+      case EXPAND_OUTGOING:
+        list = graph.getOutgoingEdges(match.get(step.getFrom()));
+        break;
+      case EXPAND_INCOMING:
+        list = graph.getIncomingEdges(match.get(step.getFrom()));
+        break;
+      case SOURCE_OF_EDGE:
+        singles[depth][0] = graph.getSource(match.get(step.getFrom()));
+        break;
+      default:
+        singles[depth][0] = graph.getTarget(match.get(step.getFrom()));
+        break;
+      }
+      if (list != null) {
+        candidates[depth] = list.elements();
+        ends[depth] = list.size();
+      } else {
+        candidates[depth] = singles[depth];
+        ends[depth] = 1;
+      }
+    }
+
+    /**
+     * Checks whether the current binding is consistent after a step.
+     *
+     * @param step the step that was just executed
+     * @return true iff structure, match strategy and conjuncts are satisfied
+     */
+    private boolean accept(MatchPlan.Step step) {
+      if (profile == null) {
+        return acceptStructure(step) && acceptConjuncts(step);
+      }
+      long start = System.nanoTime();
+      boolean accepted = acceptStructure(step) && acceptConjunctsProfiled(step);
+      profile.getStepCounter(depth).record(accepted, System.nanoTime() - start);
+      return accepted;
+    }
+
+    /**
+     * Checks the edge endpoints and the match strategy after a step.
+     *
+     * @param step the step that was just executed
+     * @return true iff structure and match strategy are satisfied
+     */
+    private boolean acceptStructure(MatchPlan.Step step) {
+      int variable = step.getVariable();
+      int position = match.get(variable);
+      if (bounds != null && position >= bounds[variable]) {
+        return false;
+      }
+      for (int edge : step.getEdgeChecks()) {
+        int edgePosition = match.get(edge);
+        int source = match.get(query.getSource(edge));
+        int target = match.get(query.getTarget(edge));
+        if ((source != PartialMatch.UNBOUND && graph.getSource(edgePosition) != source) ||
+          (target != PartialMatch.UNBOUND && graph.getTarget(edgePosition) != target)) {
+          return false;
+        }
+      }
+      MatchStrategy strategy = query.isEdge(variable) ? edgeStrategy : vertexStrategy;
+      if (strategy == MatchStrategy.ISOMORPHISM) {
+        for (int other : step.getSameKind()) {
+          if (match.get(other) == position) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Evaluates the conjuncts of a step.
+     *
+     * @param step the step that was just executed
+     * @return true iff all conjuncts are satisfied
+     */
+    private boolean acceptConjuncts(MatchPlan.Step step) {
+      for (Predicate conjunct : step.getConjuncts()) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Evaluates the conjuncts of a step and records them in the profile.
+     *
+     * @param step the step that was just executed
+     * @return true iff all conjuncts are satisfied
+     */
+    private boolean acceptConjunctsProfiled(MatchPlan.Step step) {
+      Predicate[] conjuncts = step.getConjuncts();
+      for (int i = 0; i < conjuncts.length; i++) {
+        long start = System.nanoTime();
+        boolean passed = PredicateEvaluator.evaluate(conjuncts[i], match);
+        profile.getConjunctCounter(depth, i).record(passed, System.nanoTime() - start);
+        if (!passed) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index over the vertices and edges of a data graph, used to match queries against it.
+ * <p>
+ * Elements are addressed by their position, i.e. the order in which they were added. The index
+ * holds label indexes for vertices and edges and the outgoing and incoming edges of each vertex.
+ * Elements can be added incrementally.
+ */
+public class GraphIndex {
+
+  /**
+   * Vertices by position
+   */
+  private final List<Vertex> vertices = new ArrayList<>();
+
+  /**
+   * Edges by position
+   */
+  private final List<Edge> edges = new ArrayList<>();
+
+  /**
+   * Maps vertex ids to vertex positions
+   */
+  private final Map<Long, Integer> vertexPositions = new HashMap<>();
+
+  /**
+   * Source vertex position of each edge
+   */
+  private final IntList edgeSources = new IntList();
+
+  /**
+   * Target vertex position of each edge
+   */
+  private final IntList edgeTargets = new IntList();
+
+  /**
+   * Positions of the outgoing edges of each vertex
+   */
+  private final List<IntList> outgoingEdges = new ArrayList<>();
+
+  /**
+   * Positions of the incoming edges of each vertex
+   */
+  private final List<IntList> incomingEdges = new ArrayList<>();
+
+  /**
+   * Positions of the vertices with a given label
+   */
+  private final Map<String, IntList> vertexLabels = new HashMap<>();
+
+  /**
+   * Positions of the edges with a given label
+   */
+  private final Map<String, IntList> edgeLabels = new HashMap<>();
+
+  /**
+   * Creates an empty index
+   */
+  public GraphIndex() {
+  }
+
+  /**
+   * Creates an index over the given elements.
+   *
+   * @param vertices the vertices
+   * @param edges the edges, their source and target vertices must be contained in vertices
+   */
+  public GraphIndex(Collection<Vertex> vertices, Collection<Edge> edges) {
+    vertices.forEach(this::addVertex);
+    edges.forEach(this::addEdge);
+  }
+
+  /**
+   * Creates an index over all vertices and edges of a handler.
+   *
+   * @param handler the handler holding the data graph
+   * @return index over the data graph
+   */
+  public static GraphIndex of(GDLHandler handler) {
+    return new GraphIndex(handler.getVertices(), handler.getEdges());
+  }
+
+  /**
+   * Adds a vertex to the index. Vertices which are already contained are ignored.
+   *
+   * @param vertex the vertex
+   * @return position of the vertex
+   */
+  public int addVertex(Vertex vertex) {
+    Integer position = vertexPositions.get(vertex.getId());
+    if (position != null) {
+      return position;
+    }
+    position = vertices.size();
+    vertices.add(vertex);
+    vertexPositions.put(vertex.getId(), position);
+    outgoingEdges.add(new IntList());
+    incomingEdges.add(new IntList());
+    vertexLabels.computeIfAbsent(vertex.getLabel(), k -> new IntList()).add(position);
+    return position;
+  }
+
+  /**
+   * Adds an edge to the index.
+   *
+   * @param edge the edge
+   * @return position of the edge
+   * @throws IllegalArgumentException if the source or target vertex is not contained
+   */
+  public int addEdge(Edge edge) {
+    int source = getVertexPosition(edge.getSourceVertexId());
+    int target = getVertexPosition(edge.getTargetVertexId());
+    if (source < 0 || target < 0) {
+      throw new IllegalArgumentException("Source or target vertex of " + edge + " is unknown");
+    }
+    int position = edges.size();
+    edges.add(edge);
+    edgeSources.add(source);
+    edgeTargets.add(target);
+    outgoingEdges.get(source).add(position);
+    incomingEdges.get(target).add(position);
+    edgeLabels.computeIfAbsent(edge.getLabel(), k -> new IntList()).add(position);
+    return position;
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return number of vertices
+   */
+  public int getVertexCount() {
+    return vertices.size();
+  }
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return number of edges
+   */
+  public int getEdgeCount() {
+    return edges.size();
+  }
+
+  /**
+   * Returns the vertex at a position.
+   *
+   * @param position vertex position
+   * @return the vertex
+   */
+  public Vertex getVertex(int position) {
+    return vertices.get(position);
+  }
+
+  /**
+   * Returns the edge at a position.
+   *
+   * @param position edge position
+   * @return the edge
+   */
+  public Edge getEdge(int position) {
+    return edges.get(position);
+  }
+
+  /**
+   * Returns the position of a vertex.
+   *
+   * @param id vertex id
+   * @return position of the vertex or -1 if it is not contained
+   */
+  public int getVertexPosition(long id) {
+    Integer position = vertexPositions.get(id);
+    return position != null ? position : -1;
+  }
+
+  /**
+   * Returns the position of the source vertex of an edge.
+   *
+   * @param edge edge position
+   * @return source vertex position
+   */
+  public int getSource(int edge) {
+    return edgeSources.get(edge);
+  }
+
+  /**
+   * Returns the position of the target vertex of an edge.
+   *
+   * @param edge edge position
+   * @return target vertex position
+   */
+  public int getTarget(int edge) {
+    return edgeTargets.get(edge);
+  }
+
+  /**
+   * Returns the positions of the outgoing edges of a vertex.
+   *
+   * @param vertex vertex position
+   * @return outgoing edge positions, must not be modified
+   */
+  public IntList getOutgoingEdges(int vertex) {
+    return outgoingEdges.get(vertex);
+  }
+
+  /**
+   * Returns the positions of the incoming edges of a vertex.
+   *
+   * @param vertex vertex position
+   * @return incoming edge positions, must not be modified
+   */
+  public IntList getIncomingEdges(int vertex) {
+    return incomingEdges.get(vertex);
+  }
+
+  /**
+   * Returns the positions of all vertices with the given label.
+   *
+   * @param label the label
+   * @return vertex positions, must not be modified
+   */
+  public IntList getVerticesByLabel(String label) {
+    return vertexLabels.getOrDefault(label, new IntList(0));
+  }
+
+  /**
+   * Returns the positions of all edges with the given label.
+   *
+   * @param label the label
+   * @return edge positions, must not be modified
+   */
+  public IntList getEdgesByLabel(String label) {
+    return edgeLabels.getOrDefault(label, new IntList(0));
+  }
+
+  /**
+   * Returns all vertex labels.
+   *
+   * @return vertex labels
+   */
+  public Collection<String> getVertexLabels() {
+    return Collections.unmodifiableSet(vertexLabels.keySet());
+  }
+
+  /**
+   * Returns all edge labels.
+   *
+   * @return edge labels
+   */
+  public Collection<String> getEdgeLabels() {
+    return Collections.unmodifiableSet(edgeLabels.keySet());
+  }
+}
@@ -0,0 +1,693 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Worst-case optimal join for MATCH patterns, following the Leapfrog Triejoin algorithm.
+ * <p>
+ * Instead of joining the pattern edge by edge like {@link GDLMatcher}, all vertex variables are
+ * bound first, one at a time. The candidates of a vertex variable are computed by intersecting
+ * the sorted neighbour arrays of a {@link NeighbourIndex} for every pattern edge that connects
+ * it to an already bound vertex (and the positions of the vertices with the required label)
+ * with a leapfrog intersection. Afterwards, the edge variables are bound to the data edges
+ * between their bound endpoints.
+ * <p>
+ * For cyclic patterns like {@code (a)-->(b)-->(c)-->(a)} this bounds the number of
+ * intermediate results by the AGM bound of the pattern, e.g. {@code O(|E|^1.5)} for triangles,
+ * while pairwise joins may produce {@code O(|E|^2)} paths that are discarded afterwards.
+ * <p>
+ * The embeddings, the default match strategies and the rejection of variable length edges are
+ * the same as the ones of {@link GDLMatcher}.
+ */
+public class LeapfrogTriejoin implements Iterable<Embedding> {
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Sorted neighbour arrays of the data graph
+   */
+  private final NeighbourIndex neighbours;
+
+  /**
+   * Levels of the join, vertex variables first
+   */
+  private final Level[] levels;
+
+  /**
+   * Conjuncts that do not reference any variable
+   */
+  private final List<Predicate> constantConjuncts;
+
+  /**
+   * Semantics for vertex variables
+   */
+  private MatchStrategy vertexStrategy = MatchStrategy.HOMOMORPHISM;
+
+  /**
+   * Semantics for edge variables
+   */
+  private MatchStrategy edgeStrategy = MatchStrategy.ISOMORPHISM;
+
+  /**
+   * Number of partial vertex bindings produced by the most recent search
+   */
+  private long intermediateResults;
+
+  /**
+   * Creates a join for the query of a handler and the data graph of another handler.
+   *
+   * @param query handler holding the MATCH query
+   * @param data handler holding the data graph
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public LeapfrogTriejoin(GDLHandler query, GDLHandler data) {
+    this(new QueryGraph(query), GraphIndex.of(data));
+  }
+
+  /**
+   * Creates a join for a query and an indexed data graph.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public LeapfrogTriejoin(QueryGraph query, GraphIndex graph) {
+    query.checkFixedLength();
+    this.query = query;
+    this.graph = graph;
+    this.neighbours = new NeighbourIndex(graph);
+    this.constantConjuncts = query.getConjuncts().getConstantConjuncts();
+    this.levels = createLevels(vertexOrder(query, graph));
+  }
+
+  /**
+   * Checks whether a pattern contains a cycle, ignoring edge directions, loops and parallel
+   * edges. Cyclic patterns benefit from a worst-case optimal join.
+   *
+   * @param query the query
+   * @return true iff the pattern is cyclic
+   */
+  public static boolean isCyclic(QueryGraph query) {
+    int[] parents = new int[query.getVertexCount()];
+    for (int i = 0; i < parents.length; i++) {
+      parents[i] = i;
+    }
+    Set<Long> pairs = new HashSet<>();
+    for (int edge = query.getVertexCount(); edge < query.size(); edge++) {
+      int source = query.getSource(edge);
+      int target = query.getTarget(edge);
+      if (source == target ||
+        !pairs.add(((long) Math.min(source, target) << 32) | Math.max(source, target))) {
+        continue;
+      }
+      int sourceRoot = find(parents, source);
+      int targetRoot = find(parents, target);
+      if (sourceRoot == targetRoot) {
+        return true;
+      }
+      parents[sourceRoot] = targetRoot;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the representative of the set containing an element.
+   *
+   * @param parents union-find forest
+   * @param element the element
+   * @return set representative
+   */
+  private static int find(int[] parents, int element) {
+    while (parents[element] != element) {
+      parents[element] = parents[parents[element]];
+      element = parents[element];
+    }
+    return element;
+  }
+
+  /**
+   * Orders the vertex variables: starts with the vertex with the fewest candidates and then
+   * prefers vertices connected to the most bound vertices, i.e. with the most arrays to
+   * intersect.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @return vertex variables in binding order
+   */
+  private static int[] vertexOrder(QueryGraph query, GraphIndex graph) {
+    int vertexCount = query.getVertexCount();
+    BitSet bound = new BitSet(vertexCount);
+    int[] order = new int[vertexCount];
+    for (int i = 0; i < vertexCount; i++) {
+      int next = -1;
+      int nextConnections = -1;
+      long nextCount = Long.MAX_VALUE;
+      for (int vertex = bound.nextClearBit(0); vertex < vertexCount;
+        vertex = bound.nextClearBit(vertex + 1)) {
+        BitSet connected = new BitSet(vertexCount);
+        IntList incidentEdges = query.getIncidentEdges(vertex);
+        for (int e = 0; e < incidentEdges.size(); e++) {
+          int edge = incidentEdges.get(e);
+          int other = query.getSource(edge) == vertex ?
+            query.getTarget(edge) : query.getSource(edge);
+          if (bound.get(other)) {
+            connected.set(other);
+          }
+        }
+        int connections = connected.cardinality();
+        String label = query.getLabel(vertex);
+        long count = label == null ?
+          graph.getVertexCount() : graph.getVerticesByLabel(label).size();
+        if (connections > nextConnections ||
+          (connections == nextConnections && count < nextCount)) {
+          next = vertex;
+          nextConnections = connections;
+          nextCount = count;
+        }
+      }
+      order[i] = next;
+      bound.set(next);
+    }
+    return order;
+  }
+
+  /**
+   * Creates the levels of the join.
+   *
+   * @param vertexOrder vertex variables in binding order
+   * @return levels binding the vertex variables in the given order, followed by the edges
+   */
+  private Level[] createLevels(int[] vertexOrder) {
+    Level[] result = new Level[query.size()];
+    BitSet bound = new BitSet(query.size());
+    for (int i = 0; i < query.size(); i++) {
+      int variable = i < vertexOrder.length ? vertexOrder[i] : i;
+      bound.set(variable);
+      IntList sameKind = new IntList();
+      for (int other = bound.nextSetBit(0); other >= 0; other = bound.nextSetBit(other + 1)) {
+        if (other != variable && query.isEdge(other) == query.isEdge(variable)) {
+          sameKind.add(other);
+        }
+      }
+      Level level = new Level(variable, sameKind.toArray(), query.getConjuncts()
+        .getNewlyApplicableConjuncts(bound, variable).toArray(new Predicate[0]));
+      if (!query.isEdge(variable)) {
+        String label = query.getLabel(variable);
+        if (label != null) {
+          level.vertexCandidates = graph.getVerticesByLabel(label).toArray();
+        }
+        IntList incidentEdges = query.getIncidentEdges(variable);
+        IntList constraints = new IntList();
+        for (int e = 0; e < incidentEdges.size(); e++) {
+          int edge = incidentEdges.get(e);
+          int other = query.getSource(edge) == variable ?
+            query.getTarget(edge) : query.getSource(edge);
+          if (other != variable && bound.get(other)) {
+            constraints.add(edge);
+          }
+        }
+        level.constraints = constraints.toArray();
+        level.arrays = new int[level.constraints.length + 1][];
+        level.positions = new int[level.arrays.length];
+        level.buffer = new int[graph.getVertexCount()];
+      } else {
+        level.buffer = new int[0];
+      }
+      result[i] = level;
+    }
+    return result;
+  }
+
+  /**
+   * Sets the semantics for both vertex and edge variables.
+   *
+   * @param strategy match strategy
+   * @return this join
+   */
+  public LeapfrogTriejoin setMatchStrategy(MatchStrategy strategy) {
+    return setMatchStrategy(strategy, strategy);
+  }
+
+  /**
+   * Sets the semantics for vertex and edge variables.
+   *
+   * @param vertexStrategy match strategy for vertex variables
+   * @param edgeStrategy match strategy for edge variables
+   * @return this join
+   */
+  public LeapfrogTriejoin setMatchStrategy(MatchStrategy vertexStrategy,
+    MatchStrategy edgeStrategy) {
+    this.vertexStrategy = vertexStrategy;
+    this.edgeStrategy = edgeStrategy;
+    return this;
+  }
+
+  /**
+   * Returns the vertex variables in the order they are bound.
+   *
+   * @return vertex variable ids
+   */
+  public int[] getVertexOrder() {
+    int[] order = new int[query.getVertexCount()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = levels[i].variable;
+    }
+    return order;
+  }
+
+  /**
+   * Returns the number of partial vertex bindings produced by the most recent search, i.e. the
+   * sum of the sizes of all intermediate results. This is bounded by the AGM bound of the
+   * pattern.
+   *
+   * @return number of intermediate results
+   */
+  public long getIntermediateResults() {
+    return intermediateResults;
+  }
+
+  /**
+   * Returns an iterator that enumerates the embeddings lazily. Iterators share buffers, only
+   * one iterator may be used at a time.
+   *
+   * @return iterator over all embeddings
+   */
+  @Override
+  public Iterator<Embedding> iterator() {
+    return new JoinIterator();
+  }
+
+  /**
+   * Returns a sequential stream of all embeddings.
+   *
+   * @return stream of embeddings
+   */
+  public Stream<Embedding> stream() {
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(iterator(), Spliterator.NONNULL | Spliterator.DISTINCT),
+      false);
+  }
+
+  /**
+   * Collects all embeddings.
+   *
+   * @return list of all embeddings
+   */
+  public List<Embedding> match() {
+    List<Embedding> result = new ArrayList<>();
+    iterator().forEachRemaining(result::add);
+    return result;
+  }
+
+  /**
+   * Counts the embeddings without materializing them.
+   *
+   * @return number of embeddings
+   */
+  public long count() {
+    JoinIterator iterator = new JoinIterator();
+    long count = 0;
+    while (iterator.advance()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Intersects sorted arrays without duplicates by leapfrogging: the arrays are visited
+   * round-robin and each one seeks the largest value seen so far, until all arrays agree on a
+   * value or one of them is exhausted.
+   *
+   * @param arrays sorted arrays without duplicates
+   * @param count number of arrays to intersect, at least one
+   * @param positions buffer for the cursors of the arrays, at least {@code count} long
+   * @param result buffer for the intersection
+   * @return size of the intersection
+   */
+  static int intersect(int[][] arrays, int count, int[] positions, int[] result) {
+    for (int i = 0; i < count; i++) {
+      if (arrays[i].length == 0) {
+        return 0;
+      }
+      positions[i] = 0;
+    }
+    if (count == 1) {
+      System.arraycopy(arrays[0], 0, result, 0, arrays[0].length);
+      return arrays[0].length;
+    }
+    int size = 0;
+    int max = arrays[0][0];
+    int agreeing = 1;
+    int i = 1;
+    while (true) {
+      int[] array = arrays[i];
+      int position = seek(array, positions[i], max);
+      if (position == array.length) {
+        return size;
+      }
+      if (array[position] == max) {
+        agreeing++;
+      } else {
+        max = array[position];
+        agreeing = 1;
+      }
+      if (agreeing == count) {
+        result[size++] = max;
+        if (++position == array.length) {
+          return size;
+        }
+        max = array[position];
+        agreeing = 1;
+      }
+      positions[i] = position;
+      i = i + 1 == count ? 0 : i + 1;
+    }
+  }
+
+  /**
+   * Finds the first position of a value greater or equal to a key by galloping from a start
+   * position, followed by a binary search.
+   *
+   * @param array sorted array
+   * @param from start position
+   * @param key the key
+   * @return first position {@code >= from} of a value {@code >= key}, array length if none
+   */
+  static int seek(int[] array, int from, int key) {
+    if (from >= array.length || array[from] >= key) {
+      return from;
+    }
+    // array[low] < key <= array[high] (or high == length)
+    int low = from;
+    int step = 1;
+    int high = from + 1;
+    while (high < array.length && array[high] < key) {
+      low = high;
+      step <<= 1;
+      high = from + step;
+    }
+    high = Math.min(high, array.length);
+    while (low + 1 < high) {
+      int middle = (low + high) >>> 1;
+      if (array[middle] < key) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    return high;
+  }
+
+  /**
+   * A level of the join, binding one variable
+   */
+  private static class Level {
+
+    /**
+     * The bound variable
+     */
+    private final int variable;
+
+    /**
+     * Previously bound variables of the same kind, checked for isomorphism
+     */
+    private final int[] sameKind;
+
+    /**
+     * Conjuncts that become applicable at this level
+     */
+    private final Predicate[] conjuncts;
+
+    /**
+     * Vertices with the required label, null if the vertex has no label
+     */
+    private int[] vertexCandidates;
+
+    /**
+     * Edges connecting the vertex to previously bound vertices
+     */
+    private int[] constraints;
+
+    /**
+     * Arrays to intersect
+     */
+    private int[][] arrays;
+
+    /**
+     * Cursors of the intersection
+     */
+    private int[] positions;
+
+    /**
+     * Candidates of this level
+     */
+    private int[] buffer;
+
+    /**
+     * Creates a new level
+     *
+     * @param variable the bound variable
+     * @param sameKind previously bound variables of the same kind
+     * @param conjuncts conjuncts that become applicable at this level
+     */
+    Level(int variable, int[] sameKind, Predicate[] conjuncts) {
+      this.variable = variable;
+      this.sameKind = sameKind;
+      this.conjuncts = conjuncts;
+    }
+  }
+
+  /**
+   * Backtracking search over the levels, driven by calls to {@link #advance()}.
+   */
+  private class JoinIterator implements Iterator<Embedding> {
+
+    /**
+     * Current binding
+     */
+    private final PartialMatch match;
+
+    /**
+     * Candidates of each depth, null if the candidates are a range {@code 0..end-1}
+     */
+    private final int[][] candidates;
+
+    /**
+     * Index of the next candidate of each depth
+     */
+    private final int[] cursors;
+
+    /**
+     * Number of candidates of each depth
+     */
+    private final int[] ends;
+
+    /**
+     * Current depth, -1 if the search is exhausted
+     */
+    private int depth;
+
+    /**
+     * True iff the current binding is an embedding that was not returned yet
+     */
+    private boolean ready;
+
+    /**
+     * True iff the search found the current binding
+     */
+    private boolean found;
+
+    /**
+     * Creates the iterator and opens the first level
+     */
+    JoinIterator() {
+      this.match = new PartialMatch(query, graph);
+      match.fixNow(query.readNow());
+      this.candidates = new int[levels.length][];
+      this.cursors = new int[levels.length];
+      this.ends = new int[levels.length];
+      this.depth = 0;
+      intermediateResults = 0;
+      for (Predicate conjunct : constantConjuncts) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          depth = -1;
+        }
+      }
+      if (depth == 0 && levels.length > 0) {
+        open(0);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!ready) {
+        ready = advance();
+      }
+      return ready;
+    }
+
+    @Override
+    public Embedding next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      ready = false;
+      return new Embedding(query, graph, match.toArray());
+    }
+
+    /**
+     * Searches the next embedding.
+     *
+     * @return true iff an embedding was found, it is held by {@link #match}
+     */
+    boolean advance() {
+      if (levels.length == 0) {
+        // the empty pattern has one (empty) embedding
+        boolean result = depth == 0 && !found;
+        found = true;
+        return result;
+      }
+      while (depth >= 0) {
+        Level level = levels[depth];
+        if (cursors[depth] < ends[depth]) {
+          int[] levelCandidates = candidates[depth];
+          int cursor = cursors[depth]++;
+          match.bind(level.variable, levelCandidates == null ? cursor : levelCandidates[cursor]);
+          if (accept(level)) {
+            if (!query.isEdge(level.variable)) {
+              intermediateResults++;
+            }
+            if (depth == levels.length - 1) {
+              return true;
+            }
+            open(++depth);
+          }
+        } else {
+          match.unbind(level.variable);
+          depth--;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Initializes the candidates of a depth.
+     *
+     * @param depth the depth
+     */
+    private void open(int depth) {
+      Level level = levels[depth];
+      cursors[depth] = 0;
+      if (query.isEdge(level.variable)) {
+        openEdge(depth, level);
+        return;
+      }
+      int count = 0;
+      if (level.vertexCandidates != null) {
+        level.arrays[count++] = level.vertexCandidates;
+      }
+      for (int edge : level.constraints) {
+        int source = query.getSource(edge);
+        boolean out = source != level.variable;
+        int other = out ? source : query.getTarget(edge);
+        level.arrays[count++] =
+          neighbours.getNeighbours(match.get(other), query.getLabel(edge), out);
+      }
+      if (count == 0) {
+        candidates[depth] = null;
+        ends[depth] = graph.getVertexCount();
+      } else {
+        candidates[depth] = level.buffer;
+        ends[depth] = intersect(level.arrays, count, level.positions, level.buffer);
+      }
+    }
+
+    /**
+     * Initializes the candidates of an edge, i.e. all data edges between the bound endpoints.
+     *
+     * @param depth the depth
+     * @param level the level of the edge
+     */
+    private void openEdge(int depth, Level level) {
+      int edge = level.variable;
+      int target = match.get(query.getTarget(edge));
+      String label = query.getLabel(edge);
+      IntList outgoing = graph.getOutgoingEdges(match.get(query.getSource(edge)));
+      if (level.buffer.length < outgoing.size()) {
+        level.buffer = new int[outgoing.size()];
+      }
+      int size = 0;
+      for (int i = 0; i < outgoing.size(); i++) {
+        int candidate = outgoing.get(i);
+        if (graph.getTarget(candidate) == target &&
+          (label == null || label.equals(graph.getEdge(candidate).getLabel()))) {
+          level.buffer[size++] = candidate;
+        }
+      }
+      candidates[depth] = level.buffer;
+      ends[depth] = size;
+    }
+
+    /**
+     * Checks whether the current binding is consistent after a level.
+     *
+     * @param level the level that was just bound
+     * @return true iff match strategy and conjuncts are satisfied
+     */
+    private boolean accept(Level level) {
+      int position = match.get(level.variable);
+      MatchStrategy strategy = query.isEdge(level.variable) ? edgeStrategy : vertexStrategy;
+      if (strategy == MatchStrategy.ISOMORPHISM) {
+        for (int other : level.sameKind) {
+          if (match.get(other) == position) {
+            return false;
+          }
+        }
+      }
+      for (Predicate conjunct : level.conjuncts) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.GraphElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pull-based cursor over the embeddings of a query.
+ * <p>
+ * Each call to {@link #next()} resumes the backtracking search until the next embedding is found,
+ * i.e. no embedding is computed before the consumer asks for it and a slow consumer simply
+ * pauses the search. The current embedding is exposed as a row of element positions indexed by
+ * the variable ids of the {@link QueryGraph}, which follow the variables of the query
+ * {@code GDLHandler}. Reading a row does not allocate; use {@link #toEmbedding()} or
+ * {@link #getRow()} to keep it.
+ * <p>
+ * A cursor created with a limit stops the search as soon as the limit is reached. Closing a
+ * cursor stops the search as well.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class MatchCursor implements AutoCloseable {
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The underlying search
+   */
+  private final GDLMatcher.MatchIterator search;
+
+  /**
+   * Binding of the current row
+   */
+  private final PartialMatch match;
+
+  /**
+   * Maximum number of rows
+   */
+  private final long limit;
+
+  /**
+   * Number of rows returned so far
+   */
+  private long rowCount;
+
+  /**
+   * True iff the cursor is positioned on a row
+   */
+  private boolean positioned;
+
+  /**
+   * True iff the search was exhausted or the cursor was closed
+   */
+  private boolean closed;
+
+  /**
+   * Creates a cursor.
+   *
+   * @param query the query
+   * @param search search producing the embeddings
+   * @param limit maximum number of rows
+   */
+  MatchCursor(QueryGraph query, GDLMatcher.MatchIterator search, long limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Negative limit: " + limit);
+    }
+    this.query = query;
+    this.search = search;
+    this.match = search.getMatch();
+    this.limit = limit;
+  }
+
+  /**
+   * Moves the cursor to the next row.
+   *
+   * @return true iff there is a next row, false if the search is exhausted, the limit is reached
+   * or the cursor was closed
+   */
+  public boolean next() {
+    positioned = false;
+    if (closed) {
+      return false;
+    }
+    if (rowCount >= limit || !search.advance()) {
+      close();
+      return false;
+    }
+    rowCount++;
+    positioned = true;
+    return true;
+  }
+
+  /**
+   * Returns the variables of the query in column order, i.e. ordered by variable id.
+   *
+   * @return variables
+   */
+  public List<String> getVariables() {
+    List<String> variables = new ArrayList<>(query.size());
+    for (int variable = 0; variable < query.size(); variable++) {
+      variables.add(query.getDictionary().getVariable(variable));
+    }
+    return Collections.unmodifiableList(variables);
+  }
+
+  /**
+   * Returns the column of a variable.
+   *
+   * @param variable the variable
+   * @return variable id
+   * @throws IllegalArgumentException if the variable is not part of the query
+   */
+  public int getColumn(String variable) {
+    int id = query.getDictionary().lookup(variable);
+    if (id < 0 || id >= query.size()) {
+      throw new IllegalArgumentException("Unknown variable: " + variable);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the element position bound to a variable in the current row.
+   *
+   * @param variable variable id
+   * @return element position in the data graph
+   */
+  public int getPosition(int variable) {
+    checkPositioned();
+    return match.get(variable);
+  }
+
+  /**
+   * Returns the element position bound to a variable in the current row.
+   *
+   * @param variable the variable
+   * @return element position in the data graph
+   */
+  public int getPosition(String variable) {
+    return getPosition(getColumn(variable));
+  }
+
+  /**
+   * Returns the element bound to a variable in the current row.
+   *
+   * @param variable the variable
+   * @return bound vertex or edge
+   */
+  public GraphElement getElement(String variable) {
+    checkPositioned();
+    return match.getElement(getColumn(variable));
+  }
+
+  /**
+   * Copies the current row into an array.
+   *
+   * @param target array of at least {@code getVariables().size()} entries
+   */
+  public void copyRow(int[] target) {
+    checkPositioned();
+    for (int variable = 0; variable < query.size(); variable++) {
+      target[variable] = match.get(variable);
+    }
+  }
+
+  /**
+   * Returns a copy of the current row.
+   *
+   * @return element positions by variable id
+   */
+  public int[] getRow() {
+    checkPositioned();
+    return match.toArray();
+  }
+
+  /**
+   * Returns the current row as embedding.
+   *
+   * @return embedding of the current row
+   */
+  public Embedding toEmbedding() {
+    return new Embedding(query, match.getGraph(), getRow());
+  }
+
+  /**
+   * Returns the number of rows returned so far.
+   *
+   * @return number of rows
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns a spliterator over the remaining rows. Rows are only computed when the spliterator
+   * is advanced, the spliterator does not split.
+   *
+   * @return spliterator over copies of the remaining rows
+   */
+  public Spliterator<int[]> spliterator() {
+    return new Spliterators.AbstractSpliterator<int[]>(limit - rowCount,
+      Spliterator.NONNULL | Spliterator.DISTINCT) {
+      @Override
+      public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (!next()) {
+          return false;
+        }
+        action.accept(getRow());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Returns a sequential stream of the remaining rows. Closing the stream closes the cursor.
+   *
+   * @return stream of copies of the remaining rows
+   */
+  public Stream<int[]> rows() {
+    return StreamSupport.stream(spliterator(), false).onClose(this::close);
+  }
+
+  /**
+   * Stops the search. Subsequent calls to {@link #next()} return false.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    positioned = false;
+  }
+
+  /**
+   * Checks that the cursor is positioned on a row.
+   */
+  private void checkPositioned() {
+    if (!positioned) {
+      throw new NoSuchElementException("Cursor is not positioned on a row");
+    }
+  }
+}
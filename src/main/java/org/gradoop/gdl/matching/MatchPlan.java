@@ -0,0 +1,475 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Order in which a {@link GDLMatcher} binds the variables of a query, together with the way
+ * candidates for each variable are obtained and the conjuncts checked after binding it.
+ * <p>
+ * Any order of the query variables is a valid plan. Variables that are connected to an already
+ * bound variable are expanded via the adjacency index, all others are scanned.
+ */
+public class MatchPlan {
+
+  /**
+   * How candidates for a variable are obtained
+   */
+  public enum StepType {
+    /**
+     * All vertices (with the required label)
+     */
+    SCAN_VERTICES,
+    /**
+     * All edges (with the required label)
+     */
+    SCAN_EDGES,
+    /**
+     * Outgoing edges of the bound source vertex
+     */
+    EXPAND_OUTGOING,
+    /**
+     * Incoming edges of the bound target vertex
+     */
+    EXPAND_INCOMING,
+    /**
+     * Source vertex of a bound edge
+     */
+    SOURCE_OF_EDGE,
+    /**
+     * Target vertex of a bound edge
+     */
+    TARGET_OF_EDGE
+  }
+
+  /**
+   * A single step of a plan, binding one variable
+   */
+  public static class Step {
+
+    /**
+     * Variable bound by this step
+     */
+    private final int variable;
+
+    /**
+     * How candidates are obtained
+     */
+    private final StepType type;
+
+    /**
+     * Bound variable the candidates are derived from, -1 for scans
+     */
+    private final int from;
+
+    /**
+     * Required label of scanned elements, null if any label is allowed
+     */
+    private final String label;
+
+    /**
+     * Edge variables whose endpoints have to be checked after binding the variable
+     */
+    private final int[] edgeChecks;
+
+    /**
+     * Previously bound variables of the same kind (vertex/edge)
+     */
+    private final int[] sameKind;
+
+    /**
+     * Conjuncts that can be evaluated once the variable is bound
+     */
+    private final Predicate[] conjuncts;
+
+    /**
+     * Creates a new step
+     *
+     * @param variable variable bound by this step
+     * @param type how candidates are obtained
+     * @param from bound variable the candidates are derived from, -1 for scans
+     * @param label required label of scanned elements or null
+     * @param edgeChecks edge variables whose endpoints have to be checked
+     * @param sameKind previously bound variables of the same kind
+     * @param conjuncts conjuncts that can be evaluated once the variable is bound
+     */
+    Step(int variable, StepType type, int from, String label, int[] edgeChecks, int[] sameKind,
+      Predicate[] conjuncts) {
+      this.variable = variable;
+      this.type = type;
+      this.from = from;
+      this.label = label;
+      this.edgeChecks = edgeChecks;
+      this.sameKind = sameKind;
+      this.conjuncts = conjuncts;
+    }
+
+    /**
+     * Returns the variable bound by this step.
+     *
+     * @return variable id
+     */
+    public int getVariable() {
+      return variable;
+    }
+
+    /**
+     * Returns how candidates are obtained.
+     *
+     * @return step type
+     */
+    public StepType getType() {
+      return type;
+    }
+
+    /**
+     * Returns the bound variable the candidates are derived from.
+     *
+     * @return variable id, -1 for scans
+     */
+    public int getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the label required by scans.
+     *
+     * @return label or null
+     */
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * Returns the edge variables whose endpoints have to be checked after binding.
+     *
+     * @return edge variable ids, must not be modified
+     */
+    int[] getEdgeChecks() {
+      return edgeChecks;
+    }
+
+    /**
+     * Returns the previously bound variables of the same kind.
+     *
+     * @return variable ids, must not be modified
+     */
+    int[] getSameKind() {
+      return sameKind;
+    }
+
+    /**
+     * Returns the conjuncts evaluated after binding the variable.
+     *
+     * @return conjuncts, must not be modified
+     */
+    public Predicate[] getConjuncts() {
+      return conjuncts;
+    }
+  }
+
+  /**
+   * The planned query
+   */
+  private final QueryGraph query;
+
+  /**
+   * Steps in binding order
+   */
+  private final List<Step> steps;
+
+  /**
+   * Conjuncts that do not reference any variable
+   */
+  private final List<Predicate> constantConjuncts;
+
+  /**
+   * Estimated number of partial matches after each step, null if not estimated
+   */
+  private final double[] estimates;
+
+  /**
+   * Creates a plan that binds the variables in the given order.
+   *
+   * @param query the query
+   * @param order variable ids in binding order, must contain every variable exactly once
+   */
+  public MatchPlan(QueryGraph query, int[] order) {
+    this(query, order, null);
+  }
+
+  /**
+   * Creates a plan that binds the variables in the given order, annotated with the estimated
+   * number of partial matches after each step.
+   *
+   * @param query the query
+   * @param order variable ids in binding order, must contain every variable exactly once
+   * @param estimates estimated cardinality after each step, null if not estimated
+   */
+  public MatchPlan(QueryGraph query, int[] order, double[] estimates) {
+    if (order.length != query.size()) {
+      throw new IllegalArgumentException("The order must contain every variable exactly once");
+    }
+    if (estimates != null && estimates.length != order.length) {
+      throw new IllegalArgumentException("There must be one estimate per step");
+    }
+    this.query = query;
+    this.estimates = estimates;
+    this.steps = new ArrayList<>(order.length);
+    this.constantConjuncts = query.getConjuncts().getConstantConjuncts();
+
+    BitSet bound = new BitSet(order.length);
+    for (int variable : order) {
+      if (bound.get(variable)) {
+        throw new IllegalArgumentException("Variable bound twice: " + variable);
+      }
+      bound.set(variable);
+      steps.add(createStep(variable, bound));
+    }
+  }
+
+  /**
+   * Creates the step binding a variable.
+   *
+   * @param variable the variable
+   * @param bound all variables bound after this step
+   * @return the step
+   */
+  private Step createStep(int variable, BitSet bound) {
+    StepType type;
+    int from = -1;
+    IntList edgeChecks = new IntList();
+    if (query.isEdge(variable)) {
+      int source = query.getSource(variable);
+      int target = query.getTarget(variable);
+      if (bound.get(source)) {
+        type = StepType.EXPAND_OUTGOING;
+        from = source;
+      } else if (bound.get(target)) {
+        type = StepType.EXPAND_INCOMING;
+        from = target;
+      } else {
+        type = StepType.SCAN_EDGES;
+      }
+      edgeChecks.add(variable);
+    } else {
+      type = StepType.SCAN_VERTICES;
+      IntList incidentEdges = query.getIncidentEdges(variable);
+      for (int i = 0; i < incidentEdges.size(); i++) {
+        int edge = incidentEdges.get(i);
+        if (!bound.get(edge)) {
+          continue;
+        }
+        if (from < 0) {
+          from = edge;
+          type = query.getSource(edge) == variable ?
+            StepType.SOURCE_OF_EDGE : StepType.TARGET_OF_EDGE;
+        }
+        edgeChecks.add(edge);
+      }
+    }
+
+    IntList sameKind = new IntList();
+    for (int other = bound.nextSetBit(0); other >= 0; other = bound.nextSetBit(other + 1)) {
+      if (other != variable && query.isEdge(other) == query.isEdge(variable)) {
+        sameKind.add(other);
+      }
+    }
+
+    String label = from < 0 ? query.getLabel(variable) : null;
+    Predicate[] conjuncts = query.getConjuncts().getNewlyApplicableConjuncts(bound, variable)
+      .toArray(new Predicate[0]);
+    return new Step(variable, type, from, label, edgeChecks.toArray(), sameKind.toArray(),
+      conjuncts);
+  }
+
+  /**
+   * Creates a plan with a greedy heuristic: starts with the vertex with the fewest candidates
+   * and prefers variables that can be derived from bound variables, i.e. closing edges between
+   * bound vertices, then endpoints of bound edges, then edges incident to bound vertices.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @return greedy plan
+   */
+  public static MatchPlan greedy(QueryGraph query, GraphIndex graph) {
+    int size = query.size();
+    BitSet bound = new BitSet(size);
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      int next = -1;
+      int nextRank = Integer.MAX_VALUE;
+      long nextCount = Long.MAX_VALUE;
+      for (int variable = bound.nextClearBit(0); variable < size;
+        variable = bound.nextClearBit(variable + 1)) {
+        int rank;
+        long count;
+        if (query.isEdge(variable)) {
+          boolean source = bound.get(query.getSource(variable));
+          boolean target = bound.get(query.getTarget(variable));
+          rank = source && target ? 0 : (source || target ? 2 : 4);
+          count = estimateScan(query, graph, variable);
+        } else {
+          rank = 3;
+          IntList incidentEdges = query.getIncidentEdges(variable);
+          for (int e = 0; e < incidentEdges.size(); e++) {
+            if (bound.get(incidentEdges.get(e))) {
+              rank = 1;
+            }
+          }
+          count = estimateScan(query, graph, variable);
+        }
+        if (rank < nextRank || (rank == nextRank && count < nextCount)) {
+          next = variable;
+          nextRank = rank;
+          nextCount = count;
+        }
+      }
+      order[i] = next;
+      bound.set(next);
+    }
+    return new MatchPlan(query, order);
+  }
+
+  /**
+   * Estimates the number of candidates of a scan of a variable.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @param variable the variable
+   * @return number of elements with the required label
+   */
+  private static long estimateScan(QueryGraph query, GraphIndex graph, int variable) {
+    String label = query.getLabel(variable);
+    if (query.isEdge(variable)) {
+      return label == null ? graph.getEdgeCount() : graph.getEdgesByLabel(label).size();
+    }
+    return label == null ? graph.getVertexCount() : graph.getVerticesByLabel(label).size();
+  }
+
+  /**
+   * Returns the planned query.
+   *
+   * @return query graph
+   */
+  public QueryGraph getQuery() {
+    return query;
+  }
+
+  /**
+   * Returns the steps in binding order.
+   *
+   * @return immutable list of steps
+   */
+  public List<Step> getSteps() {
+    return Collections.unmodifiableList(steps);
+  }
+
+  /**
+   * Returns the conjuncts that do not reference any variable.
+   *
+   * @return constant conjuncts
+   */
+  public List<Predicate> getConstantConjuncts() {
+    return constantConjuncts;
+  }
+
+  /**
+   * Returns the variables in binding order.
+   *
+   * @return variable ids
+   */
+  public int[] getOrder() {
+    int[] order = new int[steps.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = steps.get(i).getVariable();
+    }
+    return order;
+  }
+
+  /**
+   * Returns the estimated number of partial matches after a step.
+   *
+   * @param step step index
+   * @return estimated cardinality, empty if the plan was not created by a cost-based planner
+   */
+  public OptionalDouble getEstimatedCardinality(int step) {
+    return estimates == null ? OptionalDouble.empty() : OptionalDouble.of(estimates[step]);
+  }
+
+  /**
+   * Returns the estimated cost of the plan, i.e. the sum of the estimated cardinalities of all
+   * steps.
+   *
+   * @return estimated cost, empty if the plan was not created by a cost-based planner
+   */
+  public OptionalDouble getEstimatedCost() {
+    if (estimates == null) {
+      return OptionalDouble.empty();
+    }
+    double cost = 0;
+    for (double estimate : estimates) {
+      cost += estimate;
+    }
+    return OptionalDouble.of(cost);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < steps.size(); i++) {
+      appendStep(sb, i);
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a description of a step, e.g. {@code 1: EXPAND_OUTGOING e from a :knows}.
+   *
+   * @param sb builder to append to
+   * @param i index of the step
+   */
+  void appendStep(StringBuilder sb, int i) {
+    Step step = steps.get(i);
+    sb.append(i).append(": ").append(step.getType()).append(' ')
+      .append(query.getDictionary().getVariable(step.getVariable()));
+    if (step.getFrom() >= 0) {
+      sb.append(" from ").append(query.getDictionary().getVariable(step.getFrom()));
+    }
+    if (step.getLabel() != null) {
+      sb.append(" :").append(step.getLabel());
+    }
+    if (step.getConjuncts().length > 0) {
+      sb.append(" filter ");
+      for (int c = 0; c < step.getConjuncts().length; c++) {
+        sb.append(c > 0 ? " AND " : "").append(step.getConjuncts()[c]);
+      }
+    }
+    if (estimates != null) {
+      sb.append(String.format(" (estimated rows: %.1f)", estimates[i]));
+    }
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+/**
+ * Defines whether distinct query variables may be bound to the same data element.
+ */
+public enum MatchStrategy {
+  /**
+   * Distinct variables may be bound to the same element
+   */
+  HOMOMORPHISM,
+  /**
+   * Distinct variables must be bound to distinct elements
+   */
+  ISOMORPHISM
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sorted and deduplicated neighbour arrays of the vertices of a {@link GraphIndex}, optionally
+ * restricted to the edges with a given label. Neighbours are identified by their vertex
+ * position, which allows intersecting the neighbourhoods of several vertices by merging.
+ * <p>
+ * The arrays are computed lazily per label and direction. The index is a snapshot of the graph
+ * and has to be recreated after vertices or edges were added.
+ */
+public class NeighbourIndex {
+
+  /**
+   * Key used for the arrays over all edges
+   */
+  private static final String ANY_LABEL = null;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Outgoing neighbours by edge label
+   */
+  private final Map<String, int[][]> outgoing = new HashMap<>();
+
+  /**
+   * Incoming neighbours by edge label
+   */
+  private final Map<String, int[][]> incoming = new HashMap<>();
+
+  /**
+   * Creates the index for a graph.
+   *
+   * @param graph the data graph
+   */
+  public NeighbourIndex(GraphIndex graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Returns the sorted positions of all vertices that are connected to a vertex by an edge with
+   * the given label.
+   *
+   * @param vertex vertex position
+   * @param label edge label, null for all edges
+   * @param out true for targets of outgoing edges, false for sources of incoming edges
+   * @return sorted and deduplicated neighbour positions, must not be modified
+   */
+  public int[] getNeighbours(int vertex, String label, boolean out) {
+    Map<String, int[][]> cache = out ? outgoing : incoming;
+    int[][] neighbours = cache.get(label);
+    if (neighbours == null) {
+      neighbours = build(label, out);
+      cache.put(label, neighbours);
+    }
+    return neighbours[vertex];
+  }
+
+  /**
+   * Computes the neighbour arrays of all vertices.
+   *
+   * @param label edge label, null for all edges
+   * @param out true for targets of outgoing edges, false for sources of incoming edges
+   * @return neighbour arrays by vertex position
+   */
+  private int[][] build(String label, boolean out) {
+    int vertexCount = graph.getVertexCount();
+    int[][] result = new int[vertexCount][];
+    int[] buffer = new int[16];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      IntList edges = out ? graph.getOutgoingEdges(vertex) : graph.getIncomingEdges(vertex);
+      if (buffer.length < edges.size()) {
+        buffer = new int[edges.size()];
+      }
+      int size = 0;
+      for (int i = 0; i < edges.size(); i++) {
+        int edge = edges.get(i);
+        if (label == ANY_LABEL || label.equals(graph.getEdge(edge).getLabel())) {
+          buffer[size++] = out ? graph.getTarget(edge) : graph.getSource(edge);
+        }
+      }
+      Arrays.sort(buffer, 0, size);
+      int distinct = 0;
+      for (int i = 0; i < size; i++) {
+        if (distinct == 0 || buffer[distinct - 1] != buffer[i]) {
+          buffer[distinct++] = buffer[i];
+        }
+      }
+      result[vertex] = Arrays.copyOf(buffer, distinct);
+    }
+    return result;
+  }
+}
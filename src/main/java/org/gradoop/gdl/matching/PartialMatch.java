@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Mutable binding of query variables to data elements, built up while matching a query.
+ * Elements are referenced by their position in a {@link GraphIndex}.
+ * <p>
+ * Instances are not thread-safe, every thread must use its own instance.
+ */
+public class PartialMatch extends TimeBinding {
+
+  /**
+   * Position of unbound variables
+   */
+  public static final int UNBOUND = -1;
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Element position bound to each variable, {@link #UNBOUND} for unbound variables
+   */
+  private final int[] positions;
+
+  /**
+   * Creates a binding in which no variable is bound.
+   *
+   * @param query the query
+   * @param graph the data graph
+   */
+  public PartialMatch(QueryGraph query, GraphIndex graph) {
+    this.query = query;
+    this.graph = graph;
+    this.positions = new int[query.size()];
+    Arrays.fill(positions, UNBOUND);
+  }
+
+  /**
+   * Binds a variable to an element.
+   *
+   * @param variable variable id
+   * @param position position of the vertex or edge in the data graph
+   */
+  public void bind(int variable, int position) {
+    positions[variable] = position;
+    invalidate();
+  }
+
+  /**
+   * Removes the binding of a variable.
+   *
+   * @param variable variable id
+   */
+  public void unbind(int variable) {
+    positions[variable] = UNBOUND;
+    invalidate();
+  }
+
+  /**
+   * Returns the element position bound to a variable.
+   *
+   * @param variable variable id
+   * @return element position or {@link #UNBOUND}
+   */
+  public int get(int variable) {
+    return positions[variable];
+  }
+
+  /**
+   * Returns the element bound to a variable.
+   *
+   * @param variable variable id
+   * @return bound vertex or edge, null if the variable is unbound
+   */
+  public GraphElement getElement(int variable) {
+    int position = positions[variable];
+    if (position == UNBOUND) {
+      return null;
+    }
+    return query.isEdge(variable) ? graph.getEdge(position) : graph.getVertex(position);
+  }
+
+  /**
+   * Returns the element bound to a variable.
+   *
+   * @param variable the variable
+   * @return bound vertex or edge, null if the variable is unknown or unbound
+   */
+  public GraphElement getElement(String variable) {
+    int id = query.getDictionary().lookup(variable);
+    return id < 0 ? null : getElement(id);
+  }
+
+  /**
+   * Returns a copy of the element positions of all variables.
+   *
+   * @return element positions by variable id
+   */
+  public int[] toArray() {
+    return positions.clone();
+  }
+
+  /**
+   * Returns the query.
+   *
+   * @return query graph
+   */
+  public QueryGraph getQuery() {
+    return query;
+  }
+
+  /**
+   * Returns the data graph.
+   *
+   * @return graph index
+   */
+  public GraphIndex getGraph() {
+    return graph;
+  }
+
+  @Override
+  public Optional<Long> getTime(String variable, TimeSelector.TimeField field) {
+    GraphElement element = getElement(variable);
+    return element == null ? Optional.empty() : TimeProperties.getTime(element, field);
+  }
+
+  @Override
+  public boolean getTime(String variable, TimeSelector.TimeField field, long[] values,
+    int index) {
+    GraphElement element = getElement(variable);
+    return element != null && TimeProperties.getTime(element, field, values, index);
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Expands variable length edges like {@code (a)-[:knows*1..3]->(b)} over a {@link GraphIndex}.
+ * <p>
+ * Bounds are interpreted like {@link Edge#getLowerBound()} and {@link Edge#getUpperBound()}:
+ * a lower bound of 0 includes the source itself, an upper bound of 0 means unbounded.
+ * <p>
+ * {@link #reach} computes all targets that are connected to a source by a walk whose length lies
+ * within the bounds, using a breadth-first search over frontier bitsets. Below the lower bound
+ * the frontier contains all vertices reachable by exactly that many hops, from the lower bound
+ * on only vertices not visited before are expanded. Each hop is thus linear in the number of
+ * expanded edges, and unbounded expansions stop after at most |V| hops.
+ * <p>
+ * {@link #paths} enumerates the full paths, i.e. trails in which no edge is repeated, in
+ * depth-first order.
+ * <p>
+ * Instances reuse their bitsets and are not thread-safe.
+ */
+public class PathExpander {
+
+  /**
+   * Receives the results of {@link #reach}
+   */
+  @FunctionalInterface
+  public interface ReachConsumer {
+    /**
+     * Called once for each reachable target.
+     *
+     * @param source source vertex position
+     * @param target target vertex position
+     * @param length length of the shortest walk from source to target within the bounds
+     */
+    void accept(int source, int target, int length);
+  }
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Edges that may be traversed, null if all edges may be traversed
+   */
+  private final BitSet edgeFilter;
+
+  /**
+   * Minimum path length
+   */
+  private final int lowerBound;
+
+  /**
+   * Maximum path length, {@link Integer#MAX_VALUE} if unbounded
+   */
+  private final int upperBound;
+
+  /**
+   * True iff edges are traversed from source to target
+   */
+  private final boolean outgoing;
+
+  /**
+   * Current frontier of the search
+   */
+  private BitSet frontier;
+
+  /**
+   * Next frontier of the search
+   */
+  private BitSet next;
+
+  /**
+   * Vertices reached with a length within the bounds
+   */
+  private final BitSet visited;
+
+  /**
+   * Creates a new expander.
+   *
+   * @param graph the data graph
+   * @param label label of the edges that may be traversed, null for all edges
+   * @param lowerBound minimum path length
+   * @param upperBound maximum path length, 0 if unbounded
+   * @param outgoing true to follow edges from source to target, false for the reverse direction
+   */
+  public PathExpander(GraphIndex graph, String label, int lowerBound, int upperBound,
+    boolean outgoing) {
+    if (lowerBound < 0 || upperBound < 0 || (upperBound != 0 && upperBound < lowerBound)) {
+      throw new IllegalArgumentException(
+        "Invalid bounds [" + lowerBound + ".." + upperBound + "]");
+    }
+    this.graph = graph;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound == 0 ? Integer.MAX_VALUE : upperBound;
+    this.outgoing = outgoing;
+    if (label == null) {
+      this.edgeFilter = null;
+    } else {
+      IntList edges = graph.getEdgesByLabel(label);
+      this.edgeFilter = new BitSet(graph.getEdgeCount());
+      for (int i = 0; i < edges.size(); i++) {
+        edgeFilter.set(edges.get(i));
+      }
+    }
+    this.frontier = new BitSet(graph.getVertexCount());
+    this.next = new BitSet(graph.getVertexCount());
+    this.visited = new BitSet(graph.getVertexCount());
+  }
+
+  /**
+   * Creates an expander for a variable length edge of a query.
+   *
+   * @param query the query
+   * @param edge edge variable id
+   * @param graph the data graph
+   * @param outgoing true to expand from the source variable, false to expand from the target
+   * @return expander using the label and bounds of the query edge
+   */
+  public static PathExpander forEdge(QueryGraph query, int edge, GraphIndex graph,
+    boolean outgoing) {
+    Edge queryEdge = (Edge) query.getElement(edge);
+    return new PathExpander(graph, query.getLabel(edge), queryEdge.getLowerBound(),
+      queryEdge.getUpperBound(), outgoing);
+  }
+
+  /**
+   * Reports every vertex reachable from a source within the bounds.
+   *
+   * @param source source vertex position
+   * @param consumer receives (source, target, length) for each reachable target
+   */
+  public void reach(int source, ReachConsumer consumer) {
+    frontier.clear();
+    visited.clear();
+    frontier.set(source);
+    for (int length = 0; !frontier.isEmpty(); length++) {
+      if (length >= lowerBound) {
+        frontier.andNot(visited);
+        for (int v = frontier.nextSetBit(0); v >= 0; v = frontier.nextSetBit(v + 1)) {
+          consumer.accept(source, v, length);
+        }
+        visited.or(frontier);
+      }
+      if (length == upperBound) {
+        break;
+      }
+      expand();
+    }
+  }
+
+  /**
+   * Reports every vertex reachable from any of the sources within the bounds.
+   *
+   * @param sources source vertex positions
+   * @param consumer receives (source, target, length) for each source and reachable target
+   */
+  public void reach(IntList sources, ReachConsumer consumer) {
+    for (int i = 0; i < sources.size(); i++) {
+      reach(sources.get(i), consumer);
+    }
+  }
+
+  /**
+   * Returns the vertices reachable from a source within the bounds.
+   *
+   * @param source source vertex position
+   * @return positions of the reachable vertices
+   */
+  public BitSet reachable(int source) {
+    BitSet result = new BitSet(graph.getVertexCount());
+    reach(source, (s, target, length) -> result.set(target));
+    return result;
+  }
+
+  /**
+   * Replaces the frontier by all vertices adjacent to it.
+   */
+  private void expand() {
+    next.clear();
+    for (int v = frontier.nextSetBit(0); v >= 0; v = frontier.nextSetBit(v + 1)) {
+      IntList edges = outgoing ? graph.getOutgoingEdges(v) : graph.getIncomingEdges(v);
+      int[] elements = edges.elements();
+      for (int i = 0; i < edges.size(); i++) {
+        int edge = elements[i];
+        if (edgeFilter == null || edgeFilter.get(edge)) {
+          next.set(outgoing ? graph.getTarget(edge) : graph.getSource(edge));
+        }
+      }
+    }
+    BitSet swap = frontier;
+    frontier = next;
+    next = swap;
+  }
+
+  /**
+   * Enumerates all trails (paths without repeated edges) starting at a source whose length lies
+   * within the bounds.
+   *
+   * @param source source vertex position
+   * @param consumer receives each path
+   */
+  public void paths(int source, Consumer<Path> consumer) {
+    IntList vertices = new IntList();
+    IntList edges = new IntList();
+    vertices.add(source);
+    paths(vertices, edges, new BitSet(graph.getEdgeCount()), consumer);
+  }
+
+  /**
+   * Collects all trails starting at a source whose length lies within the bounds.
+   *
+   * @param source source vertex position
+   * @return all paths
+   */
+  public List<Path> paths(int source) {
+    List<Path> result = new ArrayList<>();
+    paths(source, result::add);
+    return result;
+  }
+
+  /**
+   * Depth-first enumeration of trails.
+   *
+   * @param vertices vertices of the current path
+   * @param edges edges of the current path
+   * @param used edges contained in the current path
+   * @param consumer receives each path
+   */
+  private void paths(IntList vertices, IntList edges, BitSet used, Consumer<Path> consumer) {
+    int length = edges.size();
+    if (length >= lowerBound) {
+      consumer.accept(new Path(vertices.toArray(), edges.toArray()));
+    }
+    if (length == upperBound) {
+      return;
+    }
+    int last = vertices.get(vertices.size() - 1);
+    IntList adjacent = outgoing ? graph.getOutgoingEdges(last) : graph.getIncomingEdges(last);
+    for (int i = 0; i < adjacent.size(); i++) {
+      int edge = adjacent.get(i);
+      if (used.get(edge) || (edgeFilter != null && !edgeFilter.get(edge))) {
+        continue;
+      }
+      used.set(edge);
+      vertices.add(outgoing ? graph.getTarget(edge) : graph.getSource(edge));
+      edges.add(edge);
+      paths(vertices, edges, used, consumer);
+      vertices.removeLast();
+      edges.removeLast();
+      used.clear(edge);
+    }
+  }
+
+  /**
+   * A path in the data graph, given by the positions of its vertices and edges
+   */
+  public static class Path {
+
+    /**
+     * Vertex positions, one more than edges
+     */
+    private final int[] vertices;
+
+    /**
+     * Edge positions
+     */
+    private final int[] edges;
+
+    /**
+     * Creates a new path
+     *
+     * @param vertices vertex positions
+     * @param edges edge positions
+     */
+    public Path(int[] vertices, int[] edges) {
+      this.vertices = vertices;
+      this.edges = edges;
+    }
+
+    /**
+     * Returns the first vertex.
+     *
+     * @return source vertex position
+     */
+    public int getSource() {
+      return vertices[0];
+    }
+
+    /**
+     * Returns the last vertex.
+     *
+     * @return target vertex position
+     */
+    public int getTarget() {
+      return vertices[vertices.length - 1];
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return path length
+     */
+    public int getLength() {
+      return edges.length;
+    }
+
+    /**
+     * Returns the vertex positions in path order.
+     *
+     * @return vertex positions
+     */
+    public int[] getVertices() {
+      return vertices.clone();
+    }
+
+    /**
+     * Returns the edge positions in path order.
+     *
+     * @return edge positions
+     */
+    public int[] getEdges() {
+      return edges.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Path path = (Path) o;
+      return Arrays.equals(vertices, path.vertices) && Arrays.equals(edges, path.edges);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Arrays.hashCode(vertices) + Arrays.hashCode(edges);
+    }
+
+    @Override
+    public String toString() {
+      return "Path{vertices=" + Arrays.toString(vertices) + ", edges=" +
+        Arrays.toString(edges) + '}';
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.ElementSelector;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.booleans.Not;
+import org.gradoop.gdl.model.predicates.booleans.Or;
+import org.gradoop.gdl.model.predicates.booleans.Xor;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.model.predicates.expressions.ComparisonKernel;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Evaluates query predicates on a {@link PartialMatch}.
+ * <p>
+ * All variables referenced by the predicate must be bound. A comparison that references a
+ * missing property or an undefined time value evaluates to false. The label of an element is
+ * available as property {@link QueryGraph#LABEL_PROPERTY}.
+ */
+public class PredicateEvaluator {
+
+  /**
+   * Marks values of missing properties
+   */
+  private static final Object MISSING = new Object();
+
+  /**
+   * Evaluates a predicate.
+   *
+   * @param predicate the predicate
+   * @param match binding of the variables referenced by the predicate
+   * @return true iff the predicate holds
+   */
+  public static boolean evaluate(Predicate predicate, PartialMatch match) {
+    if (predicate instanceof Comparison) {
+      return evaluate((Comparison) predicate, match);
+    } else if (predicate instanceof IntervalRelation) {
+      return ((IntervalRelation) predicate).evaluate(match);
+    }
+    Predicate[] arguments = predicate.getArguments();
+    if (predicate instanceof And) {
+      return evaluate(arguments[0], match) && evaluate(arguments[1], match);
+    } else if (predicate instanceof Or) {
+      return evaluate(arguments[0], match) || evaluate(arguments[1], match);
+    } else if (predicate instanceof Xor) {
+      return evaluate(arguments[0], match) ^ evaluate(arguments[1], match);
+    } else if (predicate instanceof Not) {
+      return !evaluate(arguments[0], match);
+    }
+    throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+  }
+
+  /**
+   * Evaluates a comparison.
+   *
+   * @param comparison the comparison
+   * @param match binding of the variables referenced by the comparison
+   * @return true iff the comparison holds
+   */
+  public static boolean evaluate(Comparison comparison, PartialMatch match) {
+    ComparableExpression lhs = comparison.getLhs();
+    ComparableExpression rhs = comparison.getRhs();
+    if (lhs instanceof TimePoint && rhs instanceof TimePoint) {
+      long[] values = match.getScratch();
+      return ((TimePoint) lhs).evaluate(match, values, 0) &&
+        ((TimePoint) rhs).evaluate(match, values, 1) &&
+        ComparisonKernel.compare(comparison.getComparator(), values[0], values[1]);
+    }
+    if (lhs instanceof ElementSelector && rhs instanceof ElementSelector) {
+      return ComparisonKernel.compare(comparison.getComparator(),
+        match.getElement(lhs.getVariable()).getId(), match.getElement(rhs.getVariable()).getId());
+    }
+    Object left = getValue(lhs, match);
+    Object right = getValue(rhs, match);
+    return left != MISSING && right != MISSING && comparison.getKernel().compare(left, right);
+  }
+
+  /**
+   * Returns the value of a comparable expression.
+   *
+   * @param expression the expression
+   * @param match binding of the variables referenced by the expression
+   * @return value of the expression or {@link #MISSING}
+   */
+  private static Object getValue(ComparableExpression expression, PartialMatch match) {
+    if (expression instanceof Literal) {
+      return ((Literal) expression).getValue();
+    } else if (expression instanceof PropertySelector) {
+      GraphElement element = match.getElement(expression.getVariable());
+      String key = ((PropertySelector) expression).getPropertyName();
+      if (key.equals(QueryGraph.LABEL_PROPERTY)) {
+        return element.getLabel();
+      }
+      Map<String, Object> properties = element.getProperties();
+      Object value = properties.get(key);
+      return value != null || properties.containsKey(key) ? value : MISSING;
+    } else if (expression instanceof ElementSelector) {
+      return match.getElement(expression.getVariable()).getId();
+    } else if (expression instanceof TimePoint) {
+      Optional<Long> value = ((TimePoint) expression).evaluate(match);
+      return value.isPresent() ? value.get() : MISSING;
+    }
+    throw new IllegalArgumentException("Unsupported expression: " + expression);
+  }
+}
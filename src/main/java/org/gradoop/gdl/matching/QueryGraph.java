@@ -0,0 +1,439 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.IntervalExpression;
+import org.gradoop.gdl.model.comparables.time.NowPoint;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.optimizer.PredicateDecomposer;
+import org.gradoop.gdl.optimizer.TemporalConstraintChecker;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.IntList;
+import org.gradoop.gdl.utils.VariableDictionary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The pattern of a MATCH query: its vertex and edge variables, the structure connecting them and
+ * the query predicate decomposed into conjuncts.
+ * <p>
+ * Variables are identified by the ids of a {@link VariableDictionary}, vertex variables get
+ * the ids {@code 0..vertexCount-1}, edge variables the following ids.
+ */
+public class QueryGraph {
+
+  /**
+   * Property key used by label predicates, see {@link Predicate#fromGraphElement}
+   */
+  public static final String LABEL_PROPERTY = "__label__";
+
+  /**
+   * Dictionary of all query variables
+   */
+  private final VariableDictionary dictionary;
+
+  /**
+   * Query elements by variable id
+   */
+  private final List<GraphElement> elements;
+
+  /**
+   * Number of vertex variables
+   */
+  private final int vertexCount;
+
+  /**
+   * Source vertex variable of each edge variable, -1 for vertex variables
+   */
+  private final int[] sources;
+
+  /**
+   * Target vertex variable of each edge variable, -1 for vertex variables
+   */
+  private final int[] targets;
+
+  /**
+   * Edge variables incident to each vertex variable
+   */
+  private final IntList[] incidentEdges;
+
+  /**
+   * Label required by a label predicate of each variable, null if there is none
+   */
+  private final String[] labels;
+
+  /**
+   * Conjuncts of the query predicate
+   */
+  private final PredicateDecomposer.Decomposition conjuncts;
+
+  /**
+   * The query predicate, null if there is none
+   */
+  private final Predicate predicate;
+
+  /**
+   * Current point in time referred to by the query predicate, null if there is none
+   */
+  private final NowPoint now;
+
+  /**
+   * Temporal constraints of the query predicate, computed on first access
+   */
+  private TemporalConstraintChecker.Solution temporalConstraints;
+
+  /**
+   * Creates the query graph of the MATCH query of a handler.
+   *
+   * @param query handler holding the query
+   */
+  public QueryGraph(GDLHandler query) {
+    this(query.getVertexCache(true, true), query.getEdgeCache(true, true),
+      query.getPredicates().orElse(null));
+  }
+
+  /**
+   * Creates a query graph from query elements and a predicate.
+   *
+   * @param vertices query vertices by variable
+   * @param edges query edges by variable
+   * @param predicate query predicate, may be null
+   */
+  public QueryGraph(Map<String, Vertex> vertices, Map<String, Edge> edges, Predicate predicate) {
+    this.dictionary = new VariableDictionary();
+    this.elements = new ArrayList<>();
+    Map<Long, Integer> vertexVariables = new HashMap<>();
+    for (Map.Entry<String, Vertex> entry : vertices.entrySet()) {
+      vertexVariables.put(entry.getValue().getId(), dictionary.getId(entry.getKey()));
+      elements.add(entry.getValue());
+    }
+    this.vertexCount = elements.size();
+    for (Map.Entry<String, Edge> entry : edges.entrySet()) {
+      dictionary.getId(entry.getKey());
+      elements.add(entry.getValue());
+    }
+
+    int size = elements.size();
+    this.sources = new int[size];
+    this.targets = new int[size];
+    this.incidentEdges = new IntList[size];
+    for (int variable = 0; variable < size; variable++) {
+      incidentEdges[variable] = new IntList();
+      sources[variable] = -1;
+      targets[variable] = -1;
+    }
+    for (int variable = vertexCount; variable < size; variable++) {
+      Edge edge = (Edge) elements.get(variable);
+      sources[variable] = vertexVariables.get(edge.getSourceVertexId());
+      targets[variable] = vertexVariables.get(edge.getTargetVertexId());
+      incidentEdges[sources[variable]].add(variable);
+      if (targets[variable] != sources[variable]) {
+        incidentEdges[targets[variable]].add(variable);
+      }
+    }
+
+    this.predicate = predicate;
+    this.now = predicate == null ? null : findNow(predicate);
+    this.conjuncts = new PredicateDecomposer(dictionary).decompose(Optional.ofNullable(predicate));
+    this.labels = new String[size];
+    for (int variable = 0; variable < size; variable++) {
+      labels[variable] = findLabel(variable);
+    }
+  }
+
+  /**
+   * Searches a predicate for a {@code Now}.
+   *
+   * @param predicate the predicate
+   * @return a current point in time of the predicate or null
+   */
+  private static NowPoint findNow(Predicate predicate) {
+    ComparableExpression[] expressions = {};
+    if (predicate instanceof Comparison) {
+      expressions = ((Comparison) predicate).getComparableExpressions();
+    } else if (predicate instanceof IntervalRelation) {
+      IntervalRelation relation = (IntervalRelation) predicate;
+      expressions = new ComparableExpression[] {relation.getLhs(), relation.getRhs()};
+    }
+    for (ComparableExpression expression : expressions) {
+      NowPoint now = findNow(expression);
+      if (now != null) {
+        return now;
+      }
+    }
+    for (Predicate argument : predicate.getArguments()) {
+      NowPoint now = findNow(argument);
+      if (now != null) {
+        return now;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches an expression for a {@code Now}.
+   *
+   * @param expression the expression, may be null
+   * @return a current point in time of the expression or null
+   */
+  private static NowPoint findNow(ComparableExpression expression) {
+    List<ComparableExpression> parts = new ArrayList<>();
+    if (expression instanceof NowPoint) {
+      return (NowPoint) expression;
+    } else if (expression instanceof TimeTerm) {
+      parts.addAll(((TimeTerm) expression).getArgs());
+    } else if (expression instanceof Duration) {
+      parts.add(((Duration) expression).getFrom());
+      parts.add(((Duration) expression).getTo());
+    } else if (expression instanceof IntervalExpression) {
+      parts.add(((IntervalExpression) expression).getFrom());
+      parts.add(((IntervalExpression) expression).getTo());
+    }
+    for (ComparableExpression part : parts) {
+      NowPoint now = findNow(part);
+      if (now != null) {
+        return now;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches the conjuncts of a variable for a predicate {@code v.__label__ = "Label"}.
+   *
+   * @param variable variable id
+   * @return the required label or null
+   */
+  private String findLabel(int variable) {
+    for (Predicate conjunct : conjuncts.getConjuncts(dictionary.getVariable(variable))) {
+      if (!(conjunct instanceof Comparison) ||
+        ((Comparison) conjunct).getComparator() != Comparator.EQ) {
+        continue;
+      }
+      ComparableExpression[] sides = ((Comparison) conjunct).getComparableExpressions();
+      for (int i = 0; i < 2; i++) {
+        if (sides[i] instanceof PropertySelector &&
+          ((PropertySelector) sides[i]).getPropertyName().equals(LABEL_PROPERTY) &&
+          sides[1 - i] instanceof Literal &&
+          ((Literal) sides[1 - i]).getValue() instanceof String) {
+          return (String) ((Literal) sides[1 - i]).getValue();
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the dictionary of the query variables.
+   *
+   * @return variable dictionary
+   */
+  public VariableDictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Returns the number of variables.
+   *
+   * @return number of vertex and edge variables
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Returns the number of vertex variables.
+   *
+   * @return number of vertex variables
+   */
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Checks whether a variable is an edge variable.
+   *
+   * @param variable variable id
+   * @return true iff the variable is an edge variable
+   */
+  public boolean isEdge(int variable) {
+    return variable >= vertexCount;
+  }
+
+  /**
+   * Returns the query element of a variable.
+   *
+   * @param variable variable id
+   * @return query vertex or edge
+   */
+  public GraphElement getElement(int variable) {
+    return elements.get(variable);
+  }
+
+  /**
+   * Checks whether a variable is an edge variable with a variable length, e.g. {@code [*1..3]}.
+   *
+   * @param variable variable id
+   * @return true iff the variable is a variable length edge
+   */
+  public boolean isVariableLength(int variable) {
+    return isEdge(variable) && ((Edge) elements.get(variable)).hasVariableLength();
+  }
+
+  /**
+   * Checks that the query can be executed by binding every variable to a single element, i.e.
+   * that it contains no variable length edges. These can only be expanded by a
+   * {@link PathExpander}.
+   *
+   * @throws IllegalArgumentException if an edge variable has a variable length
+   */
+  public void checkFixedLength() {
+    for (int variable = vertexCount; variable < size(); variable++) {
+      if (isVariableLength(variable)) {
+        throw new IllegalArgumentException("Variable length edge " +
+          dictionary.getVariable(variable) + " can not be matched, use a PathExpander.");
+      }
+    }
+  }
+
+  /**
+   * Returns the source vertex variable of an edge variable.
+   *
+   * @param edge edge variable id
+   * @return source vertex variable id
+   */
+  public int getSource(int edge) {
+    return sources[edge];
+  }
+
+  /**
+   * Returns the target vertex variable of an edge variable.
+   *
+   * @param edge edge variable id
+   * @return target vertex variable id
+   */
+  public int getTarget(int edge) {
+    return targets[edge];
+  }
+
+  /**
+   * Returns the edge variables incident to a vertex variable.
+   *
+   * @param vertex vertex variable id
+   * @return incident edge variable ids, must not be modified
+   */
+  public IntList getIncidentEdges(int vertex) {
+    return incidentEdges[vertex];
+  }
+
+  /**
+   * Returns the label a variable must have according to the query predicate.
+   *
+   * @param variable variable id
+   * @return required label or null if any label is allowed
+   */
+  public String getLabel(int variable) {
+    return labels[variable];
+  }
+
+  /**
+   * Returns the conjuncts of the query predicate.
+   *
+   * @return conjuncts grouped by their variables
+   */
+  public PredicateDecomposer.Decomposition getConjuncts() {
+    return conjuncts;
+  }
+
+  /**
+   * Returns the query predicate.
+   *
+   * @return query predicate, empty if there is none
+   */
+  public Optional<Predicate> getPredicate() {
+    return Optional.ofNullable(predicate);
+  }
+
+  /**
+   * Returns the constant time ranges of the variables implied by the query predicate, e.g. to
+   * restrict candidates by a range scan of a temporal index. The ranges include the bounds
+   * implied by comparisons between variables, see {@link TemporalConstraintChecker}.
+   *
+   * @return time ranges of the query variables
+   */
+  public TimeRangeExtractor.TimeRanges getTimeRanges() {
+    return getTemporalConstraints().getRanges();
+  }
+
+  /**
+   * Returns the solution of the temporal constraints of the query predicate.
+   *
+   * @return satisfiability and implied bounds of the temporal constraints
+   */
+  public TemporalConstraintChecker.Solution getTemporalConstraints() {
+    if (temporalConstraints == null) {
+      temporalConstraints = TemporalConstraintChecker.check(getPredicate());
+    }
+    return temporalConstraints;
+  }
+
+  /**
+   * Reads the current point in time for an execution of the query from the clock of its
+   * {@code Now}. Executors fix all bindings of an execution to this value, see
+   * {@link TimeBinding#fixNow(long)}.
+   *
+   * @return UNIX epoch milliseconds, 0 if the query does not refer to {@code Now}
+   */
+  public long readNow() {
+    return now == null ? 0 : now.currentMillis();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("QueryGraph{");
+    for (int variable = 0; variable < size(); variable++) {
+      if (variable > 0) {
+        sb.append(", ");
+      }
+      if (isEdge(variable)) {
+        sb.append('(').append(dictionary.getVariable(sources[variable])).append(")-[")
+          .append(dictionary.getVariable(variable)).append("]->(")
+          .append(dictionary.getVariable(targets[variable])).append(')');
+      } else {
+        sb.append('(').append(dictionary.getVariable(variable)).append(')');
+      }
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.predicates.Predicate;
+
+import java.lang.management.ManagementFactory;
+import java.util.OptionalLong;
+
+/**
+ * Counters collected by {@link GDLMatcher#profile()}, i.e. by a run of a query in
+ * {@link org.gradoop.gdl.model.QueryMode#PROFILE PROFILE} mode.
+ * <p>
+ * For each step of the plan, the number of candidates that were bound (evaluations), the number
+ * of candidates that satisfied structure, match strategy and conjuncts (passes) and the time spent
+ * checking them is recorded. The same counters are recorded for each conjunct evaluated by a step.
+ * Allocations are measured for the whole run if the JVM supports per-thread allocation counters.
+ */
+public class QueryProfile {
+
+  /**
+   * Counters of a single operator, i.e. a plan step or a conjunct
+   */
+  public static class Counter {
+
+    /**
+     * Number of evaluations
+     */
+    private long evaluations;
+
+    /**
+     * Number of evaluations that passed
+     */
+    private long passes;
+
+    /**
+     * Time spent in the evaluations
+     */
+    private long nanos;
+
+    /**
+     * Records an evaluation.
+     *
+     * @param passed true iff the evaluation passed
+     * @param nanos time spent in the evaluation
+     */
+    void record(boolean passed, long nanos) {
+      evaluations++;
+      if (passed) {
+        passes++;
+      }
+      this.nanos += nanos;
+    }
+
+    /**
+     * Returns the number of evaluations.
+     *
+     * @return number of evaluations
+     */
+    public long getEvaluations() {
+      return evaluations;
+    }
+
+    /**
+     * Returns the number of evaluations that passed.
+     *
+     * @return number of passes
+     */
+    public long getPasses() {
+      return passes;
+    }
+
+    /**
+     * Returns the time spent in the evaluations, including the time of nested operators.
+     *
+     * @return time in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("evaluations: %d, passes: %d, time: %.3f ms",
+        evaluations, passes, nanos / 1e6);
+    }
+  }
+
+  /**
+   * The profiled plan
+   */
+  private final MatchPlan plan;
+
+  /**
+   * Counters of each step
+   */
+  private final Counter[] steps;
+
+  /**
+   * Counters of each conjunct by step
+   */
+  private final Counter[][] conjuncts;
+
+  /**
+   * Number of embeddings found
+   */
+  private long rows;
+
+  /**
+   * Duration of the run
+   */
+  private long nanos;
+
+  /**
+   * Bytes allocated during the run, -1 if not measurable
+   */
+  private long allocatedBytes = -1;
+
+  /**
+   * Creates empty counters for a plan.
+   *
+   * @param plan the profiled plan
+   */
+  QueryProfile(MatchPlan plan) {
+    this.plan = plan;
+    int size = plan.getSteps().size();
+    this.steps = new Counter[size];
+    this.conjuncts = new Counter[size][];
+    for (int i = 0; i < size; i++) {
+      steps[i] = new Counter();
+      conjuncts[i] = new Counter[plan.getSteps().get(i).getConjuncts().length];
+      for (int c = 0; c < conjuncts[i].length; c++) {
+        conjuncts[i][c] = new Counter();
+      }
+    }
+  }
+
+  /**
+   * Records the totals of the run.
+   *
+   * @param rows number of embeddings found
+   * @param nanos duration of the run
+   * @param allocatedBytes bytes allocated during the run, -1 if not measurable
+   */
+  void finish(long rows, long nanos, long allocatedBytes) {
+    this.rows = rows;
+    this.nanos = nanos;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /**
+   * Returns the profiled plan.
+   *
+   * @return match plan
+   */
+  public MatchPlan getPlan() {
+    return plan;
+  }
+
+  /**
+   * Returns the counters of a step. Evaluations are the candidates bound by the step, passes the
+   * candidates the search continued with.
+   *
+   * @param step index of the step
+   * @return counters of the step
+   */
+  public Counter getStepCounter(int step) {
+    return steps[step];
+  }
+
+  /**
+   * Returns the counters of a conjunct evaluated by a step.
+   *
+   * @param step index of the step
+   * @param conjunct index of the conjunct in {@link MatchPlan.Step#getConjuncts()}
+   * @return counters of the conjunct
+   */
+  public Counter getConjunctCounter(int step, int conjunct) {
+    return conjuncts[step][conjunct];
+  }
+
+  /**
+   * Returns the number of embeddings found.
+   *
+   * @return number of embeddings
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the duration of the run.
+   *
+   * @return time in nanoseconds
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+  /**
+   * Returns the number of bytes allocated by the run.
+   *
+   * @return allocated bytes, empty if the JVM does not support allocation counters
+   */
+  public OptionalLong getAllocatedBytes() {
+    return allocatedBytes < 0 ? OptionalLong.empty() : OptionalLong.of(allocatedBytes);
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread so far.
+   *
+   * @return allocated bytes, -1 if not supported
+   */
+  static long currentThreadAllocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    try {
+      if (!threads.isThreadAllocatedMemorySupported() ||
+        !threads.isThreadAllocatedMemoryEnabled()) {
+        return -1;
+      }
+      return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    } catch (UnsupportedOperationException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < steps.length; i++) {
+      plan.appendStep(sb, i);
+      sb.append("\n  ").append(steps[i]).append('\n');
+      Predicate[] stepConjuncts = plan.getSteps().get(i).getConjuncts();
+      for (int c = 0; c < stepConjuncts.length; c++) {
+        sb.append("  ").append(stepConjuncts[c]).append(": ").append(conjuncts[i][c]).append('\n');
+      }
+    }
+    sb.append(String.format("rows: %d, time: %.3f ms", rows, nanos / 1e6));
+    if (allocatedBytes >= 0) {
+      sb.append(", allocated: ").append(allocatedBytes).append(" bytes");
+    }
+    return sb.append('\n').toString();
+  }
+}
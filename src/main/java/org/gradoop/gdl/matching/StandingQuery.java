@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.utils.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A MATCH query registered on a data handler whose result is kept up to date when the data
+ * handler is extended by {@link GDLHandler#append(String)}.
+ * <p>
+ * Appending only adds vertices and edges, thus the result only grows: the new embeddings are
+ * exactly those that bind at least one new element. They are computed with delta rules: for each
+ * query variable {@code i}, variable {@code i} is bound to the new elements, all variables
+ * {@code j < i} are restricted to old elements and all others are unrestricted. Every new
+ * embedding is thereby found exactly once, namely for the smallest variable bound to a new
+ * element. Each delta search starts at the new elements and expands over the adjacency index, so
+ * for connected patterns the cost is proportional to the size of the change and its neighbourhood
+ * rather than to the size of the data graph.
+ * <p>
+ * New embeddings are passed to the registered listeners (the change stream) and, if enabled,
+ * collected in the materialized result.
+ * <p>
+ * Instances are not thread-safe, appends must not run concurrently with reading the result.
+ */
+public class StandingQuery implements GDLHandler.AppendListener, AutoCloseable {
+
+  /**
+   * The data handler the query is registered on
+   */
+  private final GDLHandler data;
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * Index over the data graph, extended on every append
+   */
+  private final GraphIndex graph;
+
+  /**
+   * One matcher per query variable, whose plan starts at that variable
+   */
+  private final GDLMatcher[] deltaMatchers;
+
+  /**
+   * Listeners receiving the new embeddings
+   */
+  private final List<Consumer<Embedding>> listeners;
+
+  /**
+   * Materialized result, null if the result is not materialized
+   */
+  private final List<Embedding> results;
+
+  /**
+   * Number of embeddings
+   */
+  private long count;
+
+  /**
+   * Creates a standing query with a materialized result and registers it on a data handler.
+   *
+   * @param query handler holding the MATCH query
+   * @param data handler holding the data graph
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public StandingQuery(GDLHandler query, GDLHandler data) {
+    this(query, data, true, MatchStrategy.HOMOMORPHISM, MatchStrategy.ISOMORPHISM);
+  }
+
+  /**
+   * Creates a standing query and registers it on a data handler. The initial result is computed
+   * immediately.
+   *
+   * @param query handler holding the MATCH query
+   * @param data handler holding the data graph
+   * @param materialize true to collect the result, false to only count it and pass new
+   *                    embeddings to the listeners
+   * @param vertexStrategy match strategy for vertex variables
+   * @param edgeStrategy match strategy for edge variables
+   * @throws IllegalArgumentException if the query contains variable length edges
+   */
+  public StandingQuery(GDLHandler query, GDLHandler data, boolean materialize,
+    MatchStrategy vertexStrategy, MatchStrategy edgeStrategy) {
+    this.data = data;
+    this.query = new QueryGraph(query);
+    this.graph = GraphIndex.of(data);
+    this.listeners = new ArrayList<>();
+    this.results = materialize ? new ArrayList<>() : null;
+
+    GDLMatcher matcher = new GDLMatcher(this.query, graph)
+      .setMatchStrategy(vertexStrategy, edgeStrategy);
+    this.deltaMatchers = new GDLMatcher[this.query.size()];
+    for (int variable = 0; variable < deltaMatchers.length; variable++) {
+      deltaMatchers[variable] = new GDLMatcher(this.query, graph)
+        .setMatchStrategy(vertexStrategy, edgeStrategy)
+        .setPlan(new MatchPlan(this.query, orderFrom(this.query, variable)));
+    }
+    matcher.iterator().forEachRemaining(this::emit);
+    data.addAppendListener(this);
+  }
+
+  /**
+   * Registers a listener that receives every embedding found by subsequent appends.
+   *
+   * @param listener the listener
+   * @return this query
+   */
+  public StandingQuery addListener(Consumer<Embedding> listener) {
+    listeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Returns the current result.
+   *
+   * @return all embeddings found so far
+   * @throws IllegalStateException if the result is not materialized
+   */
+  public List<Embedding> getResults() {
+    if (results == null) {
+      throw new IllegalStateException("The result is not materialized");
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  /**
+   * Returns the number of embeddings found so far.
+   *
+   * @return number of embeddings
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the query.
+   *
+   * @return query graph
+   */
+  public QueryGraph getQuery() {
+    return query;
+  }
+
+  /**
+   * Unregisters the query from the data handler, the result is no longer updated.
+   */
+  @Override
+  public void close() {
+    data.removeAppendListener(this);
+  }
+
+  /**
+   * Indexes the new elements and matches the delta.
+   *
+   * @param vertices vertices created by the appended script
+   * @param edges edges created by the appended script
+   */
+  @Override
+  public void appended(List<Vertex> vertices, List<Edge> edges) {
+    int oldVertexCount = graph.getVertexCount();
+    int oldEdgeCount = graph.getEdgeCount();
+    vertices.forEach(graph::addVertex);
+    edges.forEach(graph::addEdge);
+    if (graph.getVertexCount() == oldVertexCount && graph.getEdgeCount() == oldEdgeCount) {
+      return;
+    }
+    int[] bounds = new int[query.size()];
+    Arrays.fill(bounds, Integer.MAX_VALUE);
+    for (int variable = 0; variable < query.size(); variable++) {
+      boolean edge = query.isEdge(variable);
+      int oldCount = edge ? oldEdgeCount : oldVertexCount;
+      int newCount = edge ? graph.getEdgeCount() : graph.getVertexCount();
+      if (newCount > oldCount) {
+        GDLMatcher.MatchIterator search =
+          deltaMatchers[variable].deltaIterator(oldCount, bounds.clone());
+        search.forEachRemaining(this::emit);
+      }
+      // later deltas only bind this variable to old elements
+      bounds[variable] = oldCount;
+    }
+  }
+
+  /**
+   * Adds an embedding to the result and passes it to the listeners.
+   *
+   * @param embedding new embedding
+   */
+  private void emit(Embedding embedding) {
+    count++;
+    if (results != null) {
+      results.add(embedding);
+    }
+    for (Consumer<Embedding> listener : listeners) {
+      listener.accept(embedding);
+    }
+  }
+
+  /**
+   * Computes a binding order that starts at the given variable and then follows the structure of
+   * the pattern, so that every further variable of its component is expanded from a bound one.
+   * Other components are appended in the same way.
+   *
+   * @param query the query
+   * @param start first variable
+   * @return binding order
+   */
+  static int[] orderFrom(QueryGraph query, int start) {
+    int size = query.size();
+    int[] order = new int[size];
+    BitSet visited = new BitSet(size);
+    int length = 0;
+    int next = start;
+    while (next >= 0) {
+      // breadth-first traversal of the component of next
+      int head = length;
+      order[length++] = next;
+      visited.set(next);
+      while (head < length) {
+        int variable = order[head++];
+        if (query.isEdge(variable)) {
+          for (int vertex : new int[] {query.getSource(variable), query.getTarget(variable)}) {
+            if (!visited.get(vertex)) {
+              visited.set(vertex);
+              order[length++] = vertex;
+            }
+          }
+        } else {
+          IntList incidentEdges = query.getIncidentEdges(variable);
+          for (int i = 0; i < incidentEdges.size(); i++) {
+            int edge = incidentEdges.get(i);
+            if (!visited.get(edge)) {
+              visited.set(edge);
+              order[length++] = edge;
+            }
+          }
+        }
+      }
+      next = visited.nextClearBit(0);
+      if (next >= size) {
+        next = -1;
+      }
+    }
+    return order;
+  }
+}
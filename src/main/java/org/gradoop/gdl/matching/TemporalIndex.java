@@ -0,0 +1,412 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * Endpoint-sorted index over the transaction and valid time intervals of the elements of a
+ * {@link GraphIndex}. It computes {@link TemporalView}s of the data graph, e.g. its state as of a
+ * point in time.
+ * <p>
+ * For each dimension, the element positions are sorted once by interval start and once by
+ * interval end. Selecting all intervals with {@code from <= x} and {@code to >= y} takes a binary
+ * search in both orders and a scan over the smaller of the two candidate ranges, i.e.
+ * O(log n + min(k1, k2)) time. Intervals are closed, an element without a start (end) value is
+ * valid since (until) forever.
+ * <p>
+ * Intervals with an explicitly open end ({@link TimeLiteral#OPEN_END}) and intervals without an
+ * end value are kept in two separate partitions sorted by start. Both qualify for every selection
+ * once they have started, so they are never scanned as candidates of the end order. Snapshots of
+ * the current state of a graph, where most elements are still valid, take O(log n + k) time.
+ * Only the first partition is returned by {@link #openEnded(Dimension)}: a missing end is
+ * unbounded for selections, but unlike {@code Infinity} it does not state that an element is
+ * still valid.
+ * <p>
+ * The index does not reflect elements added to the graph index after its creation.
+ */
+public class TemporalIndex {
+
+  /**
+   * Time dimension of the TPGM
+   */
+  public enum Dimension {
+    /**
+     * Transaction time
+     */
+    TX(TimeSelector.TimeField.TX_FROM, TimeSelector.TimeField.TX_TO),
+    /**
+     * Valid time
+     */
+    VAL(TimeSelector.TimeField.VAL_FROM, TimeSelector.TimeField.VAL_TO);
+
+    /**
+     * Field holding the interval start
+     */
+    private final TimeSelector.TimeField from;
+
+    /**
+     * Field holding the interval end
+     */
+    private final TimeSelector.TimeField to;
+
+    /**
+     * Creates a dimension
+     *
+     * @param from field holding the interval start
+     * @param to field holding the interval end
+     */
+    Dimension(TimeSelector.TimeField from, TimeSelector.TimeField to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * Returns the field holding the interval start.
+     *
+     * @return start field
+     */
+    public TimeSelector.TimeField getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the field holding the interval end.
+     *
+     * @return end field
+     */
+    public TimeSelector.TimeField getTo() {
+      return to;
+    }
+  }
+
+  /**
+   * The indexed graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Vertex intervals by dimension
+   */
+  private final Endpoints[] vertexEndpoints;
+
+  /**
+   * Edge intervals by dimension
+   */
+  private final Endpoints[] edgeEndpoints;
+
+  /**
+   * Creates an index over the current elements of a graph index.
+   *
+   * @param graph the graph index
+   */
+  public TemporalIndex(GraphIndex graph) {
+    this.graph = graph;
+    Dimension[] dimensions = Dimension.values();
+    this.vertexEndpoints = new Endpoints[dimensions.length];
+    this.edgeEndpoints = new Endpoints[dimensions.length];
+    for (Dimension dimension : dimensions) {
+      vertexEndpoints[dimension.ordinal()] =
+        new Endpoints(graph.getVertexCount(), graph::getVertex, dimension);
+      edgeEndpoints[dimension.ordinal()] =
+        new Endpoints(graph.getEdgeCount(), graph::getEdge, dimension);
+    }
+  }
+
+  /**
+   * Creates an index over all vertices and edges of a handler.
+   *
+   * @param handler the handler holding the data graph
+   * @return temporal index over the data graph
+   */
+  public static TemporalIndex of(GDLHandler handler) {
+    return new TemporalIndex(GraphIndex.of(handler));
+  }
+
+  /**
+   * Returns the indexed graph.
+   *
+   * @return graph index the view positions refer to
+   */
+  public GraphIndex getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns all elements that are valid at the given point in time, i.e. the elements
+   * {@code x} with {@code x.asOf(asOf)}.
+   *
+   * @param dimension time dimension
+   * @param asOf point in time (UNIX epoch milliseconds)
+   * @return snapshot view
+   */
+  public TemporalView snapshot(Dimension dimension, long asOf) {
+    return select(dimension, asOf, asOf);
+  }
+
+  /**
+   * Returns all elements that are valid at some point in the interval {@code (from, to)}, i.e.
+   * the elements {@code x} with {@code x.fromTo(from, to)}.
+   *
+   * @param dimension time dimension
+   * @param from start of the interval, exclusive
+   * @param to end of the interval, exclusive
+   * @return slice view
+   */
+  public TemporalView slice(Dimension dimension, long from, long to) {
+    if (to == Long.MIN_VALUE || from == Long.MAX_VALUE) {
+      return new TemporalView(graph, new BitSet(), new BitSet());
+    }
+    return select(dimension, to - 1, from + 1);
+  }
+
+  /**
+   * Returns all elements whose interval has an explicitly open end ({@code Infinity}), i.e. that
+   * are valid from their start until further notice. Elements without an end value are not
+   * contained.
+   *
+   * @param dimension time dimension
+   * @return view of the open-ended elements
+   */
+  public TemporalView openEnded(Dimension dimension) {
+    return TemporalView.of(graph, vertexEndpoints[dimension.ordinal()].selectOpen(),
+      edgeEndpoints[dimension.ordinal()].selectOpen());
+  }
+
+  /**
+   * Returns the elements that became valid or invalid between two points in time.
+   *
+   * @param dimension time dimension
+   * @param t1 first point in time
+   * @param t2 second point in time
+   * @return difference between the snapshots at {@code t1} and {@code t2}
+   */
+  public TemporalView.Diff diff(Dimension dimension, long t1, long t2) {
+    return new TemporalView.Diff(snapshot(dimension, t1), snapshot(dimension, t2));
+  }
+
+  /**
+   * Selects all elements with {@code from <= maxFrom} and {@code to >= minTo}. Edges are only
+   * selected if their source and target vertex are selected.
+   *
+   * @param dimension time dimension
+   * @param maxFrom maximum interval start
+   * @param minTo minimum interval end
+   * @return view of the selected elements
+   */
+  private TemporalView select(Dimension dimension, long maxFrom, long minTo) {
+    BitSet vertices = vertexEndpoints[dimension.ordinal()].select(maxFrom, minTo);
+    BitSet edges = edgeEndpoints[dimension.ordinal()].select(maxFrom, minTo);
+    return TemporalView.of(graph, vertices, edges);
+  }
+
+  @Override
+  public String toString() {
+    return "TemporalIndex{vertices=" + graph.getVertexCount() +
+      ", edges=" + graph.getEdgeCount() + "}";
+  }
+
+  /**
+   * Intervals of the vertices or edges in one dimension. Open-ended intervals and intervals
+   * without an end value are kept in two partitions sorted by start, the remaining (closed)
+   * intervals are sorted by start and by end.
+   */
+  private static final class Endpoints {
+
+    /**
+     * Interval start by position
+     */
+    private final long[] from;
+
+    /**
+     * Interval end by position
+     */
+    private final long[] to;
+
+    /**
+     * Positions of the closed intervals sorted by interval start
+     */
+    private final int[] byFrom;
+
+    /**
+     * Starts of the closed intervals in ascending order
+     */
+    private final long[] sortedFrom;
+
+    /**
+     * Positions of the closed intervals sorted by interval end
+     */
+    private final int[] byTo;
+
+    /**
+     * Ends of the closed intervals in ascending order
+     */
+    private final long[] sortedTo;
+
+    /**
+     * Positions of the open-ended intervals sorted by interval start
+     */
+    private final int[] openByFrom;
+
+    /**
+     * Starts of the open-ended intervals in ascending order
+     */
+    private final long[] sortedOpenFrom;
+
+    /**
+     * Positions of the intervals without end value sorted by interval start
+     */
+    private final int[] unendedByFrom;
+
+    /**
+     * Starts of the intervals without end value in ascending order
+     */
+    private final long[] sortedUnendedFrom;
+
+    /**
+     * Loads, partitions and sorts the intervals of some elements.
+     *
+     * @param count number of elements
+     * @param elements returns the element at a position
+     * @param dimension time dimension
+     */
+    Endpoints(int count, IntFunction<? extends GraphElement> elements, Dimension dimension) {
+      this.from = new long[count];
+      this.to = new long[count];
+      boolean[] unended = new boolean[count];
+      int open = 0;
+      int missing = 0;
+      for (int i = 0; i < count; i++) {
+        GraphElement element = elements.apply(i);
+        if (!TimeProperties.getTime(element, dimension.getFrom(), from, i)) {
+          from[i] = TimeLiteral.OPEN_START;
+        }
+        if (!TimeProperties.getTime(element, dimension.getTo(), to, i)) {
+          to[i] = TimeLiteral.OPEN_END;
+          unended[i] = true;
+          missing++;
+        } else if (to[i] == TimeLiteral.OPEN_END) {
+          open++;
+        }
+      }
+      int closedCount = count - open - missing;
+      long[] closedFrom = new long[closedCount];
+      long[] closedTo = new long[closedCount];
+      int[] closed = new int[closedCount];
+      long[] openFrom = new long[open];
+      int[] opened = new int[open];
+      long[] unendedFrom = new long[missing];
+      int[] unendedPositions = new int[missing];
+      for (int i = 0, c = 0, o = 0, u = 0; i < count; i++) {
+        if (unended[i]) {
+          unendedFrom[u] = from[i];
+          unendedPositions[u++] = i;
+        } else if (to[i] == TimeLiteral.OPEN_END) {
+          openFrom[o] = from[i];
+          opened[o++] = i;
+        } else {
+          closedFrom[c] = from[i];
+          closedTo[c] = to[i];
+          closed[c++] = i;
+        }
+      }
+      this.byFrom = sort(closedFrom, closed);
+      this.sortedFrom = closedFrom;
+      this.byTo = sort(closedTo, closed);
+      this.sortedTo = closedTo;
+      this.openByFrom = sort(openFrom, opened);
+      this.sortedOpenFrom = openFrom;
+      this.unendedByFrom = sort(unendedFrom, unendedPositions);
+      this.sortedUnendedFrom = unendedFrom;
+    }
+
+    /**
+     * Sorts the given values in place and returns the positions in the same order.
+     *
+     * @param values values of the positions, sorted by this method
+     * @param positions positions of the values
+     * @return positions sorted by value
+     */
+    private static int[] sort(long[] values, int[] positions) {
+      int[] order = TemporalJoin.sortedOrder(values, values.length);
+      int[] sorted = new int[order.length];
+      long[] copy = values.clone();
+      for (int i = 0; i < order.length; i++) {
+        sorted[i] = positions[order[i]];
+        values[i] = copy[order[i]];
+      }
+      return sorted;
+    }
+
+    /**
+     * Selects all positions with {@code from <= maxFrom} and {@code to >= minTo}.
+     *
+     * @param maxFrom maximum interval start
+     * @param minTo minimum interval end
+     * @return selected positions
+     */
+    BitSet select(long maxFrom, long minTo) {
+      BitSet result = new BitSet(from.length);
+      // every open-ended or unended interval that has started qualifies
+      int startedOpen = TemporalJoin.upperBound(sortedOpenFrom, maxFrom);
+      for (int i = 0; i < startedOpen; i++) {
+        result.set(openByFrom[i]);
+      }
+      int startedUnended = TemporalJoin.upperBound(sortedUnendedFrom, maxFrom);
+      for (int i = 0; i < startedUnended; i++) {
+        result.set(unendedByFrom[i]);
+      }
+      // byFrom[0, started) have started, byTo[ending, n) have not yet ended
+      int started = TemporalJoin.upperBound(sortedFrom, maxFrom);
+      int ending = TemporalJoin.lowerBound(sortedTo, minTo);
+      if (started <= byTo.length - ending) {
+        for (int i = 0; i < started; i++) {
+          if (to[byFrom[i]] >= minTo) {
+            result.set(byFrom[i]);
+          }
+        }
+      } else {
+        for (int i = ending; i < byTo.length; i++) {
+          if (from[byTo[i]] <= maxFrom) {
+            result.set(byTo[i]);
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Selects all positions with an explicitly open-ended interval.
+     *
+     * @return selected positions
+     */
+    BitSet selectOpen() {
+      BitSet result = new BitSet(from.length);
+      for (int position : openByFrom) {
+        result.set(position);
+      }
+      return result;
+    }
+  }
+}
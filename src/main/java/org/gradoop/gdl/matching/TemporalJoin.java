@@ -0,0 +1,855 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.ComparisonKernel;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.IntList;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Joins two variables of a query on the temporal predicates between them.
+ * <p>
+ * The operators of the temporal extension, e.g. {@code a.tx.overlaps(b.val)},
+ * {@code a.tx.precedes(b.tx)} or {@code a.val.contains(b.val)}, are translated into comparisons
+ * between time selectors, possibly wrapped in {@link MaxTimePoint} and {@link MinTimePoint}. Since
+ * {@code max(x1, .., xn) < min(y1, .., ym)} holds iff {@code xi < yj} holds for all pairs, every
+ * such conjunct is decomposed into atomic comparisons {@code left.X op right.Y} between one time
+ * field of each variable. Atoms over a single variable or literals are applied as filters to the
+ * candidates of that variable, conjuncts that can not be decomposed are evaluated for each pair.
+ * <p>
+ * The join is evaluated by one of the following strategies:
+ * <ul>
+ *   <li>{@link Strategy#OVERLAP_SWEEP} if there are two atoms {@code l.X < r.Y} and
+ *   {@code l.Z > r.W} (or their non-strict variants), i.e. an intersection of the intervals
+ *   {@code [l.X, l.Z]} and {@code [r.W, r.Y]}. Both sides are sorted by interval start and
+ *   swept in a single merge pass: each interval is paired with the intervals of the other side
+ *   that start at or after it and before its end (forward scan). For proper intervals every
+ *   candidate pair is a result.</li>
+ *   <li>{@link Strategy#EQUI_JOIN} if there is an atom {@code l.X = r.Y}, e.g. for
+ *   {@code immediatelyPrecedes}. The right side is sorted by {@code r.Y} and probed by binary
+ *   search.</li>
+ *   <li>{@link Strategy#RANGE_JOIN} if there is any other inequality, e.g. for
+ *   {@code precedes}. The right side is sorted and each left candidate selects a contiguous range
+ *   by binary search.</li>
+ *   <li>{@link Strategy#NESTED_LOOP} otherwise.</li>
+ * </ul>
+ * The sort based strategies take O((n + m) log m + k) time, where k is the number of candidate
+ * pairs, instead of O(n m). All atoms and remaining conjuncts are checked for each candidate pair.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class TemporalJoin {
+
+  /**
+   * Evaluation strategy of a join
+   */
+  public enum Strategy {
+    /**
+     * Forward scan over both sides sorted by interval start
+     */
+    OVERLAP_SWEEP,
+    /**
+     * Binary search for equal time values
+     */
+    EQUI_JOIN,
+    /**
+     * Binary search for a range of time values
+     */
+    RANGE_JOIN,
+    /**
+     * Compare all pairs
+     */
+    NESTED_LOOP
+  }
+
+  /**
+   * Receives the pairs computed by a join
+   */
+  @FunctionalInterface
+  public interface PairConsumer {
+    /**
+     * Called once for each pair that satisfies the join predicate.
+     *
+     * @param left position of the element bound to the left variable
+     * @param right position of the element bound to the right variable
+     */
+    void accept(int left, int right);
+  }
+
+  /**
+   * Operand side of the left variable
+   */
+  private static final int LEFT = 0;
+
+  /**
+   * Operand side of the right variable
+   */
+  private static final int RIGHT = 1;
+
+  /**
+   * Operand side of literals
+   */
+  private static final int CONSTANT = 2;
+
+  /**
+   * Number of time fields
+   */
+  private static final int FIELDS = TimeSelector.TimeField.values().length;
+
+  /**
+   * The query
+   */
+  private final QueryGraph query;
+
+  /**
+   * The data graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Variable ids of the left and right variable
+   */
+  private final int[] variables;
+
+  /**
+   * Atoms referencing only the left or only the right variable, by side
+   */
+  private final List<List<Atom>> filters;
+
+  /**
+   * Atoms comparing a field of the left variable with a field of the right variable
+   */
+  private final List<Atom> atoms;
+
+  /**
+   * Conjuncts between both variables that are evaluated for each candidate pair
+   */
+  private final List<Predicate> residual;
+
+  /**
+   * True iff a decomposed conjunct compares literals and does not hold
+   */
+  private boolean unsatisfiable;
+
+  /**
+   * Chosen strategy
+   */
+  private final Strategy strategy;
+
+  /**
+   * Atom driving the strategy, for {@link Strategy#OVERLAP_SWEEP} the atom {@code l.X < r.Y}
+   */
+  private Atom primary;
+
+  /**
+   * For {@link Strategy#OVERLAP_SWEEP} the atom {@code l.Z > r.W}
+   */
+  private Atom secondary;
+
+  /**
+   * Binding used to evaluate residual conjuncts and single variable conjuncts
+   */
+  private final PartialMatch match;
+
+  /**
+   * Number of candidate pairs checked by the last join
+   */
+  private long candidatePairs;
+
+  /**
+   * Creates a join of two variables of a query.
+   *
+   * @param query the query
+   * @param graph the data graph
+   * @param left left variable
+   * @param right right variable
+   */
+  public TemporalJoin(QueryGraph query, GraphIndex graph, String left, String right) {
+    int leftId = query.getDictionary().lookup(left);
+    int rightId = query.getDictionary().lookup(right);
+    if (leftId < 0 || rightId < 0 || leftId == rightId) {
+      throw new IllegalArgumentException(
+        "Invalid join variables: " + left + ", " + right);
+    }
+    this.query = query;
+    this.graph = graph;
+    this.variables = new int[] {leftId, rightId};
+    this.filters = new ArrayList<>();
+    this.filters.add(new ArrayList<>());
+    this.filters.add(new ArrayList<>());
+    this.atoms = new ArrayList<>();
+    this.residual = new ArrayList<>();
+    this.match = new PartialMatch(query, graph);
+
+    String[] names = {left, right};
+    for (Predicate conjunct : query.getConjuncts().getConjuncts(left, right)) {
+      List<Atom> decomposed = new ArrayList<>();
+      if (decompose(conjunct, names, decomposed)) {
+        decomposed.forEach(this::addAtom);
+      } else {
+        residual.add(conjunct);
+      }
+    }
+    this.strategy = chooseStrategy();
+  }
+
+  /**
+   * Returns the strategy used to evaluate the join.
+   *
+   * @return join strategy
+   */
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Returns the number of candidate pairs that were checked by the last join. For the sort based
+   * strategies this is usually close to the number of results.
+   *
+   * @return number of checked pairs
+   */
+  public long getCandidatePairs() {
+    return candidatePairs;
+  }
+
+  /**
+   * Computes all pairs of data elements that can be bound to the two variables, i.e. that
+   * satisfy the label and the conjuncts of each variable and all conjuncts between them.
+   *
+   * @param consumer receives the pairs
+   */
+  public void join(PairConsumer consumer) {
+    match.fixNow(query.readNow());
+    joinCandidates(candidates(LEFT), candidates(RIGHT), consumer);
+  }
+
+  /**
+   * Computes all pairs of the given candidates that satisfy the conjuncts between the two
+   * variables.
+   *
+   * @param leftCandidates positions of the candidates of the left variable
+   * @param rightCandidates positions of the candidates of the right variable
+   * @param consumer receives the pairs
+   */
+  public void join(IntList leftCandidates, IntList rightCandidates, PairConsumer consumer) {
+    match.fixNow(query.readNow());
+    joinCandidates(leftCandidates, rightCandidates, consumer);
+  }
+
+  /**
+   * Computes all pairs of the given candidates with a fixed value of {@code Now}.
+   *
+   * @param leftCandidates positions of the candidates of the left variable
+   * @param rightCandidates positions of the candidates of the right variable
+   * @param consumer receives the pairs
+   */
+  private void joinCandidates(IntList leftCandidates, IntList rightCandidates,
+    PairConsumer consumer) {
+    candidatePairs = 0;
+    if (unsatisfiable) {
+      return;
+    }
+    Side left = new Side(LEFT, leftCandidates);
+    Side right = new Side(RIGHT, rightCandidates);
+    if (left.size == 0 || right.size == 0) {
+      return;
+    }
+    switch (strategy) {
+    case OVERLAP_SWEEP:
+      sweep(left, right, consumer);
+      break;
+    case EQUI_JOIN:
+    case RANGE_JOIN:
+      rangeJoin(left, right, consumer);
+      break;
+    default:
+      for (int i = 0; i < left.size; i++) {
+        for (int j = 0; j < right.size; j++) {
+          check(left, i, right, j, consumer);
+        }
+      }
+      break;
+    }
+  }
+
+  /**
+   * Computes all pairs.
+   *
+   * @return pairs of left and right element positions
+   */
+  public List<int[]> pairs() {
+    List<int[]> result = new ArrayList<>();
+    join((left, right) -> result.add(new int[] {left, right}));
+    return result;
+  }
+
+  /**
+   * Counts all pairs.
+   *
+   * @return number of pairs
+   */
+  public long count() {
+    long[] count = new long[1];
+    join((left, right) -> count[0]++);
+    return count[0];
+  }
+
+  /**
+   * Forward scan over both sides sorted by interval start. The element with the smaller start
+   * (left on ties) is paired with all unprocessed elements of the other side whose start lies
+   * before its end. Every pair is thereby considered once, by the element that starts first.
+   *
+   * @param left left side
+   * @param right right side
+   * @param consumer receives the pairs
+   */
+  private void sweep(Side left, Side right, PairConsumer consumer) {
+    // left interval [l.X, l.Z], right interval [r.W, r.Y]
+    long[] leftStart = left.values[primary.lhs.field];
+    long[] leftEnd = left.values[secondary.lhs.field];
+    long[] rightStart = right.values[secondary.rhs.field];
+    long[] rightEnd = right.values[primary.rhs.field];
+    // l.X op r.Y and r.W op l.Z
+    Comparator leftOp = primary.comparator;
+    Comparator rightOp = secondary.comparator.switchSides();
+
+    int[] leftOrder = sortedOrder(leftStart, left.size);
+    int[] rightOrder = sortedOrder(rightStart, right.size);
+    int i = 0;
+    int j = 0;
+    while (i < left.size && j < right.size) {
+      int l = leftOrder[i];
+      int r = rightOrder[j];
+      if (leftStart[l] <= rightStart[r]) {
+        for (int k = j; k < right.size &&
+          ComparisonKernel.compare(rightOp, rightStart[rightOrder[k]], leftEnd[l]); k++) {
+          check(left, l, right, rightOrder[k], consumer);
+        }
+        i++;
+      } else {
+        for (int k = i; k < left.size &&
+          ComparisonKernel.compare(leftOp, leftStart[leftOrder[k]], rightEnd[r]); k++) {
+          check(left, leftOrder[k], right, r, consumer);
+        }
+        j++;
+      }
+    }
+  }
+
+  /**
+   * Sorts the right side by the field of the primary atom and probes it with each left element.
+   * The right elements satisfying the primary atom form a contiguous range of the sorted order.
+   *
+   * @param left left side
+   * @param right right side
+   * @param consumer receives the pairs
+   */
+  private void rangeJoin(Side left, Side right, PairConsumer consumer) {
+    long[] leftValues = left.values[primary.lhs.field];
+    long[] rightValues = right.values[primary.rhs.field];
+    int[] rightOrder = sortedOrder(rightValues, right.size);
+    long[] sorted = new long[right.size];
+    for (int k = 0; k < right.size; k++) {
+      sorted[k] = rightValues[rightOrder[k]];
+    }
+    for (int l = 0; l < left.size; l++) {
+      long value = leftValues[l];
+      int from;
+      int to;
+      // l.X op r.Y
+      switch (primary.comparator) {
+      case LT:
+        from = upperBound(sorted, value);
+        to = right.size;
+        break;
+      case LTE:
+        from = lowerBound(sorted, value);
+        to = right.size;
+        break;
+      case GT:
+        from = 0;
+        to = lowerBound(sorted, value);
+        break;
+      case GTE:
+        from = 0;
+        to = upperBound(sorted, value);
+        break;
+      default:
+        from = lowerBound(sorted, value);
+        to = upperBound(sorted, value);
+        break;
+      }
+      for (int k = from; k < to; k++) {
+        check(left, l, right, rightOrder[k], consumer);
+      }
+    }
+  }
+
+  /**
+   * Checks a candidate pair against all atoms and residual conjuncts.
+   *
+   * @param left left side
+   * @param l index of the left element
+   * @param right right side
+   * @param r index of the right element
+   * @param consumer receives the pair if it satisfies the join predicate
+   */
+  private void check(Side left, int l, Side right, int r, PairConsumer consumer) {
+    candidatePairs++;
+    for (Atom atom : atoms) {
+      if (!ComparisonKernel.compare(atom.comparator,
+        left.values[atom.lhs.field][l], right.values[atom.rhs.field][r])) {
+        return;
+      }
+    }
+    if (!residual.isEmpty()) {
+      match.bind(variables[LEFT], left.positions[l]);
+      match.bind(variables[RIGHT], right.positions[r]);
+      for (Predicate conjunct : residual) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          return;
+        }
+      }
+    }
+    consumer.accept(left.positions[l], right.positions[r]);
+  }
+
+  /**
+   * Returns the candidates of a variable, i.e. all elements with its label that satisfy its
+   * single variable conjuncts.
+   *
+   * @param side side of the variable
+   * @return candidate positions
+   */
+  private IntList candidates(int side) {
+    int variable = variables[side];
+    boolean edge = query.isEdge(variable);
+    String label = query.getLabel(variable);
+    int count = edge ? graph.getEdgeCount() : graph.getVertexCount();
+    IntList base = null;
+    if (label != null) {
+      base = edge ? graph.getEdgesByLabel(label) : graph.getVerticesByLabel(label);
+      count = base.size();
+    }
+    List<Predicate> conjuncts =
+      query.getConjuncts().getConjuncts(query.getDictionary().getVariable(variable));
+    IntList result = new IntList(count);
+    for (int i = 0; i < count; i++) {
+      int position = base == null ? i : base.get(i);
+      match.bind(variable, position);
+      boolean accept = true;
+      for (Predicate conjunct : conjuncts) {
+        if (!PredicateEvaluator.evaluate(conjunct, match)) {
+          accept = false;
+          break;
+        }
+      }
+      if (accept) {
+        result.add(position);
+      }
+    }
+    match.unbind(variable);
+    return result;
+  }
+
+  /**
+   * Classifies an atom as literal comparison, filter or join atom.
+   *
+   * @param atom the atom
+   */
+  private void addAtom(Atom atom) {
+    int lhs = atom.lhs.side;
+    int rhs = atom.rhs.side;
+    if (lhs == CONSTANT && rhs == CONSTANT) {
+      unsatisfiable |= !ComparisonKernel.compare(atom.comparator, atom.lhs.value, atom.rhs.value);
+    } else if (lhs != RIGHT && rhs != RIGHT) {
+      filters.get(LEFT).add(atom);
+    } else if (lhs != LEFT && rhs != LEFT) {
+      filters.get(RIGHT).add(atom);
+    } else if (lhs == LEFT) {
+      atoms.add(atom);
+    } else {
+      atoms.add(new Atom(atom.rhs, atom.comparator.switchSides(), atom.lhs));
+    }
+  }
+
+  /**
+   * Chooses the strategy based on the join atoms.
+   *
+   * @return join strategy
+   */
+  private Strategy chooseStrategy() {
+    for (Atom atom : atoms) {
+      if (atom.comparator == Comparator.EQ) {
+        primary = atom;
+        return Strategy.EQUI_JOIN;
+      }
+    }
+    for (Atom lower : atoms) {
+      if (lower.comparator == Comparator.LT || lower.comparator == Comparator.LTE) {
+        for (Atom upper : atoms) {
+          if (upper.comparator == Comparator.GT || upper.comparator == Comparator.GTE) {
+            primary = lower;
+            secondary = upper;
+            return Strategy.OVERLAP_SWEEP;
+          }
+        }
+      }
+    }
+    for (Atom atom : atoms) {
+      if (atom.comparator != Comparator.NEQ) {
+        primary = atom;
+        return Strategy.RANGE_JOIN;
+      }
+    }
+    return Strategy.NESTED_LOOP;
+  }
+
+  /**
+   * Decomposes a conjunct into atomic comparisons of time fields and literals. Comparisons
+   * {@code max(x1, .., xn) < min(y1, .., ym)} are decomposed into the comparisons of all pairs,
+   * the same holds for the other inequalities. Equality is only decomposed between atoms.
+   *
+   * @param conjunct the conjunct
+   * @param names names of the left and right variable
+   * @param result list to add the atoms to
+   * @return true iff the conjunct is equivalent to the conjunction of the added atoms
+   */
+  static boolean decompose(Predicate conjunct, String[] names, List<Atom> result) {
+    if (!(conjunct instanceof Comparison)) {
+      return false;
+    }
+    Comparison comparison = (Comparison) conjunct;
+    ComparableExpression lhs = comparison.getLhs();
+    ComparableExpression rhs = comparison.getRhs();
+    Comparator comparator = comparison.getComparator();
+    if (comparator == Comparator.GT || comparator == Comparator.GTE) {
+      ComparableExpression swap = lhs;
+      lhs = rhs;
+      rhs = swap;
+      comparator = comparator.switchSides();
+    }
+    boolean inequality = comparator == Comparator.LT || comparator == Comparator.LTE;
+    List<Operand> lhsOperands = new ArrayList<>();
+    List<Operand> rhsOperands = new ArrayList<>();
+    if (!collectOperands(lhs, inequality, true, names, lhsOperands) ||
+      !collectOperands(rhs, inequality, false, names, rhsOperands)) {
+      return false;
+    }
+    for (Operand left : lhsOperands) {
+      for (Operand right : rhsOperands) {
+        result.add(new Atom(left, comparator, right));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Collects the operands of one side of a comparison. The maximum on the smaller side and the
+   * minimum on the greater side of an inequality are flattened into their arguments.
+   *
+   * @param expression the expression
+   * @param inequality true iff the comparison is {@code <} or {@code <=}
+   * @param smaller true iff the expression is the smaller side
+   * @param names names of the left and right variable
+   * @param result list to add the operands to
+   * @return true iff the expression could be decomposed
+   */
+  private static boolean collectOperands(ComparableExpression expression, boolean inequality,
+    boolean smaller, String[] names, List<Operand> result) {
+    if (inequality && (smaller ? expression instanceof MaxTimePoint :
+      expression instanceof MinTimePoint)) {
+      for (TimePoint argument : ((TimeTerm) expression).getArgs()) {
+        if (!collectOperands(argument, true, smaller, names, result)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (expression instanceof TimeLiteral) {
+      result.add(new Operand(CONSTANT, 0, ((TimeLiteral) expression).getMilliseconds()));
+      return true;
+    }
+    if (expression instanceof TimeSelector) {
+      TimeSelector selector = (TimeSelector) expression;
+      int field = selector.getTimeProp().ordinal();
+      if (names[LEFT].equals(selector.getVariable())) {
+        result.add(new Operand(LEFT, field, 0));
+        return true;
+      } else if (names[RIGHT].equals(selector.getVariable())) {
+        result.add(new Operand(RIGHT, field, 0));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the order of the first {@code size} indexes sorted by their keys (stable merge sort).
+   *
+   * @param keys the keys
+   * @param size number of keys
+   * @return indexes sorted by key
+   */
+  static int[] sortedOrder(long[] keys, int size) {
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    int[] buffer = new int[size];
+    for (int width = 1; width < size; width *= 2) {
+      for (int from = 0; from < size; from += 2 * width) {
+        int mid = Math.min(from + width, size);
+        int to = Math.min(from + 2 * width, size);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+          buffer[k++] = keys[order[j]] < keys[order[i]] ? order[j++] : order[i++];
+        }
+        while (i < mid) {
+          buffer[k++] = order[i++];
+        }
+        while (j < to) {
+          buffer[k++] = order[j++];
+        }
+      }
+      int[] swap = order;
+      order = buffer;
+      buffer = swap;
+    }
+    return order;
+  }
+
+  /**
+   * Returns the index of the first value that is not smaller than the key.
+   *
+   * @param sorted sorted values
+   * @param key the key
+   * @return insertion index
+   */
+  static int lowerBound(long[] sorted, long key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid] < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the index of the first value that is greater than the key.
+   *
+   * @param sorted sorted values
+   * @param key the key
+   * @return insertion index
+   */
+  static int upperBound(long[] sorted, long key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public String toString() {
+    return "TemporalJoin{strategy=" + strategy + ", atoms=" + atoms +
+      ", filters=" + filters + ", residual=" + residual + "}";
+  }
+
+  /**
+   * Operand of an atom: a time field of the left or right variable or a literal
+   */
+  static final class Operand {
+
+    /**
+     * {@link #LEFT}, {@link #RIGHT} or {@link #CONSTANT}
+     */
+    final int side;
+
+    /**
+     * Ordinal of the time field, if the operand is not a literal
+     */
+    final int field;
+
+    /**
+     * Value of a literal
+     */
+    final long value;
+
+    /**
+     * Creates a new operand.
+     *
+     * @param side side of the operand
+     * @param field ordinal of the time field
+     * @param value value of a literal
+     */
+    Operand(int side, int field, long value) {
+      this.side = side;
+      this.field = field;
+      this.value = value;
+    }
+
+    @Override
+    public String toString() {
+      return side == CONSTANT ? Long.toString(value) :
+        (side == LEFT ? "l." : "r.") + TimeSelector.TimeField.values()[field];
+    }
+  }
+
+  /**
+   * Atomic comparison of two operands
+   */
+  static final class Atom {
+
+    /**
+     * Left-hand side
+     */
+    final Operand lhs;
+
+    /**
+     * The comparator
+     */
+    final Comparator comparator;
+
+    /**
+     * Right-hand side
+     */
+    final Operand rhs;
+
+    /**
+     * Creates a new atom.
+     *
+     * @param lhs left-hand side
+     * @param comparator the comparator
+     * @param rhs right-hand side
+     */
+    Atom(Operand lhs, Comparator comparator, Operand rhs) {
+      this.lhs = lhs;
+      this.comparator = comparator;
+      this.rhs = rhs;
+    }
+
+    @Override
+    public String toString() {
+      return lhs + " " + comparator + " " + rhs;
+    }
+  }
+
+  /**
+   * Candidates of one variable together with their time values. Candidates that lack a time
+   * field referenced by an atom or that do not satisfy a filter atom are dropped.
+   */
+  private final class Side {
+
+    /**
+     * Positions of the remaining candidates
+     */
+    final int[] positions;
+
+    /**
+     * Time values of the remaining candidates by field ordinal, null for unused fields
+     */
+    final long[][] values;
+
+    /**
+     * Number of remaining candidates
+     */
+    final int size;
+
+    /**
+     * Loads the time values of the candidates of a variable.
+     *
+     * @param side {@link #LEFT} or {@link #RIGHT}
+     * @param candidates candidate positions
+     */
+    Side(int side, IntList candidates) {
+      boolean[] used = new boolean[FIELDS];
+      for (Atom atom : atoms) {
+        used[(side == LEFT ? atom.lhs : atom.rhs).field] = true;
+      }
+      List<Atom> sideFilters = filters.get(side);
+      for (Atom atom : sideFilters) {
+        for (Operand operand : new Operand[] {atom.lhs, atom.rhs}) {
+          if (operand.side == side) {
+            used[operand.field] = true;
+          }
+        }
+      }
+      TimeSelector.TimeField[] fields = TimeSelector.TimeField.values();
+      boolean edge = query.isEdge(variables[side]);
+      int count = candidates.size();
+      int[] positions = new int[count];
+      long[][] values = new long[FIELDS][];
+      for (int f = 0; f < FIELDS; f++) {
+        if (used[f]) {
+          values[f] = new long[count];
+        }
+      }
+      int size = 0;
+      candidates:
+      for (int i = 0; i < count; i++) {
+        int position = candidates.get(i);
+        GraphElement element = edge ? graph.getEdge(position) : graph.getVertex(position);
+        for (int f = 0; f < FIELDS; f++) {
+          if (used[f]) {
+            if (!TimeProperties.getTime(element, fields[f], values[f], size)) {
+              continue candidates;
+            }
+          }
+        }
+        for (Atom atom : sideFilters) {
+          long lhs = atom.lhs.side == CONSTANT ? atom.lhs.value : values[atom.lhs.field][size];
+          long rhs = atom.rhs.side == CONSTANT ? atom.rhs.value : values[atom.rhs.field][size];
+          if (!ComparisonKernel.compare(atom.comparator, lhs, rhs)) {
+            continue candidates;
+          }
+        }
+        positions[size++] = position;
+      }
+      this.positions = positions;
+      this.values = values;
+      this.size = size;
+    }
+  }
+}
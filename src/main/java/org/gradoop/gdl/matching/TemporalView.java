@@ -0,0 +1,325 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Vertex;
+
+import java.util.AbstractCollection;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only view of a subset of the vertices and edges of a {@link GraphIndex}, e.g. a snapshot
+ * computed by {@link TemporalIndex}. The subset is stored as bitsets over the element positions,
+ * elements are not copied.
+ */
+public class TemporalView {
+
+  /**
+   * The viewed graph
+   */
+  private final GraphIndex graph;
+
+  /**
+   * Positions of the contained vertices
+   */
+  private final BitSet vertices;
+
+  /**
+   * Positions of the contained edges
+   */
+  private final BitSet edges;
+
+  /**
+   * Creates a view. The bitsets are not copied and must not be modified afterwards.
+   *
+   * @param graph the viewed graph
+   * @param vertices positions of the contained vertices
+   * @param edges positions of the contained edges
+   */
+  TemporalView(GraphIndex graph, BitSet vertices, BitSet edges) {
+    this.graph = graph;
+    this.vertices = vertices;
+    this.edges = edges;
+  }
+
+  /**
+   * Creates a view of the given elements. Edges whose source or target vertex is not contained
+   * are dropped, i.e. the edge bitset is modified. The bitsets must not be modified afterwards.
+   *
+   * @param graph the viewed graph
+   * @param vertices positions of the contained vertices
+   * @param edges positions of the candidate edges
+   * @return view of the vertices and their consistent edges
+   */
+  static TemporalView of(GraphIndex graph, BitSet vertices, BitSet edges) {
+    for (int e = edges.nextSetBit(0); e >= 0; e = edges.nextSetBit(e + 1)) {
+      if (!vertices.get(graph.getSource(e)) || !vertices.get(graph.getTarget(e))) {
+        edges.clear(e);
+      }
+    }
+    return new TemporalView(graph, vertices, edges);
+  }
+
+  /**
+   * Returns the viewed graph.
+   *
+   * @return graph index the positions refer to
+   */
+  public GraphIndex getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the contained vertices.
+   *
+   * @return immutable collection backed by the view
+   */
+  public Collection<Vertex> getVertices() {
+    return new ElementCollection<>(vertices, graph::getVertex);
+  }
+
+  /**
+   * Returns the contained edges.
+   *
+   * @return immutable collection backed by the view
+   */
+  public Collection<Edge> getEdges() {
+    return new ElementCollection<>(edges, graph::getEdge);
+  }
+
+  /**
+   * Returns the positions of the contained vertices.
+   *
+   * @return copy of the vertex bitset
+   */
+  public BitSet getVertexPositions() {
+    return (BitSet) vertices.clone();
+  }
+
+  /**
+   * Returns the positions of the contained edges.
+   *
+   * @return copy of the edge bitset
+   */
+  public BitSet getEdgePositions() {
+    return (BitSet) edges.clone();
+  }
+
+  /**
+   * Checks whether the vertex at a position is contained.
+   *
+   * @param position vertex position
+   * @return true iff the vertex is contained
+   */
+  public boolean containsVertex(int position) {
+    return vertices.get(position);
+  }
+
+  /**
+   * Checks whether the edge at a position is contained.
+   *
+   * @param position edge position
+   * @return true iff the edge is contained
+   */
+  public boolean containsEdge(int position) {
+    return edges.get(position);
+  }
+
+  /**
+   * Returns the number of contained vertices.
+   *
+   * @return number of vertices
+   */
+  public int getVertexCount() {
+    return vertices.cardinality();
+  }
+
+  /**
+   * Returns the number of contained edges.
+   *
+   * @return number of edges
+   */
+  public int getEdgeCount() {
+    return edges.cardinality();
+  }
+
+  /**
+   * Returns the elements of this view that are not contained in another view of the same graph.
+   *
+   * @param other the other view
+   * @return difference of both views
+   */
+  public TemporalView minus(TemporalView other) {
+    if (graph != other.graph) {
+      throw new IllegalArgumentException("Views refer to different graphs");
+    }
+    BitSet vertexDiff = (BitSet) vertices.clone();
+    vertexDiff.andNot(other.vertices);
+    BitSet edgeDiff = (BitSet) edges.clone();
+    edgeDiff.andNot(other.edges);
+    return new TemporalView(graph, vertexDiff, edgeDiff);
+  }
+
+  @Override
+  public String toString() {
+    return "TemporalView{vertices=" + vertices + ", edges=" + edges + "}";
+  }
+
+  /**
+   * Difference between two views of the same graph, e.g. the snapshots at two points in time.
+   * <p>
+   * Edges of {@link #getAdded()} ({@link #getRemoved()}) may be incident to vertices that are
+   * contained in both views and hence not added (removed).
+   */
+  public static class Diff {
+
+    /**
+     * The earlier view
+     */
+    private final TemporalView before;
+
+    /**
+     * The later view
+     */
+    private final TemporalView after;
+
+    /**
+     * Elements contained in the later view only
+     */
+    private final TemporalView added;
+
+    /**
+     * Elements contained in the earlier view only
+     */
+    private final TemporalView removed;
+
+    /**
+     * Creates the difference between two views.
+     *
+     * @param before the earlier view
+     * @param after the later view
+     */
+    Diff(TemporalView before, TemporalView after) {
+      this.before = before;
+      this.after = after;
+      this.added = after.minus(before);
+      this.removed = before.minus(after);
+    }
+
+    /**
+     * Returns the earlier view.
+     *
+     * @return earlier view
+     */
+    public TemporalView getBefore() {
+      return before;
+    }
+
+    /**
+     * Returns the later view.
+     *
+     * @return later view
+     */
+    public TemporalView getAfter() {
+      return after;
+    }
+
+    /**
+     * Returns the elements contained in the later view only.
+     *
+     * @return added elements
+     */
+    public TemporalView getAdded() {
+      return added;
+    }
+
+    /**
+     * Returns the elements contained in the earlier view only.
+     *
+     * @return removed elements
+     */
+    public TemporalView getRemoved() {
+      return removed;
+    }
+
+    @Override
+    public String toString() {
+      return "Diff{added=" + added + ", removed=" + removed + "}";
+    }
+  }
+
+  /**
+   * Immutable collection of the elements at the positions set in a bitset
+   *
+   * @param <T> element type
+   */
+  private static final class ElementCollection<T> extends AbstractCollection<T> {
+
+    /**
+     * Positions of the contained elements
+     */
+    private final BitSet positions;
+
+    /**
+     * Returns the element at a position
+     */
+    private final IntFunction<T> elements;
+
+    /**
+     * Creates a collection.
+     *
+     * @param positions positions of the contained elements
+     * @param elements returns the element at a position
+     */
+    ElementCollection(BitSet positions, IntFunction<T> elements) {
+      this.positions = positions;
+      this.elements = elements;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private int next = positions.nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public T next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          T element = elements.apply(next);
+          next = positions.nextSetBit(next + 1);
+          return element;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return positions.cardinality();
+    }
+  }
+}
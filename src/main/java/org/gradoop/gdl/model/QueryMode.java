@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.model;
+
+/**
+ * How a MATCH query is to be executed, selected by an optional keyword in front of it, e.g.
+ * {@code EXPLAIN MATCH (a)-->(b)}.
+ */
+public enum QueryMode {
+  /**
+   * Compute the embeddings (no keyword)
+   */
+  EXECUTE,
+  /**
+   * Only show the normalized predicate and the planned binding order ({@code EXPLAIN})
+   */
+  EXPLAIN,
+  /**
+   * Compute the embeddings and collect counters per plan step and conjunct ({@code PROFILE})
+   */
+  PROFILE
+}
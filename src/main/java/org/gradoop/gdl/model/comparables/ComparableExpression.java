@@ -24,9 +24,9 @@ import java.util.Set;
 
 public interface ComparableExpression extends Serializable{
   /**
-   * Returns the variables of the expression
+   * Returns the variables of the expression. The set is computed once and must not be modified.
    *
-   * @return variable
+   * @return immutable set of variables
    */
   Set<String> getVariables();
 
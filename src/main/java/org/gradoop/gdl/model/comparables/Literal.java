@@ -18,7 +18,7 @@ package org.gradoop.gdl.model.comparables;
 
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -32,6 +32,11 @@ public class Literal implements ComparableExpression {
    */
   private final Object value;
 
+  /**
+   * Type of the literal value
+   */
+  private final ValueType valueType;
+
   /**
    * Creates a new Literal
    *
@@ -39,16 +44,26 @@ public class Literal implements ComparableExpression {
    */
   public Literal(Object value) {
     this.value = value;
+    this.valueType = ValueType.of(value);
   }
 
   public Object getValue() {
     return value;
   }
 
+  /**
+   * Returns the type of the literal value
+   *
+   * @return value type
+   */
+  public ValueType getValueType() {
+    return valueType;
+  }
+
 
   @Override
   public Set<String> getVariables() {
-    return new HashSet<>();
+    return Collections.emptySet();
   }
 
   @Override
@@ -18,7 +18,7 @@ package org.gradoop.gdl.model.comparables;
 
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -53,9 +53,7 @@ public class PropertySelector implements ComparableExpression {
 
   @Override
   public Set<String> getVariables() {
-    HashSet<String> var = new HashSet<>();
-    var.add(variable);
-    return var;
+    return Collections.singleton(variable);
   }
 
   @Override
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.model.comparables;
+
+import java.util.List;
+
+/**
+ * Type of a value as produced by the loader, e.g. of a {@link Literal} or a property value.
+ */
+public enum ValueType {
+  /**
+   * {@code null}
+   */
+  NULL,
+  /**
+   * {@link Boolean}
+   */
+  BOOLEAN,
+  /**
+   * {@link Integer} or {@link Long}
+   */
+  INTEGRAL,
+  /**
+   * {@link Float} or {@link Double}
+   */
+  FLOATING_POINT,
+  /**
+   * {@link String}
+   */
+  STRING,
+  /**
+   * {@link List} of values
+   */
+  LIST,
+  /**
+   * Any other type
+   */
+  OTHER,
+  /**
+   * Type is not known before evaluation, e.g. the value of a property selector
+   */
+  UNKNOWN;
+
+  /**
+   * Returns the type of a value.
+   *
+   * @param value the value
+   * @return type of the value, never {@link #UNKNOWN}
+   */
+  public static ValueType of(Object value) {
+    if (value == null) {
+      return NULL;
+    } else if (value instanceof Integer || value instanceof Long) {
+      return INTEGRAL;
+    } else if (value instanceof Double || value instanceof Float) {
+      return FLOATING_POINT;
+    } else if (value instanceof String) {
+      return STRING;
+    } else if (value instanceof Boolean) {
+      return BOOLEAN;
+    } else if (value instanceof List) {
+      return LIST;
+    }
+    return OTHER;
+  }
+
+  /**
+   * Checks whether values of this type are numbers.
+   *
+   * @return true iff the type is {@link #INTEGRAL} or {@link #FLOATING_POINT}
+   */
+  public boolean isNumeric() {
+    return this == INTEGRAL || this == FLOATING_POINT;
+  }
+}
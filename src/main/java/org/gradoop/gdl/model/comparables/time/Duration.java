@@ -16,6 +16,7 @@
 package org.gradoop.gdl.model.comparables.time;
 
 import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.utils.VariableSets;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +37,11 @@ public class Duration extends TimePoint {
      */
     private final TimePoint to;
 
+    /**
+     * Variables referenced by from and to, computed on first access
+     */
+    private transient Set<String> variables;
+
     /**
      * Creates duration of an interval represented by {@code from} and {@code to}
      * @param from from value of the interval
@@ -64,9 +70,10 @@ public class Duration extends TimePoint {
 
     @Override
     public Set<String> getVariables() {
-        Set<String> vars = from.getVariables();
-        vars.addAll(to.getVariables());
-        return vars;
+        if(variables == null){
+            variables = VariableSets.union(from.getVariables(), to.getVariables());
+        }
+        return variables;
     }
 
     @Override
@@ -92,14 +99,52 @@ public class Duration extends TimePoint {
 
     @Override
     public Optional<Long> evaluate() {
-        Optional<Long> evalFrom = from.evaluate();
-        Optional<Long> evalTo = to.evaluate();
-        if(!(evalFrom.isPresent() && evalTo.isPresent())){
-            return Optional.empty();
+        return evaluateBoxed(null);
+    }
+
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding) {
+        return evaluateBoxed(binding);
+    }
+
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index) {
+        if (!to.evaluate(binding, values, index)) {
+            return false;
         }
-        else{
-            return Optional.of(evalTo.get() - evalFrom.get());
+        long end = values[index];
+        if (!from.evaluate(binding, values, index)) {
+            return false;
         }
+        values[index] = between(values[index], end);
+        return true;
+    }
+
+    /**
+     * Computes the length of the interval from {@code from} to {@code to}. Instead of
+     * overflowing, the result saturates at {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE}.
+     * The length of an interval with an open bound ({@link TimeLiteral#OPEN_START},
+     * {@link TimeLiteral#OPEN_END}) is "infinite", i.e. {@link Long#MAX_VALUE}.
+     *
+     * @param from start of the interval
+     * @param to end of the interval
+     * @return {@code to - from}, saturated
+     */
+    public static long between(long from, long to) {
+        if (from != to) {
+            if (to == TimeLiteral.OPEN_END || from == TimeLiteral.OPEN_START) {
+                return Long.MAX_VALUE;
+            }
+            if (to == TimeLiteral.OPEN_START || from == TimeLiteral.OPEN_END) {
+                return Long.MIN_VALUE;
+            }
+        }
+        long length = to - from;
+        // overflow iff the operands have different signs and the sign of the result differs from to
+        if (((to ^ from) & (to ^ length)) < 0) {
+            return to < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return length;
     }
 
     @Override
@@ -115,4 +160,9 @@ public class Duration extends TimePoint {
         Duration that = (Duration) o;
         return that.from.equals(from) && that.to.equals(to);
     }
+
+    @Override
+    public int hashCode() {
+        return 31 * from.hashCode() + to.hashCode();
+    }
 }
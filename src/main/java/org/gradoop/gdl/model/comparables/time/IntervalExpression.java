@@ -0,0 +1,399 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.model.comparables.time;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.VariableSets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Represents a time interval, e.g. {@code a.val}, {@code Interval(x, y)} or
+ * {@code a.val.merge(b.tx)}.
+ * <p>
+ * An interval is either given by two time points or it is the {@code merge} (intersection) or
+ * {@code join} (union) of two intervals. Merge and join are only defined if both intervals
+ * overlap or meet. Intervals built from two time points may require {@code from <= to}.
+ * These implicit constraints are checked by {@link #evaluate(TimeBinding, long[], int)} and can
+ * be obtained as comparisons by {@link #getConstraints()}.
+ */
+public class IntervalExpression implements ComparableExpression {
+
+    /**
+     * Returned by {@link #evaluate(TimeBinding, long[], int)} if the start is defined
+     */
+    public static final int FROM_DEFINED = 1;
+
+    /**
+     * Returned by {@link #evaluate(TimeBinding, long[], int)} if the end is defined
+     */
+    public static final int TO_DEFINED = 2;
+
+    /**
+     * Returned by {@link #evaluate(TimeBinding, long[], int)} if an implicit constraint is
+     * violated
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * Ways to build an interval
+     */
+    public enum Kind {
+        /**
+         * Interval given by two time points
+         */
+        POINTS,
+        /**
+         * Intersection of two intervals
+         */
+        MERGE,
+        /**
+         * Union of two intervals
+         */
+        JOIN
+    }
+
+    /**
+     * How the interval is built
+     */
+    private final Kind kind;
+
+    /**
+     * Start of the interval, null for merge and join
+     */
+    private final TimePoint from;
+
+    /**
+     * End of the interval, null for merge and join
+     */
+    private final TimePoint to;
+
+    /**
+     * True iff {@code from <= to} is required, only for intervals given by two time points
+     */
+    private final boolean ordered;
+
+    /**
+     * First interval of a merge or join
+     */
+    private final IntervalExpression left;
+
+    /**
+     * Second interval of a merge or join
+     */
+    private final IntervalExpression right;
+
+    /**
+     * Variables referenced by the interval, computed on first access
+     */
+    private transient Set<String> variables;
+
+    /**
+     * Creates an interval given by two time points
+     *
+     * @param from start of the interval
+     * @param to end of the interval
+     * @param ordered true iff {@code from <= to} is required
+     */
+    public IntervalExpression(TimePoint from, TimePoint to, boolean ordered){
+        this(Kind.POINTS, from, to, ordered, null, null);
+    }
+
+    /**
+     * Creates a new interval
+     *
+     * @param kind how the interval is built
+     * @param from start of the interval, null for merge and join
+     * @param to end of the interval, null for merge and join
+     * @param ordered true iff {@code from <= to} is required
+     * @param left first interval of a merge or join
+     * @param right second interval of a merge or join
+     */
+    private IntervalExpression(Kind kind, TimePoint from, TimePoint to, boolean ordered,
+                               IntervalExpression left, IntervalExpression right){
+        this.kind = kind;
+        this.from = from;
+        this.to = to;
+        this.ordered = ordered;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Creates the interval of a variable, e.g. {@code a.val}. The interval of a global selector
+     * ({@link TimeSelector#GLOBAL_SELECTOR}) requires {@code from <= to}.
+     *
+     * @param variable the variable
+     * @param interval "val" or "tx" (cases irrelevant)
+     * @return interval of the variable
+     */
+    public static IntervalExpression of(String variable, String interval){
+        return new IntervalExpression(new TimeSelector(variable, interval + "_from"),
+                new TimeSelector(variable, interval + "_to"),
+                variable.equals(TimeSelector.GLOBAL_SELECTOR));
+    }
+
+    /**
+     * Creates the intersection of this interval and another one, i.e.
+     * {@code [max(from, other.from), min(to, other.to)]}
+     *
+     * @param other the other interval
+     * @return intersection of both intervals
+     */
+    public IntervalExpression merge(IntervalExpression other){
+        return new IntervalExpression(Kind.MERGE, null, null, false, this, other);
+    }
+
+    /**
+     * Creates the union of this interval and another one, i.e.
+     * {@code [min(from, other.from), max(to, other.to)]}
+     *
+     * @param other the other interval
+     * @return union of both intervals
+     */
+    public IntervalExpression join(IntervalExpression other){
+        return new IntervalExpression(Kind.JOIN, null, null, false, this, other);
+    }
+
+    /**
+     * Returns how the interval is built
+     *
+     * @return kind of the interval
+     */
+    public Kind getKind(){
+        return kind;
+    }
+
+    /**
+     * Returns the first interval of a merge or join
+     *
+     * @return first interval, null if the interval is given by two time points
+     */
+    public IntervalExpression getLeft(){
+        return left;
+    }
+
+    /**
+     * Returns the second interval of a merge or join
+     *
+     * @return second interval, null if the interval is given by two time points
+     */
+    public IntervalExpression getRight(){
+        return right;
+    }
+
+    /**
+     * Checks whether {@code from <= to} is required for an interval given by two time points
+     *
+     * @return true iff the time points must be ordered
+     */
+    public boolean isOrdered(){
+        return ordered;
+    }
+
+    /**
+     * Returns the start of the interval as time point, e.g. {@code MAX(a.val_from, b.val_from)}
+     * for {@code a.val.merge(b.val)}
+     *
+     * @return start of the interval
+     */
+    public TimePoint getFrom(){
+        switch (kind) {
+        case MERGE:
+            return new MaxTimePoint(left.getFrom(), right.getFrom());
+        case JOIN:
+            return new MinTimePoint(left.getFrom(), right.getFrom());
+        default:
+            return from;
+        }
+    }
+
+    /**
+     * Returns the end of the interval as time point, e.g. {@code MIN(a.val_to, b.val_to)}
+     * for {@code a.val.merge(b.val)}
+     *
+     * @return end of the interval
+     */
+    public TimePoint getTo(){
+        switch (kind) {
+        case MERGE:
+            return new MinTimePoint(left.getTo(), right.getTo());
+        case JOIN:
+            return new MaxTimePoint(left.getTo(), right.getTo());
+        default:
+            return to;
+        }
+    }
+
+    /**
+     * Returns the implicit constraints of the interval as comparisons, constraints of nested
+     * intervals first.
+     *
+     * @return implicit constraints
+     */
+    public List<Comparison> getConstraints(){
+        List<Comparison> constraints = new ArrayList<>();
+        collectConstraints(constraints);
+        return constraints;
+    }
+
+    /**
+     * Adds the implicit constraints of the interval to a list, constraints of nested intervals
+     * first.
+     *
+     * @param constraints list to add the constraints to
+     */
+    private void collectConstraints(List<Comparison> constraints){
+        if (kind == Kind.POINTS) {
+            if (ordered) {
+                constraints.add(new Comparison(from, Comparator.LTE, to));
+            }
+            return;
+        }
+        left.collectConstraints(constraints);
+        right.collectConstraints(constraints);
+        // merge and join only when overlapping or meeting
+        constraints.add(new Comparison(new MaxTimePoint(left.getFrom(), right.getFrom()),
+                Comparator.LTE, new MinTimePoint(left.getTo(), right.getTo())));
+    }
+
+    /**
+     * Evaluates the interval for a binding of the query variables. The start is written to
+     * {@code bounds[offset]}, the end to {@code bounds[offset + 1]}.
+     *
+     * @param binding time values of the query variables
+     * @param bounds array to write the bounds to
+     * @param offset index of the start in the array
+     * @return {@link #INVALID} if an implicit constraint is violated, else a combination of
+     * {@link #FROM_DEFINED} and {@link #TO_DEFINED}
+     */
+    public int evaluate(TimeBinding binding, long[] bounds, int offset){
+        if (kind == Kind.POINTS) {
+            int defined = 0;
+            if (from.evaluate(binding, bounds, offset)) {
+                defined |= FROM_DEFINED;
+            }
+            if (to.evaluate(binding, bounds, offset + 1)) {
+                defined |= TO_DEFINED;
+            }
+            if (ordered && (defined != (FROM_DEFINED | TO_DEFINED) ||
+                    bounds[offset] > bounds[offset + 1])) {
+                return INVALID;
+            }
+            return defined;
+        }
+        if (left.evaluate(binding, bounds, offset) != (FROM_DEFINED | TO_DEFINED)) {
+            return INVALID;
+        }
+        long leftFrom = bounds[offset];
+        long leftTo = bounds[offset + 1];
+        if (right.evaluate(binding, bounds, offset) != (FROM_DEFINED | TO_DEFINED)) {
+            return INVALID;
+        }
+        long rightFrom = bounds[offset];
+        long rightTo = bounds[offset + 1];
+        long maxFrom = Math.max(leftFrom, rightFrom);
+        long minTo = Math.min(leftTo, rightTo);
+        if (maxFrom > minTo) {
+            return INVALID;
+        }
+        if (kind == Kind.MERGE) {
+            bounds[offset] = maxFrom;
+            bounds[offset + 1] = minTo;
+        } else {
+            bounds[offset] = Math.min(leftFrom, rightFrom);
+            bounds[offset + 1] = Math.max(leftTo, rightTo);
+        }
+        return FROM_DEFINED | TO_DEFINED;
+    }
+
+    @Override
+    public Set<String> getVariables(){
+        if (variables == null) {
+            variables = kind == Kind.POINTS ?
+                    VariableSets.union(from.getVariables(), to.getVariables()) :
+                    VariableSets.union(left.getVariables(), right.getVariables());
+        }
+        return variables;
+    }
+
+    @Override
+    public String getVariable(){
+        Set<String> vars = getVariables();
+        return vars.size() == 1 ? vars.iterator().next() : null;
+    }
+
+    @Override
+    public boolean containsSelectorType(TimeSelector.TimeField type){
+        return kind == Kind.POINTS ?
+                from.containsSelectorType(type) || to.containsSelectorType(type) :
+                left.containsSelectorType(type) || right.containsSelectorType(type);
+    }
+
+    @Override
+    public boolean isGlobal(){
+        return kind == Kind.POINTS ?
+                from.isGlobal() || to.isGlobal() :
+                left.isGlobal() || right.isGlobal();
+    }
+
+    @Override
+    public IntervalExpression replaceGlobalByLocal(List<String> variables){
+        if (!isGlobal()) {
+            return this;
+        }
+        if (kind == Kind.POINTS) {
+            return new IntervalExpression((TimePoint) from.replaceGlobalByLocal(variables),
+                    (TimePoint) to.replaceGlobalByLocal(variables), ordered);
+        }
+        return new IntervalExpression(kind, null, null, false,
+                left.replaceGlobalByLocal(variables), right.replaceGlobalByLocal(variables));
+    }
+
+    @Override
+    public String toString(){
+        switch (kind) {
+        case MERGE:
+            return left + ".merge(" + right + ")";
+        case JOIN:
+            return left + ".join(" + right + ")";
+        default:
+            return "Interval(" + from + ", " + to + ")";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IntervalExpression that = (IntervalExpression) o;
+
+        return kind == that.kind && ordered == that.ordered &&
+                Objects.equals(from, that.from) && Objects.equals(to, that.to) &&
+                Objects.equals(left, that.left) && Objects.equals(right, that.right);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(kind, from, to, ordered, left, right);
+    }
+}
@@ -17,8 +17,8 @@ package org.gradoop.gdl.model.comparables.time;
 
 import org.gradoop.gdl.model.comparables.ComparableExpression;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Represents a MAX(p1,...,pn) term, where p1...pn are TimePoints
@@ -34,19 +34,23 @@ public class MinTimePoint extends TimeTerm {
         operator = "MIN";
     }
 
+    /**
+     * {@inheritDoc}
+     * Arguments are evaluated into {@code values[index]}, no further space is needed.
+     */
     @Override
-    public Optional<Long> evaluate(){
+    protected boolean evaluateArgs(TimeBinding binding, long[] values, int index){
         long mn = Long.MAX_VALUE;
         for (TimePoint p:args){
-            Optional<Long> eval = p.evaluate();
-            if (!eval.isPresent()){
-                return Optional.empty();
+            if(!p.evaluate(binding, values, index)){
+                return false;
             }
-            if (eval.get() < mn){
-                mn = eval.get();
+            if(values[index] < mn){
+                mn = values[index];
             }
         }
-        return Optional.of(mn);
+        values[index] = mn;
+        return true;
     }
 
     @Override
@@ -75,19 +79,12 @@ public class MinTimePoint extends TimeTerm {
             return false;
         }
 
-        for(TimePoint arg: args){
-            boolean foundEq = false;
-            for(TimePoint arg2: that.args){
-                if(arg.equals(arg2)){
-                    foundEq = true;
-                    break;
-                }
-            }
-            if(!foundEq){
-                return false;
-            }
-        }
-        return true;
+        return new HashSet<>(args).equals(new HashSet<>(that.args));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * new HashSet<>(args).hashCode() + args.size();
     }
 
     @Override
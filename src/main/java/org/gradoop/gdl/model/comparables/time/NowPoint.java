@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.model.comparables.time;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.utils.Comparator;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Represents the current point in time, i.e. {@code Timestamp(Now)}.
+ * <p>
+ * The value is not fixed when the query is parsed but read from a {@link Clock} whenever the
+ * point is evaluated for a {@link TimeBinding}. Thus, a query containing {@code Now} can be
+ * parsed (and optimized) once and evaluated repeatedly. All occurrences of {@code Now} share
+ * the same value within the evaluation of a single binding, executors fix it for all bindings of
+ * an execution, see {@link TimeBinding#fixNow(long)}. {@link #evaluate()} returns an empty
+ * value, so that {@code Now} is never folded into a constant.
+ */
+public class NowPoint extends TimeAtom {
+
+    /**
+     * The clock that provides the current time
+     */
+    private final Clock clock;
+
+    /**
+     * Creates a point that reads the current time from the given clock
+     *
+     * @param clock clock that provides the current time
+     */
+    public NowPoint(Clock clock){
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a point that reads the current time from the UTC system clock
+     */
+    public NowPoint(){
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Returns the clock that provides the current time
+     *
+     * @return the clock
+     */
+    public Clock getClock(){
+        return clock;
+    }
+
+    /**
+     * Reads the current time from the clock
+     *
+     * @return UNIX epoch milliseconds
+     */
+    public long currentMillis(){
+        return clock.millis();
+    }
+
+    @Override
+    public Optional<Long> evaluate(){
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding){
+        return Optional.of(binding.evaluateNow(this));
+    }
+
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index){
+        if (binding == null) {
+            return false;
+        }
+        values[index] = binding.evaluateNow(this);
+        return true;
+    }
+
+    @Override
+    public Set<String> getVariables(){
+        return Collections.emptySet();
+    }
+
+    @Override
+    public String getVariable() {
+        return null;
+    }
+
+    @Override
+    public boolean containsSelectorType(TimeSelector.TimeField type){
+        return false;
+    }
+
+    @Override
+    public Predicate unfoldGlobal(Comparator comp, ComparableExpression rhs, List<String> variables) {
+        return new Comparison(this, comp, rhs);
+    }
+
+    @Override
+    public boolean isGlobal(){
+        return false;
+    }
+
+    @Override
+    public ComparableExpression replaceGlobalByLocal(List<String> variables) {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        NowPoint that = (NowPoint) o;
+
+        return clock.equals(that.clock);
+    }
+
+    @Override
+    public int hashCode(){
+        return clock.hashCode();
+    }
+
+    @Override
+    public String toString(){
+        return "Now";
+    }
+}
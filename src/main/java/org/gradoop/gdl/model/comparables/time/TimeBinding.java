@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.model.comparables.time;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Assigns time values to the variables of a query, e.g. for a (partial) match of the pattern.
+ * Used to evaluate {@link TimePoint}s that contain {@link TimeSelector}s.
+ * <p>
+ * Values of {@link TimeTerm}s are computed only once per binding, so terms that are shared
+ * between several comparisons (like the expansions of global time selectors) do not have to be
+ * recomputed for every occurrence. Implementations must call {@link #invalidate()} whenever the
+ * assigned values change. Memoized values are stamped with a generation that is incremented by
+ * {@link #invalidate()}, so invalidating and re-evaluating a binding does not allocate.
+ * <p>
+ * Executors fix the value of {@link NowPoint}s via {@link #fixNow(long)} to the time read once
+ * at the start of an execution, so that all bindings of the execution agree on {@code Now}.
+ */
+public abstract class TimeBinding {
+
+    /**
+     * Size of the array returned by {@link #getScratch()}
+     */
+    public static final int SCRATCH_SIZE = 4;
+
+    /**
+     * Memoized term values: {generation, value, 1 if defined else 0}
+     */
+    private final Map<TimeTerm, long[]> termValues = new IdentityHashMap<>();
+
+    /**
+     * Current generation of the binding, incremented by {@link #invalidate()}
+     */
+    private long generation = 1;
+
+    /**
+     * Value of {@link NowPoint}s for the current binding
+     */
+    private long now;
+
+    /**
+     * Generation in which {@link #now} was read, 0 if not read yet
+     */
+    private long nowGeneration;
+
+    /**
+     * True iff {@link #now} was fixed by {@link #fixNow(long)}
+     */
+    private boolean nowFixed;
+
+    /**
+     * Scratch space for the primitive evaluation of time points
+     */
+    private final long[] scratch = new long[SCRATCH_SIZE];
+
+    /**
+     * Returns the value of a time property of a variable.
+     *
+     * @param variable the variable
+     * @param field the time property
+     * @return UNIX epoch long, empty if the variable is not bound or has no value for the field
+     */
+    public abstract Optional<Long> getTime(String variable, TimeSelector.TimeField field);
+
+    /**
+     * Returns the value of a time property of a variable without boxing. Implementations should
+     * override the default, which unboxes {@link #getTime(String, TimeSelector.TimeField)}.
+     *
+     * @param variable the variable
+     * @param field the time property
+     * @param values array to write the value to
+     * @param index index of the value in the array
+     * @return true iff the variable is bound and has a value for the field
+     */
+    public boolean getTime(String variable, TimeSelector.TimeField field, long[] values, int index) {
+        Optional<Long> value = getTime(variable, field);
+        if (value.isPresent()) {
+            values[index] = value.get();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns an array of {@link #SCRATCH_SIZE} elements to evaluate time points into, e.g. both
+     * sides of a comparison. The array is shared by all callers, so it must only be used by the
+     * outermost evaluation of a predicate, never while evaluating a time point.
+     *
+     * @return scratch array
+     */
+    public long[] getScratch() {
+        return scratch;
+    }
+
+    /**
+     * Discards all memoized term values. Must be called whenever the binding changes.
+     */
+    public void invalidate() {
+        generation++;
+    }
+
+    /**
+     * Evaluates a time term, reusing its value if it has already been evaluated for this binding.
+     *
+     * @param term the term to evaluate
+     * @param values array to write the value to
+     * @param index index of the value in the array
+     * @return true iff the value could be determined
+     */
+    boolean evaluateTerm(TimeTerm term, long[] values, int index) {
+        long[] entry = termValues.get(term);
+        if (entry == null) {
+            entry = new long[3];
+            termValues.put(term, entry);
+        }
+        if (entry[0] != generation) {
+            entry[2] = term.evaluateArgs(this, values, index) ? 1 : 0;
+            entry[1] = values[index];
+            entry[0] = generation;
+        } else if (entry[2] == 1) {
+            values[index] = entry[1];
+        }
+        return entry[2] == 1;
+    }
+
+    /**
+     * Fixes the value of all {@link NowPoint}s for this binding. The clock is not read anymore.
+     *
+     * @param millis UNIX epoch milliseconds
+     */
+    public void fixNow(long millis) {
+        now = millis;
+        nowFixed = true;
+    }
+
+    /**
+     * Evaluates the current point in time. Unless the value was fixed by {@link #fixNow(long)},
+     * the clock is read once per binding, so all occurrences of {@code Now} agree while the
+     * binding does not change.
+     *
+     * @param point the point to evaluate
+     * @return UNIX epoch long
+     */
+    long evaluateNow(NowPoint point) {
+        if (!nowFixed && nowGeneration != generation) {
+            now = point.currentMillis();
+            nowGeneration = generation;
+        }
+        return now;
+    }
+}
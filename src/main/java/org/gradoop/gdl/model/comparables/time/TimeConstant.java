@@ -17,7 +17,7 @@ package org.gradoop.gdl.model.comparables.time;
 
 import org.gradoop.gdl.model.comparables.ComparableExpression;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -83,6 +83,11 @@ public class TimeConstant extends TimePoint {
         return getMillis()==that.getMillis();
     }
 
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getMillis());
+    }
+
     @Override
     public Optional<Long> evaluate() {
         return Optional.of(getMillis());
@@ -90,7 +95,7 @@ public class TimeConstant extends TimePoint {
 
     @Override
     public Set<String> getVariables() {
-        return new HashSet<>();
+        return Collections.emptySet();
     }
 
     @Override
@@ -98,6 +103,17 @@ public class TimeConstant extends TimePoint {
         return null;
     }
 
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding){
+        return evaluate();
+    }
+
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index){
+        values[index] = millis;
+        return true;
+    }
+
     @Override
     public boolean containsSelectorType(TimeSelector.TimeField type) {
         return false;
@@ -20,25 +20,52 @@ import org.gradoop.gdl.model.predicates.Predicate;
 import org.gradoop.gdl.model.predicates.expressions.Comparison;
 import org.gradoop.gdl.utils.Comparator;
 
-import java.time.Instant;
+import org.gradoop.gdl.utils.IsoDateTime;
+
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * Represents a constant Timestamp. Wraps a java.time.LocalDateTime
+ * Represents a constant Timestamp. Stores UNIX epoch milliseconds, calendar fields are computed
+ * on demand.
+ * <p>
+ * Open interval bounds are encoded by the sentinels {@link #OPEN_START} ({@code -Infinity}) and
+ * {@link #OPEN_END} ({@code Infinity}). As they are the smallest and largest representable
+ * values, comparisons need no special cases: an open end is later than every finite point in
+ * time and only equal to another open end, {@link Duration}s reaching it saturate.
  */
 public class TimeLiteral extends TimeAtom {
 
     /**
-     * The wrapped LocalDateTime
+     * Milliseconds per day
+     */
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * Encodes an interval that is valid since forever ({@code -Infinity})
+     */
+    public static final long OPEN_START = Long.MIN_VALUE;
+
+    /**
+     * Encodes an interval that is still valid ({@code Infinity})
+     */
+    public static final long OPEN_END = Long.MAX_VALUE;
+
+    /**
+     * UNIX epoch milliseconds of the timestamp
+     */
+    private final long millis;
+
+    /**
+     * The result of {@link #evaluate()}, allocated once
      */
-    private final LocalDateTime time;
+    private final Optional<Long> value;
 
     /**
      * Construct a Literal from UNIX epoch milliseconds
@@ -46,108 +73,157 @@ public class TimeLiteral extends TimeAtom {
      * @param millis milliseconds since 1970-01-01T00:00
      */
     public TimeLiteral(long millis){
-        this.time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.of("Z"));
+        this.millis = millis;
+        this.value = Optional.of(millis);
     }
 
     /**
      * Constructs a literal from a given string of the form YYYY-MM-DDTHH:MM(:SS) or YYYY-MM-DD
-     * or "now"
+     * or "now", "Infinity" or "-Infinity". "now" is the current time of the UTC system clock.
      *
      * @param date the string to construct the DateTime from
      */
     public TimeLiteral(String date){
-        try {
-            if(date.equalsIgnoreCase("now")){
-                this.time = LocalDateTime.now();
-            }
-            else{
-                date = preprocessDateString(date);
-                this.time = LocalDateTime.parse(date);
-            }
-        } catch(DateTimeParseException e) {
-            throw new IllegalArgumentException("Date string has the wrong format.");
-        }
+        this(parse(date));
     }
 
     /**
      * Constructs a literal from the current time
      */
     public TimeLiteral(){
-        this.time = LocalDateTime.ofInstant(Instant.now(), ZoneId.of("Z"));
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Converts a date string to UNIX epoch milliseconds. The common shapes are handled by
+     * {@link IsoDateTime#scan(CharSequence)}, anything else is delegated to
+     * {@link LocalDateTime#parse(CharSequence)}.
+     *
+     * @param date the string of the form YYYY-MM-DDTHH:MM(:SS) or YYYY-MM-DD or "now",
+     *             "Infinity" or "-Infinity"
+     * @return UNIX epoch milliseconds
+     * @throws IllegalArgumentException if the string is not a valid date
+     */
+    private static long parse(String date){
+        long millis = IsoDateTime.scan(date);
+        if (millis != IsoDateTime.INVALID){
+            return millis;
+        }
+        if(date.equalsIgnoreCase("infinity") || date.equalsIgnoreCase("+infinity")){
+            return OPEN_END;
+        }
+        if(date.equalsIgnoreCase("-infinity")){
+            return OPEN_START;
+        }
+        if(date.equalsIgnoreCase("now")){
+            return Clock.systemUTC().millis();
+        }
+        try {
+            LocalDateTime time = LocalDateTime.parse(preprocessDateString(date));
+            return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch(DateTimeParseException e) {
+            throw new IllegalArgumentException("Date string has the wrong format.");
+        }
     }
 
     @Override
     public String toString(){
-        return time.toString();
+        if(millis == OPEN_END){
+            return "Infinity";
+        }
+        if(millis == OPEN_START){
+            return "-Infinity";
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC).toString();
     }
 
     /**
-     * UNIX epoch milliseconds of the wrapped DateTime
+     * UNIX epoch milliseconds of the timestamp
      *
      * @return UNIX epoch milliseconds
      */
     public long getMilliseconds(){
-        return time.toInstant(ZoneOffset.ofTotalSeconds(0)).toEpochMilli();
+        return millis;
+    }
+
+    /**
+     * Checks whether the literal encodes an open interval start or end.
+     *
+     * @return true iff the literal is {@code -Infinity} or {@code Infinity}
+     */
+    public boolean isOpen(){
+        return isOpen(millis);
+    }
+
+    /**
+     * Checks whether a time value encodes an open interval start or end.
+     *
+     * @param millis UNIX epoch milliseconds
+     * @return true iff the value is {@link #OPEN_START} or {@link #OPEN_END}
+     */
+    public static boolean isOpen(long millis){
+        return millis == OPEN_START || millis == OPEN_END;
     }
 
     /**
-     * The year of the wrapped datetime
+     * The year of the timestamp
      *
      * @return year as int
      */
     public int getYear(){
-        return time.getYear();
+        return IsoDateTime.getYear(millis);
     }
 
     /**
-     * The month of the wrapped datetime
+     * The month of the timestamp
      *
      * @return month as int
      */
     public int getMonth(){
-        return time.getMonthValue();
+        return IsoDateTime.getMonth(millis);
     }
 
     /**
-     * The day within the month of the wrapped datetime
+     * The day within the month of the timestamp
      *
      * @return month as int
      */
     public int getDay(){
-        return time.getDayOfMonth();
+        return IsoDateTime.getDay(millis);
     }
 
     /**
-     * The hour of the wrapped datetime
+     * The hour of the timestamp
      *
      * @return hour as int
      */
     public int getHour(){
-        return time.getHour();
+        return (int) (Math.floorMod(millis, MILLIS_PER_DAY) / 3_600_000L);
     }
 
     /**
-     * The minute within the hour of the wrapped datetime
+     * The minute within the hour of the timestamp
      *
      * @return minute as int
      */
     public int getMinute(){
-        return time.getMinute();
+        return (int) (Math.floorMod(millis, 3_600_000L) / 60_000L);
     }
 
     /**
-     * The second within the minute of the wrapped datetime
+     * The second within the minute of the timestamp
      *
      * @return second as int
      */
     public int getSecond(){
-        return time.getSecond();
+        return (int) (Math.floorMod(millis, 60_000L) / 1000L);
     }
 
 
     @Override
     public Set<String> getVariables(){
-        return new HashSet<>();
+        return Collections.emptySet();
     }
 
     @Override
@@ -157,7 +233,18 @@ public class TimeLiteral extends TimeAtom {
 
     @Override
     public Optional<Long> evaluate(){
-        return Optional.of(getMilliseconds());
+        return value;
+    }
+
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding){
+        return evaluate();
+    }
+
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index){
+        values[index] = millis;
+        return true;
     }
 
     @Override
@@ -172,12 +259,12 @@ public class TimeLiteral extends TimeAtom {
 
         TimeLiteral that = (TimeLiteral) o;
 
-        return getMilliseconds()==that.getMilliseconds();
+        return millis == that.millis;
     }
 
     @Override
     public int hashCode(){
-        return (int) getMilliseconds();
+        return (int) millis;
     }
 
 
@@ -189,7 +276,7 @@ public class TimeLiteral extends TimeAtom {
      * @param date the string input
      * @return the (possibly) augmented string input
      */
-    private String preprocessDateString(String date){
+    private static String preprocessDateString(String date){
         if (date.length()==10){
             date+="T00:00";
         }
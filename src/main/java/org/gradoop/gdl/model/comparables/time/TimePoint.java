@@ -21,6 +21,11 @@ import java.util.Optional;
 
 /**
  * Represents a timestamp
+ * <p>
+ * Besides the {@link Optional} based methods, every time point implements a primitive evaluation
+ * protocol, {@link #evaluate(TimeBinding, long[], int)}, that neither boxes nor allocates. It is
+ * used on the hot paths of predicate evaluation, the {@link Optional} based methods are derived
+ * from it where the value is computed.
  */
 public abstract class TimePoint implements ComparableExpression {
 
@@ -31,4 +36,37 @@ public abstract class TimePoint implements ComparableExpression {
      * @return UNIX epoch long, -1 if it can not be determined
      */
     public abstract Optional<Long> evaluate();
+
+    /**
+     * Calculates the value of the timestamp (UNIX epoch long) for a given binding of the
+     * query variables, if possible.
+     *
+     * @param binding time values of the query variables
+     * @return UNIX epoch long, empty if it can not be determined
+     */
+    public abstract Optional<Long> evaluate(TimeBinding binding);
+
+    /**
+     * Calculates the value of the timestamp (UNIX epoch long) without boxing. Implementations
+     * must only write to {@code values[index]}, so callers can evaluate several time points into
+     * one array.
+     *
+     * @param binding time values of the query variables, null to evaluate constants only
+     * (like {@link #evaluate()})
+     * @param values array to write the value to
+     * @param index index of the value in the array
+     * @return true iff the value could be determined, else {@code values[index]} is unspecified
+     */
+    public abstract boolean evaluate(TimeBinding binding, long[] values, int index);
+
+    /**
+     * Derives the {@link Optional} based evaluation from the primitive one.
+     *
+     * @param binding time values of the query variables, null to evaluate constants only
+     * @return UNIX epoch long, empty if it can not be determined
+     */
+    protected Optional<Long> evaluateBoxed(TimeBinding binding) {
+        long[] value = new long[1];
+        return evaluate(binding, value, 0) ? Optional.of(value[0]) : Optional.empty();
+    }
 }
@@ -22,7 +22,7 @@ import org.gradoop.gdl.model.predicates.booleans.Or;
 import org.gradoop.gdl.model.predicates.expressions.Comparison;
 import org.gradoop.gdl.utils.Comparator;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -103,9 +103,7 @@ public class TimeSelector extends TimeAtom{
 
     @Override
     public Set<String> getVariables(){
-        Set<String> ls = new HashSet<>();
-        ls.add(variable);
-        return ls;
+        return Collections.singleton(variable);
     }
 
     @Override
@@ -127,6 +125,16 @@ public class TimeSelector extends TimeAtom{
         return Optional.empty();
     }
 
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding){
+        return binding.getTime(variable, timeProp);
+    }
+
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index){
+        return binding != null && binding.getTime(variable, timeProp, values, index);
+    }
+
     @Override
     public boolean containsSelectorType(TimeSelector.TimeField type){
         return timeProp.equals(type);
@@ -18,6 +18,7 @@ package org.gradoop.gdl.model.comparables.time;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -37,6 +38,11 @@ public abstract class TimeTerm extends TimePoint {
      */
     protected String operator = "";
 
+    /**
+     * Variables referenced by the arguments, computed on first access
+     */
+    private transient Set<String> variables;
+
     /**
      * Initialize a complex expression by its arguments (TimePoints)
      *
@@ -60,7 +66,8 @@ public abstract class TimeTerm extends TimePoint {
     }
 
     /**
-     * Set the list of arguments
+     * Set the list of arguments.
+     * Variable sets already computed by predicates containing this term are not updated.
      *
      * @param args the desired list of arguments (not empty)
      */
@@ -69,15 +76,53 @@ public abstract class TimeTerm extends TimePoint {
             throw new IllegalArgumentException("There must be at least one argument");
         }
         this.args = args;
+        this.variables = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The value is computed only once per binding, see {@link TimeBinding}.
+     */
+    @Override
+    public Optional<Long> evaluate(TimeBinding binding){
+        return evaluateBoxed(binding);
+    }
+
+    @Override
+    public Optional<Long> evaluate(){
+        return evaluateBoxed(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The value is computed only once per binding, see {@link TimeBinding}.
+     */
+    @Override
+    public boolean evaluate(TimeBinding binding, long[] values, int index){
+        return binding == null ? evaluateArgs(null, values, index) :
+                binding.evaluateTerm(this, values, index);
     }
 
+    /**
+     * Computes the value of the term from the values of its arguments for a given binding.
+     *
+     * @param binding time values of the query variables, null to evaluate constants only
+     * @param values array to write the value to
+     * @param index index of the value in the array
+     * @return true iff the value could be determined
+     */
+    protected abstract boolean evaluateArgs(TimeBinding binding, long[] values, int index);
+
     @Override
     public Set<String> getVariables(){
-        HashSet<String> vars = new HashSet<>();
-        for (TimePoint tp: args){
-            vars.addAll(tp.getVariables());
+        if(variables == null){
+            HashSet<String> vars = new HashSet<>();
+            for (TimePoint tp: args){
+                vars.addAll(tp.getVariables());
+            }
+            variables = Collections.unmodifiableSet(vars);
         }
-        return vars;
+        return variables;
     }
 
     /**
@@ -77,9 +77,10 @@ public interface Predicate extends Serializable {
   Predicate[] getArguments();
 
   /**
-   * Returns the variables which are referenced by the predicate
+   * Returns the variables which are referenced by the predicate. The set is computed once and
+   * must not be modified.
    *
-   * @return referenced variables
+   * @return immutable set of referenced variables
    */
   Set<String> getVariables();
 
@@ -18,6 +18,7 @@ package org.gradoop.gdl.model.predicates.booleans;
 
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.utils.VariableSets;
 
 import java.util.List;
 import java.util.Set;
@@ -30,6 +31,9 @@ public class And implements Predicate {
   // right hand side
   private final Predicate rhs;
 
+  // variables referenced by both sides, computed on first access
+  private transient Set<String> variables;
+
   public And(Predicate lhs, Predicate rhs) {
     this.lhs = lhs;
     this.rhs = rhs;
@@ -42,13 +46,13 @@ public class And implements Predicate {
 
   /**
    * Returns a set of variables referenced by the predicates
-   * @return set of variables
+   * @return immutable set of variables
    */
   @Override
   public Set<String> getVariables() {
-    Set<String> variables = lhs.getVariables();
-    variables.addAll(rhs.getVariables());
-
+    if (variables == null) {
+      variables = VariableSets.union(lhs.getVariables(), rhs.getVariables());
+    }
     return variables;
   }
 
@@ -37,7 +37,7 @@ public class Not implements Predicate {
 
   /**
    * Returns a set of variables referenced by the predicates
-   * @return set of variables
+   * @return immutable set of variables
    */
   @Override
   public Set<String> getVariables() {
@@ -18,6 +18,7 @@ package org.gradoop.gdl.model.predicates.booleans;
 
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.utils.VariableSets;
 
 import java.util.List;
 import java.util.Set;
@@ -30,6 +31,9 @@ public class Xor implements Predicate {
   // right hand side
   private final Predicate rhs;
 
+  // variables referenced by both sides, computed on first access
+  private transient Set<String> variables;
+
   public Xor(Predicate lhs, Predicate rhs) {
     this.lhs = lhs;
     this.rhs = rhs;
@@ -47,13 +51,13 @@ public class Xor implements Predicate {
 
   /**
    * Returns a set of variables referenced by the predicates
-   * @return set of variables
+   * @return immutable set of variables
    */
   @Override
   public Set<String> getVariables() {
-    Set<String> variables = lhs.getVariables();
-    variables.addAll(rhs.getVariables());
-
+    if (variables == null) {
+      variables = VariableSets.union(lhs.getVariables(), rhs.getVariables());
+    }
     return variables;
   }
 
@@ -17,13 +17,15 @@
 package org.gradoop.gdl.model.predicates.expressions;
 
 import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.ValueType;
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.VariableSets;
 import org.gradoop.gdl.model.comparables.time.TimeAtom;
 import org.gradoop.gdl.model.comparables.time.TimePoint;
 import org.gradoop.gdl.model.predicates.Predicate;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -43,6 +45,14 @@ public class Comparison implements Predicate {
    * The comparator used to compare a the values
    */
   private final Comparator comparator;
+  /**
+   * Variables referenced by both sides, computed on first access
+   */
+  private transient Set<String> variables;
+  /**
+   * Kernel used to compare the values of both sides, selected on first access
+   */
+  private transient ComparisonKernel kernel;
 
   /**
    * Creates a new comparison operator
@@ -69,6 +79,46 @@ public class Comparison implements Predicate {
     return comparator;
   }
 
+  /**
+   * Returns the left hand side value
+   * @return lhs value
+   */
+  public ComparableExpression getLhs() {
+    return lhs;
+  }
+
+  /**
+   * Returns the right hand side value
+   * @return rhs value
+   */
+  public ComparableExpression getRhs() {
+    return rhs;
+  }
+
+  /**
+   * Returns the kernel that compares the values of both sides. The kernel is specialized on the
+   * value types of literal sides and selected only once.
+   *
+   * @return comparison kernel
+   */
+  public ComparisonKernel getKernel() {
+    if (kernel == null) {
+      kernel = ComparisonKernel.select(comparator, getValueType(lhs), getValueType(rhs));
+    }
+    return kernel;
+  }
+
+  /**
+   * Returns the value type of a side of the comparison, if it is known before evaluation.
+   *
+   * @param expression one side of the comparison
+   * @return type of the literal value, {@link ValueType#UNKNOWN} for other expressions
+   */
+  private static ValueType getValueType(ComparableExpression expression) {
+    return expression instanceof Literal ?
+      ((Literal) expression).getValueType() : ValueType.UNKNOWN;
+  }
+
   /**
    * Returns the left and right hand side values
    * @return lhs and rhs values
@@ -106,39 +156,18 @@ public class Comparison implements Predicate {
     if(!isTemporal()){
       return this;
     }
-    Comparator newComp;
-    if(comparator == Comparator.EQ){
-      newComp = Comparator.EQ;
-    }
-    else if(comparator == Comparator.NEQ){
-      newComp = Comparator.NEQ;
-    }
-    else if(comparator == Comparator.GT){
-      newComp = Comparator.LT;
-    }
-    else if(comparator == Comparator.GTE){
-      newComp = Comparator.LTE;
-    }
-    else if(comparator == Comparator.LT){
-      newComp = Comparator.GT;
-    }
-    //LTE
-    else{
-      newComp = Comparator.GTE;
-    }
-    return new Comparison(rhs, newComp, lhs);
+    return new Comparison(rhs, comparator.switchSides(), lhs);
   }
 
   /**
    * Returns a set of variables referenced by the predicates
-   * @return set of variables
+   * @return immutable set of variables
    */
   @Override
   public Set<String> getVariables() {
-    Set<String> variables = new HashSet<>();
-    if(lhs.getVariables() != null) variables.addAll(lhs.getVariables());
-    if(rhs.getVariables() != null) variables.addAll(rhs.getVariables());
-
+    if (variables == null) {
+      variables = VariableSets.union(lhs.getVariables(), rhs.getVariables());
+    }
     return variables;
   }
 
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.model.predicates.expressions;
+
+import org.gradoop.gdl.model.comparables.ValueType;
+import org.gradoop.gdl.utils.Comparator;
+
+import java.io.Serializable;
+
+/**
+ * Compares two values according to a {@link Comparator}. Kernels are specialized on the value
+ * types of both sides and are selected once per {@link Comparison}, see
+ * {@link Comparison#getKernel()}.
+ * <p>
+ * Semantics:
+ * <ul>
+ *   <li>two integral numbers are compared as {@code long}s, all other pairs of numbers as
+ *   {@code double}s, i.e. like Java's binary numeric promotion. Any comparison involving
+ *   {@code NaN} is false, except for {@code NEQ}.</li>
+ *   <li>strings and booleans are compared by their natural order.</li>
+ *   <li>{@code null} is only equal to {@code null}. Lists and values of other types can only be
+ *   compared for (in)equality.</li>
+ *   <li>values of different, non-numeric types are never equal and can not be ordered.</li>
+ * </ul>
+ * Kernels do not allocate, values are only unboxed.
+ */
+public abstract class ComparisonKernel implements Serializable {
+
+  /**
+   * The comparator applied by the kernel
+   */
+  protected final Comparator comparator;
+
+  /**
+   * Creates a new kernel
+   *
+   * @param comparator the comparator applied by the kernel
+   */
+  protected ComparisonKernel(Comparator comparator) {
+    this.comparator = comparator;
+  }
+
+  /**
+   * Returns the comparator applied by this kernel.
+   *
+   * @return comparator
+   */
+  public Comparator getComparator() {
+    return comparator;
+  }
+
+  /**
+   * Compares two values.
+   *
+   * @param lhs left hand side value
+   * @param rhs right hand side value
+   * @return true iff {@code lhs comparator rhs} holds
+   */
+  public abstract boolean compare(Object lhs, Object rhs);
+
+  /**
+   * Selects the kernel for comparing values of the given types.
+   *
+   * @param comparator the comparator
+   * @param lhsType type of the left hand side values, {@link ValueType#UNKNOWN} if not known
+   * @param rhsType type of the right hand side values, {@link ValueType#UNKNOWN} if not known
+   * @return kernel for these types
+   */
+  public static ComparisonKernel select(Comparator comparator, ValueType lhsType,
+    ValueType rhsType) {
+    ValueType lhs = lhsType == ValueType.UNKNOWN ? rhsType : lhsType;
+    ValueType rhs = rhsType == ValueType.UNKNOWN ? lhsType : rhsType;
+    if (lhs == ValueType.INTEGRAL && rhs == ValueType.INTEGRAL) {
+      return new IntegralKernel(comparator);
+    } else if (lhs.isNumeric() && rhs.isNumeric()) {
+      return new NumericKernel(comparator);
+    } else if (lhs == ValueType.STRING && rhs == ValueType.STRING) {
+      return new StringKernel(comparator);
+    }
+    return new GenericKernel(comparator);
+  }
+
+  /**
+   * Applies the comparator to two {@code long} values.
+   *
+   * @param comparator the comparator
+   * @param lhs left hand side value
+   * @param rhs right hand side value
+   * @return true iff {@code lhs comparator rhs} holds
+   */
+  public static boolean compare(Comparator comparator, long lhs, long rhs) {
+    switch (comparator) {
+    case EQ:  return lhs == rhs;
+    case NEQ: return lhs != rhs;
+    case LT:  return lhs < rhs;
+    case LTE: return lhs <= rhs;
+    case GT:  return lhs > rhs;
+    default:  return lhs >= rhs;
+    }
+  }
+
+  /**
+   * Applies the comparator to two {@code double} values, following Java semantics for
+   * {@code NaN}.
+   *
+   * @param comparator the comparator
+   * @param lhs left hand side value
+   * @param rhs right hand side value
+   * @return true iff {@code lhs comparator rhs} holds
+   */
+  public static boolean compare(Comparator comparator, double lhs, double rhs) {
+    switch (comparator) {
+    case EQ:  return lhs == rhs;
+    case NEQ: return lhs != rhs;
+    case LT:  return lhs < rhs;
+    case LTE: return lhs <= rhs;
+    case GT:  return lhs > rhs;
+    default:  return lhs >= rhs;
+    }
+  }
+
+  /**
+   * Applies the comparator to the result of a {@link Comparable#compareTo(Object)} call.
+   *
+   * @param comparator the comparator
+   * @param cmp result of the comparison
+   * @return true iff the comparator holds
+   */
+  private static boolean fromCompareTo(Comparator comparator, int cmp) {
+    return compare(comparator, cmp, 0L);
+  }
+
+  /**
+   * Checks whether a value is an integral number.
+   *
+   * @param value the value
+   * @return true iff the value is an {@link Integer} or {@link Long}
+   */
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long;
+  }
+
+  /**
+   * Compares two integral numbers as {@code long}s
+   */
+  private static class IntegralKernel extends ComparisonKernel {
+
+    /**
+     * Creates a new kernel
+     *
+     * @param comparator the comparator
+     */
+    IntegralKernel(Comparator comparator) {
+      super(comparator);
+    }
+
+    @Override
+    public boolean compare(Object lhs, Object rhs) {
+      if (isIntegral(lhs) && isIntegral(rhs)) {
+        return compare(comparator, ((Number) lhs).longValue(), ((Number) rhs).longValue());
+      }
+      return GenericKernel.compareValues(comparator, lhs, rhs);
+    }
+  }
+
+  /**
+   * Compares two numbers, at least one of them a floating point number, as {@code double}s
+   */
+  private static class NumericKernel extends ComparisonKernel {
+
+    /**
+     * Creates a new kernel
+     *
+     * @param comparator the comparator
+     */
+    NumericKernel(Comparator comparator) {
+      super(comparator);
+    }
+
+    @Override
+    public boolean compare(Object lhs, Object rhs) {
+      if (lhs instanceof Number && rhs instanceof Number && !(isIntegral(lhs) && isIntegral(rhs))) {
+        return compare(comparator, ((Number) lhs).doubleValue(), ((Number) rhs).doubleValue());
+      }
+      return GenericKernel.compareValues(comparator, lhs, rhs);
+    }
+  }
+
+  /**
+   * Compares two strings lexicographically
+   */
+  private static class StringKernel extends ComparisonKernel {
+
+    /**
+     * Creates a new kernel
+     *
+     * @param comparator the comparator
+     */
+    StringKernel(Comparator comparator) {
+      super(comparator);
+    }
+
+    @Override
+    public boolean compare(Object lhs, Object rhs) {
+      if (lhs instanceof String && rhs instanceof String) {
+        return fromCompareTo(comparator, ((String) lhs).compareTo((String) rhs));
+      }
+      return GenericKernel.compareValues(comparator, lhs, rhs);
+    }
+  }
+
+  /**
+   * Compares values of arbitrary types, dispatching on their runtime types
+   */
+  private static class GenericKernel extends ComparisonKernel {
+
+    /**
+     * Creates a new kernel
+     *
+     * @param comparator the comparator
+     */
+    GenericKernel(Comparator comparator) {
+      super(comparator);
+    }
+
+    @Override
+    public boolean compare(Object lhs, Object rhs) {
+      return compareValues(comparator, lhs, rhs);
+    }
+
+    /**
+     * Compares two values of arbitrary types.
+     *
+     * @param comparator the comparator
+     * @param lhs left hand side value
+     * @param rhs right hand side value
+     * @return true iff {@code lhs comparator rhs} holds
+     */
+    @SuppressWarnings("unchecked")
+    static boolean compareValues(Comparator comparator, Object lhs, Object rhs) {
+      if (lhs instanceof Number && rhs instanceof Number) {
+        if (isIntegral(lhs) && isIntegral(rhs)) {
+          return compare(comparator, ((Number) lhs).longValue(), ((Number) rhs).longValue());
+        }
+        return compare(comparator, ((Number) lhs).doubleValue(), ((Number) rhs).doubleValue());
+      }
+      boolean orderable = lhs instanceof String || lhs instanceof Boolean;
+      if (orderable && rhs != null && lhs.getClass() == rhs.getClass()) {
+        return fromCompareTo(comparator, ((Comparable<Object>) lhs).compareTo(rhs));
+      }
+      boolean equal = lhs == null ? rhs == null : lhs.equals(rhs);
+      switch (comparator) {
+      case EQ:  return equal;
+      case NEQ: return !equal;
+      default:  return false;
+      }
+    }
+  }
+}
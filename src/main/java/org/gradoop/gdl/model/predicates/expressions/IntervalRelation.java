@@ -0,0 +1,538 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.model.predicates.expressions;
+
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.IntervalExpression;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.VariableSets;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.gradoop.gdl.model.comparables.time.IntervalExpression.FROM_DEFINED;
+import static org.gradoop.gdl.model.comparables.time.IntervalExpression.TO_DEFINED;
+
+/**
+ * Represents a relation between two intervals, e.g. {@code a.val.overlaps(b.tx)}.
+ * <p>
+ * The relation is evaluated in a single step on the bounds of both intervals, including the
+ * implicit constraints of the intervals (see {@link IntervalExpression}). {@link #expand()}
+ * returns the equivalent predicate over time point comparisons.
+ * Relations with time point arguments like {@code a.val.fromTo(x, y)} or
+ * {@code a.val.asOf(x)} are represented by an unconstrained interval {@code [x, y]} or
+ * {@code [x, x]} respectively.
+ */
+public class IntervalRelation implements Predicate {
+
+  /**
+   * Supported interval relations. Let {@code [f, t]} be the left and {@code [F, T]} the right
+   * interval.
+   */
+  public enum Relation {
+    /**
+     * {@code max(f, F) < min(t, T)}
+     */
+    OVERLAPS("overlaps"),
+    /**
+     * {@code f < T AND t > F}
+     */
+    FROM_TO("fromTo"),
+    /**
+     * {@code f <= T AND t > F}
+     */
+    BETWEEN("between"),
+    /**
+     * {@code t <= F}
+     */
+    PRECEDES("precedes"),
+    /**
+     * {@code f >= T}
+     */
+    SUCCEEDS("succeeds"),
+    /**
+     * {@code t = F}
+     */
+    IMMEDIATELY_PRECEDES("immediatelyPrecedes"),
+    /**
+     * {@code f = T}
+     */
+    IMMEDIATELY_SUCCEEDS("immediatelySucceeds"),
+    /**
+     * {@code f <= F AND t >= T}
+     */
+    CONTAINS("contains"),
+    /**
+     * {@code f <= F AND T <= t}, the right interval is a single time point
+     */
+    AS_OF("asOf"),
+    /**
+     * {@code f = F AND t = T}
+     */
+    EQUALS("equals"),
+    /**
+     * {@code t - f > T - F}, both intervals must be ordered
+     */
+    LONGER_THAN("longerThan"),
+    /**
+     * {@code t - f < T - F}, both intervals must be ordered
+     */
+    SHORTER_THAN("shorterThan"),
+    /**
+     * {@code t - f >= T - F}, both intervals must be ordered
+     */
+    LENGTH_AT_LEAST("lengthAtLeast"),
+    /**
+     * {@code t - f <= T - F}, both intervals must be ordered
+     */
+    LENGTH_AT_MOST("lengthAtMost");
+
+    /**
+     * Name of the relation in GDL
+     */
+    private final String name;
+
+    /**
+     * Creates a relation
+     *
+     * @param name name of the relation in GDL
+     */
+    Relation(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns the name of the relation in GDL
+     *
+     * @return name of the relation
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Checks whether the relation compares the lengths of the intervals
+     *
+     * @return true iff the relation compares lengths
+     */
+    public boolean isLengthComparison() {
+      return this == LONGER_THAN || this == SHORTER_THAN || this == LENGTH_AT_LEAST ||
+        this == LENGTH_AT_MOST;
+    }
+
+    /**
+     * Returns the bounds of the left interval that are needed to evaluate the relation
+     *
+     * @return combination of {@link IntervalExpression#FROM_DEFINED} and
+     * {@link IntervalExpression#TO_DEFINED}
+     */
+    int getLeftBounds() {
+      switch (this) {
+      case PRECEDES:
+      case IMMEDIATELY_PRECEDES:
+        return TO_DEFINED;
+      case SUCCEEDS:
+      case IMMEDIATELY_SUCCEEDS:
+        return FROM_DEFINED;
+      default:
+        return FROM_DEFINED | TO_DEFINED;
+      }
+    }
+
+    /**
+     * Returns the bounds of the right interval that are needed to evaluate the relation
+     *
+     * @return combination of {@link IntervalExpression#FROM_DEFINED} and
+     * {@link IntervalExpression#TO_DEFINED}
+     */
+    int getRightBounds() {
+      switch (this) {
+      case PRECEDES:
+      case IMMEDIATELY_PRECEDES:
+        return FROM_DEFINED;
+      case SUCCEEDS:
+      case IMMEDIATELY_SUCCEEDS:
+        return TO_DEFINED;
+      default:
+        return FROM_DEFINED | TO_DEFINED;
+      }
+    }
+  }
+
+  /**
+   * The left interval
+   */
+  private final IntervalExpression lhs;
+
+  /**
+   * The relation
+   */
+  private final Relation relation;
+
+  /**
+   * The right interval, null iff the length is compared to a constant
+   */
+  private final IntervalExpression rhs;
+
+  /**
+   * The length to compare to, null iff the relation has a right interval
+   */
+  private final TimeConstant length;
+
+  /**
+   * Variables referenced by both intervals, computed on first access
+   */
+  private transient Set<String> variables;
+
+  /**
+   * Creates a relation between two intervals
+   *
+   * @param lhs left interval
+   * @param relation the relation
+   * @param rhs right interval
+   */
+  public IntervalRelation(IntervalExpression lhs, Relation relation, IntervalExpression rhs) {
+    this(lhs, relation, rhs, null);
+  }
+
+  /**
+   * Creates a relation comparing the length of an interval to a constant
+   *
+   * @param lhs the interval
+   * @param relation the relation, must be a length comparison
+   * @param length the length to compare to
+   */
+  public IntervalRelation(IntervalExpression lhs, Relation relation, TimeConstant length) {
+    this(lhs, relation, null, length);
+    if (!relation.isLengthComparison()) {
+      throw new IllegalArgumentException(relation + " does not compare lengths.");
+    }
+  }
+
+  /**
+   * Creates a new relation
+   *
+   * @param lhs left interval
+   * @param relation the relation
+   * @param rhs right interval, null iff the length is compared to a constant
+   * @param length the length to compare to, null iff the relation has a right interval
+   */
+  private IntervalRelation(IntervalExpression lhs, Relation relation, IntervalExpression rhs,
+    TimeConstant length) {
+    this.lhs = lhs;
+    this.relation = relation;
+    this.rhs = rhs;
+    this.length = length;
+  }
+
+  /**
+   * Returns the left interval
+   *
+   * @return left interval
+   */
+  public IntervalExpression getLhs() {
+    return lhs;
+  }
+
+  /**
+   * Returns the relation
+   *
+   * @return the relation
+   */
+  public Relation getRelation() {
+    return relation;
+  }
+
+  /**
+   * Returns the right interval
+   *
+   * @return right interval, null if the length is compared to a constant
+   */
+  public IntervalExpression getRhs() {
+    return rhs;
+  }
+
+  /**
+   * Returns the length the interval is compared to
+   *
+   * @return the length, null if the relation has a right interval
+   */
+  public TimeConstant getLength() {
+    return length;
+  }
+
+  /**
+   * Evaluates the relation for a binding of the query variables.
+   *
+   * @param binding time values of the query variables
+   * @return true iff the relation holds and all implicit constraints are satisfied
+   */
+  public boolean evaluate(TimeBinding binding) {
+    long[] bounds = binding.getScratch();
+    int left = lhs.evaluate(binding, bounds, 0);
+    int needed = relation.getLeftBounds();
+    if (left < 0 || (left & needed) != needed) {
+      return false;
+    }
+    if (length != null) {
+      return bounds[0] <= bounds[1] &&
+        compareLengths(relation, Duration.between(bounds[0], bounds[1]), length.getMillis());
+    }
+    int right = rhs.evaluate(binding, bounds, 2);
+    needed = relation.getRightBounds();
+    if (right < 0 || (right & needed) != needed) {
+      return false;
+    }
+    return holds(relation, bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+
+  /**
+   * Checks whether a relation holds for the intervals {@code [from, to]} and
+   * {@code [otherFrom, otherTo]}.
+   *
+   * @param relation the relation
+   * @param from start of the left interval
+   * @param to end of the left interval
+   * @param otherFrom start of the right interval
+   * @param otherTo end of the right interval
+   * @return true iff the relation holds
+   */
+  public static boolean holds(Relation relation, long from, long to, long otherFrom,
+    long otherTo) {
+    switch (relation) {
+    case OVERLAPS:
+      return Math.max(from, otherFrom) < Math.min(to, otherTo);
+    case FROM_TO:
+      return from < otherTo && to > otherFrom;
+    case BETWEEN:
+      return from <= otherTo && to > otherFrom;
+    case PRECEDES:
+      return to <= otherFrom;
+    case SUCCEEDS:
+      return from >= otherTo;
+    case IMMEDIATELY_PRECEDES:
+      return to == otherFrom;
+    case IMMEDIATELY_SUCCEEDS:
+      return from == otherTo;
+    case CONTAINS:
+    case AS_OF:
+      return from <= otherFrom && to >= otherTo;
+    case EQUALS:
+      return from == otherFrom && to == otherTo;
+    default:
+      return from <= to && otherFrom <= otherTo &&
+        compareLengths(relation, Duration.between(from, to),
+          Duration.between(otherFrom, otherTo));
+    }
+  }
+
+  /**
+   * Compares the lengths of two intervals.
+   *
+   * @param relation a length comparison
+   * @param length length of the left interval
+   * @param otherLength length of the right interval
+   * @return true iff the lengths satisfy the relation
+   */
+  private static boolean compareLengths(Relation relation, long length, long otherLength) {
+    switch (relation) {
+    case LONGER_THAN:
+      return length > otherLength;
+    case SHORTER_THAN:
+      return length < otherLength;
+    case LENGTH_AT_LEAST:
+      return length >= otherLength;
+    case LENGTH_AT_MOST:
+      return length <= otherLength;
+    default:
+      throw new IllegalArgumentException(relation + " does not compare lengths.");
+    }
+  }
+
+  /**
+   * Returns the equivalent predicate over time point comparisons, i.e. the representation of
+   * the relation that is created by the loader if interval relations are disabled. The implicit
+   * constraints of the intervals are appended as conjuncts.
+   *
+   * @return equivalent predicate
+   */
+  public Predicate expand() {
+    TimePoint from = lhs.getFrom();
+    TimePoint to = lhs.getTo();
+    Predicate predicate;
+    if (relation.isLengthComparison()) {
+      Comparator comparator = getLengthComparator();
+      predicate = new Comparison(from, Comparator.LTE, to);
+      if (length != null) {
+        predicate = new And(predicate,
+          new Comparison(new Duration(from, to), comparator, length));
+      } else {
+        TimePoint otherFrom = rhs.getFrom();
+        TimePoint otherTo = rhs.getTo();
+        predicate = new And(predicate, new Comparison(otherFrom, Comparator.LTE, otherTo));
+        predicate = new And(predicate, new Comparison(new Duration(from, to), comparator,
+          new Duration(otherFrom, otherTo)));
+      }
+    } else {
+      predicate = expandRelation(from, to, rhs.getFrom(), rhs.getTo());
+    }
+    List<Comparison> constraints = lhs.getConstraints();
+    if (rhs != null) {
+      constraints.addAll(rhs.getConstraints());
+    }
+    for (int i = constraints.size() - 1; i >= 0; i--) {
+      predicate = new And(predicate, constraints.get(i));
+    }
+    return predicate;
+  }
+
+  /**
+   * Expands a relation that does not compare lengths into time point comparisons.
+   *
+   * @param from start of the left interval
+   * @param to end of the left interval
+   * @param otherFrom start of the right interval
+   * @param otherTo end of the right interval
+   * @return equivalent predicate
+   */
+  private Predicate expandRelation(TimePoint from, TimePoint to, TimePoint otherFrom,
+    TimePoint otherTo) {
+    switch (relation) {
+    case OVERLAPS:
+      return new Comparison(new MaxTimePoint(from, otherFrom), Comparator.LT,
+        new MinTimePoint(to, otherTo));
+    case FROM_TO:
+      return new And(new Comparison(from, Comparator.LT, otherTo),
+        new Comparison(to, Comparator.GT, otherFrom));
+    case BETWEEN:
+      return new And(new Comparison(from, Comparator.LTE, otherTo),
+        new Comparison(to, Comparator.GT, otherFrom));
+    case PRECEDES:
+      return new Comparison(to, Comparator.LTE, otherFrom);
+    case SUCCEEDS:
+      return new Comparison(from, Comparator.GTE, otherTo);
+    case IMMEDIATELY_PRECEDES:
+      return new Comparison(to, Comparator.EQ, otherFrom);
+    case IMMEDIATELY_SUCCEEDS:
+      return new Comparison(from, Comparator.EQ, otherTo);
+    case CONTAINS:
+      return new And(new Comparison(from, Comparator.LTE, otherFrom),
+        new Comparison(to, Comparator.GTE, otherTo));
+    case AS_OF:
+      return new And(new Comparison(from, Comparator.LTE, otherFrom),
+        new Comparison(otherTo, Comparator.LTE, to));
+    default:
+      return new And(new Comparison(from, Comparator.EQ, otherFrom),
+        new Comparison(to, Comparator.EQ, otherTo));
+    }
+  }
+
+  /**
+   * Returns the comparator of a length comparison.
+   *
+   * @return comparator applied to the lengths
+   */
+  private Comparator getLengthComparator() {
+    switch (relation) {
+    case LONGER_THAN:
+      return Comparator.GT;
+    case SHORTER_THAN:
+      return Comparator.LT;
+    case LENGTH_AT_LEAST:
+      return Comparator.GTE;
+    default:
+      return Comparator.LTE;
+    }
+  }
+
+  @Override
+  public Predicate[] getArguments() {
+    return new Predicate[]{};
+  }
+
+  @Override
+  public Set<String> getVariables() {
+    if (variables == null) {
+      variables = rhs == null ? lhs.getVariables() :
+        VariableSets.union(lhs.getVariables(), rhs.getVariables());
+    }
+    return variables;
+  }
+
+  @Override
+  public Predicate switchSides() {
+    return this;
+  }
+
+  @Override
+  public boolean containsSelectorType(TimeSelector.TimeField type) {
+    return lhs.containsSelectorType(type) || (rhs != null && rhs.containsSelectorType(type));
+  }
+
+  @Override
+  public boolean isTemporal() {
+    return true;
+  }
+
+  @Override
+  public boolean isGlobal() {
+    return lhs.isGlobal() || (rhs != null && rhs.isGlobal());
+  }
+
+  @Override
+  public Predicate unfoldGlobalLeft(List<String> variables) {
+    return expand().unfoldGlobalLeft(variables);
+  }
+
+  @Override
+  public Predicate replaceGlobalByLocal(List<String> variables) {
+    if (!isGlobal()) {
+      return this;
+    }
+    return new IntervalRelation(lhs.replaceGlobalByLocal(variables), relation,
+      rhs == null ? null : rhs.replaceGlobalByLocal(variables), length);
+  }
+
+  @Override
+  public String toString() {
+    return lhs + "." + relation.getName() + "(" + (rhs != null ? rhs : length) + ")";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    IntervalRelation that = (IntervalRelation) o;
+
+    return relation == that.relation && lhs.equals(that.lhs) && Objects.equals(rhs, that.rhs) &&
+      Objects.equals(length, that.length);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(lhs, relation, rhs, length);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.IntervalExpression;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.booleans.Not;
+import org.gradoop.gdl.model.predicates.booleans.Or;
+import org.gradoop.gdl.model.predicates.booleans.Xor;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites a predicate such that structurally equal time expressions are represented by one
+ * shared instance.
+ * <p>
+ * Replacing global time selectors creates a {@code MAX}/{@code MIN} term over all query variables
+ * for every occurrence of a global selector. After sharing, all these occurrences reference the
+ * same term, which a {@link TimeBinding} evaluates only once per binding. This includes the
+ * bounds of the intervals of {@link IntervalRelation}s. The rewritten predicate is equal to the
+ * original one.
+ */
+public class CommonSubexpressions {
+
+  /**
+   * Shared instances, keyed by equal time points
+   */
+  private final Map<TimePoint, TimePoint> sharedTimePoints = new HashMap<>();
+
+  /**
+   * Rewrites the given predicate such that equal time expressions are shared.
+   *
+   * @param predicate the predicate to rewrite
+   * @return equal predicate with shared time expressions
+   */
+  public static Predicate share(Predicate predicate) {
+    return new CommonSubexpressions().sharePredicate(predicate);
+  }
+
+  /**
+   * Rewrites a predicate, sharing time expressions with all predicates rewritten before by
+   * this instance.
+   *
+   * @param predicate the predicate to rewrite
+   * @return equal predicate with shared time expressions
+   */
+  public Predicate sharePredicate(Predicate predicate) {
+    if (predicate instanceof Comparison) {
+      Comparison comparison = (Comparison) predicate;
+      ComparableExpression[] sides = comparison.getComparableExpressions();
+      return new Comparison(shareExpression(sides[0]), comparison.getComparator(),
+        shareExpression(sides[1]));
+    } else if (predicate instanceof IntervalRelation) {
+      IntervalRelation relation = (IntervalRelation) predicate;
+      IntervalExpression lhs = shareInterval(relation.getLhs());
+      if (relation.getRhs() == null) {
+        return new IntervalRelation(lhs, relation.getRelation(), relation.getLength());
+      }
+      return new IntervalRelation(lhs, relation.getRelation(), shareInterval(relation.getRhs()));
+    }
+    Predicate[] arguments = predicate.getArguments();
+    if (predicate instanceof And) {
+      return new And(sharePredicate(arguments[0]), sharePredicate(arguments[1]));
+    } else if (predicate instanceof Or) {
+      return new Or(sharePredicate(arguments[0]), sharePredicate(arguments[1]));
+    } else if (predicate instanceof Xor) {
+      return new Xor(sharePredicate(arguments[0]), sharePredicate(arguments[1]));
+    } else if (predicate instanceof Not) {
+      return new Not(sharePredicate(arguments[0]));
+    }
+    return predicate;
+  }
+
+  /**
+   * Returns the shared instance of a comparable expression. Only time expressions are shared.
+   *
+   * @param expression the expression
+   * @return shared instance equal to the expression
+   */
+  public ComparableExpression shareExpression(ComparableExpression expression) {
+    if (expression instanceof TimePoint) {
+      return shareTimePoint((TimePoint) expression);
+    } else if (expression instanceof IntervalExpression) {
+      return shareInterval((IntervalExpression) expression);
+    }
+    return expression;
+  }
+
+  /**
+   * Returns an interval whose bounds are shared time points, nested intervals of merges and
+   * joins are rewritten as well.
+   *
+   * @param interval the interval
+   * @return equal interval with shared bounds
+   */
+  private IntervalExpression shareInterval(IntervalExpression interval) {
+    switch (interval.getKind()) {
+    case MERGE:
+      return shareInterval(interval.getLeft()).merge(shareInterval(interval.getRight()));
+    case JOIN:
+      return shareInterval(interval.getLeft()).join(shareInterval(interval.getRight()));
+    default:
+      return new IntervalExpression(shareTimePoint(interval.getFrom()),
+        shareTimePoint(interval.getTo()), interval.isOrdered());
+    }
+  }
+
+  /**
+   * Returns the shared instance of a time point. Arguments of terms are shared first, so that
+   * nested terms are shared as well.
+   *
+   * @param timePoint the time point
+   * @return shared instance equal to the time point
+   */
+  private TimePoint shareTimePoint(TimePoint timePoint) {
+    TimePoint shared = sharedTimePoints.get(timePoint);
+    if (shared != null) {
+      return shared;
+    }
+    if (timePoint instanceof MaxTimePoint) {
+      shared = new MaxTimePoint(shareArgs((TimeTerm) timePoint));
+    } else if (timePoint instanceof MinTimePoint) {
+      shared = new MinTimePoint(shareArgs((TimeTerm) timePoint));
+    } else if (timePoint instanceof Duration) {
+      Duration duration = (Duration) timePoint;
+      shared = new Duration(shareTimePoint(duration.getFrom()), shareTimePoint(duration.getTo()));
+    } else {
+      shared = timePoint;
+    }
+    sharedTimePoints.put(timePoint, shared);
+    return shared;
+  }
+
+  /**
+   * Returns the shared instances of the arguments of a term.
+   *
+   * @param term the term
+   * @return shared arguments in the same order
+   */
+  private TimePoint[] shareArgs(TimeTerm term) {
+    List<TimePoint> args = term.getArgs();
+    TimePoint[] shared = new TimePoint[args.size()];
+    for (int i = 0; i < shared.length; i++) {
+      shared[i] = shareTimePoint(args.get(i));
+    }
+    return shared;
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.utils.VariableDictionary;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Splits a query predicate into its top-level conjuncts and groups them by the set of variables
+ * they reference. This allows executors to apply each conjunct as soon as all of its variables
+ * are bound, e.g. single-variable filters before any join.
+ */
+public class PredicateDecomposer {
+
+  /**
+   * Dictionary used to intern the query variables
+   */
+  private final VariableDictionary dictionary;
+
+  /**
+   * Creates a decomposer with an empty variable dictionary
+   */
+  public PredicateDecomposer() {
+    this(new VariableDictionary());
+  }
+
+  /**
+   * Creates a decomposer that uses the given variable dictionary. Variables which are not yet
+   * contained are added to the dictionary.
+   *
+   * @param dictionary variable dictionary
+   */
+  public PredicateDecomposer(VariableDictionary dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * Decomposes the given predicate into its conjuncts.
+   *
+   * @param predicate the predicate to decompose
+   * @return conjuncts grouped by the variables they reference
+   */
+  public Decomposition decompose(Predicate predicate) {
+    List<Predicate> conjuncts = new ArrayList<>();
+    collectConjuncts(predicate, conjuncts);
+
+    Map<BitSet, List<Predicate>> groups = new LinkedHashMap<>();
+    for (Predicate conjunct : conjuncts) {
+      BitSet variables = dictionary.toBitSet(conjunct.getVariables());
+      groups.computeIfAbsent(variables, k -> new ArrayList<>()).add(conjunct);
+    }
+    return new Decomposition(dictionary, groups);
+  }
+
+  /**
+   * Decomposes the given (optional) predicate into its conjuncts.
+   *
+   * @param predicate the predicate to decompose, e.g. {@code GDLHandler.getPredicates()}
+   * @return conjuncts grouped by the variables they reference, empty if there is no predicate
+   */
+  public Decomposition decompose(Optional<Predicate> predicate) {
+    return predicate.map(this::decompose)
+      .orElseGet(() -> new Decomposition(dictionary, new LinkedHashMap<>()));
+  }
+
+  /**
+   * Collects the conjuncts of nested {@link And} predicates.
+   *
+   * @param predicate the predicate
+   * @param conjuncts list to add the conjuncts to
+   */
+  private void collectConjuncts(Predicate predicate, List<Predicate> conjuncts) {
+    if (predicate instanceof And) {
+      for (Predicate argument : predicate.getArguments()) {
+        collectConjuncts(argument, conjuncts);
+      }
+    } else {
+      conjuncts.add(predicate);
+    }
+  }
+
+  /**
+   * Result of a decomposition: a mapping from variable sets (as bitsets over the ids of a
+   * {@link VariableDictionary}) to the conjuncts that reference exactly these variables.
+   */
+  public static class Decomposition {
+
+    /**
+     * Dictionary the variable ids refer to
+     */
+    private final VariableDictionary dictionary;
+
+    /**
+     * Conjuncts grouped by the variables they reference
+     */
+    private final Map<BitSet, List<Predicate>> groups;
+
+    /**
+     * Creates a new decomposition
+     *
+     * @param dictionary dictionary the variable ids refer to
+     * @param groups conjuncts grouped by the variables they reference
+     */
+    Decomposition(VariableDictionary dictionary, Map<BitSet, List<Predicate>> groups) {
+      this.dictionary = dictionary;
+      this.groups = groups;
+    }
+
+    /**
+     * Returns the dictionary the variable ids refer to.
+     *
+     * @return variable dictionary
+     */
+    public VariableDictionary getDictionary() {
+      return dictionary;
+    }
+
+    /**
+     * Returns all conjuncts grouped by the variables they reference. The bitsets must not be
+     * modified.
+     *
+     * @return immutable mapping from variable sets to conjuncts
+     */
+    public Map<BitSet, List<Predicate>> getConjunctsByVariables() {
+      return Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * Returns the conjuncts that reference exactly the given variables.
+     *
+     * @param variables the variables
+     * @return conjuncts referencing exactly these variables
+     */
+    public List<Predicate> getConjuncts(String... variables) {
+      BitSet bits = new BitSet();
+      for (String variable : variables) {
+        int id = dictionary.lookup(variable);
+        if (id < 0) {
+          return Collections.emptyList();
+        }
+        bits.set(id);
+      }
+      return Collections.unmodifiableList(groups.getOrDefault(bits, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the conjuncts that do not reference any variable.
+     *
+     * @return constant conjuncts
+     */
+    public List<Predicate> getConstantConjuncts() {
+      return getConjuncts();
+    }
+
+    /**
+     * Returns the conjuncts that reference a single variable, i.e. vertex or edge filters.
+     *
+     * @return mapping from variable sets of size one to conjuncts
+     */
+    public Map<BitSet, List<Predicate>> getSingleVariableConjuncts() {
+      return getConjunctsOfArity(1, 1);
+    }
+
+    /**
+     * Returns the conjuncts that reference exactly two variables, i.e. join predicates.
+     *
+     * @return mapping from variable sets of size two to conjuncts
+     */
+    public Map<BitSet, List<Predicate>> getTwoVariableConjuncts() {
+      return getConjunctsOfArity(2, 2);
+    }
+
+    /**
+     * Returns the conjuncts that reference more than two variables.
+     *
+     * @return mapping from variable sets of size three or more to conjuncts
+     */
+    public Map<BitSet, List<Predicate>> getMultiVariableConjuncts() {
+      return getConjunctsOfArity(3, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns all conjuncts that can be evaluated once the variables in {@code bound} are bound,
+     * but could not be evaluated with {@code bound} minus {@code newVariable}.
+     * Executors can use this to apply each conjunct exactly once, directly after its last
+     * variable was bound.
+     *
+     * @param bound ids of all bound variables (including {@code newVariable})
+     * @param newVariable id of the variable that was bound last
+     * @return conjuncts that became applicable by binding {@code newVariable}
+     */
+    public List<Predicate> getNewlyApplicableConjuncts(BitSet bound, int newVariable) {
+      List<Predicate> result = new ArrayList<>();
+      for (Map.Entry<BitSet, List<Predicate>> entry : groups.entrySet()) {
+        BitSet variables = entry.getKey();
+        if (variables.get(newVariable) && isSubset(variables, bound)) {
+          result.addAll(entry.getValue());
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns the number of conjuncts.
+     *
+     * @return number of conjuncts
+     */
+    public int size() {
+      int size = 0;
+      for (List<Predicate> conjuncts : groups.values()) {
+        size += conjuncts.size();
+      }
+      return size;
+    }
+
+    /**
+     * Collects all groups whose variable set has a size within the given (inclusive) range.
+     *
+     * @param min minimum number of variables
+     * @param max maximum number of variables
+     * @return matching groups
+     */
+    private Map<BitSet, List<Predicate>> getConjunctsOfArity(int min, int max) {
+      Map<BitSet, List<Predicate>> result = new LinkedHashMap<>();
+      for (Map.Entry<BitSet, List<Predicate>> entry : groups.entrySet()) {
+        int arity = entry.getKey().cardinality();
+        if (arity >= min && arity <= max) {
+          result.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+      }
+      return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Checks whether all bits of {@code subset} are set in {@code superset}.
+     *
+     * @param subset potential subset
+     * @param superset potential superset
+     * @return true iff subset is a subset of superset
+     */
+    private static boolean isSubset(BitSet subset, BitSet superset) {
+      for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+        if (!superset.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      for (Map.Entry<BitSet, List<Predicate>> entry : groups.entrySet()) {
+        sb.append(dictionary.toVariables(entry.getKey())).append(" -> ")
+          .append(entry.getValue()).append('\n');
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.exceptions.UnsatisfiablePredicateException;
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.ElementSelector;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.booleans.Not;
+import org.gradoop.gdl.model.predicates.booleans.Or;
+import org.gradoop.gdl.model.predicates.booleans.Xor;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.ComparisonKernel;
+import org.gradoop.gdl.utils.Comparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Simplifies a finished query predicate before it is evaluated on any data.
+ * <p>
+ * The optimizer
+ * <ul>
+ *   <li>folds constant subtrees, e.g. {@code MAX(l1, l2)} over time literals, durations between
+ *   two constants and comparisons between two constants,</li>
+ *   <li>removes duplicate and implied conjuncts/disjuncts, e.g. the repeated
+ *   {@code tx_from <= tx_to} constraints added for global intervals or bounds like
+ *   {@code a.tx_from > t1} that are implied by a tighter bound {@code a.tx_from > t2},</li>
+ *   <li>detects contradictions, e.g. {@code a.tx_from > t2 AND a.tx_from < t1} for {@code t1 < t2}
+ *   or cycles like {@code a.tx_from < b.tx_from AND b.tx_from < a.tx_from} across several
+ *   conjuncts (see {@link TemporalConstraintChecker}).</li>
+ * </ul>
+ */
+public class PredicateOptimizer {
+
+  /**
+   * Optimizes the given predicate.
+   *
+   * @param predicate the predicate to optimize
+   * @return an equivalent, simplified predicate or {@code Optional.empty()} if the predicate is
+   * satisfied by every binding
+   * @throws UnsatisfiablePredicateException if the predicate can never be satisfied
+   */
+  public static Optional<Predicate> optimize(Predicate predicate) {
+    Folded folded = fold(predicate);
+    if (folded.isConstant()) {
+      if (!folded.value) {
+        throw new UnsatisfiablePredicateException(predicate);
+      }
+      return Optional.empty();
+    }
+    return Optional.of(folded.predicate);
+  }
+
+  /**
+   * Checks whether the given predicate can never be satisfied.
+   *
+   * @param predicate the predicate to check
+   * @return true iff the optimizer could prove that no binding satisfies the predicate
+   */
+  public static boolean isUnsatisfiable(Predicate predicate) {
+    Folded folded = fold(predicate);
+    return folded.isConstant() && !folded.value;
+  }
+
+  // --------------------------------------------------------------------------------------------
+  //  Predicates
+  // --------------------------------------------------------------------------------------------
+
+  /**
+   * Folds a predicate into a simplified predicate or a boolean constant.
+   *
+   * @param predicate predicate to fold
+   * @return folded predicate
+   */
+  private static Folded fold(Predicate predicate) {
+    if (predicate instanceof And) {
+      return foldAnd(predicate);
+    } else if (predicate instanceof Or) {
+      return foldOr(predicate);
+    } else if (predicate instanceof Not) {
+      return foldNot((Not) predicate);
+    } else if (predicate instanceof Xor) {
+      return foldXor((Xor) predicate);
+    } else if (predicate instanceof Comparison) {
+      return foldComparison((Comparison) predicate);
+    }
+    return Folded.of(predicate);
+  }
+
+  /**
+   * Folds a conjunction. Constant conjuncts are removed or turn the whole conjunction into
+   * {@code false}, duplicates and implied conjuncts are removed.
+   *
+   * @param and conjunction to fold
+   * @return folded conjunction
+   */
+  private static Folded foldAnd(Predicate and) {
+    List<Predicate> conjuncts = new ArrayList<>();
+    for (Predicate conjunct : flatten(and, And.class)) {
+      Folded folded = fold(conjunct);
+      if (folded.isConstant()) {
+        if (!folded.value) {
+          return Folded.FALSE;
+        }
+      } else {
+        conjuncts.addAll(flatten(folded.predicate, And.class));
+      }
+    }
+    conjuncts = removeDuplicates(conjuncts);
+    if (!removeImpliedComparisons(conjuncts)) {
+      return Folded.FALSE;
+    }
+    List<Predicate> bounded = new BoundAnalysis(conjuncts).apply();
+    if (bounded == null) {
+      return Folded.FALSE;
+    }
+    if (bounded.isEmpty()) {
+      return Folded.TRUE;
+    }
+    Predicate result = bounded.get(0);
+    for (int i = 1; i < bounded.size(); i++) {
+      result = new And(result, bounded.get(i));
+    }
+    if (bounded.size() > 1 && !TemporalConstraintChecker.check(result).isSatisfiable()) {
+      return Folded.FALSE;
+    }
+    return Folded.of(result);
+  }
+
+  /**
+   * Folds a disjunction. Constant disjuncts are removed or turn the whole disjunction into
+   * {@code true}, duplicates are removed.
+   *
+   * @param or disjunction to fold
+   * @return folded disjunction
+   */
+  private static Folded foldOr(Predicate or) {
+    List<Predicate> disjuncts = new ArrayList<>();
+    for (Predicate disjunct : flatten(or, Or.class)) {
+      Folded folded = fold(disjunct);
+      if (folded.isConstant()) {
+        if (folded.value) {
+          return Folded.TRUE;
+        }
+      } else {
+        disjuncts.addAll(flatten(folded.predicate, Or.class));
+      }
+    }
+    disjuncts = removeDuplicates(disjuncts);
+    if (disjuncts.isEmpty()) {
+      return Folded.FALSE;
+    }
+    Predicate result = disjuncts.get(0);
+    for (int i = 1; i < disjuncts.size(); i++) {
+      result = new Or(result, disjuncts.get(i));
+    }
+    return Folded.of(result);
+  }
+
+  /**
+   * Folds a negation. Double negations are removed.
+   *
+   * @param not negation to fold
+   * @return folded negation
+   */
+  private static Folded foldNot(Not not) {
+    Folded folded = fold(not.getArguments()[0]);
+    if (folded.isConstant()) {
+      return Folded.of(!folded.value);
+    }
+    if (folded.predicate instanceof Not) {
+      return Folded.of(folded.predicate.getArguments()[0]);
+    }
+    return Folded.of(new Not(folded.predicate));
+  }
+
+  /**
+   * Folds an exclusive disjunction.
+   *
+   * @param xor exclusive disjunction to fold
+   * @return folded exclusive disjunction
+   */
+  private static Folded foldXor(Xor xor) {
+    Folded lhs = fold(xor.getArguments()[0]);
+    Folded rhs = fold(xor.getArguments()[1]);
+    if (lhs.isConstant() && rhs.isConstant()) {
+      return Folded.of(lhs.value ^ rhs.value);
+    } else if (lhs.isConstant()) {
+      return lhs.value ? foldNot(new Not(rhs.predicate)) : rhs;
+    } else if (rhs.isConstant()) {
+      return rhs.value ? foldNot(new Not(lhs.predicate)) : lhs;
+    } else if (lhs.predicate.equals(rhs.predicate)) {
+      return Folded.FALSE;
+    }
+    return Folded.of(new Xor(lhs.predicate, rhs.predicate));
+  }
+
+  /**
+   * Folds a comparison. Both sides are folded first, comparisons between two constants are
+   * evaluated.
+   *
+   * @param comparison comparison to fold
+   * @return folded comparison
+   */
+  private static Folded foldComparison(Comparison comparison) {
+    ComparableExpression[] sides = comparison.getComparableExpressions();
+    ComparableExpression lhs = foldComparable(sides[0]);
+    ComparableExpression rhs = foldComparable(sides[1]);
+    Comparator comparator = comparison.getComparator();
+
+    Optional<Long> lhsValue = constantTime(lhs);
+    Optional<Long> rhsValue = constantTime(rhs);
+    if (lhsValue.isPresent() && rhsValue.isPresent()) {
+      return Folded.of(compare(Long.compare(lhsValue.get(), rhsValue.get()), comparator));
+    }
+    if (lhs instanceof Literal && rhs instanceof Literal) {
+      Literal left = (Literal) lhs;
+      Literal right = (Literal) rhs;
+      return Folded.of(ComparisonKernel.select(comparator, left.getValueType(), right.getValueType())
+        .compare(left.getValue(), right.getValue()));
+    }
+    // identical time points or elements are always equal (properties might be missing, though)
+    if (lhs.equals(rhs) && (lhs instanceof TimePoint || lhs instanceof ElementSelector)) {
+      return Folded.of(compare(0, comparator));
+    }
+    if (lhs == sides[0] && rhs == sides[1]) {
+      return Folded.of(comparison);
+    }
+    return Folded.of(new Comparison(lhs, comparator, rhs));
+  }
+
+  // --------------------------------------------------------------------------------------------
+  //  Comparables
+  // --------------------------------------------------------------------------------------------
+
+  /**
+   * Folds constant subtrees of a comparable expression.
+   *
+   * @param comparable comparable expression to fold
+   * @return folded comparable expression
+   */
+  private static ComparableExpression foldComparable(ComparableExpression comparable) {
+    if (comparable instanceof TimePoint) {
+      return foldTimePoint((TimePoint) comparable);
+    }
+    return comparable;
+  }
+
+  /**
+   * Folds constant subtrees of a time point, i.e. {@code MIN}, {@code MAX} and {@code Duration}
+   * terms over constants are replaced by their value.
+   *
+   * @param timePoint time point to fold
+   * @return folded time point
+   */
+  private static TimePoint foldTimePoint(TimePoint timePoint) {
+    if (timePoint instanceof Duration) {
+      Duration duration = (Duration) timePoint;
+      TimePoint from = foldTimePoint(duration.getFrom());
+      TimePoint to = foldTimePoint(duration.getTo());
+      Optional<Long> fromValue = constantTime(from);
+      Optional<Long> toValue = constantTime(to);
+      if (fromValue.isPresent() && toValue.isPresent()) {
+        return new TimeConstant(Duration.between(fromValue.get(), toValue.get()));
+      }
+      if (from == duration.getFrom() && to == duration.getTo()) {
+        return duration;
+      }
+      return new Duration(from, to);
+    } else if (timePoint instanceof MaxTimePoint || timePoint instanceof MinTimePoint) {
+      return foldMinMax((TimeTerm) timePoint, timePoint instanceof MaxTimePoint);
+    }
+    return timePoint;
+  }
+
+  /**
+   * Folds a {@code MIN} or {@code MAX} term. Nested terms of the same kind are flattened, all
+   * constant arguments are combined into a single literal and duplicate arguments are removed.
+   *
+   * @param term the term to fold
+   * @param max true iff the term is a {@code MAX} term
+   * @return folded term
+   */
+  private static TimePoint foldMinMax(TimeTerm term, boolean max) {
+    List<TimePoint> args = new ArrayList<>();
+    Long constant = null;
+    List<TimePoint> pending = new ArrayList<>(term.getArgs());
+    while (!pending.isEmpty()) {
+      TimePoint arg = foldTimePoint(pending.remove(0));
+      if (arg.getClass().equals(term.getClass())) {
+        pending.addAll(((TimeTerm) arg).getArgs());
+        continue;
+      }
+      Optional<Long> value = constantTime(arg);
+      if (value.isPresent()) {
+        constant = constant == null ? value.get() :
+          max ? Math.max(constant, value.get()) : Math.min(constant, value.get());
+      } else if (!args.contains(arg)) {
+        args.add(arg);
+      }
+    }
+    if (constant != null) {
+      args.add(new TimeLiteral(constant));
+    }
+    if (args.size() == 1) {
+      return args.get(0);
+    }
+    TimePoint[] argArray = args.toArray(new TimePoint[0]);
+    return max ? new MaxTimePoint(argArray) : new MinTimePoint(argArray);
+  }
+
+  /**
+   * Returns the value of a comparable expression iff it is a constant time point.
+   *
+   * @param comparable comparable expression
+   * @return value of the constant or {@code Optional.empty()}
+   */
+  private static Optional<Long> constantTime(ComparableExpression comparable) {
+    if (comparable instanceof TimePoint) {
+      return ((TimePoint) comparable).evaluate();
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Evaluates a comparator given the result of a comparison.
+   *
+   * @param cmp result of a comparison (like {@link Comparable#compareTo(Object)})
+   * @param comparator the comparator
+   * @return true iff the comparator holds
+   */
+  private static boolean compare(int cmp, Comparator comparator) {
+    switch (comparator) {
+      case EQ:  return cmp == 0;
+      case NEQ: return cmp != 0;
+      case LT:  return cmp < 0;
+      case LTE: return cmp <= 0;
+      case GT:  return cmp > 0;
+      default:  return cmp >= 0;
+    }
+  }
+
+  // --------------------------------------------------------------------------------------------
+  //  Redundancy elimination
+  // --------------------------------------------------------------------------------------------
+
+  /**
+   * Collects the arguments of nested predicates of the same kind, e.g. all conjuncts of nested
+   * {@link And}s.
+   *
+   * @param predicate root predicate
+   * @param type the kind of predicate to flatten
+   * @return list of arguments
+   */
+  private static List<Predicate> flatten(Predicate predicate, Class<? extends Predicate> type) {
+    List<Predicate> result = new ArrayList<>();
+    if (type.isInstance(predicate)) {
+      for (Predicate argument : predicate.getArguments()) {
+        result.addAll(flatten(argument, type));
+      }
+    } else {
+      result.add(predicate);
+    }
+    return result;
+  }
+
+  /**
+   * Removes predicates that are equal (or equal after switching sides) to a preceding predicate.
+   *
+   * @param predicates list of predicates
+   * @return list without duplicates
+   */
+  private static List<Predicate> removeDuplicates(List<Predicate> predicates) {
+    List<Predicate> result = new ArrayList<>();
+    for (Predicate predicate : predicates) {
+      boolean duplicate = false;
+      for (Predicate seen : result) {
+        if (seen.equals(predicate) || seen.equals(predicate.switchSides())) {
+          duplicate = true;
+          break;
+        }
+      }
+      if (!duplicate) {
+        result.add(predicate);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes temporal comparisons between the same two (non-constant) time points that are implied
+   * by another comparison between them, e.g. {@code x <= y} is implied by {@code x < y}.
+   *
+   * @param conjuncts list of conjuncts, modified in place
+   * @return false iff two of the comparisons contradict each other
+   */
+  private static boolean removeImpliedComparisons(List<Predicate> conjuncts) {
+    for (int i = 0; i < conjuncts.size(); i++) {
+      if (!isTemporalComparison(conjuncts.get(i))) {
+        continue;
+      }
+      Comparison first = (Comparison) conjuncts.get(i);
+      for (int j = conjuncts.size() - 1; j > i; j--) {
+        if (!isTemporalComparison(conjuncts.get(j))) {
+          continue;
+        }
+        Comparator other = alignedComparator(first, (Comparison) conjuncts.get(j));
+        if (other == null) {
+          continue;
+        }
+        Comparator comparator = first.getComparator();
+        if (contradicts(comparator, other)) {
+          return false;
+        } else if (implies(comparator, other)) {
+          conjuncts.remove(j);
+        } else if (implies(other, comparator)) {
+          conjuncts.set(i, conjuncts.remove(j));
+          first = (Comparison) conjuncts.get(i);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether a predicate is a comparison between two time points.
+   *
+   * @param predicate predicate to check
+   * @return true iff predicate is a temporal comparison
+   */
+  private static boolean isTemporalComparison(Predicate predicate) {
+    if (!(predicate instanceof Comparison)) {
+      return false;
+    }
+    ComparableExpression[] sides = ((Comparison) predicate).getComparableExpressions();
+    return sides[0] instanceof TimePoint && sides[1] instanceof TimePoint;
+  }
+
+  /**
+   * Returns the comparator of {@code other} as if it compared the same sides as {@code reference}
+   * in the same order.
+   *
+   * @param reference reference comparison
+   * @param other comparison to align
+   * @return aligned comparator of {@code other} or {@code null} if both comparisons do not compare
+   * the same expressions
+   */
+  private static Comparator alignedComparator(Comparison reference, Comparison other) {
+    ComparableExpression[] ref = reference.getComparableExpressions();
+    ComparableExpression[] oth = other.getComparableExpressions();
+    if (ref[0].equals(oth[0]) && ref[1].equals(oth[1])) {
+      return other.getComparator();
+    } else if (ref[0].equals(oth[1]) && ref[1].equals(oth[0])) {
+      return other.getComparator().switchSides();
+    }
+    return null;
+  }
+
+  /**
+   * Checks whether {@code x a y} implies {@code x b y} for all time points {@code x, y}.
+   *
+   * @param a first comparator
+   * @param b second comparator
+   * @return true iff {@code a} implies {@code b}
+   */
+  private static boolean implies(Comparator a, Comparator b) {
+    if (a == b) {
+      return true;
+    }
+    switch (a) {
+      case LT:  return b == Comparator.LTE || b == Comparator.NEQ;
+      case GT:  return b == Comparator.GTE || b == Comparator.NEQ;
+      case EQ:  return b == Comparator.LTE || b == Comparator.GTE;
+      default:  return false;
+    }
+  }
+
+  /**
+   * Checks whether {@code x a y} and {@code x b y} can never hold at the same time.
+   *
+   * @param a first comparator
+   * @param b second comparator
+   * @return true iff {@code a} and {@code b} contradict each other
+   */
+  private static boolean contradicts(Comparator a, Comparator b) {
+    return implies(a, b.getInverse()) || implies(b, a.getInverse());
+  }
+
+  /**
+   * Derives the tightest constant bounds of every time point that is compared to a constant within a
+   * list of conjuncts. Conjuncts whose bounds are implied by tighter bounds are dropped.
+   */
+  private static class BoundAnalysis {
+
+    /**
+     * The conjuncts to analyze
+     */
+    private final List<Predicate> conjuncts;
+
+    /**
+     * The bounded time points, in order of appearance
+     */
+    private final List<TimePoint> terms = new ArrayList<>();
+
+    /**
+     * Tightest lower bound per term
+     */
+    private final List<Bound> lower = new ArrayList<>();
+
+    /**
+     * Tightest upper bound per term
+     */
+    private final List<Bound> upper = new ArrayList<>();
+
+    /**
+     * Creates a new analysis
+     *
+     * @param conjuncts the conjuncts to analyze
+     */
+    BoundAnalysis(List<Predicate> conjuncts) {
+      this.conjuncts = conjuncts;
+    }
+
+    /**
+     * Runs the analysis.
+     *
+     * @return the conjuncts without implied bounds or {@code null} if the bounds of a time point
+     * contradict each other
+     */
+    List<Predicate> apply() {
+      for (Predicate conjunct : conjuncts) {
+        Comparison bound = normalize(conjunct);
+        if (bound == null || bound.getComparator() == Comparator.NEQ) {
+          continue;
+        }
+        int index = indexOf((TimePoint) bound.getComparableExpressions()[0]);
+        long value = constantTime(bound.getComparableExpressions()[1]).get();
+        Comparator comparator = bound.getComparator();
+        if (comparator != Comparator.LT && comparator != Comparator.LTE) {
+          Bound candidate = new Bound(value, comparator == Comparator.GT, conjunct);
+          if (lower.get(index) == null || candidate.tighterLowerThan(lower.get(index))) {
+            lower.set(index, candidate);
+          }
+        }
+        if (comparator != Comparator.GT && comparator != Comparator.GTE) {
+          Bound candidate = new Bound(value, comparator == Comparator.LT, conjunct);
+          if (upper.get(index) == null || candidate.tighterUpperThan(upper.get(index))) {
+            upper.set(index, candidate);
+          }
+        }
+      }
+      for (int i = 0; i < terms.size(); i++) {
+        Bound lo = lower.get(i);
+        Bound hi = upper.get(i);
+        if (lo != null && hi != null &&
+          (lo.value > hi.value || (lo.value == hi.value && (lo.strict || hi.strict)))) {
+          return null;
+        }
+      }
+
+      List<Predicate> result = new ArrayList<>();
+      for (Predicate conjunct : conjuncts) {
+        Comparison bound = normalize(conjunct);
+        if (bound == null) {
+          result.add(conjunct);
+          continue;
+        }
+        int index = terms.indexOf(bound.getComparableExpressions()[0]);
+        if (bound.getComparator() == Comparator.NEQ) {
+          long value = constantTime(bound.getComparableExpressions()[1]).get();
+          Bound lo = index < 0 ? null : lower.get(index);
+          Bound hi = index < 0 ? null : upper.get(index);
+          if (lo != null && hi != null && !lo.strict && !hi.strict &&
+            lo.value == value && hi.value == value) {
+            return null;
+          }
+          boolean outside = (lo != null && (value < lo.value || (value == lo.value && lo.strict))) ||
+            (hi != null && (value > hi.value || (value == hi.value && hi.strict)));
+          if (!outside) {
+            result.add(conjunct);
+          }
+        } else if ((lower.get(index) != null && lower.get(index).source == conjunct) ||
+          (upper.get(index) != null && upper.get(index).source == conjunct)) {
+          result.add(conjunct);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns the index of a bounded term, registers it if necessary.
+     *
+     * @param term the bounded term
+     * @return index of the term
+     */
+    private int indexOf(TimePoint term) {
+      int index = terms.indexOf(term);
+      if (index < 0) {
+        terms.add(term);
+        lower.add(null);
+        upper.add(null);
+        index = terms.size() - 1;
+      }
+      return index;
+    }
+
+    /**
+     * Brings a comparison of a time point with a constant into the form {@code term comp constant}.
+     *
+     * @param predicate predicate to normalize
+     * @return normalized comparison or {@code null} if the predicate is not a comparison of a
+     * non-constant time point with a constant time point
+     */
+    private static Comparison normalize(Predicate predicate) {
+      if (!isTemporalComparison(predicate)) {
+        return null;
+      }
+      Comparison comparison = (Comparison) predicate;
+      ComparableExpression[] sides = comparison.getComparableExpressions();
+      boolean lhsConstant = constantTime(sides[0]).isPresent();
+      boolean rhsConstant = constantTime(sides[1]).isPresent();
+      if (!lhsConstant && rhsConstant) {
+        return comparison;
+      } else if (lhsConstant && !rhsConstant) {
+        return comparison.switchSides();
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A constant bound of a time point
+   */
+  private static class Bound {
+
+    /**
+     * Value of the bound
+     */
+    private final long value;
+
+    /**
+     * True iff the bound itself is excluded
+     */
+    private final boolean strict;
+
+    /**
+     * Conjunct the bound was derived from
+     */
+    private final Predicate source;
+
+    /**
+     * Creates a new bound
+     *
+     * @param value value of the bound
+     * @param strict true iff the value itself is excluded
+     * @param source conjunct the bound was derived from
+     */
+    Bound(long value, boolean strict, Predicate source) {
+      this.value = value;
+      this.strict = strict;
+      this.source = source;
+    }
+
+    /**
+     * Checks whether this bound is a tighter lower bound than another one
+     *
+     * @param other other lower bound
+     * @return true iff this bound is tighter
+     */
+    boolean tighterLowerThan(Bound other) {
+      return value > other.value || (value == other.value && strict && !other.strict);
+    }
+
+    /**
+     * Checks whether this bound is a tighter upper bound than another one
+     *
+     * @param other other upper bound
+     * @return true iff this bound is tighter
+     */
+    boolean tighterUpperThan(Bound other) {
+      return value < other.value || (value == other.value && strict && !other.strict);
+    }
+  }
+
+  /**
+   * Result of folding a predicate: either a boolean constant or a (simplified) predicate
+   */
+  private static class Folded {
+
+    /**
+     * Constant {@code true}
+     */
+    static final Folded TRUE = new Folded(null, true);
+
+    /**
+     * Constant {@code false}
+     */
+    static final Folded FALSE = new Folded(null, false);
+
+    /**
+     * Folded predicate, {@code null} for constants
+     */
+    private final Predicate predicate;
+
+    /**
+     * Value of a constant
+     */
+    private final boolean value;
+
+    /**
+     * Creates a new result
+     *
+     * @param predicate folded predicate, {@code null} for constants
+     * @param value value of a constant
+     */
+    private Folded(Predicate predicate, boolean value) {
+      this.predicate = predicate;
+      this.value = value;
+    }
+
+    /**
+     * Wraps a (non-constant) predicate
+     *
+     * @param predicate predicate
+     * @return result
+     */
+    static Folded of(Predicate predicate) {
+      return new Folded(predicate, false);
+    }
+
+    /**
+     * Returns a constant result
+     *
+     * @param value value of the constant
+     * @return result
+     */
+    static Folded of(boolean value) {
+      return value ? TRUE : FALSE;
+    }
+
+    /**
+     * Checks whether the result is a constant
+     *
+     * @return true iff the result is a constant
+     */
+    boolean isConstant() {
+      return predicate == null;
+    }
+  }
+}
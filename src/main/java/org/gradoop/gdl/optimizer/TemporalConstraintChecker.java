@@ -0,0 +1,438 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.utils.Comparator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Checks the satisfiability of the temporal part of a query predicate and derives the bounds it
+ * implies.
+ * <p>
+ * The conjuncts of a predicate are read as difference constraints {@code x - y <= c} over the time
+ * selectors of the query: {@code a.tx_from < b.tx_to} becomes {@code a.tx_from - b.tx_to <= -1},
+ * {@code Duration(a.val_from, a.val_to) >= Interval(...)} becomes
+ * {@code a.val_from - a.val_to <= -c} and a comparison with a constant time point {@code t} is a
+ * constraint against a zero node, e.g. {@code a.tx_from - 0 <= t}. {@code MAX} terms on the
+ * smaller and {@code MIN} terms on the larger side of a comparison are split into one constraint
+ * per pair of arguments, other terms are ignored.
+ * <p>
+ * The constraints are satisfiable iff their constraint graph has no negative cycle. The shortest
+ * paths between all pairs of nodes (Floyd-Warshall, O(n^3) for n selectors) are the tightest
+ * implied bounds: the path from the zero node to {@code x} is an upper bound of {@code x}, the path
+ * from {@code x} to the zero node a negated lower bound. For example,
+ * {@code a.tx_from < b.tx_from AND b.tx_from < t} implies {@code a.tx_from <= t - 2}. Values that
+ * exceed the range of a {@code long} loosen a constraint, so the result is never wrong, but may
+ * be less tight than possible.
+ * <p>
+ * Like {@link TimeRangeExtractor}, the checker only considers the conjunctive part of a predicate,
+ * its bounds are necessary but not sufficient conditions of the predicate.
+ */
+public class TemporalConstraintChecker {
+
+  /**
+   * Marks a missing edge of the constraint graph, i.e. an unbounded difference
+   */
+  private static final long UNBOUNDED = Long.MAX_VALUE;
+
+  /**
+   * Index of the zero node in the constraint graph
+   */
+  private static final int ZERO = 0;
+
+  /**
+   * Non-constant time points by node index, {@code null} for the zero node
+   */
+  private final List<TimeSelector> nodes = new ArrayList<>();
+
+  /**
+   * Constraints as pairs of node indices and bounds, {@code x - y <= c} is stored as
+   * {@code (y, x, c)}
+   */
+  private final List<long[]> constraints = new ArrayList<>();
+
+  /**
+   * True iff a single constraint can not be satisfied
+   */
+  private boolean unsatisfiable;
+
+  /**
+   * Creates a checker with the zero node only
+   */
+  private TemporalConstraintChecker() {
+    nodes.add(null);
+  }
+
+  /**
+   * Checks the temporal constraints of a predicate.
+   *
+   * @param predicate the predicate
+   * @return satisfiability and implied bounds of the constraints
+   */
+  public static Solution check(Predicate predicate) {
+    TemporalConstraintChecker checker = new TemporalConstraintChecker();
+    checker.collect(predicate);
+    return checker.solve(TimeRangeExtractor.extract(predicate));
+  }
+
+  /**
+   * Checks the temporal constraints of an (optional) predicate.
+   *
+   * @param predicate the predicate, e.g. {@code GDLHandler.getPredicates()}
+   * @return satisfiability and implied bounds of the constraints, without any constraint if
+   * there is no predicate
+   */
+  public static Solution check(Optional<Predicate> predicate) {
+    return predicate.map(TemporalConstraintChecker::check).orElseGet(
+      () -> new TemporalConstraintChecker().solve(TimeRangeExtractor.extract(predicate)));
+  }
+
+  /**
+   * Collects the constraints of the conjuncts of a predicate.
+   *
+   * @param predicate the predicate
+   */
+  private void collect(Predicate predicate) {
+    if (predicate instanceof And) {
+      for (Predicate argument : predicate.getArguments()) {
+        collect(argument);
+      }
+    } else if (predicate instanceof IntervalRelation) {
+      collect(((IntervalRelation) predicate).expand());
+    } else if (predicate instanceof Comparison) {
+      Comparison comparison = (Comparison) predicate;
+      ComparableExpression[] sides = comparison.getComparableExpressions();
+      if (sides[1] instanceof Duration) {
+        comparison = comparison.switchSides();
+        sides = comparison.getComparableExpressions();
+      }
+      if (sides[0] instanceof Duration) {
+        collectDuration((Duration) sides[0], comparison.getComparator(), sides[1]);
+        return;
+      }
+      switch (comparison.getComparator()) {
+      case LT:
+        order(sides[0], sides[1], true);
+        break;
+      case LTE:
+        order(sides[0], sides[1], false);
+        break;
+      case GT:
+        order(sides[1], sides[0], true);
+        break;
+      case GTE:
+        order(sides[1], sides[0], false);
+        break;
+      case EQ:
+        order(sides[0], sides[1], false);
+        order(sides[1], sides[0], false);
+        break;
+      default:
+        break;
+      }
+    }
+  }
+
+  /**
+   * Adds the constraints implied by {@code smaller < larger} (or {@code <=}) for every pair of
+   * arguments of {@code MAX} terms on the smaller and {@code MIN} terms on the larger side.
+   *
+   * @param smaller the smaller side
+   * @param larger the larger side
+   * @param strict true iff the comparison is strict
+   */
+  private void order(ComparableExpression smaller, ComparableExpression larger, boolean strict) {
+    List<ComparableExpression> lower = new ArrayList<>();
+    TimeRangeExtractor.flatten(smaller, MaxTimePoint.class, lower);
+    List<ComparableExpression> upper = new ArrayList<>();
+    TimeRangeExtractor.flatten(larger, MinTimePoint.class, upper);
+    BigInteger bound = strict ? BigInteger.ONE.negate() : BigInteger.ZERO;
+    for (ComparableExpression s : lower) {
+      for (ComparableExpression l : upper) {
+        add(s, l, bound);
+      }
+    }
+  }
+
+  /**
+   * Adds the constraints implied by comparing the duration {@code to - from} with a constant.
+   *
+   * @param duration the duration
+   * @param comparator comparator with the duration on the left-hand side
+   * @param other the other side of the comparison
+   */
+  private void collectDuration(Duration duration, Comparator comparator,
+    ComparableExpression other) {
+    Optional<Long> constant = TimeRangeExtractor.constantTime(other);
+    if (!constant.isPresent()) {
+      return;
+    }
+    BigInteger value = BigInteger.valueOf(constant.get());
+    TimePoint from = duration.getFrom();
+    TimePoint to = duration.getTo();
+    switch (comparator) {
+    case LT:
+      add(to, from, value.subtract(BigInteger.ONE));
+      break;
+    case LTE:
+      add(to, from, value);
+      break;
+    case GT:
+      add(from, to, value.negate().subtract(BigInteger.ONE));
+      break;
+    case GTE:
+      add(from, to, value.negate());
+      break;
+    case EQ:
+      add(to, from, value);
+      add(from, to, value.negate());
+      break;
+    default:
+      break;
+    }
+  }
+
+  /**
+   * Adds the constraint {@code x - y <= bound}. Constant time points are moved into the bound,
+   * constraints on other terms than selectors and constants are ignored.
+   *
+   * @param x first time point
+   * @param y second time point
+   * @param bound bound of the difference
+   */
+  private void add(ComparableExpression x, ComparableExpression y, BigInteger bound) {
+    int xNode = nodeOf(x);
+    int yNode = nodeOf(y);
+    if (xNode < 0 || yNode < 0) {
+      return;
+    }
+    if (xNode == ZERO) {
+      bound = bound.subtract(BigInteger.valueOf(TimeRangeExtractor.constantTime(x).get()));
+    }
+    if (yNode == ZERO) {
+      bound = bound.add(BigInteger.valueOf(TimeRangeExtractor.constantTime(y).get()));
+    }
+    if (xNode == yNode) {
+      unsatisfiable |= bound.signum() < 0;
+    } else if (bound.compareTo(BigInteger.valueOf(Long.MIN_VALUE)) < 0) {
+      // the difference of two longs may be smaller than Long.MIN_VALUE, a single long may not
+      unsatisfiable |= xNode == ZERO || yNode == ZERO;
+      constraints.add(new long[] {yNode, xNode, Long.MIN_VALUE});
+    } else if (bound.compareTo(BigInteger.valueOf(UNBOUNDED)) < 0) {
+      constraints.add(new long[] {yNode, xNode, bound.longValue()});
+    }
+  }
+
+  /**
+   * Returns the node of a time point, registers it if necessary.
+   *
+   * @param expression the time point
+   * @return index of the node, {@link #ZERO} for constants, -1 if the expression is neither a
+   * selector nor a constant
+   */
+  private int nodeOf(ComparableExpression expression) {
+    if (TimeRangeExtractor.constantTime(expression).isPresent()) {
+      return ZERO;
+    }
+    if (!(expression instanceof TimeSelector)) {
+      return -1;
+    }
+    int index = nodes.indexOf(expression);
+    if (index < 0) {
+      nodes.add((TimeSelector) expression);
+      index = nodes.size() - 1;
+    }
+    return index;
+  }
+
+  /**
+   * Computes the shortest paths of the constraint graph and the implied ranges.
+   *
+   * @param ranges ranges to tighten, e.g. the ranges extracted from the same predicate
+   * @return solution of the constraints
+   */
+  private Solution solve(TimeRangeExtractor.TimeRanges ranges) {
+    int n = nodes.size();
+    long[][] distances = new long[n][n];
+    for (int i = 0; i < n; i++) {
+      Arrays.fill(distances[i], UNBOUNDED);
+      distances[i][i] = 0;
+    }
+    for (long[] constraint : constraints) {
+      int from = (int) constraint[0];
+      int to = (int) constraint[1];
+      distances[from][to] = Math.min(distances[from][to], constraint[2]);
+    }
+    for (int k = 0; k < n; k++) {
+      long[] viaK = distances[k];
+      for (int i = 0; i < n; i++) {
+        long toK = distances[i][k];
+        if (toK == UNBOUNDED) {
+          continue;
+        }
+        long[] fromI = distances[i];
+        for (int j = 0; j < n; j++) {
+          long path = add(toK, viaK[j]);
+          if (path < fromI[j]) {
+            fromI[j] = path;
+          }
+        }
+      }
+    }
+
+    boolean satisfiable = !unsatisfiable;
+    for (int i = 0; i < n && satisfiable; i++) {
+      // a negative cycle, or a lower bound above Long.MAX_VALUE
+      satisfiable = distances[i][i] >= 0 && distances[i][ZERO] != Long.MIN_VALUE;
+    }
+    if (satisfiable) {
+      for (int i = 1; i < n; i++) {
+        TimeSelector selector = nodes.get(i);
+        long upper = distances[ZERO][i];
+        long lower = distances[i][ZERO] == UNBOUNDED ? Long.MIN_VALUE : -distances[i][ZERO];
+        if (lower != Long.MIN_VALUE || upper != Long.MAX_VALUE) {
+          ranges.tighten(selector.getVariable(), selector.getTimeProp(), lower, upper);
+        }
+      }
+    } else {
+      ranges.setUnsatisfiable();
+    }
+    return new Solution(nodes, distances, ranges);
+  }
+
+  /**
+   * Adds two path lengths. Sums above {@code Long.MAX_VALUE} are unbounded, sums below
+   * {@code Long.MIN_VALUE} are cut to {@code Long.MIN_VALUE}.
+   *
+   * @param a first length
+   * @param b second length
+   * @return saturated sum
+   */
+  private static long add(long a, long b) {
+    if (a == UNBOUNDED || b == UNBOUNDED) {
+      return UNBOUNDED;
+    }
+    long sum = a + b;
+    if (((a ^ sum) & (b ^ sum)) < 0) {
+      return a < 0 ? Long.MIN_VALUE : UNBOUNDED;
+    }
+    return sum;
+  }
+
+  /**
+   * Result of the check: satisfiability, the tightest bounds of each selector and of the
+   * difference between two selectors.
+   */
+  public static class Solution {
+
+    /**
+     * Selectors by node index, {@code null} for the zero node
+     */
+    private final List<TimeSelector> nodes;
+
+    /**
+     * Shortest path lengths, {@code distances[y][x]} bounds {@code x - y}
+     */
+    private final long[][] distances;
+
+    /**
+     * Ranges of the selectors
+     */
+    private final TimeRangeExtractor.TimeRanges ranges;
+
+    /**
+     * Creates a new solution
+     *
+     * @param nodes selectors by node index
+     * @param distances shortest path lengths
+     * @param ranges ranges of the selectors
+     */
+    Solution(List<TimeSelector> nodes, long[][] distances, TimeRangeExtractor.TimeRanges ranges) {
+      this.nodes = nodes;
+      this.distances = distances;
+      this.ranges = ranges;
+    }
+
+    /**
+     * Checks whether the constraints can be satisfied. If not, the predicate can never hold.
+     *
+     * @return false iff the constraints contradict each other
+     */
+    public boolean isSatisfiable() {
+      return ranges.isSatisfiable();
+    }
+
+    /**
+     * Returns the tightest constant range of every bounded selector, including the bounds that
+     * are only implied by comparisons between selectors.
+     *
+     * @return time ranges of the bounded variables
+     */
+    public TimeRangeExtractor.TimeRanges getRanges() {
+      return ranges;
+    }
+
+    /**
+     * Returns the selectors that occur in a difference constraint.
+     *
+     * @return constrained selectors
+     */
+    public List<TimeSelector> getSelectors() {
+      return Collections.unmodifiableList(nodes.subList(1, nodes.size()));
+    }
+
+    /**
+     * Returns the tightest upper bound of {@code x - y} implied by the constraints, e.g. to
+     * restrict the window of a temporal join between {@code x} and {@code y}.
+     *
+     * @param x first selector
+     * @param y second selector
+     * @return upper bound of {@code x - y} in milliseconds, empty if the difference is unbounded
+     * or the constraints are not satisfiable
+     */
+    public OptionalLong getMaxDifference(TimeSelector x, TimeSelector y) {
+      int xNode = nodes.indexOf(x);
+      int yNode = nodes.indexOf(y);
+      if (!isSatisfiable() || xNode < 1 || yNode < 1 || distances[yNode][xNode] == UNBOUNDED) {
+        return OptionalLong.empty();
+      }
+      return OptionalLong.of(distances[yNode][xNode]);
+    }
+
+    @Override
+    public String toString() {
+      return isSatisfiable() ? ranges.toString() : "unsatisfiable";
+    }
+  }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.comparables.time.TimeSelector.TimeField;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Derives sargable time ranges from a query predicate, i.e. for every variable and every
+ * {@link TimeField} the tightest constant bounds implied by the conjunctive part of the
+ * predicate. For example, {@code a.tx.overlaps(Interval(t1, t2))} implies
+ * {@code a.tx_from < t2} and {@code a.tx_to > t1}. Executors can turn the ranges into range
+ * scans of a temporal index instead of scanning all elements.
+ * <p>
+ * Only comparisons between time selectors and constant time points are considered, possibly
+ * nested in {@code MIN}/{@code MAX} terms. Disjunctions, negations and comparisons between two
+ * non-constant time points are ignored, so the ranges are necessary but not sufficient
+ * conditions of the predicate. Bounds are inclusive, strict comparisons are converted by
+ * adding or subtracting one millisecond.
+ */
+public class TimeRangeExtractor {
+
+  /**
+   * Private constructor to avoid instantiation.
+   */
+  private TimeRangeExtractor() {
+  }
+
+  /**
+   * Extracts the time ranges implied by a predicate.
+   *
+   * @param predicate the predicate
+   * @return time ranges of all bounded variables
+   */
+  public static TimeRanges extract(Predicate predicate) {
+    TimeRanges ranges = new TimeRanges();
+    collect(predicate, ranges);
+    return ranges;
+  }
+
+  /**
+   * Extracts the time ranges implied by an (optional) predicate.
+   *
+   * @param predicate the predicate, e.g. {@code GDLHandler.getPredicates()}
+   * @return time ranges of all bounded variables, empty if there is no predicate
+   */
+  public static TimeRanges extract(Optional<Predicate> predicate) {
+    return predicate.map(TimeRangeExtractor::extract).orElseGet(TimeRanges::new);
+  }
+
+  /**
+   * Collects the bounds of the conjuncts of a predicate.
+   *
+   * @param predicate the predicate
+   * @param ranges ranges to tighten
+   */
+  private static void collect(Predicate predicate, TimeRanges ranges) {
+    if (predicate instanceof And) {
+      for (Predicate argument : predicate.getArguments()) {
+        collect(argument, ranges);
+      }
+    } else if (predicate instanceof IntervalRelation) {
+      collect(((IntervalRelation) predicate).expand(), ranges);
+    } else if (predicate instanceof Comparison) {
+      Comparison comparison = (Comparison) predicate;
+      ComparableExpression[] sides = comparison.getComparableExpressions();
+      switch (comparison.getComparator()) {
+      case LT:
+        order(sides[0], sides[1], true, ranges);
+        break;
+      case LTE:
+        order(sides[0], sides[1], false, ranges);
+        break;
+      case GT:
+        order(sides[1], sides[0], true, ranges);
+        break;
+      case GTE:
+        order(sides[1], sides[0], false, ranges);
+        break;
+      case EQ:
+        order(sides[0], sides[1], false, ranges);
+        order(sides[1], sides[0], false, ranges);
+        break;
+      default:
+        break;
+      }
+    }
+  }
+
+  /**
+   * Applies the bounds implied by {@code smaller < larger} (or {@code <=}). As
+   * {@code MAX(x1,...,xn) < MIN(y1,...,ym)} implies {@code xi < yj} for all {@code i, j}, every
+   * pair of a selector argument and a constant argument yields a bound.
+   *
+   * @param smaller the smaller side
+   * @param larger the larger side
+   * @param strict true iff the comparison is strict
+   * @param ranges ranges to tighten
+   */
+  private static void order(ComparableExpression smaller, ComparableExpression larger,
+    boolean strict, TimeRanges ranges) {
+    List<ComparableExpression> lower = new ArrayList<>();
+    flatten(smaller, MaxTimePoint.class, lower);
+    List<ComparableExpression> upper = new ArrayList<>();
+    flatten(larger, MinTimePoint.class, upper);
+    for (ComparableExpression s : lower) {
+      Optional<Long> sValue = constantTime(s);
+      for (ComparableExpression l : upper) {
+        Optional<Long> lValue = constantTime(l);
+        if (s instanceof TimeSelector && lValue.isPresent()) {
+          if (strict && lValue.get() == Long.MIN_VALUE) {
+            ranges.unsatisfiable = true;
+          } else {
+            TimeSelector selector = (TimeSelector) s;
+            ranges.tighten(selector.getVariable(), selector.getTimeProp(), Long.MIN_VALUE,
+              strict ? lValue.get() - 1 : lValue.get());
+          }
+        } else if (l instanceof TimeSelector && sValue.isPresent()) {
+          if (strict && sValue.get() == Long.MAX_VALUE) {
+            ranges.unsatisfiable = true;
+          } else {
+            TimeSelector selector = (TimeSelector) l;
+            ranges.tighten(selector.getVariable(), selector.getTimeProp(),
+              strict ? sValue.get() + 1 : sValue.get(), Long.MAX_VALUE);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Collects the arguments of nested non-constant terms of the given type, e.g. the arguments of
+   * {@code MAX} terms on the smaller side of a comparison.
+   *
+   * @param expression the expression
+   * @param type {@code MaxTimePoint} or {@code MinTimePoint}
+   * @param arguments list to add the arguments to
+   */
+  static void flatten(ComparableExpression expression, Class<? extends TimeTerm> type,
+    List<ComparableExpression> arguments) {
+    if (type.isInstance(expression) && !constantTime(expression).isPresent()) {
+      for (TimePoint argument : ((TimeTerm) expression).getArgs()) {
+        flatten(argument, type, arguments);
+      }
+    } else {
+      arguments.add(expression);
+    }
+  }
+
+  /**
+   * Returns the value of a comparable expression iff it is a constant time point, like a
+   * {@code TimeLiteral} or a term over literals.
+   *
+   * @param expression comparable expression
+   * @return value of the constant or {@code Optional.empty()}
+   */
+  static Optional<Long> constantTime(ComparableExpression expression) {
+    if (expression instanceof TimePoint && expression.getVariables().isEmpty()) {
+      return ((TimePoint) expression).evaluate();
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * An inclusive range {@code [lower, upper]} of UNIX epoch milliseconds.
+   */
+  public static class Range {
+
+    /**
+     * Range without bounds
+     */
+    public static final Range UNBOUNDED = new Range(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Inclusive lower bound, {@link Long#MIN_VALUE} if unbounded
+     */
+    private final long lower;
+
+    /**
+     * Inclusive upper bound, {@link Long#MAX_VALUE} if unbounded
+     */
+    private final long upper;
+
+    /**
+     * Creates a new range
+     *
+     * @param lower inclusive lower bound
+     * @param upper inclusive upper bound
+     */
+    public Range(long lower, long upper) {
+      this.lower = lower;
+      this.upper = upper;
+    }
+
+    /**
+     * Returns the inclusive lower bound.
+     *
+     * @return lower bound, {@link Long#MIN_VALUE} if unbounded
+     */
+    public long getLower() {
+      return lower;
+    }
+
+    /**
+     * Returns the inclusive upper bound.
+     *
+     * @return upper bound, {@link Long#MAX_VALUE} if unbounded
+     */
+    public long getUpper() {
+      return upper;
+    }
+
+    /**
+     * Checks whether the range has a lower or an upper bound.
+     *
+     * @return true iff the range is bounded
+     */
+    public boolean isBounded() {
+      return lower != Long.MIN_VALUE || upper != Long.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether the range contains no value.
+     *
+     * @return true iff the range is empty
+     */
+    public boolean isEmpty() {
+      return lower > upper;
+    }
+
+    /**
+     * Checks whether a value lies within the range.
+     *
+     * @param value UNIX epoch milliseconds
+     * @return true iff the value is in the range
+     */
+    public boolean contains(long value) {
+      return lower <= value && value <= upper;
+    }
+
+    /**
+     * Returns the intersection of this range and the given bounds.
+     *
+     * @param otherLower inclusive lower bound
+     * @param otherUpper inclusive upper bound
+     * @return intersection
+     */
+    Range intersect(long otherLower, long otherUpper) {
+      if (otherLower <= lower && otherUpper >= upper) {
+        return this;
+      }
+      return new Range(Math.max(lower, otherLower), Math.min(upper, otherUpper));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Range range = (Range) o;
+      return lower == range.lower && upper == range.upper;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(lower) + Long.hashCode(upper);
+    }
+
+    @Override
+    public String toString() {
+      return "[" + (lower == Long.MIN_VALUE ? "-inf" : lower) + ", " +
+        (upper == Long.MAX_VALUE ? "inf" : upper) + "]";
+    }
+  }
+
+  /**
+   * Result of the extraction: the range of every bounded time field of every variable.
+   */
+  public static class TimeRanges {
+
+    /**
+     * Ranges by variable and time field, only bounded fields are contained
+     */
+    private final Map<String, Map<TimeField, Range>> ranges = new LinkedHashMap<>();
+
+    /**
+     * True iff a bound can not be satisfied by any value
+     */
+    private boolean unsatisfiable;
+
+    /**
+     * Creates empty ranges
+     */
+    TimeRanges() {
+    }
+
+    /**
+     * Intersects the range of a time field with the given bounds.
+     *
+     * @param variable the variable
+     * @param field the time field
+     * @param lower inclusive lower bound
+     * @param upper inclusive upper bound
+     */
+    void tighten(String variable, TimeField field, long lower, long upper) {
+      ranges.computeIfAbsent(variable, k -> new EnumMap<>(TimeField.class))
+        .merge(field, new Range(lower, upper),
+          (range, bound) -> range.intersect(bound.lower, bound.upper));
+    }
+
+    /**
+     * Marks the ranges as unsatisfiable, e.g. because the bounds of different fields contradict
+     * each other.
+     */
+    void setUnsatisfiable() {
+      unsatisfiable = true;
+    }
+
+    /**
+     * Returns the variables with at least one bounded time field.
+     *
+     * @return bounded variables
+     */
+    public Set<String> getVariables() {
+      return Collections.unmodifiableSet(ranges.keySet());
+    }
+
+    /**
+     * Returns the range of a time field of a variable.
+     *
+     * @param variable the variable
+     * @param field the time field
+     * @return range of the field, {@link Range#UNBOUNDED} if the field is not bounded
+     */
+    public Range getRange(String variable, TimeField field) {
+      Map<TimeField, Range> fields = ranges.get(variable);
+      Range range = fields != null ? fields.get(field) : null;
+      return range != null ? range : Range.UNBOUNDED;
+    }
+
+    /**
+     * Returns the ranges of all bounded time fields of a variable.
+     *
+     * @param variable the variable
+     * @return immutable mapping from time fields to ranges
+     */
+    public Map<TimeField, Range> getRanges(String variable) {
+      Map<TimeField, Range> fields = ranges.get(variable);
+      return fields != null ? Collections.unmodifiableMap(fields) : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the ranges of all bounded time fields by variable.
+     *
+     * @return immutable mapping from variables to their bounded fields
+     */
+    public Map<String, Map<TimeField, Range>> asMap() {
+      Map<String, Map<TimeField, Range>> result = new LinkedHashMap<>();
+      for (Map.Entry<String, Map<TimeField, Range>> entry : ranges.entrySet()) {
+        result.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Checks whether the time values of an element can satisfy the ranges of a variable.
+     * Missing values only satisfy unbounded fields.
+     *
+     * @param variable the variable
+     * @param field the time field
+     * @param value value of the field, empty if the element has no value
+     * @return true iff the value lies within the range of the field
+     */
+    public boolean accepts(String variable, TimeField field, Optional<Long> value) {
+      Range range = getRange(variable, field);
+      return value.isPresent() ? range.contains(value.get()) : !range.isBounded();
+    }
+
+    /**
+     * Checks whether all ranges can be satisfied. If not, the predicate can never hold.
+     *
+     * @return false iff a range is empty
+     */
+    public boolean isSatisfiable() {
+      if (unsatisfiable) {
+        return false;
+      }
+      for (Map<TimeField, Range> fields : ranges.values()) {
+        for (Range range : fields.values()) {
+          if (range.isEmpty()) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return ranges.toString();
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.statistics;
+
+/**
+ * Histogram of vertex degrees with logarithmic buckets: bucket 0 counts vertices of degree 0,
+ * bucket {@code i > 0} counts vertices with a degree in {@code [2^(i-1), 2^i)}.
+ */
+public class DegreeHistogram {
+
+  /**
+   * Number of vertices per bucket
+   */
+  private long[] buckets = new long[1];
+
+  /**
+   * Number of vertices
+   */
+  private long vertexCount;
+
+  /**
+   * Sum of all degrees
+   */
+  private long degreeSum;
+
+  /**
+   * Maximum degree
+   */
+  private int maxDegree;
+
+  /**
+   * Returns the bucket of a degree.
+   *
+   * @param degree the degree
+   * @return bucket index
+   */
+  public static int bucket(int degree) {
+    return 32 - Integer.numberOfLeadingZeros(degree);
+  }
+
+  /**
+   * Adds a vertex with the given degree.
+   *
+   * @param degree degree of the vertex
+   */
+  void add(int degree) {
+    int bucket = bucket(degree);
+    if (bucket >= buckets.length) {
+      long[] grown = new long[bucket + 1];
+      System.arraycopy(buckets, 0, grown, 0, buckets.length);
+      buckets = grown;
+    }
+    buckets[bucket]++;
+    vertexCount++;
+    degreeSum += degree;
+    maxDegree = Math.max(maxDegree, degree);
+  }
+
+  /**
+   * Returns the number of buckets up to the last non-empty one.
+   *
+   * @return number of buckets
+   */
+  public int getBucketCount() {
+    return buckets.length;
+  }
+
+  /**
+   * Returns the number of vertices in a bucket.
+   *
+   * @param bucket bucket index
+   * @return number of vertices whose degree falls into the bucket
+   */
+  public long getCount(int bucket) {
+    return bucket < buckets.length ? buckets[bucket] : 0;
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return number of vertices
+   */
+  public long getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Returns the maximum degree.
+   *
+   * @return maximum degree
+   */
+  public int getMaxDegree() {
+    return maxDegree;
+  }
+
+  /**
+   * Returns the average degree.
+   *
+   * @return average degree, 0 if there are no vertices
+   */
+  public double getAverageDegree() {
+    return vertexCount == 0 ? 0 : (double) degreeSum / vertexCount;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("DegreeHistogram{");
+    for (int i = 0; i < buckets.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(i == 0 ? "0" : "[" + (1 << (i - 1)) + "," + (1L << i) + ")")
+        .append('=').append(buckets[i]);
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,633 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.statistics;
+
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Element;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Statistics of a data graph, collected while it is loaded and used to estimate the
+ * cardinality of query patterns.
+ * <p>
+ * Elements are grouped by their (first) label. The statistics contain element counts per label,
+ * edge counts per (source label, edge label, target label) triple, in- and out-degree histograms
+ * per vertex label, {@link PropertyStatistics} per label and property key and the minimum and
+ * maximum value of each time field.
+ * <p>
+ * Vertices and edges are added incrementally; an edge can only be added after its source and
+ * target vertex. Degree histograms are computed on demand.
+ */
+public class GraphStatistics {
+
+  /**
+   * Label and degrees of each vertex by vertex id
+   */
+  private final Map<Long, VertexEntry> vertices = new HashMap<>();
+
+  /**
+   * Number of vertices per label
+   */
+  private final Map<String, Long> vertexCounts = new HashMap<>();
+
+  /**
+   * Number of edges per label
+   */
+  private final Map<String, Long> edgeCounts = new HashMap<>();
+
+  /**
+   * Number of edges per (source label, edge label, target label)
+   */
+  private final Map<LabelTriple, Long> tripleCounts = new HashMap<>();
+
+  /**
+   * Vertex property statistics by label and key
+   */
+  private final Map<String, Map<String, PropertyStatistics>> vertexProperties = new HashMap<>();
+
+  /**
+   * Edge property statistics by label and key
+   */
+  private final Map<String, Map<String, PropertyStatistics>> edgeProperties = new HashMap<>();
+
+  /**
+   * Minimum value of each time field, indexed by ordinal
+   */
+  private final long[] minTimes = new long[TimeSelector.TimeField.values().length];
+
+  /**
+   * Maximum value of each time field, indexed by ordinal
+   */
+  private final long[] maxTimes = new long[TimeSelector.TimeField.values().length];
+
+  /**
+   * True iff a time field has a value, indexed by ordinal
+   */
+  private final boolean[] hasTimes = new boolean[TimeSelector.TimeField.values().length];
+
+  /**
+   * Number of open ({@code Infinity} or {@code -Infinity}) values of each time field, indexed by
+   * ordinal
+   */
+  private final long[] openTimes = new long[TimeSelector.TimeField.values().length];
+
+  /**
+   * Number of edges
+   */
+  private long edgeCount;
+
+  /**
+   * Out-degree histograms by vertex label, null if outdated
+   */
+  private Map<String, DegreeHistogram> outDegrees;
+
+  /**
+   * In-degree histograms by vertex label, null if outdated
+   */
+  private Map<String, DegreeHistogram> inDegrees;
+
+  /**
+   * Creates empty statistics
+   */
+  public GraphStatistics() {
+  }
+
+  /**
+   * Creates the statistics of the given elements.
+   *
+   * @param vertices the vertices
+   * @param edges the edges, their source and target vertices must be contained in vertices
+   */
+  public GraphStatistics(Collection<Vertex> vertices, Collection<Edge> edges) {
+    vertices.forEach(this::addVertex);
+    edges.forEach(this::addEdge);
+  }
+
+  /**
+   * Adds a vertex. Vertices which are already contained are ignored.
+   *
+   * @param vertex the vertex
+   */
+  public void addVertex(Vertex vertex) {
+    if (vertices.containsKey(vertex.getId())) {
+      return;
+    }
+    String label = vertex.getLabel();
+    vertices.put(vertex.getId(), new VertexEntry(label));
+    vertexCounts.merge(label, 1L, Long::sum);
+    addProperties(vertexProperties, label, vertex);
+    outDegrees = null;
+    inDegrees = null;
+  }
+
+  /**
+   * Adds an edge whose source and target vertex were added before.
+   *
+   * @param edge the edge
+   * @throws IllegalArgumentException if the source or target vertex is unknown
+   */
+  public void addEdge(Edge edge) {
+    VertexEntry source = vertices.get(edge.getSourceVertexId());
+    VertexEntry target = vertices.get(edge.getTargetVertexId());
+    if (source == null || target == null) {
+      throw new IllegalArgumentException("Source or target vertex of " + edge + " is unknown");
+    }
+    String label = edge.getLabel();
+    source.outDegree++;
+    target.inDegree++;
+    edgeCount++;
+    edgeCounts.merge(label, 1L, Long::sum);
+    tripleCounts.merge(new LabelTriple(source.label, label, target.label), 1L, Long::sum);
+    addProperties(edgeProperties, label, edge);
+    outDegrees = null;
+    inDegrees = null;
+  }
+
+  /**
+   * Updates the property and time statistics with the properties of an element.
+   *
+   * @param statistics property statistics by label and key
+   * @param label label of the element
+   * @param element the element
+   */
+  private void addProperties(Map<String, Map<String, PropertyStatistics>> statistics,
+    String label, Element element) {
+    if (element.getProperties().isEmpty()) {
+      return;
+    }
+    Map<String, PropertyStatistics> byKey =
+      statistics.computeIfAbsent(label, k -> new HashMap<>());
+    for (Map.Entry<String, Object> property : element.getProperties().entrySet()) {
+      byKey.computeIfAbsent(property.getKey(), k -> new PropertyStatistics())
+        .add(property.getValue());
+    }
+    for (TimeSelector.TimeField field : TimeSelector.TimeField.values()) {
+      Optional<Long> time = TimeProperties.getTime(element, field);
+      if (time.isPresent()) {
+        int i = field.ordinal();
+        long value = time.get();
+        if (TimeLiteral.isOpen(value)) {
+          openTimes[i]++;
+          continue;
+        }
+        minTimes[i] = hasTimes[i] ? Math.min(minTimes[i], value) : value;
+        maxTimes[i] = hasTimes[i] ? Math.max(maxTimes[i], value) : value;
+        hasTimes[i] = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of vertices.
+   *
+   * @return number of vertices
+   */
+  public long getVertexCount() {
+    return vertices.size();
+  }
+
+  /**
+   * Returns the number of vertices with a label.
+   *
+   * @param label the label, null for all vertices
+   * @return number of vertices with the label
+   */
+  public long getVertexCount(String label) {
+    return label == null ? getVertexCount() : vertexCounts.getOrDefault(label, 0L);
+  }
+
+  /**
+   * Returns the number of edges.
+   *
+   * @return number of edges
+   */
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the number of edges with a label.
+   *
+   * @param label the label, null for all edges
+   * @return number of edges with the label
+   */
+  public long getEdgeCount(String label) {
+    return label == null ? getEdgeCount() : edgeCounts.getOrDefault(label, 0L);
+  }
+
+  /**
+   * Returns all vertex labels.
+   *
+   * @return vertex labels
+   */
+  public Set<String> getVertexLabels() {
+    return Collections.unmodifiableSet(vertexCounts.keySet());
+  }
+
+  /**
+   * Returns all edge labels.
+   *
+   * @return edge labels
+   */
+  public Set<String> getEdgeLabels() {
+    return Collections.unmodifiableSet(edgeCounts.keySet());
+  }
+
+  /**
+   * Returns the number of edges between vertices with the given labels.
+   *
+   * @param sourceLabel label of the source vertex, null for any label
+   * @param edgeLabel label of the edge, null for any label
+   * @param targetLabel label of the target vertex, null for any label
+   * @return number of matching edges
+   */
+  public long getEdgeCount(String sourceLabel, String edgeLabel, String targetLabel) {
+    if (sourceLabel != null && edgeLabel != null && targetLabel != null) {
+      return tripleCounts.getOrDefault(new LabelTriple(sourceLabel, edgeLabel, targetLabel), 0L);
+    }
+    long count = 0;
+    for (Map.Entry<LabelTriple, Long> entry : tripleCounts.entrySet()) {
+      if (entry.getKey().matches(sourceLabel, edgeLabel, targetLabel)) {
+        count += entry.getValue();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the edge counts of all (source label, edge label, target label) triples.
+   *
+   * @return edge count per label triple
+   */
+  public Map<LabelTriple, Long> getTripleCounts() {
+    return Collections.unmodifiableMap(tripleCounts);
+  }
+
+  /**
+   * Returns the out-degree histogram of the vertices with a label.
+   *
+   * @param label vertex label, null for all vertices
+   * @return out-degree histogram
+   */
+  public DegreeHistogram getOutDegrees(String label) {
+    computeDegrees();
+    return outDegrees.getOrDefault(label, new DegreeHistogram());
+  }
+
+  /**
+   * Returns the in-degree histogram of the vertices with a label.
+   *
+   * @param label vertex label, null for all vertices
+   * @return in-degree histogram
+   */
+  public DegreeHistogram getInDegrees(String label) {
+    computeDegrees();
+    return inDegrees.getOrDefault(label, new DegreeHistogram());
+  }
+
+  /**
+   * Computes the degree histograms if they are outdated. The histograms over all vertices are
+   * stored with the label null.
+   */
+  private void computeDegrees() {
+    if (outDegrees != null) {
+      return;
+    }
+    outDegrees = new HashMap<>();
+    inDegrees = new HashMap<>();
+    DegreeHistogram allOut = new DegreeHistogram();
+    DegreeHistogram allIn = new DegreeHistogram();
+    for (VertexEntry vertex : vertices.values()) {
+      allOut.add(vertex.outDegree);
+      allIn.add(vertex.inDegree);
+      if (vertex.label != null) {
+        outDegrees.computeIfAbsent(vertex.label, k -> new DegreeHistogram()).add(vertex.outDegree);
+        inDegrees.computeIfAbsent(vertex.label, k -> new DegreeHistogram()).add(vertex.inDegree);
+      }
+    }
+    outDegrees.put(null, allOut);
+    inDegrees.put(null, allIn);
+  }
+
+  /**
+   * Returns the statistics of a vertex property.
+   *
+   * @param label vertex label
+   * @param key property key
+   * @return property statistics, empty if no vertex with the label has the property
+   */
+  public Optional<PropertyStatistics> getVertexPropertyStatistics(String label, String key) {
+    return getPropertyStatistics(vertexProperties, label, key);
+  }
+
+  /**
+   * Returns the statistics of an edge property.
+   *
+   * @param label edge label
+   * @param key property key
+   * @return property statistics, empty if no edge with the label has the property
+   */
+  public Optional<PropertyStatistics> getEdgePropertyStatistics(String label, String key) {
+    return getPropertyStatistics(edgeProperties, label, key);
+  }
+
+  /**
+   * Looks up property statistics.
+   *
+   * @param statistics property statistics by label and key
+   * @param label element label
+   * @param key property key
+   * @return property statistics, empty if not present
+   */
+  private static Optional<PropertyStatistics> getPropertyStatistics(
+    Map<String, Map<String, PropertyStatistics>> statistics, String label, String key) {
+    Map<String, PropertyStatistics> byKey = statistics.get(label);
+    return byKey == null ? Optional.empty() : Optional.ofNullable(byKey.get(key));
+  }
+
+  /**
+   * Returns the smallest value of a time field over all elements. Open values are ignored.
+   *
+   * @param field the time field
+   * @return smallest value in UNIX epoch milliseconds, empty if no element has a finite value
+   */
+  public OptionalLong getMinTime(TimeSelector.TimeField field) {
+    int i = field.ordinal();
+    return hasTimes[i] ? OptionalLong.of(minTimes[i]) : OptionalLong.empty();
+  }
+
+  /**
+   * Returns the largest value of a time field over all elements. Open values are ignored.
+   *
+   * @param field the time field
+   * @return largest value in UNIX epoch milliseconds, empty if no element has a finite value
+   */
+  public OptionalLong getMaxTime(TimeSelector.TimeField field) {
+    int i = field.ordinal();
+    return hasTimes[i] ? OptionalLong.of(maxTimes[i]) : OptionalLong.empty();
+  }
+
+  /**
+   * Returns the number of elements with an open ({@code Infinity} or {@code -Infinity}) value
+   * for a time field, e.g. the number of elements that are still valid for {@code VAL_TO}.
+   *
+   * @param field the time field
+   * @return number of open values
+   */
+  public long getOpenTimeCount(TimeSelector.TimeField field) {
+    return openTimes[field.ordinal()];
+  }
+
+  /**
+   * Estimates the fraction of the vertices with a label that satisfy
+   * {@code v.key comparator value}.
+   *
+   * @param label vertex label
+   * @param key property key
+   * @param comparator the comparator
+   * @param value the constant value
+   * @return estimated selectivity between 0 and 1
+   */
+  public double estimateVertexSelectivity(String label, String key, Comparator comparator,
+    Object value) {
+    return estimateSelectivity(getVertexCount(label),
+      getVertexPropertyStatistics(label, key), comparator, value);
+  }
+
+  /**
+   * Estimates the fraction of the edges with a label that satisfy
+   * {@code e.key comparator value}.
+   *
+   * @param label edge label
+   * @param key property key
+   * @param comparator the comparator
+   * @param value the constant value
+   * @return estimated selectivity between 0 and 1
+   */
+  public double estimateEdgeSelectivity(String label, String key, Comparator comparator,
+    Object value) {
+    return estimateSelectivity(getEdgeCount(label),
+      getEdgePropertyStatistics(label, key), comparator, value);
+  }
+
+  /**
+   * Estimates the selectivity of a comparison with a constant, assuming uniformly distributed
+   * values: equality selects one distinct value, ranges are interpolated between minimum and
+   * maximum.
+   *
+   * @param elementCount number of elements with the label
+   * @param statistics statistics of the property
+   * @param comparator the comparator
+   * @param value the constant value
+   * @return estimated selectivity between 0 and 1
+   */
+  private static double estimateSelectivity(long elementCount,
+    Optional<PropertyStatistics> statistics, Comparator comparator, Object value) {
+    if (elementCount == 0 || !statistics.isPresent()) {
+      return 0;
+    }
+    PropertyStatistics property = statistics.get();
+    double present = Math.min(1.0, (double) property.getCount() / elementCount);
+    double equal = 1.0 / property.getDistinctCount();
+    switch (comparator) {
+    case EQ:
+      return present * equal;
+    case NEQ:
+      return present * (1 - equal);
+    default:
+      return present * estimateRange(property, comparator, value);
+    }
+  }
+
+  /**
+   * Estimates the fraction of property values that lie below or above a constant.
+   *
+   * @param property statistics of the property
+   * @param comparator one of LT, LTE, GT, GTE
+   * @param value the constant value
+   * @return estimated fraction between 0 and 1
+   */
+  private static double estimateRange(PropertyStatistics property, Comparator comparator,
+    Object value) {
+    Object min = property.getMin();
+    Object max = property.getMax();
+    if (min == null || !PropertyStatistics.isComparable(min, value)) {
+      return 1.0 / 3;
+    }
+    double below;
+    if (PropertyStatistics.compare(value, min) < 0) {
+      below = 0;
+    } else if (PropertyStatistics.compare(value, max) > 0) {
+      below = 1;
+    } else if (value instanceof Number && PropertyStatistics.compare(min, max) < 0) {
+      double low = ((Number) min).doubleValue();
+      double high = ((Number) max).doubleValue();
+      below = (((Number) value).doubleValue() - low) / (high - low);
+    } else {
+      below = 0.5;
+    }
+    return comparator == Comparator.LT || comparator == Comparator.LTE ? below : 1 - below;
+  }
+
+  @Override
+  public String toString() {
+    return "GraphStatistics{vertices=" + vertexCounts + ", edges=" + edgeCounts +
+      ", triples=" + tripleCounts + '}';
+  }
+
+  /**
+   * Label and degrees of a vertex
+   */
+  private static class VertexEntry {
+
+    /**
+     * Vertex label
+     */
+    private final String label;
+
+    /**
+     * Number of outgoing edges
+     */
+    private int outDegree;
+
+    /**
+     * Number of incoming edges
+     */
+    private int inDegree;
+
+    /**
+     * Creates a new entry
+     *
+     * @param label vertex label
+     */
+    VertexEntry(String label) {
+      this.label = label;
+    }
+  }
+
+  /**
+   * Labels of the source vertex, the edge and the target vertex of an edge
+   */
+  public static class LabelTriple {
+
+    /**
+     * Source vertex label
+     */
+    private final String sourceLabel;
+
+    /**
+     * Edge label
+     */
+    private final String edgeLabel;
+
+    /**
+     * Target vertex label
+     */
+    private final String targetLabel;
+
+    /**
+     * Creates a new triple
+     *
+     * @param sourceLabel source vertex label
+     * @param edgeLabel edge label
+     * @param targetLabel target vertex label
+     */
+    public LabelTriple(String sourceLabel, String edgeLabel, String targetLabel) {
+      this.sourceLabel = sourceLabel;
+      this.edgeLabel = edgeLabel;
+      this.targetLabel = targetLabel;
+    }
+
+    /**
+     * Returns the source vertex label.
+     *
+     * @return source vertex label
+     */
+    public String getSourceLabel() {
+      return sourceLabel;
+    }
+
+    /**
+     * Returns the edge label.
+     *
+     * @return edge label
+     */
+    public String getEdgeLabel() {
+      return edgeLabel;
+    }
+
+    /**
+     * Returns the target vertex label.
+     *
+     * @return target vertex label
+     */
+    public String getTargetLabel() {
+      return targetLabel;
+    }
+
+    /**
+     * Checks whether the triple matches the given labels.
+     *
+     * @param source source vertex label, null for any label
+     * @param edge edge label, null for any label
+     * @param target target vertex label, null for any label
+     * @return true iff all given labels are equal to the labels of this triple
+     */
+    boolean matches(String source, String edge, String target) {
+      return (source == null || source.equals(sourceLabel)) &&
+        (edge == null || edge.equals(edgeLabel)) &&
+        (target == null || target.equals(targetLabel));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      LabelTriple that = (LabelTriple) o;
+      return Objects.equals(sourceLabel, that.sourceLabel) &&
+        Objects.equals(edgeLabel, that.edgeLabel) &&
+        Objects.equals(targetLabel, that.targetLabel);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sourceLabel, edgeLabel, targetLabel);
+    }
+
+    @Override
+    public String toString() {
+      return "(:" + sourceLabel + ")-[:" + edgeLabel + "]->(:" + targetLabel + ")";
+    }
+  }
+}
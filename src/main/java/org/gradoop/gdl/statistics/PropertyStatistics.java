@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.statistics;
+
+import org.gradoop.gdl.model.comparables.ValueType;
+import org.gradoop.gdl.utils.HyperLogLog;
+
+/**
+ * Statistics of the values of one property key of the elements with one label: number of
+ * values, a sketch of the number of distinct values and the minimum and maximum value.
+ * <p>
+ * Minimum and maximum are tracked for numbers and strings. If a key has values of both kinds,
+ * only values of the kind seen first are considered.
+ */
+public class PropertyStatistics {
+
+  /**
+   * Number of elements with the property
+   */
+  private long count;
+
+  /**
+   * Sketch of the distinct values
+   */
+  private final HyperLogLog distinct = new HyperLogLog();
+
+  /**
+   * Smallest value, null if no orderable value was seen
+   */
+  private Object min;
+
+  /**
+   * Largest value, null if no orderable value was seen
+   */
+  private Object max;
+
+  /**
+   * Adds a value.
+   *
+   * @param value the property value
+   */
+  void add(Object value) {
+    count++;
+    distinct.add(value);
+    ValueType type = ValueType.of(value);
+    if (!type.isNumeric() && type != ValueType.STRING) {
+      return;
+    }
+    if (min == null) {
+      min = value;
+      max = value;
+    } else if (isComparable(min, value)) {
+      if (compare(value, min) < 0) {
+        min = value;
+      }
+      if (compare(value, max) > 0) {
+        max = value;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of elements that have the property.
+   *
+   * @return number of values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   *
+   * @return estimated number of distinct values, between 1 and the number of values
+   */
+  public long getDistinctCount() {
+    return Math.max(Math.min(distinct.estimate(), count), count > 0 ? 1 : 0);
+  }
+
+  /**
+   * Returns the smallest value.
+   *
+   * @return smallest number or string, null if there is none
+   */
+  public Object getMin() {
+    return min;
+  }
+
+  /**
+   * Returns the largest value.
+   *
+   * @return largest number or string, null if there is none
+   */
+  public Object getMax() {
+    return max;
+  }
+
+  /**
+   * Checks whether two numbers or strings can be ordered.
+   *
+   * @param lhs left value
+   * @param rhs right value
+   * @return true iff both are numbers or both are strings
+   */
+  static boolean isComparable(Object lhs, Object rhs) {
+    return (lhs instanceof Number && rhs instanceof Number) ||
+      (lhs instanceof String && rhs instanceof String);
+  }
+
+  /**
+   * Compares two numbers or two strings.
+   *
+   * @param lhs left value
+   * @param rhs right value
+   * @return negative, zero or positive as lhs is less than, equal to or greater than rhs
+   */
+  static int compare(Object lhs, Object rhs) {
+    if (lhs instanceof Number) {
+      return Double.compare(((Number) lhs).doubleValue(), ((Number) rhs).doubleValue());
+    }
+    return ((String) lhs).compareTo((String) rhs);
+  }
+
+  @Override
+  public String toString() {
+    return "PropertyStatistics{count=" + count + ", distinct=" + getDistinctCount() +
+      ", min=" + min + ", max=" + max + '}';
+  }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.statistics;
+
+import org.gradoop.gdl.matching.TemporalIndex;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Element;
+import org.gradoop.gdl.model.comparables.ValueType;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.utils.IntList;
+import org.gradoop.gdl.utils.TimeProperties;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Aggregates elements over consecutive time buckets of equal width, e.g. the number of valid
+ * vertices per label and day.
+ * <p>
+ * Bucket {@code i} is the interval {@code [origin + i * width, origin + (i + 1) * width)}. An
+ * element contributes to every bucket its (closed) time interval intersects. As in
+ * {@link TemporalIndex}, an element without a start (end) value is valid since (until) forever.
+ * <p>
+ * Instead of scanning all elements per bucket, each element is mapped to the range of buckets it
+ * covers. A single sweep over the bucket ranges (grouped by counting sort) maintains the number
+ * and sum of the active values, and an ordered multiset of them for the minimum and maximum.
+ * This takes O(n log n + buckets) time.
+ */
+public class TemporalAggregation {
+
+  /**
+   * Time dimension to aggregate over
+   */
+  private final TemporalIndex.Dimension dimension;
+
+  /**
+   * Start of the first bucket (UNIX epoch milliseconds)
+   */
+  private final long origin;
+
+  /**
+   * Width of each bucket in milliseconds
+   */
+  private final long width;
+
+  /**
+   * Number of buckets
+   */
+  private final int bucketCount;
+
+  /**
+   * Creates an aggregation over buckets of the given duration, e.g.
+   * {@code new TimeConstant(1, 0, 0, 0, 0)} for days.
+   *
+   * @param dimension time dimension to aggregate over
+   * @param origin start of the first bucket (UNIX epoch milliseconds)
+   * @param width width of each bucket
+   * @param bucketCount number of buckets
+   */
+  public TemporalAggregation(TemporalIndex.Dimension dimension, long origin, TimeConstant width,
+    int bucketCount) {
+    this(dimension, origin, width.getMillis(), bucketCount);
+  }
+
+  /**
+   * Creates an aggregation over buckets of the given width.
+   *
+   * @param dimension time dimension to aggregate over
+   * @param origin start of the first bucket (UNIX epoch milliseconds)
+   * @param width width of each bucket in milliseconds
+   * @param bucketCount number of buckets
+   */
+  public TemporalAggregation(TemporalIndex.Dimension dimension, long origin, long width,
+    int bucketCount) {
+    if (width <= 0) {
+      throw new IllegalArgumentException("Bucket width must be positive: " + width);
+    }
+    if (bucketCount < 0) {
+      throw new IllegalArgumentException("Bucket count must not be negative: " + bucketCount);
+    }
+    this.dimension = dimension;
+    this.origin = origin;
+    this.width = width;
+    this.bucketCount = bucketCount;
+  }
+
+  /**
+   * Counts the valid elements per bucket.
+   *
+   * @param elements the elements
+   * @return buckets holding the counts
+   */
+  public Buckets count(Collection<? extends Element> elements) {
+    return aggregate(elements, null);
+  }
+
+  /**
+   * Counts the valid elements per bucket and label.
+   *
+   * @param elements the elements
+   * @return buckets holding the counts by label
+   */
+  public Map<String, Buckets> countByLabel(Collection<? extends Element> elements) {
+    return aggregateBy(elements, Element::getLabel, null);
+  }
+
+  /**
+   * Aggregates the numeric values of a property of the valid elements per bucket.
+   *
+   * @param elements the elements
+   * @param key property key, null to count the elements only
+   * @return buckets holding the count, sum, minimum and maximum of the values
+   */
+  public Buckets aggregate(Collection<? extends Element> elements, String key) {
+    Accumulator accumulator = new Accumulator();
+    for (Element element : elements) {
+      accumulator.add(element, key);
+    }
+    return accumulator.finish();
+  }
+
+  /**
+   * Aggregates the numeric values of a property of the valid elements per bucket and group.
+   *
+   * @param elements the elements
+   * @param group returns the group of an element
+   * @param key property key, null to count the elements only
+   * @param <T> element type
+   * @param <K> group type
+   * @return buckets by group, in order of first occurrence
+   */
+  public <T extends Element, K> Map<K, Buckets> aggregateBy(Collection<? extends T> elements,
+    Function<? super T, K> group, String key) {
+    Map<K, Accumulator> accumulators = new LinkedHashMap<>();
+    for (T element : elements) {
+      accumulators.computeIfAbsent(group.apply(element), k -> new Accumulator()).add(element, key);
+    }
+    Map<K, Buckets> result = new LinkedHashMap<>();
+    accumulators.forEach((k, accumulator) -> result.put(k, accumulator.finish()));
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Computes the degree of each vertex per bucket, i.e. the number of valid incident edges. A
+   * loop counts twice.
+   *
+   * @param edges the edges
+   * @return buckets holding the degrees by vertex id
+   */
+  public Map<Long, Buckets> degrees(Collection<Edge> edges) {
+    Map<Long, Accumulator> accumulators = new LinkedHashMap<>();
+    for (Edge edge : edges) {
+      accumulators.computeIfAbsent(edge.getSourceVertexId(), k -> new Accumulator())
+        .add(edge, null);
+      accumulators.computeIfAbsent(edge.getTargetVertexId(), k -> new Accumulator())
+        .add(edge, null);
+    }
+    Map<Long, Buckets> result = new LinkedHashMap<>();
+    accumulators.forEach((id, accumulator) -> result.put(id, accumulator.finish()));
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Returns the bucket that contains a point in time, clamped to {@code [-1, bucketCount]}.
+   *
+   * @param time point in time (UNIX epoch milliseconds)
+   * @return bucket index, -1 before the first and bucketCount after the last bucket
+   */
+  int bucketOf(long time) {
+    if (time < origin) {
+      return -1;
+    }
+    long offset = time - origin;
+    // the difference overflows for times far after a negative origin
+    if (offset < 0 || offset / width >= bucketCount) {
+      return bucketCount;
+    }
+    return (int) (offset / width);
+  }
+
+  @Override
+  public String toString() {
+    return "TemporalAggregation{dimension=" + dimension + ", origin=" + origin +
+      ", width=" + width + ", buckets=" + bucketCount + "}";
+  }
+
+  /**
+   * Collects the bucket ranges and values of the elements of one group
+   */
+  private final class Accumulator {
+
+    /**
+     * First bucket of each valid element
+     */
+    private final IntList first = new IntList();
+
+    /**
+     * Last bucket of each valid element
+     */
+    private final IntList last = new IntList();
+
+    /**
+     * Property value of each valid element, NaN if it has no numeric value
+     */
+    private double[] values = new double[4];
+
+    /**
+     * Adds an element if it is valid in any bucket.
+     *
+     * @param element the element
+     * @param key property key, null if no values are aggregated
+     */
+    void add(Element element, String key) {
+      Optional<Long> from = TimeProperties.getTime(element, dimension.getFrom());
+      Optional<Long> to = TimeProperties.getTime(element, dimension.getTo());
+      int firstBucket = from.isPresent() ? Math.max(0, bucketOf(from.get())) : 0;
+      int lastBucket = to.isPresent() ? Math.min(bucketCount - 1, bucketOf(to.get())) :
+        bucketCount - 1;
+      if (firstBucket > lastBucket) {
+        return;
+      }
+      double value = Double.NaN;
+      if (key != null) {
+        Object property = element.getProperties().get(key);
+        if (ValueType.of(property).isNumeric()) {
+          value = ((Number) property).doubleValue();
+        }
+      }
+      if (first.size() == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      values[first.size()] = value;
+      first.add(firstBucket);
+      last.add(lastBucket);
+    }
+
+    /**
+     * Sweeps over the buckets and computes the aggregates.
+     *
+     * @return aggregates per bucket
+     */
+    Buckets finish() {
+      int size = first.size();
+      // group the elements by the bucket in which they start and the one after they end
+      int[] starts = groupBy(first, 0);
+      int[] startOffsets = offsets(first, 0);
+      int[] ends = groupBy(last, 1);
+      int[] endOffsets = offsets(last, 1);
+
+      long[] counts = new long[bucketCount];
+      long[] valueCounts = new long[bucketCount];
+      double[] sums = new double[bucketCount];
+      double[] mins = new double[bucketCount];
+      double[] maxs = new double[bucketCount];
+      TreeMap<Double, Integer> active = new TreeMap<>();
+      long count = 0;
+      long valueCount = 0;
+      double sum = 0;
+      for (int bucket = 0; bucket < bucketCount; bucket++) {
+        for (int i = endOffsets[bucket]; i < endOffsets[bucket + 1]; i++) {
+          double value = values[ends[i]];
+          count--;
+          if (!Double.isNaN(value)) {
+            valueCount--;
+            sum -= value;
+            active.computeIfPresent(value, (v, n) -> n == 1 ? null : n - 1);
+          }
+        }
+        for (int i = startOffsets[bucket]; i < startOffsets[bucket + 1]; i++) {
+          double value = values[starts[i]];
+          count++;
+          if (!Double.isNaN(value)) {
+            valueCount++;
+            sum += value;
+            active.merge(value, 1, Integer::sum);
+          }
+        }
+        if (valueCount == 0) {
+          // drop accumulated rounding errors
+          sum = 0;
+        }
+        counts[bucket] = count;
+        valueCounts[bucket] = valueCount;
+        sums[bucket] = sum;
+        mins[bucket] = active.isEmpty() ? Double.NaN : active.firstKey();
+        maxs[bucket] = active.isEmpty() ? Double.NaN : active.lastKey();
+      }
+      return new Buckets(origin, width, counts, valueCounts, sums, mins, maxs);
+    }
+
+    /**
+     * Computes the start offset of each bucket in {@link #groupBy(IntList, int)}.
+     *
+     * @param buckets bucket of each element
+     * @param shift added to each bucket
+     * @return offsets, the elements of bucket {@code b} are at {@code [offsets[b], offsets[b+1])}
+     */
+    private int[] offsets(IntList buckets, int shift) {
+      int[] offsets = new int[bucketCount + 2];
+      for (int i = 0; i < buckets.size(); i++) {
+        offsets[buckets.get(i) + shift + 1]++;
+      }
+      for (int b = 1; b < offsets.length; b++) {
+        offsets[b] += offsets[b - 1];
+      }
+      return offsets;
+    }
+
+    /**
+     * Sorts the elements by bucket (counting sort).
+     *
+     * @param buckets bucket of each element
+     * @param shift added to each bucket
+     * @return element indexes sorted by bucket
+     */
+    private int[] groupBy(IntList buckets, int shift) {
+      int[] offsets = offsets(buckets, shift);
+      int[] sorted = new int[buckets.size()];
+      for (int i = 0; i < buckets.size(); i++) {
+        sorted[offsets[buckets.get(i) + shift]++] = i;
+      }
+      return sorted;
+    }
+  }
+
+  /**
+   * Aggregates of consecutive time buckets
+   */
+  public static class Buckets {
+
+    /**
+     * Start of the first bucket
+     */
+    private final long origin;
+
+    /**
+     * Width of each bucket in milliseconds
+     */
+    private final long width;
+
+    /**
+     * Number of valid elements by bucket
+     */
+    private final long[] counts;
+
+    /**
+     * Number of valid elements with a numeric value by bucket
+     */
+    private final long[] valueCounts;
+
+    /**
+     * Sum of the values by bucket
+     */
+    private final double[] sums;
+
+    /**
+     * Minimum value by bucket, NaN if there is none
+     */
+    private final double[] mins;
+
+    /**
+     * Maximum value by bucket, NaN if there is none
+     */
+    private final double[] maxs;
+
+    /**
+     * Creates the aggregates.
+     *
+     * @param origin start of the first bucket
+     * @param width width of each bucket in milliseconds
+     * @param counts number of valid elements by bucket
+     * @param valueCounts number of valid elements with a numeric value by bucket
+     * @param sums sum of the values by bucket
+     * @param mins minimum value by bucket
+     * @param maxs maximum value by bucket
+     */
+    Buckets(long origin, long width, long[] counts, long[] valueCounts, double[] sums,
+      double[] mins, double[] maxs) {
+      this.origin = origin;
+      this.width = width;
+      this.counts = counts;
+      this.valueCounts = valueCounts;
+      this.sums = sums;
+      this.mins = mins;
+      this.maxs = maxs;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return number of buckets
+     */
+    public int size() {
+      return counts.length;
+    }
+
+    /**
+     * Returns the start of a bucket.
+     *
+     * @param bucket bucket index
+     * @return start of the bucket (UNIX epoch milliseconds), inclusive
+     */
+    public long getStart(int bucket) {
+      return origin + bucket * width;
+    }
+
+    /**
+     * Returns the end of a bucket.
+     *
+     * @param bucket bucket index
+     * @return end of the bucket (UNIX epoch milliseconds), exclusive
+     */
+    public long getEnd(int bucket) {
+      return getStart(bucket) + width;
+    }
+
+    /**
+     * Returns the number of elements valid in a bucket.
+     *
+     * @param bucket bucket index
+     * @return number of elements
+     */
+    public long getCount(int bucket) {
+      return counts[bucket];
+    }
+
+    /**
+     * Returns the number of elements per bucket.
+     *
+     * @return copy of the counts
+     */
+    public long[] getCounts() {
+      return counts.clone();
+    }
+
+    /**
+     * Returns the number of elements valid in a bucket that have a numeric value.
+     *
+     * @param bucket bucket index
+     * @return number of values
+     */
+    public long getValueCount(int bucket) {
+      return valueCounts[bucket];
+    }
+
+    /**
+     * Returns the sum of the values of the elements valid in a bucket.
+     *
+     * @param bucket bucket index
+     * @return sum of the values, 0 if there are none
+     */
+    public double getSum(int bucket) {
+      return sums[bucket];
+    }
+
+    /**
+     * Returns the smallest value of the elements valid in a bucket.
+     *
+     * @param bucket bucket index
+     * @return minimum, empty if there are no values
+     */
+    public OptionalDouble getMin(int bucket) {
+      return Double.isNaN(mins[bucket]) ? OptionalDouble.empty() : OptionalDouble.of(mins[bucket]);
+    }
+
+    /**
+     * Returns the largest value of the elements valid in a bucket.
+     *
+     * @param bucket bucket index
+     * @return maximum, empty if there are no values
+     */
+    public OptionalDouble getMax(int bucket) {
+      return Double.isNaN(maxs[bucket]) ? OptionalDouble.empty() : OptionalDouble.of(maxs[bucket]);
+    }
+
+    /**
+     * Returns the average value of the elements valid in a bucket.
+     *
+     * @param bucket bucket index
+     * @return average, empty if there are no values
+     */
+    public OptionalDouble getAverage(int bucket) {
+      return valueCounts[bucket] == 0 ? OptionalDouble.empty() :
+        OptionalDouble.of(sums[bucket] / valueCounts[bucket]);
+    }
+
+    @Override
+    public String toString() {
+      return "Buckets{origin=" + origin + ", width=" + width +
+        ", counts=" + Arrays.toString(counts) + "}";
+    }
+  }
+}
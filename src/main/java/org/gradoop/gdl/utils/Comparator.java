@@ -79,6 +79,21 @@ public enum Comparator {
     }
   }
 
+  /**
+   * Returns the comparator that yields an equivalent comparison if left-hand side and right-hand
+   * side are swapped, e.g. {@code a < b} is equivalent to {@code b > a}
+   * @return the comparator for switched sides
+   */
+  public Comparator switchSides() {
+    switch (this) {
+      case GT:   return LT;
+      case LT:   return GT;
+      case GTE:  return LTE;
+      case LTE:  return GTE;
+      default:   return this;
+    }
+  }
+
   /**
    * Returns the string representation
    * @return the string representation
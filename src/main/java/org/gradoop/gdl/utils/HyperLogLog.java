@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+/**
+ * HyperLogLog sketch that estimates the number of distinct values added to it, using
+ * {@code 2^precision} one-byte registers. The standard error of the estimate is about
+ * {@code 1.04 / sqrt(2^precision)}, i.e. 3.25% with the default precision of 10.
+ */
+public class HyperLogLog {
+
+  /**
+   * Default number of index bits
+   */
+  public static final int DEFAULT_PRECISION = 10;
+
+  /**
+   * Number of index bits
+   */
+  private final int precision;
+
+  /**
+   * Maximum rank seen per register
+   */
+  private final byte[] registers;
+
+  /**
+   * Creates a sketch with the default precision
+   */
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * Creates a sketch with the given precision.
+   *
+   * @param precision number of index bits, between 4 and 16
+   */
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Adds a value. Integral numbers with the same value are considered equal regardless of their
+   * type.
+   *
+   * @param value the value
+   */
+  public void add(Object value) {
+    addHash(hash(value));
+  }
+
+  /**
+   * Adds a value given by its 64 bit hash.
+   *
+   * @param hash well distributed hash of the value
+   */
+  public void addHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    // the guard bit bounds the rank by 64 - precision + 1
+    long remainder = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remainder) + 1);
+    if (registers[index] < rank) {
+      registers[index] = rank;
+    }
+  }
+
+  /**
+   * Adds all values of another sketch with the same precision.
+   *
+   * @param other another sketch
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException("Sketches have different precisions");
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (registers[i] < other.registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * Estimates the number of distinct values.
+   *
+   * @return estimated number of distinct values
+   */
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double estimate = alpha * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Computes a 64 bit hash of a value.
+   *
+   * @param value the value
+   * @return hash of the value
+   */
+  static long hash(Object value) {
+    long hash;
+    if (value instanceof Long || value instanceof Integer) {
+      hash = ((Number) value).longValue();
+    } else if (value instanceof Double || value instanceof Float) {
+      hash = Double.doubleToLongBits(((Number) value).doubleValue());
+    } else if (value instanceof String) {
+      // FNV-1a, String.hashCode() has only 32 bits
+      String string = (String) value;
+      hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < string.length(); i++) {
+        hash ^= string.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+    } else {
+      hash = value == null ? 0 : value.hashCode();
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Finalization step of MurmurHash3 that spreads the bits of a value.
+   *
+   * @param value the value
+   * @return mixed value
+   */
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code int}s, e.g. element positions in an index.
+ */
+public class IntList {
+
+  /**
+   * Shared backing array of empty lists
+   */
+  private static final int[] EMPTY = new int[0];
+
+  /**
+   * Backing array, only the first {@code size} entries are valid
+   */
+  private int[] elements;
+
+  /**
+   * Number of elements
+   */
+  private int size;
+
+  /**
+   * Creates an empty list
+   */
+  public IntList() {
+    this.elements = EMPTY;
+  }
+
+  /**
+   * Creates an empty list with the given initial capacity
+   *
+   * @param capacity initial capacity
+   */
+  public IntList(int capacity) {
+    this.elements = capacity == 0 ? EMPTY : new int[capacity];
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value
+   */
+  public void add(int value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * Removes the last value.
+   *
+   * @return the removed value
+   */
+  public int removeLast() {
+    if (size == 0) {
+      throw new IndexOutOfBoundsException("List is empty");
+    }
+    return elements[--size];
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index
+   * @return value at the index
+   */
+  public int get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return elements[index];
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the list is empty.
+   *
+   * @return true iff the list contains no values
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the backing array without copying it. Only the first {@link #size()} entries are
+   * valid and the array must not be modified.
+   *
+   * @return backing array
+   */
+  public int[] elements() {
+    return elements;
+  }
+
+  /**
+   * Returns a copy of the values.
+   *
+   * @return array containing exactly the values of the list
+   */
+  public int[] toArray() {
+    return Arrays.copyOf(elements, size);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+/**
+ * Allocation-free conversion between ISO-8601 local date-times (interpreted as UTC) and UNIX
+ * epoch milliseconds.
+ * <p>
+ * {@link #scan(CharSequence)} accepts the shapes produced by the {@code Date} and
+ * {@code Datetime} tokens of the grammar, i.e. {@code YYYY-MM-DD}, {@code YYYY-MM-DDTHH:MM} and
+ * {@code YYYY-MM-DDTHH:MM:SS}, optionally followed by a fraction of 1 to 9 digits as accepted by
+ * {@link java.time.LocalDateTime#parse(CharSequence)}. Calendar fields are validated strictly,
+ * e.g. {@code 2019-02-29} is rejected. The calendar conversions use the proleptic Gregorian
+ * calendar (days-from-civil algorithm).
+ */
+public class IsoDateTime {
+
+  /**
+   * Result of {@link #scan(CharSequence)} for text that is not a valid date-time
+   */
+  public static final long INVALID = Long.MIN_VALUE;
+
+  /**
+   * Milliseconds per day
+   */
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  /**
+   * Days from 0000-03-01 to 1970-01-01
+   */
+  private static final long EPOCH_OFFSET = 719_468L;
+
+  /**
+   * Days per 400 year era
+   */
+  private static final long DAYS_PER_ERA = 146_097L;
+
+  /**
+   * Private constructor to avoid instantiation.
+   */
+  private IsoDateTime() {
+  }
+
+  /**
+   * Converts a date-time string to epoch milliseconds.
+   *
+   * @param text the string
+   * @return UNIX epoch milliseconds or {@link #INVALID} if the text is not a valid date-time of
+   * one of the supported shapes
+   */
+  public static long scan(CharSequence text) {
+    int length = text.length();
+    if (length != 10 && length < 16) {
+      return INVALID;
+    }
+    int year = digits(text, 0, 4);
+    int month = digits(text, 5, 2);
+    int day = digits(text, 8, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) ||
+      text.charAt(4) != '-' || text.charAt(7) != '-') {
+      return INVALID;
+    }
+    long millis = epochDay(year, month, day) * MILLIS_PER_DAY;
+    if (length == 10) {
+      return millis;
+    }
+    int hour = digits(text, 11, 2);
+    int minute = digits(text, 14, 2);
+    if (text.charAt(10) != 'T' || text.charAt(13) != ':' || hour < 0 || hour > 23 ||
+      minute < 0 || minute > 59) {
+      return INVALID;
+    }
+    millis += hour * 3_600_000L + minute * 60_000L;
+    if (length == 16) {
+      return millis;
+    }
+    int second = length >= 19 ? digits(text, 17, 2) : -1;
+    if (text.charAt(16) != ':' || second < 0 || second > 59) {
+      return INVALID;
+    }
+    millis += second * 1000L;
+    if (length == 19) {
+      return millis;
+    }
+    // fraction of 1 to 9 digits, only milliseconds are kept
+    int fractionDigits = length - 20;
+    if (text.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9 ||
+      digits(text, 20, fractionDigits) < 0) {
+      return INVALID;
+    }
+    int fraction = digits(text, 20, Math.min(fractionDigits, 3));
+    for (int i = fractionDigits; i < 3; i++) {
+      fraction *= 10;
+    }
+    return millis + fraction;
+  }
+
+  /**
+   * Returns the number of days from 1970-01-01 to a date.
+   *
+   * @param year the year
+   * @param month the month (1-12)
+   * @param day the day of the month (1-31)
+   * @return epoch day
+   */
+  public static long epochDay(int year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = Math.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * DAYS_PER_ERA + dayOfEra - EPOCH_OFFSET;
+  }
+
+  /**
+   * Returns the year of a point in time.
+   *
+   * @param millis UNIX epoch milliseconds
+   * @return the year
+   */
+  public static int getYear(long millis) {
+    long dayOfEra = dayOfEra(millis);
+    long yearOfEra = yearOfEra(dayOfEra);
+    int month = month(dayOfEra, yearOfEra);
+    long year = yearOfEra + era(millis) * 400;
+    return (int) (month <= 2 ? year + 1 : year);
+  }
+
+  /**
+   * Returns the month of a point in time.
+   *
+   * @param millis UNIX epoch milliseconds
+   * @return the month (1-12)
+   */
+  public static int getMonth(long millis) {
+    long dayOfEra = dayOfEra(millis);
+    return month(dayOfEra, yearOfEra(dayOfEra));
+  }
+
+  /**
+   * Returns the day of the month of a point in time.
+   *
+   * @param millis UNIX epoch milliseconds
+   * @return the day of the month (1-31)
+   */
+  public static int getDay(long millis) {
+    long dayOfEra = dayOfEra(millis);
+    long dayOfYear = dayOfYear(dayOfEra, yearOfEra(dayOfEra));
+    long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    return (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+  }
+
+  /**
+   * Returns the number of days of a month.
+   *
+   * @param year the year
+   * @param month the month (1-12)
+   * @return number of days
+   */
+  public static int lengthOfMonth(int year, int month) {
+    switch (month) {
+    case 2:
+      return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+    case 4:
+    case 6:
+    case 9:
+    case 11:
+      return 30;
+    default:
+      return 31;
+    }
+  }
+
+  /**
+   * Returns the 400 year era of a point in time, counted from 0000-03-01.
+   *
+   * @param millis UNIX epoch milliseconds
+   * @return the era
+   */
+  private static long era(long millis) {
+    return Math.floorDiv(Math.floorDiv(millis, MILLIS_PER_DAY) + EPOCH_OFFSET, DAYS_PER_ERA);
+  }
+
+  /**
+   * Returns the day within the 400 year era of a point in time.
+   *
+   * @param millis UNIX epoch milliseconds
+   * @return day of the era (0-146096)
+   */
+  private static long dayOfEra(long millis) {
+    return Math.floorMod(Math.floorDiv(millis, MILLIS_PER_DAY) + EPOCH_OFFSET, DAYS_PER_ERA);
+  }
+
+  /**
+   * Returns the year within the era of a day, years start on March 1st.
+   *
+   * @param dayOfEra day of the era
+   * @return year of the era (0-399)
+   */
+  private static long yearOfEra(long dayOfEra) {
+    return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+  }
+
+  /**
+   * Returns the day within the year of a day, years start on March 1st.
+   *
+   * @param dayOfEra day of the era
+   * @param yearOfEra year of the era
+   * @return day of the year (0-365)
+   */
+  private static long dayOfYear(long dayOfEra, long yearOfEra) {
+    return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+  }
+
+  /**
+   * Returns the month of a day.
+   *
+   * @param dayOfEra day of the era
+   * @param yearOfEra year of the era
+   * @return the month (1-12)
+   */
+  private static int month(long dayOfEra, long yearOfEra) {
+    long shiftedMonth = (5 * dayOfYear(dayOfEra, yearOfEra) + 2) / 153;
+    return (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+  }
+
+  /**
+   * Parses a fixed number of decimal digits.
+   *
+   * @param text the text
+   * @param offset index of the first digit
+   * @param count number of digits
+   * @return the value or -1 if the text does not contain {@code count} digits at the offset
+   */
+  private static int digits(CharSequence text, int offset, int count) {
+    if (offset + count > text.length()) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = offset; i < offset + count; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
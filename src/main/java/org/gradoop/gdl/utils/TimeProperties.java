@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+import org.gradoop.gdl.model.Element;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+
+import java.util.Optional;
+
+/**
+ * Defines how the time properties of the TPGM are stored at data elements.
+ * <p>
+ * GDL elements have no dedicated time fields. The time values of an element are stored as the
+ * properties {@code __tx_from}, {@code __tx_to}, {@code __val_from} and {@code __val_to}, e.g.
+ * {@code (a:Person {__val_from: 1546300800000L})}. Values are either UNIX epoch milliseconds
+ * (Integer or Long) or date strings as accepted by {@link TimeLiteral}.
+ * <p>
+ * An interval that is still valid is marked by the end value {@code "Infinity"} (or
+ * {@link TimeLiteral#OPEN_END}), one that is valid since forever by the start value
+ * {@code "-Infinity"} (or {@link TimeLiteral#OPEN_START}), e.g.
+ * {@code (a:Person {__val_from: 1546300800000L, __val_to: "Infinity"})}. A missing value is
+ * undefined, i.e. predicates on it do not hold. The same holds for the string {@code "now"}, as
+ * {@code Now} is only resolved by the clock of a query.
+ */
+public class TimeProperties {
+
+  /**
+   * Property key of the transaction time start
+   */
+  public static final String TX_FROM = "__tx_from";
+
+  /**
+   * Property key of the transaction time end
+   */
+  public static final String TX_TO = "__tx_to";
+
+  /**
+   * Property key of the valid time start
+   */
+  public static final String VAL_FROM = "__val_from";
+
+  /**
+   * Property key of the valid time end
+   */
+  public static final String VAL_TO = "__val_to";
+
+  /**
+   * Returns the property key that stores a time field.
+   *
+   * @param field the time field
+   * @return property key
+   */
+  public static String getKey(TimeSelector.TimeField field) {
+    switch (field) {
+    case TX_FROM:  return TX_FROM;
+    case TX_TO:    return TX_TO;
+    case VAL_FROM: return VAL_FROM;
+    default:       return VAL_TO;
+    }
+  }
+
+  /**
+   * Checks whether an element has an open value for a time field, i.e. {@code -Infinity} for a
+   * start or {@code Infinity} for an end field.
+   *
+   * @param element the element
+   * @param field the time field
+   * @return true iff the field is explicitly open
+   */
+  public static boolean isOpen(Element element, TimeSelector.TimeField field) {
+    long[] value = new long[1];
+    if (!getTime(element, field, value, 0)) {
+      return false;
+    }
+    boolean start = field == TimeSelector.TimeField.TX_FROM ||
+      field == TimeSelector.TimeField.VAL_FROM;
+    return value[0] == (start ? TimeLiteral.OPEN_START : TimeLiteral.OPEN_END);
+  }
+
+  /**
+   * Returns the value of a time field of an element.
+   *
+   * @param element the element
+   * @param field the time field
+   * @return UNIX epoch milliseconds, empty if the element has no (valid) value for the field
+   */
+  public static Optional<Long> getTime(Element element, TimeSelector.TimeField field) {
+    long[] value = new long[1];
+    return getTime(element, field, value, 0) ? Optional.of(value[0]) : Optional.empty();
+  }
+
+  /**
+   * Returns the value of a time field of an element without boxing.
+   *
+   * @param element the element
+   * @param field the time field
+   * @param values array to write the value to
+   * @param index index of the value in the array
+   * @return true iff the element has a (valid) value for the field
+   */
+  public static boolean getTime(Element element, TimeSelector.TimeField field, long[] values,
+    int index) {
+    Object value = element.getProperties().get(getKey(field));
+    if (value instanceof Long || value instanceof Integer) {
+      values[index] = ((Number) value).longValue();
+      return true;
+    } else if (value instanceof String) {
+      String string = (String) value;
+      long millis = IsoDateTime.scan(string);
+      if (millis == IsoDateTime.INVALID) {
+        int open = scanOpen(string);
+        if (open != 0) {
+          values[index] = open < 0 ? TimeLiteral.OPEN_START : TimeLiteral.OPEN_END;
+          return true;
+        }
+        if (string.equalsIgnoreCase("now")) {
+          // "now" is resolved by the clock of a query, it is not a stored point in time
+          return false;
+        }
+        try {
+          millis = new TimeLiteral(string).getMilliseconds();
+        } catch (IllegalArgumentException e) {
+          return false;
+        }
+      }
+      values[index] = millis;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Recognizes the open bounds {@code "Infinity"} and {@code "-Infinity"} (case-insensitive,
+   * with an optional {@code +}) without parsing.
+   *
+   * @param value the string value
+   * @return -1 for an open start, 1 for an open end, 0 if the value is not an open bound
+   */
+  private static int scanOpen(String value) {
+    int start = value.startsWith("-") || value.startsWith("+") ? 1 : 0;
+    if (value.length() - start != 8 || !value.regionMatches(true, start, "infinity", 0, 8)) {
+      return 0;
+    }
+    return value.charAt(0) == '-' ? -1 : 1;
+  }
+}
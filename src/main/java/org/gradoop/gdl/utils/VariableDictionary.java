@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Interns the variables of a query, i.e. assigns a dense integer id to every variable. Sets of
+ * variables can then be represented as {@link BitSet}s instead of sets of strings.
+ */
+public class VariableDictionary {
+
+  /**
+   * Maps each variable to its id
+   */
+  private final Map<String, Integer> ids;
+
+  /**
+   * Maps each id to its variable
+   */
+  private final List<String> variables;
+
+  /**
+   * Creates an empty dictionary
+   */
+  public VariableDictionary() {
+    this.ids = new HashMap<>();
+    this.variables = new ArrayList<>();
+  }
+
+  /**
+   * Creates a dictionary containing the given variables. Ids are assigned in iteration order.
+   *
+   * @param variables variables to intern
+   */
+  public VariableDictionary(Collection<String> variables) {
+    this();
+    for (String variable : variables) {
+      getId(variable);
+    }
+  }
+
+  /**
+   * Returns the id of a variable. The variable is interned if it is not yet contained.
+   *
+   * @param variable the variable
+   * @return id of the variable
+   */
+  public int getId(String variable) {
+    Integer id = ids.get(variable);
+    if (id == null) {
+      id = variables.size();
+      ids.put(variable, id);
+      variables.add(variable);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the id of a variable without interning it.
+   *
+   * @param variable the variable
+   * @return id of the variable or -1 if the variable is not contained
+   */
+  public int lookup(String variable) {
+    Integer id = ids.get(variable);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * Returns the variable of an id.
+   *
+   * @param id the id
+   * @return variable of the id
+   */
+  public String getVariable(int id) {
+    return variables.get(id);
+  }
+
+  /**
+   * Returns the number of interned variables.
+   *
+   * @return number of variables
+   */
+  public int size() {
+    return variables.size();
+  }
+
+  /**
+   * Converts a set of variables to a bitset of their ids. Unknown variables are interned.
+   *
+   * @param variables the variables
+   * @return bitset containing the ids of the variables
+   */
+  public BitSet toBitSet(Collection<String> variables) {
+    BitSet bits = new BitSet(size());
+    for (String variable : variables) {
+      bits.set(getId(variable));
+    }
+    return bits;
+  }
+
+  /**
+   * Converts a bitset of variable ids back to a set of variables.
+   *
+   * @param bits bitset containing variable ids
+   * @return set of variables
+   */
+  public Set<String> toVariables(BitSet bits) {
+    Set<String> result = new LinkedHashSet<>();
+    for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+      result.add(variables.get(id));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "VariableDictionary" + variables;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradoop.gdl.utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helper methods for the immutable variable sets returned by {@code getVariables()}.
+ */
+public class VariableSets {
+
+  /**
+   * Returns the union of two immutable variable sets. If one set contains the other, it is
+   * returned without allocating a new set.
+   *
+   * @param lhs first set
+   * @param rhs second set
+   * @return immutable union of both sets
+   */
+  public static Set<String> union(Set<String> lhs, Set<String> rhs) {
+    if (lhs.containsAll(rhs)) {
+      return lhs;
+    }
+    if (rhs.containsAll(lhs)) {
+      return rhs;
+    }
+    Set<String> union = new HashSet<>(lhs);
+    union.addAll(rhs);
+    return Collections.unmodifiableSet(union);
+  }
+}
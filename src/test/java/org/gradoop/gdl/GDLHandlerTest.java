@@ -1,13 +1,21 @@
 package org.gradoop.gdl;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.junit.Test;
 import org.gradoop.gdl.model.Edge;
 import org.gradoop.gdl.model.Graph;
+import org.gradoop.gdl.model.QueryMode;
 import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.utils.TimeProperties;
+import org.gradoop.gdl.matching.GDLMatcher;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
@@ -190,4 +198,64 @@ public class GDLHandlerTest {
     // the remaining anonymous node must have id 42
     assertEquals("wrong id for anonymous node", 1, handler.getVertices().stream().filter(v -> v.getId() == 42L).count());
   }
+
+  @Test
+  public void queryModeTest() {
+    assertEquals(QueryMode.EXECUTE,
+      new GDLHandler.Builder().buildFromString("MATCH (a)-->(b)").getQueryMode());
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(
+      "EXPLAIN MATCH (a)-->(b) WHERE a.age > 20");
+    assertEquals(QueryMode.EXPLAIN, handler.getQueryMode());
+    assertEquals(2, handler.getVertexCache().size());
+    assertTrue(handler.getPredicates().isPresent());
+    assertEquals(QueryMode.PROFILE,
+      new GDLHandler.Builder().buildFromString("PROFILE MATCH (a)").getQueryMode());
+    assertEquals(QueryMode.EXECUTE,
+      new GDLHandler.Builder().buildFromString("(a)-->(b)").getQueryMode());
+  }
+
+  @Test
+  public void queryModeKeywordsAsIdentifiersTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(
+      "g[(x:PROFILE {EXPLAIN: 1})-[e:EXPLAIN {PROFILE: 2}]->(PROFILE)]");
+    Vertex x = handler.getVertexCache().get("x");
+    assertEquals("PROFILE", x.getLabel());
+    assertEquals(1, x.getProperties().get("EXPLAIN"));
+    Edge e = handler.getEdgeCache().get("e");
+    assertEquals("EXPLAIN", e.getLabel());
+    assertEquals(2, e.getProperties().get("PROFILE"));
+    assertTrue(handler.getVertexCache().containsKey("PROFILE"));
+
+    handler = new GDLHandler.Builder().buildFromString(
+      "EXPLAIN MATCH (PROFILE:EXPLAIN) WHERE PROFILE.EXPLAIN = 1");
+    assertEquals(QueryMode.EXPLAIN, handler.getQueryMode());
+    assertEquals("EXPLAIN", handler.getVertexCache().get("PROFILE").getLabel());
+    assertTrue(handler.getPredicates().isPresent());
+  }
+
+  @Test(expected = ParseCancellationException.class)
+  public void infinityIsNoQueryModeTest() {
+    new GDLHandler.Builder().setErrorStrategy(new BailErrorStrategy())
+      .buildFromString("Infinity MATCH (a) WHERE a.x = 1");
+  }
+
+  @Test
+  public void infinityAsIdentifierTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(
+      "g[(x:Infinity {Infinity: 1, __val_from: \"-infinity\", __val_to: \"Infinity\"})]");
+    Vertex x = handler.getVertexCache().get("x");
+    assertEquals("Infinity", x.getLabel());
+    assertEquals(1, x.getProperties().get("Infinity"));
+    assertEquals(Optional.of(TimeLiteral.OPEN_START),
+      TimeProperties.getTime(x, TimeSelector.TimeField.VAL_FROM));
+    assertEquals(Optional.of(TimeLiteral.OPEN_END),
+      TimeProperties.getTime(x, TimeSelector.TimeField.VAL_TO));
+    assertTrue(TimeProperties.isOpen(x, TimeSelector.TimeField.VAL_TO));
+
+    GDLHandler query = new GDLHandler.Builder().buildFromString(
+      "MATCH (Infinity:Infinity) WHERE Infinity.val_from = Timestamp(-Infinity) AND " +
+        "Infinity.val_to = Timestamp( Infinity )");
+    assertEquals("Infinity", query.getVertexCache().get("Infinity").getLabel());
+    assertEquals(1, new GDLMatcher(query, handler).count());
+  }
 }
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.gradoop.gdl.model.comparables.time.Duration;
 import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
 import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.NowPoint;
 import org.gradoop.gdl.model.comparables.time.TimeConstant;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
 import org.gradoop.gdl.model.predicates.Predicate;
@@ -30,7 +31,13 @@ import org.gradoop.gdl.model.predicates.booleans.And;
 import org.gradoop.gdl.model.predicates.expressions.Comparison;
 import org.gradoop.gdl.utils.Comparator;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.gradoop.gdl.utils.Comparator.*;
 
@@ -621,7 +628,21 @@ public class GDLLoaderTemporalTest {
         Comparison comp = (Comparison) loader.getPredicates().get();
         // all "Now"s should have the exact same value
         assertEquals(comp.getComparableExpressions()[0], comp.getComparableExpressions()[1]);
-        assertEquals(loader.getNowLit(), comp.getComparableExpressions()[0]);
+        assertEquals(loader.getNow(), comp.getComparableExpressions()[0]);
+    }
+
+    @Test
+    public void clockTest(){
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC);
+        GDLHandler handler = new GDLHandler.Builder().setClock(clock)
+                .buildFromString("MATCH (a) WHERE a.tx_from < Timestamp(Now)");
+        Comparison comp = (Comparison) handler.getPredicates().get();
+        NowPoint now = (NowPoint) comp.getComparableExpressions()[1];
+        assertEquals(handler.getNow(), now);
+        assertSame(clock, now.getClock());
+        // Now is not folded into a constant at parse time
+        assertFalse(now.evaluate().isPresent());
+        assertEquals(1000L, now.currentMillis());
     }
 
     /**
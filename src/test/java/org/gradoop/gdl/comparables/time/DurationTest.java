@@ -15,11 +15,19 @@
  */
 package org.gradoop.gdl.comparables.time;
 
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.MinTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.junit.Test;
 import org.gradoop.gdl.model.comparables.time.Duration;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 import static org.junit.Assert.*;
 
 public class DurationTest {
@@ -46,4 +54,90 @@ public class DurationTest {
         duration = new Duration(global, s1);
         assertTrue(duration.isGlobal());
     }
+
+    @Test
+    public void saturationTest(){
+        assertEquals(5L, Duration.between(3L, 8L));
+        assertEquals(-5L, Duration.between(8L, 3L));
+        assertEquals(Long.MAX_VALUE, Duration.between(-1L, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Duration.between(Long.MIN_VALUE, 0L));
+        assertEquals(Long.MIN_VALUE, Duration.between(1L, Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE + 1, Duration.between(0L, Long.MIN_VALUE + 1));
+
+        Duration open = new Duration(new TimeConstant(-1000L), new TimeConstant(Long.MAX_VALUE));
+        assertEquals(Optional.of(Long.MAX_VALUE), open.evaluate());
+    }
+
+    @Test
+    public void primitiveEvaluationTest(){
+        TimeSelector from = new TimeSelector("a", TimeSelector.TimeField.VAL_FROM);
+        TimeSelector to = new TimeSelector("a", TimeSelector.TimeField.VAL_TO);
+        TimeSelector missing = new TimeSelector("a", TimeSelector.TimeField.TX_TO);
+        CountingBinding binding = new CountingBinding();
+        binding.times.put(TimeSelector.TimeField.VAL_FROM, 1000L);
+        binding.times.put(TimeSelector.TimeField.VAL_TO, 5000L);
+
+        long[] values = new long[3];
+        assertTrue(new Duration(from, to).evaluate(binding, values, 1));
+        assertEquals(4000L, values[1]);
+        assertFalse(new Duration(from, missing).evaluate(binding, values, 0));
+        assertEquals(Optional.of(4000L), new Duration(from, to).evaluate(binding));
+        assertEquals(Optional.empty(), new Duration(from, missing).evaluate(binding));
+
+        MaxTimePoint max = new MaxTimePoint(from, new TimeConstant(3000L));
+        MinTimePoint min = new MinTimePoint(to, max);
+        assertTrue(min.evaluate(binding, values, 2));
+        assertEquals(3000L, values[2]);
+        // only values[2] is written
+        assertEquals(4000L, values[1]);
+        // constants only
+        assertFalse(max.evaluate(null, values, 0));
+        assertTrue(new MaxTimePoint(new TimeConstant(1L), new TimeConstant(2L))
+                .evaluate(null, values, 0));
+        assertEquals(2L, values[0]);
+    }
+
+    @Test
+    public void memoizationTest(){
+        TimeSelector from = new TimeSelector("a", TimeSelector.TimeField.VAL_FROM);
+        MaxTimePoint max = new MaxTimePoint(from, new TimeConstant(3000L));
+        Duration duration = new Duration(max, new TimeConstant(10000L));
+        CountingBinding binding = new CountingBinding();
+        binding.times.put(TimeSelector.TimeField.VAL_FROM, 5000L);
+
+        long[] values = new long[1];
+        assertTrue(duration.evaluate(binding, values, 0));
+        assertEquals(5000L, values[0]);
+        assertTrue(max.evaluate(binding, values, 0));
+        assertEquals(5000L, values[0]);
+        assertEquals(1, binding.reads);
+
+        binding.times.put(TimeSelector.TimeField.VAL_FROM, 1000L);
+        binding.invalidate();
+        assertTrue(duration.evaluate(binding, values, 0));
+        assertEquals(7000L, values[0]);
+        assertEquals(2, binding.reads);
+
+        binding.times.remove(TimeSelector.TimeField.VAL_FROM);
+        binding.invalidate();
+        assertFalse(max.evaluate(binding, values, 0));
+        assertFalse(duration.evaluate(binding).isPresent());
+        assertEquals(3, binding.reads);
+    }
+
+    /**
+     * Binding of a single variable that counts the reads of time values
+     */
+    private static class CountingBinding extends TimeBinding {
+
+        private final Map<TimeSelector.TimeField, Long> times = new HashMap<>();
+
+        private int reads;
+
+        @Override
+        public Optional<Long> getTime(String variable, TimeSelector.TimeField field){
+            reads++;
+            return Optional.ofNullable(times.get(field));
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.gradoop.gdl.comparables.time;
 
+import org.gradoop.gdl.model.comparables.time.Duration;
 import org.gradoop.gdl.model.comparables.time.TimeSelector;
 import org.junit.Test;
 import org.gradoop.gdl.model.comparables.time.TimeLiteral;
@@ -23,6 +24,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.TimeZone;
 
 import static org.junit.Assert.*;
 
@@ -71,7 +73,7 @@ public class TimeLiteralTest {
         assertEquals(tl2.getSecond(), 0);
 
         TimeLiteral tl3 = new TimeLiteral("now");
-        long millis = LocalDateTime.now().toInstant(ZoneOffset.ofTotalSeconds(0)).toEpochMilli();
+        long millis = System.currentTimeMillis();
 
         assertTrue(millis - tl3.getMilliseconds() >= 0);
     }
@@ -90,4 +92,62 @@ public class TimeLiteralTest {
         assertEquals(literal1.replaceGlobalByLocal(new ArrayList<>(Collections.singletonList("a"))),
                 literal1);
     }
+
+    @Test
+    public void equivalenceTest(){
+        String[] dates = {"1969-12-31T23:59:59", "1600-02-29T06:07:08", "2020-04-06T15:33",
+                "2020-04-06T15:33:00.123"};
+        for (String date : dates) {
+            LocalDateTime time = LocalDateTime.parse(date);
+            TimeLiteral literal = new TimeLiteral(date);
+            assertEquals(time.toInstant(ZoneOffset.UTC).toEpochMilli(), literal.getMilliseconds());
+            assertEquals(time.toString(), literal.toString());
+            assertEquals(time.getYear(), literal.getYear());
+            assertEquals(time.getMonthValue(), literal.getMonth());
+            assertEquals(time.getDayOfMonth(), literal.getDay());
+            assertEquals(time.getHour(), literal.getHour());
+            assertEquals(time.getMinute(), literal.getMinute());
+            assertEquals(time.getSecond(), literal.getSecond());
+            assertEquals(new TimeLiteral(literal.getMilliseconds()), literal);
+        }
+    }
+
+    @Test
+    public void openBoundTest(){
+        TimeLiteral end = new TimeLiteral("Infinity");
+        TimeLiteral start = new TimeLiteral("-infinity");
+        assertEquals(TimeLiteral.OPEN_END, end.getMilliseconds());
+        assertEquals(TimeLiteral.OPEN_START, start.getMilliseconds());
+        assertEquals(end, new TimeLiteral("+Infinity"));
+        assertEquals("Infinity", end.toString());
+        assertEquals("-Infinity", start.toString());
+        assertTrue(end.isOpen() && start.isOpen());
+        assertFalse(new TimeLiteral("2020-04-05").isOpen());
+        assertEquals(end, new TimeLiteral(end.toString()));
+
+        // open bounds are later (earlier) than every finite point in time
+        TimeLiteral finite = new TimeLiteral("9999-12-31T23:59:59");
+        assertTrue(end.evaluate().get() > finite.evaluate().get());
+        assertTrue(start.evaluate().get() < finite.evaluate().get());
+        assertEquals(Long.MAX_VALUE, (long) new Duration(finite, end).evaluate().get());
+    }
+
+    @Test
+    public void nowInOtherTimeZoneTest(){
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            long before = System.currentTimeMillis();
+            long now = new TimeLiteral("now").getMilliseconds();
+            long after = System.currentTimeMillis();
+            assertTrue(before <= now && now <= after);
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDateTest(){
+        new TimeLiteral("2019-02-29");
+    }
 }
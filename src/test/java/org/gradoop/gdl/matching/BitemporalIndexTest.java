@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.time.TimeSelector.TimeField;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor.Range;
+import org.gradoop.gdl.utils.IntList;
+import org.gradoop.gdl.utils.TimeProperties;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BitemporalIndexTest {
+
+  private static GraphIndex randomGraph(Random random, int vertexCount, int edgeCount) {
+    return randomGraph(random, vertexCount, edgeCount, 1L);
+  }
+
+  private static GraphIndex randomGraph(Random random, int vertexCount, int edgeCount,
+    long unit) {
+    GraphIndex graph = new GraphIndex();
+    for (int i = 0; i < vertexCount; i++) {
+      Vertex vertex = new Vertex();
+      vertex.setId(i);
+      vertex.setLabel("V");
+      vertex.setProperties(randomTimes(random, unit));
+      graph.addVertex(vertex);
+    }
+    for (int i = 0; i < edgeCount; i++) {
+      Edge edge = new Edge();
+      edge.setId(i);
+      edge.setLabel("E");
+      edge.setSourceVertexId((long) random.nextInt(vertexCount));
+      edge.setTargetVertexId((long) random.nextInt(vertexCount));
+      edge.setProperties(randomTimes(random, unit));
+      graph.addEdge(edge);
+    }
+    return graph;
+  }
+
+  private static Map<String, Object> randomTimes(Random random, long unit) {
+    Map<String, Object> properties = new HashMap<>();
+    long txFrom = random.nextInt(1000);
+    long valFrom = random.nextInt(1000);
+    properties.put(TimeProperties.TX_FROM, txFrom * unit);
+    // some elements are still current
+    if (random.nextInt(10) != 0) {
+      properties.put(TimeProperties.TX_TO, (txFrom + random.nextInt(100)) * unit);
+    }
+    if (random.nextInt(10) != 0) {
+      properties.put(TimeProperties.VAL_FROM, valFrom * unit);
+    }
+    properties.put(TimeProperties.VAL_TO, (valFrom + random.nextInt(200)) * unit);
+    return properties;
+  }
+
+  private static Map<TimeField, Range> randomWindow(Random random) {
+    Map<TimeField, Range> window = new EnumMap<>(TimeField.class);
+    for (TimeField field : TimeField.values()) {
+      if (random.nextBoolean()) {
+        long lower = random.nextInt(3) == 0 ? Long.MIN_VALUE : random.nextInt(1200) - 100;
+        long upper = random.nextInt(3) == 0 ? Long.MAX_VALUE : lower + random.nextInt(300);
+        window.put(field, new Range(lower, Math.max(lower, upper)));
+      }
+    }
+    return window;
+  }
+
+  private static BitSet scan(int count, IntFunction<? extends GraphElement> elements,
+    Map<TimeField, Range> window) {
+    BitSet result = new BitSet();
+    for (int i = 0; i < count; i++) {
+      boolean contained = true;
+      for (TimeField field : TimeField.values()) {
+        boolean start = field == TimeField.TX_FROM || field == TimeField.VAL_FROM;
+        long value = TimeProperties.getTime(elements.apply(i), field)
+          .orElse(start ? Long.MIN_VALUE : Long.MAX_VALUE);
+        contained &= window.getOrDefault(field, Range.UNBOUNDED).contains(value);
+      }
+      result.set(i, contained);
+    }
+    return result;
+  }
+
+  private static Set<String> labels(Iterable<? extends GraphElement> elements) {
+    Set<String> labels = new HashSet<>();
+    elements.forEach(element -> labels.add(element.getLabel()));
+    return labels;
+  }
+
+  @Test
+  public void windowTest() {
+    Random random = new Random(7);
+    GraphIndex graph = randomGraph(random, 1000, 3000);
+    for (int capacity : new int[] {2, 5, BitemporalIndex.DEFAULT_NODE_CAPACITY}) {
+      BitemporalIndex index = new BitemporalIndex(graph, capacity);
+      for (int i = 0; i < 200; i++) {
+        Map<TimeField, Range> window = randomWindow(random);
+        assertEquals(window.toString(), scan(graph.getVertexCount(), graph::getVertex, window),
+          index.findVertices(window));
+        assertEquals(window.toString(), scan(graph.getEdgeCount(), graph::getEdge, window),
+          index.findEdges(window));
+      }
+    }
+  }
+
+  @Test
+  public void snapshotTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString("" +
+      "(a:A {__tx_from: \"2019-01-01\", __val_from: \"2018-01-01\", __val_to: \"2019-01-01\"})" +
+      "(b:B {__tx_from: \"2019-01-01\", __tx_to: \"2020-01-01\", __val_from: \"2018-06-01\"})" +
+      "(c:C {__tx_from: \"2020-01-01\", __val_from: \"2018-06-01\"})" +
+      "(a)-[:e1 {__tx_from: \"2019-01-01\"}]->(b)" +
+      "(a)-[:e2 {__tx_from: \"2019-01-01\"}]->(c)");
+    long jul2018 = TimeProperties.getTime(vertex("2018-07-01"), TimeField.TX_FROM).get();
+    long jul2019 = TimeProperties.getTime(vertex("2019-07-01"), TimeField.TX_FROM).get();
+    long jul2020 = TimeProperties.getTime(vertex("2020-07-01"), TimeField.TX_FROM).get();
+
+    TemporalView view = handler.snapshot(jul2019, jul2018);
+    assertEquals(new HashSet<>(Arrays.asList("A", "B")), labels(view.getVertices()));
+    assertEquals(new HashSet<>(Arrays.asList("e1")), labels(view.getEdges()));
+
+    view = handler.snapshot(jul2020, jul2018);
+    assertEquals(new HashSet<>(Arrays.asList("A", "C")), labels(view.getVertices()));
+    assertEquals(new HashSet<>(Arrays.asList("e2")), labels(view.getEdges()));
+
+    view = handler.snapshot(jul2020, jul2020);
+    assertEquals(new HashSet<>(Arrays.asList("C")), labels(view.getVertices()));
+    assertTrue(view.getEdges().isEmpty());
+
+    handler.append("(d:D {__tx_from: \"2020-01-01\"})");
+    assertEquals(new HashSet<>(Arrays.asList("C", "D")),
+      labels(handler.snapshot(jul2020, jul2020).getVertices()));
+  }
+
+  private static Vertex vertex(String txFrom) {
+    Vertex vertex = new Vertex();
+    vertex.addProperty(TimeProperties.TX_FROM, txFrom);
+    return vertex;
+  }
+
+  @Test
+  public void candidatesTest() {
+    Random random = new Random(3);
+    // times in seconds
+    GraphIndex graph = randomGraph(random, 500, 1000, 1000L);
+    BitemporalIndex index = new BitemporalIndex(graph);
+    QueryGraph query = new QueryGraph(new GDLHandler.Builder().buildFromString(
+      "MATCH (a)-[e]->(b) WHERE a.tx.asOf(Timestamp(1970-01-01T00:08:20)) AND " +
+        "a.val.overlaps(Interval(Timestamp(1970-01-01T00:05:00), " +
+        "Timestamp(1970-01-01T00:06:40))) AND e.tx_from > a.tx_from"));
+    TimeRangeExtractor.TimeRanges ranges = query.getTimeRanges();
+
+    for (int variable = 0; variable < query.size(); variable++) {
+      String name = query.getElement(variable).getVariable();
+      boolean edge = query.isEdge(variable);
+      IntList candidates = index.getCandidates(query, variable);
+      Set<Integer> positions = Arrays.stream(candidates.toArray()).boxed()
+        .collect(Collectors.toSet());
+      int count = edge ? graph.getEdgeCount() : graph.getVertexCount();
+      for (int i = 0; i < count; i++) {
+        GraphElement element = edge ? graph.getEdge(i) : graph.getVertex(i);
+        boolean accepted = true;
+        for (TimeField field : TimeField.values()) {
+          accepted &= ranges.accepts(name, field, TimeProperties.getTime(element, field));
+        }
+        // candidates are a superset of the accepted elements
+        assertTrue(!accepted || positions.contains(i));
+      }
+      if (!ranges.getRanges(name).isEmpty()) {
+        assertTrue(candidates.size() < count);
+      } else {
+        assertEquals(count, candidates.size());
+      }
+    }
+  }
+
+  @Test
+  public void emptyTest() {
+    BitemporalIndex index = new BitemporalIndex(new GraphIndex());
+    assertTrue(index.findVertices(new EnumMap<>(TimeField.class)).isEmpty());
+    assertEquals(0, index.snapshot(0, 0).getVertexCount());
+
+    GraphIndex graph = randomGraph(new Random(1), 10, 10);
+    Map<TimeField, Range> window = new EnumMap<>(TimeField.class);
+    window.put(TimeField.TX_FROM, new Range(5, 4));
+    assertTrue(new BitemporalIndex(graph).findEdges(window).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCapacityTest() {
+    new BitemporalIndex(new GraphIndex(), 1);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class CostBasedPlannerTest {
+
+  private static GDLHandler socialNetwork() throws IOException {
+    InputStream inputStream = CostBasedPlannerTest.class.getResourceAsStream("/social_network.gdl");
+    return new GDLHandler.Builder().enableStatistics().buildFromStream(inputStream);
+  }
+
+  private static QueryGraph query(String query) {
+    return new QueryGraph(new GDLHandler.Builder().buildFromString(query));
+  }
+
+  private static String variable(QueryGraph query, MatchPlan plan, int step) {
+    return query.getDictionary().getVariable(plan.getOrder()[step]);
+  }
+
+  @Test
+  public void selectiveLabelFirstTest() {
+    GDLHandler data = new GDLHandler.Builder().enableStatistics().buildFromString(
+      "(a:Rare)<-[:r]-(b:Common) (b)-[:r]->(c:Common) (c)-[:r]->(d:Common) (d)-[:r]->(b)");
+    QueryGraph query = query("MATCH (x:Common)-[e:r]->(y:Common)-[f:r]->(z:Rare)");
+    MatchPlan plan = new CostBasedPlanner(data.getStatistics().get()).plan(query);
+    // the rare vertex and its single incoming edge are bound first
+    assertEquals("z", variable(query, plan, 0));
+    assertEquals("f", variable(query, plan, 1));
+    assertEquals(MatchPlan.StepType.EXPAND_INCOMING, plan.getSteps().get(1).getType());
+    assertEquals(1, plan.getEstimatedCardinality(plan.getSteps().size() - 1).getAsDouble(), 1e-9);
+    assertTrue(plan.toString().contains("estimated rows"));
+    assertEquals(1, new GDLMatcher(query, GraphIndex.of(data)).setPlan(plan).count());
+  }
+
+  @Test
+  public void propertySelectivityTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    QueryGraph query = query("MATCH (p:Person)-[:hasInterest]->(t:Tag), (f:Forum)-[:hasTag]->(t) " +
+      "WHERE p.name = \"Frank\"");
+    MatchPlan plan = new CostBasedPlanner(data.getStatistics().get()).plan(query);
+    // a single person named Frank is the most selective start
+    assertEquals("p", variable(query, plan, 0));
+    assertEquals(1, plan.getEstimatedCardinality(0).getAsDouble(), 1e-9);
+    assertTrue(plan.getEstimatedCost().getAsDouble() <
+      new CostBasedPlanner(data.getStatistics().get())
+        .plan(query("MATCH (p:Person)-[:hasInterest]->(t:Tag), (f:Forum)-[:hasTag]->(t)"))
+        .getEstimatedCost().getAsDouble());
+  }
+
+  @Test
+  public void estimateTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    CostBasedPlanner planner = new CostBasedPlanner(data.getStatistics().get());
+    assertEquals(6, planner.estimateCardinality(query("MATCH (p:Person)")), 1e-9);
+    assertEquals(10, planner.estimateCardinality(query("MATCH (a:Person)-[:knows]->(b:Person)")),
+      1e-9);
+    assertEquals(10 * 10 / 6.0,
+      planner.estimateCardinality(query("MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c)")),
+      1e-9);
+    assertEquals(planner.estimateCardinality(query("MATCH (a:Person)-[:knows]->(b:Person)")),
+      CostBasedPlanner.of(GraphIndex.of(data))
+        .estimateCardinality(query("MATCH (a:Person)-[:knows]->(b:Person)")), 1e-9);
+  }
+
+  @Test
+  public void matcherUsesStatisticsTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    GDLHandler queryHandler = new GDLHandler.Builder().buildFromString(
+      "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c:Person) WHERE a.city = c.city");
+    GDLMatcher costBased = new GDLMatcher(queryHandler, data);
+    assertTrue(costBased.getPlan().getEstimatedCost().isPresent());
+    GDLMatcher greedy = new GDLMatcher(queryHandler, new GDLHandler.Builder()
+      .buildFromStream(CostBasedPlannerTest.class.getResourceAsStream("/social_network.gdl")));
+    assertFalse(greedy.getPlan().getEstimatedCost().isPresent());
+    assertEquals(greedy.count(), costBased.count());
+  }
+
+  @Test
+  public void greedyFallbackTest() throws IOException {
+    StringBuilder pattern = new StringBuilder("MATCH (v0:Person)");
+    for (int i = 1; i < 10; i++) {
+      pattern.append("-[:knows]->(v").append(i).append(":Person)");
+    }
+    QueryGraph query = query(pattern.toString());
+    assertTrue(query.size() > CostBasedPlanner.MAX_DP_VARIABLES);
+    GDLHandler data = socialNetwork();
+    MatchPlan plan = new CostBasedPlanner(data.getStatistics().get()).plan(query);
+    assertEquals(query.size(), plan.getSteps().size());
+    assertEquals(new GDLMatcher(query, GraphIndex.of(data)).count(),
+      new GDLMatcher(query, GraphIndex.of(data)).setPlan(plan).count());
+  }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.QueryMode;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class GDLMatcherTest {
+
+  private static GDLHandler socialNetwork() throws IOException {
+    InputStream inputStream = GDLMatcherTest.class.getResourceAsStream("/social_network.gdl");
+    return new GDLHandler.Builder().buildFromStream(inputStream);
+  }
+
+  private static GDLMatcher matcher(String query, GDLHandler data) {
+    return new GDLMatcher(new GDLHandler.Builder().buildFromString(query), data);
+  }
+
+  private static GDLMatcher matcher(String query, String data) {
+    return matcher(query, new GDLHandler.Builder().buildFromString(data));
+  }
+
+  @Test
+  public void vertexPredicateTest() throws IOException {
+    GDLMatcher matcher = matcher("MATCH (p:Person) WHERE p.age > 30", socialNetwork());
+    Set<Object> names = matcher.stream()
+      .map(e -> e.getVertex("p").getProperties().get("name"))
+      .collect(Collectors.toSet());
+    assertEquals(3, names.size());
+    assertTrue(names.contains("Dave"));
+    assertTrue(names.contains("Eve"));
+    assertTrue(names.contains("Frank"));
+  }
+
+  @Test
+  public void edgePatternTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    assertEquals(5, matcher(
+      "MATCH (a:Person)-[e:knows]->(b:Person) WHERE e.since = 2014", data).count());
+    assertEquals(2, matcher(
+      "MATCH (p:Person)-[:hasInterest]->(t:Tag {name : \"Hadoop\"})", data).count());
+    // mutual acquaintances, both directions
+    assertEquals(6, matcher("MATCH (a)-[:knows]->(b)-[:knows]->(a)", data).count());
+    assertEquals(0, matcher("MATCH (a:Person)-[:hasTag]->(b)", data).count());
+  }
+
+  @Test
+  public void cyclicPatternTest() {
+    String data = "(a:P)-[:k]->(b:P)-[:k]->(c:P)-[:k]->(a) (c)-[:k]->(d:Q)";
+    List<Embedding> embeddings =
+      matcher("MATCH (x)-[:k]->(y)-[:k]->(z)-[:k]->(x)", data).match();
+    assertEquals(3, embeddings.size());
+    for (Embedding embedding : embeddings) {
+      assertEquals("P", embedding.getVertex("x").getLabel());
+      assertEquals(embedding.getVertex("x").getId(),
+        (long) embedding.getEdge("__e2").getTargetVertexId());
+    }
+  }
+
+  @Test
+  public void matchStrategyTest() {
+    String data = "(a)-[:k]->(b)-[:k]->(a)";
+    String query = "MATCH (x)-->(y)-->(z)";
+    assertEquals(2, matcher(query, data).count());
+    assertEquals(0, matcher(query, data).setMatchStrategy(MatchStrategy.ISOMORPHISM).count());
+
+    data = "(a)-[:k]->(b) (c)-[:k]->(b)";
+    query = "MATCH (x)-[e1]->(y)<-[e2]-(z)";
+    assertEquals(2, matcher(query, data).count());
+    assertEquals(4, matcher(query, data).setMatchStrategy(MatchStrategy.HOMOMORPHISM).count());
+    assertEquals(2, matcher(query + " WHERE x != z", data)
+      .setMatchStrategy(MatchStrategy.HOMOMORPHISM).count());
+  }
+
+  @Test
+  public void temporalPredicateTest() {
+    String data = "(a {__val_from : 1546300800000L}) (b {__val_from : \"2020-01-01\"}) (c)";
+    assertEquals(1, matcher("MATCH (v) WHERE v.val_from.after(Timestamp(2019-06-01))", data)
+      .count());
+    assertEquals(2, matcher("MATCH (v) WHERE v.val_from.after(Timestamp(2018-06-01))", data)
+      .count());
+  }
+
+  @Test
+  public void openIntervalTest() {
+    String data = "(a {__val_from: 1000L, __val_to: \"Infinity\"}) " +
+      "(b {__val_from: 1000L, __val_to: 3000L}) (c {__val_from: 1000L})";
+    MutableClock clock = new MutableClock(5000L);
+    GDLHandler query = new GDLHandler.Builder().setClock(clock)
+      .buildFromString("MATCH (v) WHERE v.val_to.after(Timestamp(Now))");
+    GDLMatcher matcher = new GDLMatcher(query, new GDLHandler.Builder().buildFromString(data));
+    // an open end is later than every point in time, a missing end is undefined
+    assertEquals(1, matcher.count());
+    clock.millis = 2000L;
+    assertEquals(2, matcher.count());
+
+    assertEquals(1, matcher("MATCH (v) WHERE v.val_to = Timestamp(Infinity)", data).count());
+    assertEquals(1, matcher("MATCH (v) WHERE v.val_to.before(Timestamp(Infinity))", data)
+      .count());
+    assertEquals(3, matcher("MATCH (v) WHERE v.val_from.after(Timestamp(-Infinity))", data)
+      .count());
+  }
+
+  @Test
+  public void disconnectedPatternTest() {
+    String data = "(a:A)(b:B)(c:B)";
+    assertEquals(2, matcher("MATCH (x:A), (y:B)", data).count());
+  }
+
+  @Test
+  public void iteratorTest() {
+    GDLMatcher matcher = matcher("MATCH (x)-->(y)", "(a)-->(b)-->(c)");
+    Iterator<Embedding> iterator = matcher.iterator();
+    assertTrue(iterator.hasNext());
+    assertTrue(iterator.hasNext());
+    Embedding first = iterator.next();
+    assertTrue(iterator.hasNext());
+    assertNotEquals(first, iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void cursorTest() throws IOException {
+    GDLMatcher matcher = matcher("MATCH (a:Person)-[e:knows]->(b:Person)", socialNetwork());
+    Set<Embedding> expected = new HashSet<>(matcher.match());
+    Set<Embedding> actual = new HashSet<>();
+    try (MatchCursor cursor = matcher.cursor()) {
+      assertEquals(Arrays.asList("a", "b", "e"), cursor.getVariables());
+      int[] row = new int[3];
+      while (cursor.next()) {
+        cursor.copyRow(row);
+        assertEquals(row[cursor.getColumn("a")], cursor.getPosition("a"));
+        assertEquals("Person", cursor.getElement("b").getLabel());
+        actual.add(cursor.toEmbedding());
+      }
+      assertFalse(cursor.next());
+      assertEquals(expected.size(), cursor.getRowCount());
+    }
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void limitTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    // the cartesian product is far too large to enumerate
+    GDLMatcher matcher = matcher("MATCH (a), (b), (c), (d), (e), (f), (g), (h)", data);
+    MatchCursor cursor = matcher.cursor(5);
+    for (int i = 0; i < 5; i++) {
+      assertTrue(cursor.next());
+    }
+    assertFalse(cursor.next());
+    assertEquals(5, cursor.getRowCount());
+    assertEquals(3, matcher.match(3).size());
+    assertEquals(4, matcher.cursor().rows().limit(4).count());
+    assertEquals(2, matcher.cursor(2).rows().count());
+    assertEquals(matcher.iterator().next(), matcher.match(1).get(0));
+
+    cursor = matcher.cursor();
+    assertTrue(cursor.next());
+    cursor.close();
+    assertFalse(cursor.next());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void variableLengthEdgeTest() {
+    matcher("MATCH (a)-[e:knows*1..3]->(b)", "(x)-[:knows]->(y)");
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void unpositionedCursorTest() {
+    matcher("MATCH (x)", "(a)").cursor().getPosition("x");
+  }
+
+  @Test
+  public void explainTest() throws IOException {
+    GDLMatcher matcher = matcher("EXPLAIN MATCH (a:Person)-[e:knows]->(b:Person) " +
+      "WHERE a.age > 30 AND (b.age < 20 OR b.age < 25)", socialNetwork());
+    assertEquals(QueryMode.EXPLAIN, matcher.getQueryMode());
+    String explanation = matcher.explain();
+    assertTrue(explanation, explanation.contains("Predicate:\n  AND\n"));
+    assertTrue(explanation, explanation.contains("    OR\n      b.age < 20\n      b.age < 25\n"));
+    assertTrue(explanation, explanation.contains("\n    e.__label__ = knows\n"));
+    assertTrue(explanation, explanation.contains("Plan:\n0: SCAN_VERTICES"));
+    assertTrue(explanation, explanation.contains(matcher.getPlan().toString()));
+
+    explanation = matcher("MATCH (a) WHERE a.tx_from.after(Timestamp(2020-01-01)) AND " +
+      "a.tx_from.before(Timestamp(2019-06-01))", socialNetwork()).explain();
+    assertTrue(explanation, explanation.contains("unsatisfiable"));
+  }
+
+  @Test
+  public void profileTest() throws IOException {
+    GDLMatcher matcher = matcher("PROFILE MATCH (a:Person)-[e:knows]->(b:Person) " +
+      "WHERE a.age > 30 AND a.city = b.city", socialNetwork());
+    assertEquals(QueryMode.PROFILE, matcher.getQueryMode());
+    QueryProfile profile = matcher.profile();
+    assertEquals(matcher.count(), profile.getRows());
+    MatchPlan plan = profile.getPlan();
+    int steps = plan.getSteps().size();
+    // every candidate that passes a step is expanded by the next one
+    assertEquals(profile.getRows(), profile.getStepCounter(steps - 1).getPasses());
+    for (int i = 0; i < steps; i++) {
+      QueryProfile.Counter counter = profile.getStepCounter(i);
+      assertTrue(counter.getPasses() <= counter.getEvaluations());
+      Predicate[] conjuncts = plan.getSteps().get(i).getConjuncts();
+      long evaluations = counter.getEvaluations();
+      for (int c = 0; c < conjuncts.length; c++) {
+        QueryProfile.Counter conjunct = profile.getConjunctCounter(i, c);
+        assertTrue(conjunct.getEvaluations() <= evaluations);
+        evaluations = conjunct.getPasses();
+      }
+      if (conjuncts.length > 0) {
+        assertEquals(counter.getPasses(), evaluations);
+      }
+    }
+    assertTrue(profile.toString().contains("rows: " + profile.getRows()));
+  }
+
+  @Test
+  public void planTest() {
+    GDLHandler data = new GDLHandler.Builder().buildFromString(
+      "(a:Rare)-[:r]->(b:Common) (b)-[:r]->(c:Common) (c)-[:r]->(d:Common)");
+    GDLMatcher matcher = matcher("MATCH (x:Common)-[e]->(y:Rare)", data);
+    // the rare label is scanned first
+    assertEquals("y", matcher.getQuery().getDictionary().getVariable(matcher.getPlan().getOrder()[0]));
+    assertEquals(MatchPlan.StepType.EXPAND_INCOMING, matcher.getPlan().getSteps().get(1).getType());
+    assertEquals(0, matcher.count());
+  }
+
+  @Test
+  public void parallelTest() throws IOException {
+    GDLHandler data = socialNetwork();
+    String[] queries = {
+      "MATCH (p:Person)",
+      "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c:Person) WHERE a.city = c.city",
+      "MATCH (a)-->(b)<--(c)",
+      "MATCH (a:Person) WHERE 1 = 2"
+    };
+    ForkJoinPool pool = new ForkJoinPool(4);
+    for (String query : queries) {
+      GDLMatcher matcher = matcher(query, data);
+      Set<Embedding> expected = new HashSet<>(matcher.match());
+      List<Embedding> actual = matcher.matchParallel();
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected, new HashSet<>(actual));
+      assertEquals(expected.size(), matcher.countParallel(pool));
+    }
+    pool.shutdown();
+  }
+
+  @Test
+  public void parallelSkewTest() {
+    StringBuilder data = new StringBuilder("(hub:Hub)");
+    int degree = 4 * GDLMatcher.SPLIT_THRESHOLD;
+    for (int i = 0; i < degree; i++) {
+      data.append(", (hub)-[:e]->(:Leaf {i: ").append(i).append("})");
+    }
+    GDLMatcher matcher = matcher("MATCH (h:Hub)-[:e]->(l:Leaf) WHERE l.i >= 0",
+      data.toString());
+    assertEquals(degree, matcher.countParallel());
+    Set<Object> leaves = new HashSet<>();
+    matcher.forEachParallel(e -> {
+      synchronized (leaves) {
+        leaves.add(e.getVertex("l").getProperties().get("i"));
+      }
+    });
+    assertEquals(degree, leaves.size());
+  }
+
+  @Test
+  public void nowTest() {
+    MutableClock clock = new MutableClock(2000L);
+    GDLHandler query = new GDLHandler.Builder().setClock(clock)
+      .buildFromString("MATCH (v) WHERE v.val_from.before(Timestamp(Now))");
+    GDLMatcher matcher = new GDLMatcher(query, new GDLHandler.Builder()
+      .buildFromString("(a {__val_from: 1000L}), (b {__val_from: 5000L}), " +
+        "(c {__val_from: \"now\"})"));
+    assertEquals(1, matcher.count());
+    // the parsed query is reused, Now is resolved when it is evaluated
+    clock.millis = 6000L;
+    assertEquals(2, matcher.count());
+    clock.millis = 0L;
+    assertEquals(0, matcher.count());
+    // "now" is not a valid time value of data elements, it does not bypass the query clock
+    clock.millis = Long.MAX_VALUE;
+    assertEquals(2, matcher.count());
+  }
+
+  @Test
+  public void nowFixedPerSearchTest() {
+    MutableClock clock = new MutableClock(500L);
+    clock.step = 1L;
+    GDLHandler query = new GDLHandler.Builder().setClock(clock)
+      .buildFromString("MATCH (v) WHERE v.val_from.before(Timestamp(Now))");
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      data.append(i > 0 ? ", " : "").append("(v").append(i).append(" {__val_from: ")
+        .append(i * 10).append("L})");
+    }
+    GDLMatcher matcher = new GDLMatcher(query, new GDLHandler.Builder()
+      .buildFromString(data.toString()));
+
+    // the clock advances on every read, all candidates of a search see the same Now
+    clock.millis = 500L;
+    assertEquals(50, matcher.count());
+    assertEquals(1, clock.reads);
+    clock.millis = 500L;
+    assertEquals(50, matcher.match().size());
+    assertEquals(2, clock.reads);
+    clock.millis = 500L;
+    assertEquals(50, matcher.countParallel());
+    assertEquals(3, clock.reads);
+  }
+
+  private static class MutableClock extends Clock {
+
+    private long millis;
+
+    private long step;
+
+    private int reads;
+
+    MutableClock(long millis) {
+      this.millis = millis;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      reads++;
+      Instant instant = Instant.ofEpochMilli(millis);
+      millis += step;
+      return instant;
+    }
+  }
+}
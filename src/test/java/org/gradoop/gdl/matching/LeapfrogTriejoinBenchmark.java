@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.Vertex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Compares {@link GDLMatcher} and {@link LeapfrogTriejoin} on cyclic patterns over scaled copies
+ * of {@code social_network.gdl}. Run with {@code [copies] [crossEdges]} as arguments.
+ */
+public class LeapfrogTriejoinBenchmark {
+
+  private static final String[] QUERIES = {
+    "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c:Person)-[:knows]->(a)",
+    "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(d:Person), " +
+      "(a)-[:knows]->(c:Person)-[:knows]->(d)",
+    "MATCH (a)-->(b)-->(c)-->(a)"
+  };
+
+  /**
+   * Creates {@code copies} disjoint copies of the social network and adds {@code crossEdges}
+   * random knows edges between persons of different copies.
+   */
+  static GraphIndex scaledSocialNetwork(int copies, int crossEdges, long seed) throws IOException {
+    InputStream inputStream =
+      LeapfrogTriejoinBenchmark.class.getResourceAsStream("/social_network.gdl");
+    GDLHandler handler = new GDLHandler.Builder().buildFromStream(inputStream);
+    long offset = 0;
+    for (Vertex vertex : handler.getVertices()) {
+      offset = Math.max(offset, vertex.getId() + 1);
+    }
+    GraphIndex graph = new GraphIndex();
+    for (int copy = 0; copy < copies; copy++) {
+      for (Vertex vertex : handler.getVertices()) {
+        Vertex clone = new Vertex();
+        clone.setId(vertex.getId() + copy * offset);
+        clone.setLabel(vertex.getLabel());
+        clone.setProperties(new HashMap<>(vertex.getProperties()));
+        graph.addVertex(clone);
+      }
+      for (Edge edge : handler.getEdges()) {
+        graph.addEdge(edge(edge.getLabel(), edge.getSourceVertexId() + copy * offset,
+          edge.getTargetVertexId() + copy * offset));
+      }
+    }
+    Random random = new Random(seed);
+    int persons = graph.getVerticesByLabel("Person").size();
+    for (int i = 0; i < crossEdges; i++) {
+      Vertex source = graph.getVertex(
+        graph.getVerticesByLabel("Person").get(random.nextInt(persons)));
+      Vertex target = graph.getVertex(
+        graph.getVerticesByLabel("Person").get(random.nextInt(persons)));
+      graph.addEdge(edge("knows", source.getId(), target.getId()));
+    }
+    return graph;
+  }
+
+  private static Edge edge(String label, long source, long target) {
+    Edge edge = new Edge();
+    edge.setLabel(label);
+    edge.setSourceVertexId(source);
+    edge.setTargetVertexId(target);
+    return edge;
+  }
+
+  public static void main(String[] args) throws IOException {
+    int copies = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int crossEdges = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+    GraphIndex graph = scaledSocialNetwork(copies, crossEdges, 42L);
+    System.out.printf("%d vertices, %d edges%n", graph.getVertexCount(), graph.getEdgeCount());
+
+    for (String queryString : QUERIES) {
+      QueryGraph query = new QueryGraph(new GDLHandler.Builder().buildFromString(queryString));
+      System.out.println(queryString);
+      for (int run = 0; run < 3; run++) {
+        long start = System.nanoTime();
+        long pairwise = new GDLMatcher(query, graph).count();
+        long pairwiseTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        LeapfrogTriejoin join = new LeapfrogTriejoin(query, graph);
+        long leapfrog = join.count();
+        long leapfrogTime = System.nanoTime() - start;
+
+        System.out.printf("  run %d: pairwise %d in %d ms, leapfrog %d in %d ms " +
+            "(%d intermediate results)%n", run, pairwise, pairwiseTime / 1_000_000,
+          leapfrog, leapfrogTime / 1_000_000, join.getIntermediateResults());
+      }
+    }
+  }
+}
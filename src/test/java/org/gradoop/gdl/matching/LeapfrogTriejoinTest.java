@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LeapfrogTriejoinTest {
+
+  private static GDLHandler socialNetwork() throws IOException {
+    InputStream inputStream = LeapfrogTriejoinTest.class.getResourceAsStream("/social_network.gdl");
+    return new GDLHandler.Builder().buildFromStream(inputStream);
+  }
+
+  private static QueryGraph query(String query) {
+    return new QueryGraph(new GDLHandler.Builder().buildFromString(query));
+  }
+
+  private static void assertSameEmbeddings(QueryGraph query, GraphIndex graph,
+    MatchStrategy vertexStrategy, MatchStrategy edgeStrategy) {
+    Set<Embedding> expected = new HashSet<>(new GDLMatcher(query, graph)
+      .setMatchStrategy(vertexStrategy, edgeStrategy).match());
+    Set<Embedding> actual = new HashSet<>(new LeapfrogTriejoin(query, graph)
+      .setMatchStrategy(vertexStrategy, edgeStrategy).match());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void intersectTest() {
+    int[][] arrays = {
+      {1, 3, 4, 7, 9, 12, 20},
+      {0, 3, 7, 8, 12, 20, 21},
+      {3, 5, 7, 12, 13, 14, 15, 16, 17, 20}
+    };
+    int[] result = new int[7];
+    int size = LeapfrogTriejoin.intersect(arrays, 3, new int[3], result);
+    assertArrayEquals(new int[] {3, 7, 12, 20}, Arrays.copyOf(result, size));
+
+    assertEquals(0, LeapfrogTriejoin.intersect(new int[][] {{1, 2}, {}}, 2, new int[2], result));
+    assertEquals(0, LeapfrogTriejoin.intersect(new int[][] {{1, 2}, {3, 4}}, 2, new int[2], result));
+    assertEquals(2, LeapfrogTriejoin.intersect(new int[][] {{5, 6}}, 1, new int[1], result));
+
+    int[] array = {1, 2, 4, 8, 16, 32, 64};
+    assertEquals(0, LeapfrogTriejoin.seek(array, 0, 0));
+    assertEquals(3, LeapfrogTriejoin.seek(array, 0, 5));
+    assertEquals(6, LeapfrogTriejoin.seek(array, 2, 64));
+    assertEquals(7, LeapfrogTriejoin.seek(array, 0, 65));
+  }
+
+  @Test
+  public void socialNetworkTest() throws IOException {
+    GraphIndex graph = GraphIndex.of(socialNetwork());
+    String[] queries = {
+      "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c:Person)-[:knows]->(a)",
+      "MATCH (a)-[e1:knows]->(b)-[e2:knows]->(a)",
+      "MATCH (a:Person)-[e]->(b)<-[f]-(c:Person) WHERE a.city = c.city",
+      "MATCH (f:Forum)-[:hasMember]->(p), (f)-[:hasModerator]->(p)",
+      "MATCH (a)-->(b)-->(c)-->(a), (d:Tag)"
+    };
+    for (String query : queries) {
+      assertSameEmbeddings(query(query), graph,
+        MatchStrategy.HOMOMORPHISM, MatchStrategy.ISOMORPHISM);
+      assertSameEmbeddings(query(query), graph,
+        MatchStrategy.ISOMORPHISM, MatchStrategy.ISOMORPHISM);
+    }
+    assertEquals(2, new LeapfrogTriejoin(
+      query("MATCH (f:Forum)-[:hasMember]->(p), (f)-[:hasModerator]->(p)"), graph).count());
+  }
+
+  @Test
+  public void isCyclicTest() {
+    assertTrue(LeapfrogTriejoin.isCyclic(query("MATCH (a)-->(b)-->(c)-->(a)")));
+    assertTrue(LeapfrogTriejoin.isCyclic(query("MATCH (a)-->(b)-->(d), (a)-->(c)-->(d)")));
+    assertFalse(LeapfrogTriejoin.isCyclic(query("MATCH (a)-->(b)-->(c)")));
+    assertFalse(LeapfrogTriejoin.isCyclic(query("MATCH (a)-[e]->(b)-[f]->(a), (a)-->(a)")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void variableLengthEdgeTest() {
+    new LeapfrogTriejoin(query("MATCH (a)-[e:knows*1..3]->(b)-->(a)"),
+      GraphIndex.of(new GDLHandler.Builder().buildFromString("(x)-[:knows]->(y)-->(x)")));
+  }
+
+  @Test
+  public void agmBoundTest() throws IOException {
+    GraphIndex graph = LeapfrogTriejoinBenchmark.scaledSocialNetwork(20, 400, 42L);
+    QueryGraph triangle = query("MATCH (a)-[:knows]->(b)-[:knows]->(c)-[:knows]->(a)");
+    LeapfrogTriejoin join = new LeapfrogTriejoin(triangle, graph);
+    assertEquals(new GDLMatcher(triangle, graph).count(), join.count());
+
+    // |V| + |E| + |E|^1.5 bounds the partial bindings of the three levels
+    long edges = graph.getEdgesByLabel("knows").size();
+    assertTrue(join.getIntermediateResults() <=
+      graph.getVertexCount() + edges + (long) Math.pow(edges, 1.5));
+  }
+}
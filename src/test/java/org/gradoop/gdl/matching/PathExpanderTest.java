@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PathExpanderTest {
+
+  // a -> b -> c -> d, c -> a and an unlabeled shortcut a -> c
+  private static final String DATA = "(a {name:\"a\"})-[:next]->(b {name:\"b\"})" +
+    "-[:next]->(c {name:\"c\"})-[:next]->(d {name:\"d\"}), (c)-[:next]->(a), (a)-[:jump]->(c)";
+
+  private static GraphIndex graph() {
+    return GraphIndex.of(new GDLHandler.Builder().buildFromString(DATA));
+  }
+
+  private static int position(GraphIndex graph, String name) {
+    for (int i = 0; i < graph.getVertexCount(); i++) {
+      if (name.equals(graph.getVertex(i).getProperties().get("name"))) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  private static Map<String, Integer> reach(GraphIndex graph, PathExpander expander,
+    String source) {
+    Map<String, Integer> lengths = new HashMap<>();
+    expander.reach(position(graph, source), (s, target, length) -> assertNull(
+      lengths.put((String) graph.getVertex(target).getProperties().get("name"), length)));
+    return lengths;
+  }
+
+  @Test
+  public void reachBoundedTest() {
+    GraphIndex graph = graph();
+    Map<String, Integer> lengths = reach(graph,
+      new PathExpander(graph, "next", 1, 2, true), "a");
+    assertEquals(2, lengths.size());
+    assertEquals(1, (int) lengths.get("b"));
+    assertEquals(2, (int) lengths.get("c"));
+
+    lengths = reach(graph, new PathExpander(graph, null, 1, 2, true), "a");
+    assertEquals(4, lengths.size());
+    assertEquals(1, (int) lengths.get("c"));
+    assertEquals(2, (int) lengths.get("d"));
+    assertEquals(2, (int) lengths.get("a"));
+  }
+
+  @Test
+  public void reachLowerBoundTest() {
+    GraphIndex graph = graph();
+    // exactly three hops: a -> b -> c -> {a, d}
+    Map<String, Integer> lengths = reach(graph,
+      new PathExpander(graph, "next", 3, 3, true), "a");
+    assertEquals(2, lengths.size());
+    assertEquals(3, (int) lengths.get("a"));
+    assertEquals(3, (int) lengths.get("d"));
+
+    // zero hops include the source itself
+    lengths = reach(graph, new PathExpander(graph, "next", 0, 1, true), "d");
+    assertEquals(1, lengths.size());
+    assertEquals(0, (int) lengths.get("d"));
+  }
+
+  @Test
+  public void reachUnboundedTest() {
+    GraphIndex graph = graph();
+    Map<String, Integer> lengths = reach(graph,
+      new PathExpander(graph, "next", 1, 0, true), "b");
+    assertEquals(4, lengths.size());
+    assertEquals(3, (int) lengths.get("b"));
+
+    BitSet reachable = new PathExpander(graph, "next", 1, 0, false)
+      .reachable(position(graph, "d"));
+    // d has no outgoing edges, hence it is not reachable from itself
+    assertEquals(3, reachable.cardinality());
+    assertFalse(reachable.get(position(graph, "d")));
+  }
+
+  @Test
+  public void pathsTest() {
+    GraphIndex graph = graph();
+    List<PathExpander.Path> paths = new PathExpander(graph, "next", 2, 0, true)
+      .paths(position(graph, "a"));
+    // a-b-c, a-b-c-d, a-b-c-a; continuing with a-b would repeat an edge
+    assertEquals(3, paths.size());
+    for (PathExpander.Path path : paths) {
+      assertEquals(position(graph, "a"), path.getSource());
+      assertEquals(path.getVertices().length, path.getLength() + 1);
+      assertTrue(path.getLength() >= 2);
+    }
+  }
+
+  @Test
+  public void forEdgeTest() {
+    GraphIndex graph = graph();
+    QueryGraph query = new QueryGraph(
+      new GDLHandler.Builder().buildFromString("MATCH (x)-[e:next*2..3]->(y)"));
+    int edge = query.getDictionary().getId("e");
+    assertTrue(query.isVariableLength(edge));
+    Map<String, Integer> lengths = reach(graph, PathExpander.forEdge(query, edge, graph, true), "a");
+    assertEquals(3, lengths.size());
+    assertEquals(2, (int) lengths.get("c"));
+    assertEquals(3, (int) lengths.get("a"));
+    assertEquals(3, (int) lengths.get("d"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidBoundsTest() {
+    new PathExpander(graph(), null, 3, 2, true);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.GraphElement;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StandingQueryTest {
+
+  private static GDLHandler handler(String script) {
+    return new GDLHandler.Builder().buildFromString(script);
+  }
+
+  private static Set<Map<String, Long>> ids(List<Embedding> embeddings) {
+    Set<Map<String, Long>> result = new HashSet<>();
+    for (Embedding embedding : embeddings) {
+      Map<String, Long> ids = new HashMap<>();
+      for (Map.Entry<String, GraphElement> entry : embedding.toMap().entrySet()) {
+        ids.put(entry.getKey(), entry.getValue().getId());
+      }
+      result.add(ids);
+    }
+    return result;
+  }
+
+  private static void assertCurrent(StandingQuery standing, GDLHandler query, GDLHandler data) {
+    List<Embedding> expected = new GDLMatcher(query, data).match();
+    assertEquals(expected.size(), standing.getCount());
+    assertEquals(expected.size(), standing.getResults().size());
+    assertEquals(ids(expected), ids(standing.getResults()));
+  }
+
+  @Test
+  public void randomAppendTest() {
+    String[] queries = {
+      "MATCH (a:Person)-[:knows]->(b:Person)-[:knows]->(c:Person)",
+      "MATCH (a)-[e]->(b)-[f]->(a)",
+      "MATCH (a:Person)-[:knows]->(b)<-[:knows]-(c) WHERE a.age < c.age",
+      "MATCH (a:Person), (t:Tag)",
+      "MATCH (a)-[e:knows]->(a)"
+    };
+    for (String queryString : queries) {
+      Random random = new Random(queryString.hashCode());
+      GDLHandler data = handler("(v0:Person {age: 30})-[:knows]->(v1:Person {age: 20})");
+      GDLHandler query = handler(queryString);
+      StandingQuery standing = new StandingQuery(query, data);
+      assertCurrent(standing, query, data);
+      int vertices = 2;
+      for (int i = 0; i < 60; i++) {
+        String source = "v" + random.nextInt(vertices);
+        String target;
+        if (random.nextInt(4) == 0) {
+          target = "v" + vertices + (random.nextBoolean() ?
+            ":Person {age: " + random.nextInt(50) + "}" : ":Tag");
+          vertices++;
+        } else {
+          target = "v" + random.nextInt(vertices);
+        }
+        String label = random.nextInt(3) == 0 ? "likes" : "knows";
+        data.append("(" + source + ")-[:" + label + "]->(" + target + ")");
+        assertCurrent(standing, query, data);
+      }
+    }
+  }
+
+  @Test
+  public void listenerTest() {
+    GDLHandler data = handler("(a:A)-[:e]->(b:B)");
+    GDLHandler query = handler("MATCH (x:A)-[:e]->(y:B)");
+    StandingQuery standing =
+      new StandingQuery(query, data, false, MatchStrategy.HOMOMORPHISM, MatchStrategy.ISOMORPHISM);
+    List<Embedding> changes = new ArrayList<>();
+    standing.addListener(changes::add);
+    assertEquals(1, standing.getCount());
+    assertTrue(changes.isEmpty());
+
+    data.append("(a)-[:e]->(c:B), (d:A)-[:e]->(b), (a)-[:f]->(b)");
+    assertEquals(3, standing.getCount());
+    assertEquals(2, changes.size());
+    data.append("(a)");
+    assertEquals(2, changes.size());
+
+    standing.close();
+    data.append("(a)-[:e]->(b)");
+    assertEquals(3, standing.getCount());
+    assertEquals(2, changes.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void notMaterializedTest() {
+    new StandingQuery(handler("MATCH (x)"), handler("(a)"), false,
+      MatchStrategy.HOMOMORPHISM, MatchStrategy.ISOMORPHISM).getResults();
+  }
+
+  @Test
+  public void orderFromTest() {
+    QueryGraph query = new QueryGraph(handler("MATCH (a)-[e]->(b)-[f]->(c), (d)"));
+    int e = query.getDictionary().getId("e");
+    int[] order = StandingQuery.orderFrom(query, e);
+    assertEquals(query.size(), order.length);
+    assertEquals(e, order[0]);
+    // the disconnected vertex comes last
+    assertEquals(query.getDictionary().getId("d"), order[order.length - 1]);
+    MatchPlan plan = new MatchPlan(query, order);
+    for (int i = 1; i < order.length - 1; i++) {
+      assertTrue(plan.getSteps().get(i).getFrom() >= 0);
+    }
+  }
+}
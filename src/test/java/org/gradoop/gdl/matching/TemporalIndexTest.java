@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Edge;
+import org.gradoop.gdl.model.GraphElement;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.utils.TimeProperties;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TemporalIndexTest {
+
+  private static final String GRAPH = "" +
+    "(a:A {__val_from: 10, __val_to: 20, __tx_from: 5})" +
+    "(b:B {__val_from: 15})" +
+    "(c:C {__val_to: 12})" +
+    "(d:D)" +
+    "(a)-[:e1 {__val_from: 10, __val_to: 30}]->(b)" +
+    "(b)-[:e2]->(c)" +
+    "(c)-[:e3 {__val_from: 0, __val_to: 11}]->(d)" +
+    "(d)-[:e4 {__val_from: 25}]->(a)";
+
+  private static Set<String> labels(Collection<? extends GraphElement> elements) {
+    return elements.stream().map(GraphElement::getLabel).collect(Collectors.toSet());
+  }
+
+  private static Set<String> set(String... labels) {
+    return new HashSet<>(Arrays.asList(labels));
+  }
+
+  @Test
+  public void snapshotTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+
+    TemporalView view = handler.snapshot(10);
+    assertEquals(set("A", "C", "D"), labels(view.getVertices()));
+    // e1 ends at a vertex that is not valid yet
+    assertEquals(set("e3"), labels(view.getEdges()));
+    assertEquals(3, view.getVertexCount());
+    assertEquals(1, view.getEdgeCount());
+
+    view = handler.snapshot(16);
+    assertEquals(set("A", "B", "D"), labels(view.getVertices()));
+    assertEquals(set("e1"), labels(view.getEdges()));
+
+    // closed intervals
+    assertEquals(set("A", "B", "D"), labels(handler.snapshot(20).getVertices()));
+    assertEquals(set("B", "D"), labels(handler.snapshot(21).getVertices()));
+
+    view = handler.snapshot(TemporalIndex.Dimension.TX, 0);
+    assertEquals(set("B", "C", "D"), labels(view.getVertices()));
+    assertEquals(set("e2", "e3"), labels(view.getEdges()));
+  }
+
+  @Test
+  public void sliceTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+
+    TemporalView view = handler.slice(11, 16);
+    assertEquals(set("A", "B", "C", "D"), labels(view.getVertices()));
+    assertEquals(set("e1", "e2"), labels(view.getEdges()));
+
+    view = handler.slice(20, 25);
+    assertEquals(set("B", "D"), labels(view.getVertices()));
+    assertTrue(view.getEdges().isEmpty());
+
+    assertEquals(0, handler.slice(10, Long.MIN_VALUE).getVertexCount());
+    assertEquals(0, handler.slice(Long.MAX_VALUE, 10).getVertexCount());
+    assertEquals(4, handler.slice(Long.MIN_VALUE, Long.MAX_VALUE).getVertexCount());
+  }
+
+  @Test
+  public void diffTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+
+    TemporalView.Diff diff = handler.diff(10, 16);
+    assertEquals(set("B"), labels(diff.getAdded().getVertices()));
+    assertEquals(set("e1"), labels(diff.getAdded().getEdges()));
+    assertEquals(set("C"), labels(diff.getRemoved().getVertices()));
+    assertEquals(set("e3"), labels(diff.getRemoved().getEdges()));
+    assertEquals(handler.snapshot(16).getVertexPositions(),
+      diff.getAfter().getVertexPositions());
+
+    diff = handler.diff(16, 16);
+    assertTrue(diff.getAdded().getVertices().isEmpty());
+    assertTrue(diff.getRemoved().getEdges().isEmpty());
+  }
+
+  @Test
+  public void appendTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+    assertEquals(set("B", "D"), labels(handler.snapshot(100).getVertices()));
+
+    handler.append("(f:F {__val_from: 100})");
+    assertEquals(set("B", "D", "F"), labels(handler.snapshot(100).getVertices()));
+    assertEquals(set("A", "C", "D"), labels(handler.snapshot(10).getVertices()));
+  }
+
+  @Test
+  public void openEndedTest() {
+    GDLHandler handler = new GDLHandler.Builder()
+      .setClock(Clock.fixed(Instant.ofEpochMilli(50L), ZoneOffset.UTC))
+      .buildFromString("(a:A {__val_from: 10, __val_to: \"Infinity\"})" +
+        "(b:B {__val_from: 60, __val_to: \"Infinity\"})" +
+        "(c:C {__val_from: \"-Infinity\", __val_to: 40})" +
+        "(d:D {__val_from: 20, __val_to: 100})" +
+        "(a)-[:e1 {__val_from: 30, __val_to: \"Infinity\"}]->(d)");
+
+    assertEquals(set("A", "D"), labels(handler.current().getVertices()));
+    assertEquals(set("e1"), labels(handler.current().getEdges()));
+    assertEquals(set("A", "B"), labels(handler.snapshot(1000).getVertices()));
+    assertEquals(set("A", "C"), labels(handler.snapshot(10).getVertices()));
+    assertEquals(set("C"), labels(handler.snapshot(Long.MIN_VALUE).getVertices()));
+
+    TemporalIndex index = TemporalIndex.of(handler);
+    TemporalView open = index.openEnded(TemporalIndex.Dimension.VAL);
+    assertEquals(set("A", "B"), labels(open.getVertices()));
+    // the target vertex of e1 is closed
+    assertTrue(open.getEdges().isEmpty());
+    // elements without an end value are unbounded, but not open-ended
+    assertEquals(0, index.openEnded(TemporalIndex.Dimension.TX).getVertexCount() +
+      index.openEnded(TemporalIndex.Dimension.TX).getEdgeCount());
+    assertEquals(4, handler.current(TemporalIndex.Dimension.TX).getVertexCount());
+  }
+
+  @Test
+  public void missingEndTest() {
+    GDLHandler handler = new GDLHandler.Builder()
+      .setClock(Clock.fixed(Instant.ofEpochMilli(50L), ZoneOffset.UTC))
+      .buildFromString("(a:A {__val_from: 10, __val_to: \"Infinity\"})" +
+        "(b:B {__val_from: 10})" +
+        "(c:C {__val_from: 60})" +
+        "(d:D)");
+    TemporalIndex index = TemporalIndex.of(handler);
+
+    assertEquals(set("A"), labels(index.openEnded(TemporalIndex.Dimension.VAL).getVertices()));
+    assertEquals(set("A", "B", "D"), labels(handler.current().getVertices()));
+    assertEquals(set("A", "B", "C", "D"), labels(handler.snapshot(1000).getVertices()));
+    assertEquals(set("D"), labels(handler.snapshot(0).getVertices()));
+  }
+
+  @Test
+  public void randomTest() {
+    Random random = new Random(42);
+    GraphIndex graph = new GraphIndex();
+    for (int i = 0; i < 200; i++) {
+      Map<String, Object> properties = new HashMap<>();
+      if (random.nextInt(5) != 0) {
+        properties.put(TimeProperties.VAL_FROM, (long) random.nextInt(100));
+      }
+      if (random.nextInt(5) != 0) {
+        properties.put(TimeProperties.VAL_TO, (long) random.nextInt(100));
+      }
+      Vertex vertex = new Vertex();
+      vertex.setId(i);
+      vertex.setLabel("V");
+      vertex.setProperties(properties);
+      graph.addVertex(vertex);
+    }
+    for (int i = 0; i < 500; i++) {
+      Map<String, Object> properties = new HashMap<>();
+      long from = random.nextInt(100);
+      properties.put(TimeProperties.VAL_FROM, from);
+      properties.put(TimeProperties.VAL_TO, from + random.nextInt(20));
+      Edge edge = new Edge();
+      edge.setId(i);
+      edge.setLabel("E");
+      edge.setSourceVertexId((long) random.nextInt(200));
+      edge.setTargetVertexId((long) random.nextInt(200));
+      edge.setProperties(properties);
+      graph.addEdge(edge);
+    }
+    TemporalIndex index = new TemporalIndex(graph);
+
+    for (int i = 0; i < 100; i++) {
+      long t1 = random.nextInt(110) - 5;
+      long t2 = t1 + random.nextInt(10);
+      TemporalView snapshot = index.snapshot(TemporalIndex.Dimension.VAL, t1);
+      TemporalView slice = index.slice(TemporalIndex.Dimension.VAL, t1, t2);
+      BitSet snapshotVertices = new BitSet();
+      BitSet sliceVertices = new BitSet();
+      for (int v = 0; v < graph.getVertexCount(); v++) {
+        long from = TimeProperties.getTime(graph.getVertex(v),
+          TemporalIndex.Dimension.VAL.getFrom()).orElse(Long.MIN_VALUE);
+        long to = TimeProperties.getTime(graph.getVertex(v),
+          TemporalIndex.Dimension.VAL.getTo()).orElse(Long.MAX_VALUE);
+        snapshotVertices.set(v, from <= t1 && t1 <= to);
+        sliceVertices.set(v, from < t2 && to > t1);
+      }
+      assertEquals(snapshotVertices, snapshot.getVertexPositions());
+      assertEquals(sliceVertices, slice.getVertexPositions());
+
+      BitSet snapshotEdges = new BitSet();
+      for (int e = 0; e < graph.getEdgeCount(); e++) {
+        long from = TimeProperties.getTime(graph.getEdge(e),
+          TemporalIndex.Dimension.VAL.getFrom()).get();
+        long to = TimeProperties.getTime(graph.getEdge(e),
+          TemporalIndex.Dimension.VAL.getTo()).get();
+        snapshotEdges.set(e, from <= t1 && t1 <= to &&
+          snapshotVertices.get(graph.getSource(e)) && snapshotVertices.get(graph.getTarget(e)));
+      }
+      assertEquals(snapshotEdges, snapshot.getEdgePositions());
+    }
+  }
+}
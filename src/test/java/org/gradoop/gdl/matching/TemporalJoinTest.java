@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.matching;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.utils.TimeProperties;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TemporalJoinTest {
+
+  private static QueryGraph query(String query) {
+    return new QueryGraph(new GDLHandler.Builder().buildFromString(query));
+  }
+
+  private static GraphIndex randomEvents(int count, long seed) {
+    Random random = new Random(seed);
+    GraphIndex graph = new GraphIndex();
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> properties = new HashMap<>();
+      // times in seconds
+      long txFrom = random.nextInt(1000) * 1000L;
+      long valFrom = random.nextInt(1000) * 1000L;
+      properties.put(TimeProperties.TX_FROM, txFrom);
+      properties.put(TimeProperties.TX_TO, txFrom + (1 + random.nextInt(50)) * 1000L);
+      properties.put(TimeProperties.VAL_FROM, valFrom);
+      // some elements have no valid time
+      if (i % 10 != 0) {
+        properties.put(TimeProperties.VAL_TO, valFrom + random.nextInt(20) * 1000L);
+      }
+      properties.put("x", random.nextInt(3));
+      Vertex vertex = new Vertex();
+      vertex.setId(i);
+      vertex.setLabel(i % 7 == 0 ? "Other" : "Event");
+      vertex.setProperties(properties);
+      graph.addVertex(vertex);
+    }
+    return graph;
+  }
+
+  private static Set<List<Integer>> nestedLoop(QueryGraph query, GraphIndex graph) {
+    Set<List<Integer>> result = new HashSet<>();
+    for (Embedding embedding : new GDLMatcher(query, graph).match()) {
+      result.add(Arrays.asList(embedding.getPosition(0), embedding.getPosition(1)));
+    }
+    return result;
+  }
+
+  private static Set<List<Integer>> join(TemporalJoin join) {
+    Set<List<Integer>> result = new HashSet<>();
+    List<int[]> pairs = join.pairs();
+    for (int[] pair : pairs) {
+      result.add(Arrays.asList(pair[0], pair[1]));
+    }
+    assertEquals("duplicate pairs", pairs.size(), result.size());
+    return result;
+  }
+
+  private static void assertJoin(String predicate, TemporalJoin.Strategy strategy,
+    GraphIndex graph) {
+    QueryGraph query = query("MATCH (a:Event), (b:Event) WHERE " + predicate);
+    TemporalJoin join = new TemporalJoin(query, graph, "a", "b");
+    assertEquals(predicate, strategy, join.getStrategy());
+    Set<List<Integer>> expected = nestedLoop(query, graph);
+    assertEquals(predicate, expected, join(join));
+    assertEquals(expected.size(), join.count());
+  }
+
+  @Test
+  public void strategyTest() {
+    GraphIndex graph = randomEvents(300, 42L);
+    assertJoin("a.tx.overlaps(b.tx)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.val.overlaps(b.tx)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.contains(b.val)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.val.asOf(b.tx_from)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.fromTo(b.val_from, b.val_to)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.between(b.tx_from, b.val_to)", TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.precedes(b.val)", TemporalJoin.Strategy.RANGE_JOIN, graph);
+    assertJoin("a.val.succeeds(b.tx)", TemporalJoin.Strategy.RANGE_JOIN, graph);
+    assertJoin("a.tx_from.before(b.val_to)", TemporalJoin.Strategy.RANGE_JOIN, graph);
+    assertJoin("a.tx.immediatelyPrecedes(b.tx)", TemporalJoin.Strategy.EQUI_JOIN, graph);
+    assertJoin("a.tx.equals(b.tx)", TemporalJoin.Strategy.EQUI_JOIN, graph);
+    assertJoin("a.x < b.x", TemporalJoin.Strategy.NESTED_LOOP, graph);
+  }
+
+  @Test
+  public void residualAndFilterTest() {
+    GraphIndex graph = randomEvents(200, 7L);
+    assertJoin("a.tx.overlaps(b.val) AND a.x = b.x AND a.x > 0",
+      TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.overlaps(b.tx) AND a.tx_to.before(Timestamp(1970-01-01T00:08:20))",
+      TemporalJoin.Strategy.OVERLAP_SWEEP, graph);
+    assertJoin("a.tx.precedes(b.tx) AND a.tx.overlaps(Interval(Timestamp(1970-01-01), " +
+      "Timestamp(1970-01-01T00:01:40)))", TemporalJoin.Strategy.RANGE_JOIN, graph);
+  }
+
+  @Test
+  public void sweepCandidatesTest() {
+    GraphIndex graph = randomEvents(2000, 3L);
+    QueryGraph query = query("MATCH (a:Event), (b:Event) WHERE a.tx.overlaps(b.tx)");
+    TemporalJoin join = new TemporalJoin(query, graph, "a", "b");
+    long count = join.count();
+    assertTrue(count > 0);
+    // all intervals are proper, so every candidate pair is a result
+    assertEquals(count, join.getCandidatePairs());
+    long events = graph.getVerticesByLabel("Event").size();
+    assertTrue(count < events * events / 4);
+  }
+
+  @Test
+  public void decomposeTest() {
+    QueryGraph query = query("MATCH (a), (b) WHERE a.tx.overlaps(b.val)");
+    List<TemporalJoin.Atom> atoms = new ArrayList<>();
+    assertTrue(TemporalJoin.decompose(query.getConjuncts().getConjuncts("a", "b").get(0),
+      new String[] {"a", "b"}, atoms));
+    // max(a.from, b.from) < min(a.to, b.to)
+    assertEquals(4, atoms.size());
+    assertEquals("[l.TX_FROM < l.TX_TO, l.TX_FROM < r.VAL_TO, r.VAL_FROM < l.TX_TO, " +
+      "r.VAL_FROM < r.VAL_TO]", atoms.toString());
+
+    query = query("MATCH (a), (b) WHERE a.tx_from < b.tx_from OR a.tx_to > b.tx_to");
+    assertFalse(TemporalJoin.decompose(query.getConjuncts().getConjuncts("a", "b").get(0),
+      new String[] {"a", "b"}, atoms));
+  }
+
+  @Test
+  public void sortTest() {
+    long[] keys = {5, 3, 9, 3, 1, 5, 0};
+    int[] order = TemporalJoin.sortedOrder(keys, keys.length);
+    assertArrayEquals(new int[] {6, 4, 1, 3, 0, 5, 2}, order);
+    long[] sorted = {1, 3, 3, 5, 9};
+    assertEquals(1, TemporalJoin.lowerBound(sorted, 3));
+    assertEquals(3, TemporalJoin.upperBound(sorted, 3));
+    assertEquals(5, TemporalJoin.lowerBound(sorted, 10));
+    assertEquals(0, TemporalJoin.upperBound(sorted, 0));
+  }
+}
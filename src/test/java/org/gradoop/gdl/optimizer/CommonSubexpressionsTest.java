@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.comparables.ComparableExpression;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeBinding;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.comparables.time.TimeTerm;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.gradoop.gdl.utils.Comparator.*;
+import static org.junit.Assert.*;
+
+public class CommonSubexpressionsTest {
+
+  @Test
+  public void shareTest() {
+    TimeSelector aFrom = new TimeSelector("a", TimeSelector.TimeField.TX_FROM);
+    TimeSelector bFrom = new TimeSelector("b", TimeSelector.TimeField.TX_FROM);
+    TimeLiteral l1 = new TimeLiteral("2019-01-01");
+    Predicate predicate = new And(
+      new Comparison(new MaxTimePoint(aFrom, bFrom), LT, l1),
+      new Comparison(new TimeLiteral("2019-01-01"), LT, new MaxTimePoint(aFrom, bFrom)));
+
+    Predicate shared = CommonSubexpressions.share(predicate);
+    assertEquals(predicate, shared);
+    List<TimePoint> timePoints = collectTimePoints(shared);
+    assertSame(timePoints.get(0), timePoints.get(3));
+    assertSame(timePoints.get(1), timePoints.get(2));
+  }
+
+  @Test
+  public void shareEqualTermsTest() {
+    TimeSelector aFrom = new TimeSelector("a", TimeSelector.TimeField.TX_FROM);
+    TimeSelector bFrom = new TimeSelector("b", TimeSelector.TimeField.TX_FROM);
+    TimeLiteral l1 = new TimeLiteral("2019-01-01");
+    Predicate predicate = new And(
+      new Comparison(new MaxTimePoint(aFrom, bFrom), LT, new Duration(aFrom, l1)),
+      new Comparison(new Duration(aFrom, new TimeLiteral("2019-01-01")), LT,
+        new MaxTimePoint(bFrom, aFrom)));
+
+    Predicate shared = CommonSubexpressions.share(predicate);
+    assertEquals(predicate, shared);
+    List<TimePoint> timePoints = collectTimePoints(shared);
+    assertSame(timePoints.get(0), timePoints.get(3));
+    assertSame(timePoints.get(1), timePoints.get(2));
+  }
+
+  @Test
+  public void globalSelectorsTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString("MATCH (a)-[e]->(b) " +
+      "WHERE tx_from.before(Timestamp(2020-01-01)) AND tx_from.after(Timestamp(2019-01-01)) " +
+      "AND tx.overlaps(Interval(Timestamp(2019-01-01), Timestamp(2020-01-01))) " +
+      "AND tx_to.after(Timestamp(2019-06-01))");
+
+    List<TimePoint> globalFroms = new ArrayList<>();
+    for (TimePoint timePoint : collectTimePoints(handler.getPredicates().get())) {
+      collectTerms(timePoint, "MAX(e.TX_FROM, a.TX_FROM, b.TX_FROM)", globalFroms);
+    }
+    for (TimePoint globalFrom : globalFroms) {
+      assertSame(globalFroms.get(0), globalFrom);
+    }
+    assertTrue(globalFroms.size() > 1);
+  }
+
+  @Test
+  public void evaluateOncePerBindingTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString("MATCH (a)-[e]->(b) " +
+      "WHERE tx_from.before(Timestamp(2020-01-01)) AND tx_from.after(Timestamp(2019-01-01)) " +
+      "AND tx.overlaps(Interval(Timestamp(2019-01-01), Timestamp(2020-01-01)))");
+    List<TimePoint> timePoints = collectTimePoints(handler.getPredicates().get());
+
+    CountingBinding binding = new CountingBinding();
+    for (TimePoint timePoint : timePoints) {
+      timePoint.evaluate(binding);
+    }
+    // each time field of each variable is looked up once
+    assertEquals(6, binding.lookups);
+    assertEquals(Optional.of(302L),
+      new MaxTimePoint(new TimeSelector("a", TimeSelector.TimeField.TX_FROM),
+        new TimeSelector("b", TimeSelector.TimeField.TX_FROM)).evaluate(binding));
+
+    binding.invalidate();
+    binding.lookups = 0;
+    for (TimePoint timePoint : timePoints) {
+      timePoint.evaluate(binding);
+    }
+    assertEquals(6, binding.lookups);
+  }
+
+  @Test
+  public void evaluateIntervalRelationsOncePerBindingTest() {
+    GDLHandler handler = new GDLHandler.Builder().enableIntervalRelations()
+      .buildFromString("MATCH (a)-[e]->(b) " +
+        "WHERE tx_from.before(Timestamp(2020-01-01)) AND tx_from.after(Timestamp(2019-01-01)) " +
+        "AND tx.overlaps(Interval(Timestamp(2019-01-01), Timestamp(2020-01-01))) " +
+        "AND val.overlaps(tx)");
+    Predicate predicate = handler.getPredicates().get();
+    List<IntervalRelation> relations = collectRelations(predicate);
+    assertEquals(2, relations.size());
+
+    CountingBinding binding = new CountingBinding();
+    for (TimePoint timePoint : collectTimePoints(predicate)) {
+      timePoint.evaluate(binding);
+    }
+    for (IntervalRelation relation : relations) {
+      relation.evaluate(binding);
+    }
+    // each time field of each variable is looked up once
+    assertEquals(12, binding.lookups);
+  }
+
+  private List<IntervalRelation> collectRelations(Predicate predicate) {
+    List<IntervalRelation> relations = new ArrayList<>();
+    if (predicate instanceof IntervalRelation) {
+      relations.add((IntervalRelation) predicate);
+    }
+    for (Predicate argument : predicate.getArguments()) {
+      relations.addAll(collectRelations(argument));
+    }
+    return relations;
+  }
+
+  private List<TimePoint> collectTimePoints(Predicate predicate) {
+    List<TimePoint> timePoints = new ArrayList<>();
+    if (predicate instanceof Comparison) {
+      for (ComparableExpression expression : ((Comparison) predicate).getComparableExpressions()) {
+        if (expression instanceof TimePoint) {
+          timePoints.add((TimePoint) expression);
+        }
+      }
+    }
+    for (Predicate argument : predicate.getArguments()) {
+      timePoints.addAll(collectTimePoints(argument));
+    }
+    return timePoints;
+  }
+
+  private void collectTerms(TimePoint timePoint, String term, List<TimePoint> terms) {
+    if (timePoint.toString().equals(term)) {
+      terms.add(timePoint);
+    } else if (timePoint instanceof TimeTerm) {
+      for (TimePoint arg : ((TimeTerm) timePoint).getArgs()) {
+        collectTerms(arg, term, terms);
+      }
+    }
+  }
+
+  /**
+   * Assigns {@code 100 * (position of the variable + 1) + field ordinal} and counts the lookups
+   */
+  private static class CountingBinding extends TimeBinding {
+
+    private int lookups = 0;
+
+    @Override
+    public Optional<Long> getTime(String variable, TimeSelector.TimeField field) {
+      lookups++;
+      return Optional.of(100L * "aeb".indexOf(variable) + field.ordinal() + 100L);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.VariableDictionary;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PredicateDecomposerTest {
+
+  @Test
+  public void decomposeTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(
+      "MATCH (a:Person)-[e:knows]->(b:Person)-[f]->(c) " +
+        "WHERE a.age > 20 AND b.name = \"Bob\" AND a.age < b.age AND " +
+        "(a.city = b.city OR b.city = c.city) AND e.since > 2010");
+
+    PredicateDecomposer.Decomposition decomposition =
+      new PredicateDecomposer().decompose(handler.getPredicates());
+
+    assertEquals(Arrays.asList(
+      new Comparison(new PropertySelector("a", "age"), Comparator.GT, new Literal(20)),
+      new Comparison(new PropertySelector("a", "__label__"), Comparator.EQ, new Literal("Person"))),
+      decomposition.getConjuncts("a"));
+    assertEquals(2, decomposition.getConjuncts("b").size());
+    assertEquals(2, decomposition.getConjuncts("e").size());
+    assertEquals(1, decomposition.getConjuncts("a", "b").size());
+    assertEquals(1, decomposition.getConjuncts("b", "a").size());
+    assertTrue(decomposition.getConjuncts("c").isEmpty());
+    assertTrue(decomposition.getConstantConjuncts().isEmpty());
+
+    assertEquals(3, decomposition.getSingleVariableConjuncts().size());
+    assertEquals(1, decomposition.getTwoVariableConjuncts().size());
+    assertEquals(1, decomposition.getMultiVariableConjuncts().size());
+    assertEquals(8, decomposition.size());
+  }
+
+  @Test
+  public void newlyApplicableConjunctsTest() {
+    VariableDictionary dictionary = new VariableDictionary(Arrays.asList("a", "b"));
+    Predicate aFilter = new Comparison(new PropertySelector("a", "x"), Comparator.EQ, new Literal(1));
+    Predicate bFilter = new Comparison(new PropertySelector("b", "x"), Comparator.EQ, new Literal(1));
+    Predicate join = new Comparison(new PropertySelector("a", "x"), Comparator.LT,
+      new PropertySelector("b", "y"));
+
+    PredicateDecomposer.Decomposition decomposition = new PredicateDecomposer(dictionary)
+      .decompose(Optional.of(new And(new And(aFilter, join), bFilter)));
+
+    BitSet bound = new BitSet();
+    bound.set(dictionary.getId("b"));
+    assertEquals(Arrays.asList(bFilter), decomposition.getNewlyApplicableConjuncts(bound, 1));
+    bound.set(dictionary.getId("a"));
+    List<Predicate> applicable = decomposition.getNewlyApplicableConjuncts(bound, 0);
+    assertEquals(2, applicable.size());
+    assertTrue(applicable.contains(aFilter));
+    assertTrue(applicable.contains(join));
+
+    assertTrue(new PredicateDecomposer().decompose(Optional.empty()).getConjunctsByVariables()
+      .isEmpty());
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.exceptions.UnsatisfiablePredicateException;
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.comparables.time.Duration;
+import org.gradoop.gdl.model.comparables.time.MaxTimePoint;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.booleans.And;
+import org.gradoop.gdl.model.predicates.booleans.Not;
+import org.gradoop.gdl.model.predicates.booleans.Or;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.gradoop.gdl.utils.Comparator.*;
+import static org.junit.Assert.*;
+
+public class PredicateOptimizerTest {
+
+  private final TimeSelector aTxFrom = new TimeSelector("a", TimeSelector.TimeField.TX_FROM);
+  private final TimeSelector aTxTo = new TimeSelector("a", TimeSelector.TimeField.TX_TO);
+  private final TimeLiteral l1 = new TimeLiteral("2019-01-01");
+  private final TimeLiteral l2 = new TimeLiteral("2020-01-01");
+  private final Comparison nameEq = new Comparison(
+    new PropertySelector("a", "name"), EQ, new Literal("Alice"));
+
+  @Test
+  public void foldConstantComparisonTest() {
+    Predicate predicate = new And(new Comparison(l1, LT, l2), nameEq);
+    assertEquals(Optional.of(nameEq), PredicateOptimizer.optimize(predicate));
+
+    predicate = new Or(new Comparison(new Literal(1), GT, new Literal(2L)), nameEq);
+    assertEquals(Optional.of(nameEq), PredicateOptimizer.optimize(predicate));
+
+    predicate = new Or(new Comparison(new Literal("a"), LT, new Literal("b")), nameEq);
+    assertFalse(PredicateOptimizer.optimize(predicate).isPresent());
+  }
+
+  @Test
+  public void foldTimeTermsTest() {
+    Comparison comparison = new Comparison(aTxFrom, GT, new MaxTimePoint(l1, l2));
+    assertEquals(Optional.of(new Comparison(aTxFrom, GT, l2)),
+      PredicateOptimizer.optimize(comparison));
+
+    comparison = new Comparison(new MaxTimePoint(aTxFrom, l1, l2, aTxFrom), GT, aTxTo);
+    assertEquals(Optional.of(new Comparison(new MaxTimePoint(aTxFrom, l2), GT, aTxTo)),
+      PredicateOptimizer.optimize(comparison));
+
+    // Duration(2019-01-01, 2020-01-01) = 365 days
+    comparison = new Comparison(new Duration(l1, l2), GT, new TimeConstant(364, 0, 0, 0, 0));
+    assertEquals(Optional.of(nameEq), PredicateOptimizer.optimize(new And(comparison, nameEq)));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(
+      new Comparison(new Duration(l1, l2), GT, new TimeConstant(365, 0, 0, 0, 0))));
+
+    // folding saturates like the evaluation of a duration
+    TimeLiteral open = new TimeLiteral(TimeLiteral.OPEN_END);
+    assertEquals(Optional.of(new Comparison(new TimeConstant(Long.MAX_VALUE), GT, aTxFrom)),
+      PredicateOptimizer.optimize(new Comparison(new Duration(l1, open), GT, aTxFrom)));
+    assertEquals(Optional.of(new Comparison(new TimeConstant(Long.MIN_VALUE), LT, aTxFrom)),
+      PredicateOptimizer.optimize(new Comparison(
+        new Duration(new TimeLiteral(Long.MAX_VALUE - 1), new TimeLiteral(-2)), LT, aTxFrom)));
+  }
+
+  @Test
+  public void removeDuplicatesTest() {
+    Comparison txOrder = new Comparison(aTxFrom, LTE, aTxTo);
+    Predicate predicate = new And(new And(txOrder, nameEq), new And(txOrder.switchSides(), txOrder));
+    assertEquals(Optional.of(new And(txOrder, nameEq)), PredicateOptimizer.optimize(predicate));
+
+    // a < b implies a <= b
+    predicate = new And(txOrder, new Comparison(aTxTo, GT, aTxFrom));
+    assertEquals(Optional.of(new Comparison(aTxTo, GT, aTxFrom)),
+      PredicateOptimizer.optimize(predicate));
+  }
+
+  @Test
+  public void tightestBoundsTest() {
+    Predicate predicate = new And(
+      new And(new Comparison(aTxFrom, GT, l1), new Comparison(l2, LT, aTxFrom)),
+      new Comparison(aTxFrom, GTE, l2));
+    assertEquals(Optional.of(new Comparison(l2, LT, aTxFrom)), PredicateOptimizer.optimize(predicate));
+
+    predicate = new And(new Comparison(aTxFrom, LT, l1), new Comparison(aTxFrom, NEQ, l2));
+    assertEquals(Optional.of(new Comparison(aTxFrom, LT, l1)), PredicateOptimizer.optimize(predicate));
+  }
+
+  @Test
+  public void contradictionTest() {
+    assertTrue(PredicateOptimizer.isUnsatisfiable(
+      new And(new Comparison(aTxFrom, GT, l2), new Comparison(aTxFrom, LT, l1))));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(
+      new And(new Comparison(aTxFrom, GT, l1), new Comparison(aTxFrom, LTE, l1))));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(
+      new And(new Comparison(aTxFrom, EQ, l1), new Comparison(aTxFrom, NEQ, l1))));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(
+      new And(new Comparison(aTxFrom, LT, aTxTo), new Comparison(aTxTo, LT, aTxFrom))));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(new Comparison(aTxFrom, NEQ, aTxFrom)));
+    assertTrue(PredicateOptimizer.isUnsatisfiable(new And(nameEq, new Not(new Not(
+      new Comparison(new Literal(1), EQ, new Literal(2)))))));
+    assertFalse(PredicateOptimizer.isUnsatisfiable(
+      new And(new Comparison(aTxFrom, GTE, l1), new Comparison(aTxFrom, LTE, l1))));
+  }
+
+  @Test(expected = UnsatisfiablePredicateException.class)
+  public void unsatisfiableQueryTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString("MATCH (a)-[e]->(b) " +
+      "WHERE a.tx_from.after(Timestamp(2020-01-01)) AND " +
+      "a.tx_from.before(Timestamp(2019-06-01))");
+    PredicateOptimizer.optimize(handler.getPredicates().get());
+  }
+
+  @Test
+  public void globalConstraintsTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString("MATCH (a)-[e]->(b) " +
+      "WHERE tx.overlaps(Interval(Timestamp(2019-01-01), Timestamp(2020-01-01))) " +
+      "AND tx_from.before(Timestamp(2020-01-01))");
+    Predicate predicate = handler.getPredicates().get();
+    Predicate optimized = PredicateOptimizer.optimize(predicate).get();
+    assertTrue(countComparisons(optimized) < countComparisons(predicate));
+    // optimizing is idempotent
+    assertEquals(optimized, PredicateOptimizer.optimize(optimized).get());
+  }
+
+  private int countComparisons(Predicate predicate) {
+    if (predicate instanceof Comparison) {
+      return 1;
+    }
+    int count = 0;
+    for (Predicate argument : predicate.getArguments()) {
+      count += countComparisons(argument);
+    }
+    return count;
+  }
+}
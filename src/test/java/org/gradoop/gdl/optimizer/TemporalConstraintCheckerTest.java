@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.matching.GDLMatcher;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.model.comparables.time.TimeSelector.TimeField;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor.Range;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.*;
+
+public class TemporalConstraintCheckerTest {
+
+  private static final long T1 = new TimeLiteral("2019-06-01").getMilliseconds();
+  private static final long T2 = new TimeLiteral("2020-01-01").getMilliseconds();
+  private static final long DAY = 86_400_000L;
+
+  private static TemporalConstraintChecker.Solution check(String where) {
+    return TemporalConstraintChecker.check(new GDLHandler.Builder()
+      .buildFromString("MATCH (a)-[e]->(b) WHERE " + where).getPredicates());
+  }
+
+  @Test
+  public void cycleTest() {
+    assertFalse(check("a.tx_from < e.tx_from AND e.tx_from < b.tx_from AND " +
+      "b.tx_from < a.tx_from").isSatisfiable());
+    assertFalse(check("a.tx_from < e.tx_from AND e.tx_from <= b.tx_from AND " +
+      "b.tx_from = a.tx_from").isSatisfiable());
+    assertTrue(check("a.tx_from <= e.tx_from AND e.tx_from <= b.tx_from AND " +
+      "b.tx_from = a.tx_from").isSatisfiable());
+    // disjunctions are not considered
+    assertTrue(check("a.tx_from < b.tx_from AND " +
+      "(b.tx_from < a.tx_from OR a.name = \"Alice\")").isSatisfiable());
+  }
+
+  @Test
+  public void impliedBoundsTest() {
+    TemporalConstraintChecker.Solution solution = check("a.val_from < b.val_from AND " +
+      "b.val_from < Timestamp(2020-01-01) AND a.val_from >= Timestamp(2019-06-01)");
+    assertTrue(solution.isSatisfiable());
+    assertEquals(new Range(T1, T2 - 2), solution.getRanges().getRange("a", TimeField.VAL_FROM));
+    assertEquals(new Range(T1 + 1, T2 - 1),
+      solution.getRanges().getRange("b", TimeField.VAL_FROM));
+
+    TimeSelector aFrom = new TimeSelector("a", TimeField.VAL_FROM);
+    TimeSelector bFrom = new TimeSelector("b", TimeField.VAL_FROM);
+    assertEquals(OptionalLong.of(-1), solution.getMaxDifference(aFrom, bFrom));
+    assertEquals(OptionalLong.of(T2 - 1 - T1), solution.getMaxDifference(bFrom, aFrom));
+    assertFalse(solution.getMaxDifference(aFrom, new TimeSelector("e", TimeField.TX_TO))
+      .isPresent());
+
+    assertFalse(check("a.val_from < b.val_from AND b.val_from < Timestamp(2019-06-01) AND " +
+      "a.val_from >= Timestamp(2019-06-01)").isSatisfiable());
+  }
+
+  @Test
+  public void durationTest() {
+    TemporalConstraintChecker.Solution solution = check("a.val.lengthAtLeast(Days(10)) AND " +
+      "a.val_to < Timestamp(2020-01-01)");
+    assertTrue(solution.isSatisfiable());
+    assertEquals(T2 - 1 - 10 * DAY,
+      solution.getRanges().getRange("a", TimeField.VAL_FROM).getUpper());
+
+    assertFalse(check("a.val.lengthAtLeast(Days(10)) AND a.val_from >= Timestamp(2019-12-25) " +
+      "AND a.val_to < Timestamp(2020-01-01)").isSatisfiable());
+    assertFalse(check("a.val.shorterThan(Days(1)) AND a.val_from < Timestamp(2019-06-01) " +
+      "AND a.val_to > Timestamp(2020-01-01)").isSatisfiable());
+  }
+
+  @Test
+  public void openBoundTest() {
+    assertFalse(check("a.tx_from < Timestamp(-Infinity)").isSatisfiable());
+    assertFalse(check("a.tx_to > Timestamp(Infinity)").isSatisfiable());
+    TemporalConstraintChecker.Solution solution = check("a.tx_to <= Timestamp(Infinity) AND " +
+      "a.tx_from < a.tx_to AND a.tx_from > Timestamp(-Infinity)");
+    assertTrue(solution.isSatisfiable());
+    assertEquals(new Range(Long.MIN_VALUE + 1, Long.MAX_VALUE),
+      solution.getRanges().getRange("a", TimeField.TX_FROM));
+    assertTrue(check("a.tx_to = Timestamp(Infinity) AND b.tx_from = Timestamp(-Infinity) AND " +
+      "b.tx_from < a.tx_to").isSatisfiable());
+
+    assertTrue(TemporalConstraintChecker.check(Optional.empty()).isSatisfiable());
+    assertTrue(TemporalConstraintChecker.check(Optional.empty()).getSelectors().isEmpty());
+  }
+
+  @Test
+  public void optimizerAndMatcherTest() {
+    String query = "MATCH (a)-[e]->(b) WHERE a.tx_from < b.tx_from AND " +
+      "b.tx_from < e.tx_from AND e.tx_from < a.tx_from";
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(query);
+    assertTrue(PredicateOptimizer.isUnsatisfiable(handler.getPredicates().get()));
+
+    GDLHandler data = new GDLHandler.Builder().buildFromString(
+      "(x {__tx_from: 1})-[{__tx_from: 2}]->(y {__tx_from: 3})");
+    GDLMatcher matcher = new GDLMatcher(handler, data);
+    assertFalse(matcher.getQuery().getTimeRanges().isSatisfiable());
+    assertEquals(0, matcher.count());
+    assertTrue(matcher.explain().contains("unsatisfiable"));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.optimizer;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.matching.QueryGraph;
+import org.gradoop.gdl.model.comparables.time.TimeLiteral;
+import org.gradoop.gdl.model.comparables.time.TimeSelector.TimeField;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor.Range;
+import org.gradoop.gdl.optimizer.TimeRangeExtractor.TimeRanges;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class TimeRangeExtractorTest {
+
+  private static final long T1 = new TimeLiteral("2019-06-01").getMilliseconds();
+  private static final long T2 = new TimeLiteral("2020-01-01").getMilliseconds();
+
+  private static TimeRanges extract(String where, boolean intervalRelations) {
+    GDLHandler.Builder builder = new GDLHandler.Builder();
+    if (intervalRelations) {
+      builder.enableIntervalRelations();
+    }
+    return TimeRangeExtractor.extract(
+      builder.buildFromString("MATCH (a)-[e]->(b) WHERE " + where).getPredicates());
+  }
+
+  @Test
+  public void selectorBoundsTest() {
+    TimeRanges ranges = extract("a.tx_from <= Timestamp(2020-01-01) AND " +
+      "a.tx_to >= Timestamp(2019-06-01) AND a.tx_from > Timestamp(2019-06-01) AND " +
+      "Timestamp(2019-06-01) = b.val_from", false);
+    assertEquals(new Range(T1 + 1, T2), ranges.getRange("a", TimeField.TX_FROM));
+    assertEquals(new Range(T1, Long.MAX_VALUE), ranges.getRange("a", TimeField.TX_TO));
+    assertEquals(new Range(T1, T1), ranges.getRange("b", TimeField.VAL_FROM));
+    assertEquals(Range.UNBOUNDED, ranges.getRange("b", TimeField.VAL_TO));
+    assertFalse(ranges.getVariables().contains("e"));
+    assertTrue(ranges.isSatisfiable());
+    assertTrue(ranges.accepts("a", TimeField.TX_FROM, Optional.of(T2)));
+    assertFalse(ranges.accepts("a", TimeField.TX_FROM, Optional.of(T1)));
+    assertFalse(ranges.accepts("a", TimeField.TX_FROM, Optional.empty()));
+    assertTrue(ranges.accepts("a", TimeField.VAL_FROM, Optional.empty()));
+  }
+
+  @Test
+  public void intervalFunctionTest() {
+    String where = "a.tx.overlaps(Interval(Timestamp(2019-06-01), Timestamp(2020-01-01))) " +
+      "AND e.val.asOf(Timestamp(2020-01-01))";
+    for (boolean intervalRelations : new boolean[] {false, true}) {
+      TimeRanges ranges = extract(where, intervalRelations);
+      // MAX(a.tx_from, t1) < MIN(a.tx_to, t2)
+      assertEquals(new Range(Long.MIN_VALUE, T2 - 1), ranges.getRange("a", TimeField.TX_FROM));
+      assertEquals(new Range(T1 + 1, Long.MAX_VALUE), ranges.getRange("a", TimeField.TX_TO));
+      assertEquals(new Range(Long.MIN_VALUE, T2), ranges.getRange("e", TimeField.VAL_FROM));
+      assertEquals(new Range(T2, Long.MAX_VALUE), ranges.getRange("e", TimeField.VAL_TO));
+    }
+  }
+
+  @Test
+  public void globalTest() {
+    // global tx_from is MAX over all variables, an upper bound applies to all of them
+    TimeRanges ranges = extract("tx_from.before(Timestamp(2020-01-01))", false);
+    for (String variable : new String[] {"a", "e", "b"}) {
+      assertEquals(new Range(Long.MIN_VALUE, T2 - 1),
+        ranges.getRange(variable, TimeField.TX_FROM));
+    }
+    // a lower bound of a MAX term does not bound its arguments
+    assertTrue(extract("tx_from.after(Timestamp(2020-01-01))", false).getVariables().isEmpty());
+  }
+
+  @Test
+  public void nonConjunctiveTest() {
+    assertTrue(extract("a.tx_from < Timestamp(2020-01-01) OR a.tx_to > Timestamp(2019-06-01)",
+      false).getVariables().isEmpty());
+    assertTrue(extract("NOT a.tx_from < Timestamp(2020-01-01)", false).getVariables().isEmpty());
+    assertTrue(extract("a.tx_from < b.tx_from", false).getVariables().isEmpty());
+    assertTrue(extract("a.tx_from < Timestamp(Now)", false).getVariables().isEmpty());
+    assertTrue(TimeRangeExtractor.extract(Optional.empty()).isSatisfiable());
+  }
+
+  @Test
+  public void unsatisfiableTest() {
+    assertFalse(extract("a.tx_from < Timestamp(2019-06-01) AND a.tx_from > Timestamp(2020-01-01)",
+      false).isSatisfiable());
+  }
+
+  @Test
+  public void queryGraphTest() {
+    QueryGraph graph = new QueryGraph(new GDLHandler.Builder()
+      .buildFromString("MATCH (a)-[e]->(b) WHERE a.val_to < Timestamp(2020-01-01)"));
+    assertEquals(new Range(Long.MIN_VALUE, T2 - 1),
+      graph.getTimeRanges().getRange("a", TimeField.VAL_TO));
+    assertSame(graph.getTimeRanges(), graph.getTimeRanges());
+  }
+}
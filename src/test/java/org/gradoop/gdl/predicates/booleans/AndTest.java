@@ -12,6 +12,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class AndTest{
   @Test
@@ -37,4 +39,30 @@ public class AndTest{
     assertEquals(reference,and.getVariables());
   }
 
+  @Test
+  public void variablesAreNotSharedMutableStateTest() {
+    Comparison a = new Comparison(
+            new PropertySelector("a","age"),
+            Comparator.GT,
+            new Literal(20)
+    );
+
+    Comparison b = new Comparison(
+            new PropertySelector("b","age"),
+            Comparator.GT,
+            new Literal(20)
+    );
+
+    And and = new And(a,b);
+
+    assertEquals(2, and.getVariables().size());
+    assertEquals(1, a.getVariables().size());
+    assertSame(and.getVariables(), and.getVariables());
+    try {
+      and.getVariables().add("c");
+      fail();
+    } catch (UnsupportedOperationException e) {
+      assertEquals(2, and.getVariables().size());
+    }
+  }
 }
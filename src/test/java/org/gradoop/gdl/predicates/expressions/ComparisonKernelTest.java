@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.predicates.expressions;
+
+import org.gradoop.gdl.model.comparables.Literal;
+import org.gradoop.gdl.model.comparables.PropertySelector;
+import org.gradoop.gdl.model.comparables.ValueType;
+import org.gradoop.gdl.model.predicates.expressions.Comparison;
+import org.gradoop.gdl.model.predicates.expressions.ComparisonKernel;
+import org.gradoop.gdl.utils.Comparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.gradoop.gdl.utils.Comparator.*;
+import static org.junit.Assert.*;
+
+public class ComparisonKernelTest {
+
+  private static boolean compare(Object lhs, Comparator comparator, Object rhs) {
+    return new Comparison(new Literal(lhs), comparator, new Literal(rhs)).getKernel()
+      .compare(lhs, rhs);
+  }
+
+  @Test
+  public void valueTypeTest() {
+    assertEquals(ValueType.INTEGRAL, new Literal(1).getValueType());
+    assertEquals(ValueType.INTEGRAL, new Literal(1L).getValueType());
+    assertEquals(ValueType.FLOATING_POINT, new Literal(1.0f).getValueType());
+    assertEquals(ValueType.STRING, new Literal("a").getValueType());
+    assertEquals(ValueType.BOOLEAN, new Literal(true).getValueType());
+    assertEquals(ValueType.LIST, new Literal(Arrays.asList(1, 2)).getValueType());
+    assertEquals(ValueType.NULL, new Literal(null).getValueType());
+  }
+
+  @Test
+  public void integralTest() {
+    assertTrue(compare(1, LT, 2L));
+    assertTrue(compare(3L, EQ, 3));
+    // not distinguishable as doubles
+    assertTrue(compare(Long.MAX_VALUE - 1, LT, Long.MAX_VALUE));
+    assertFalse(compare(Long.MAX_VALUE - 1, EQ, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void numericPromotionTest() {
+    assertTrue(compare(1, LT, 1.5));
+    assertTrue(compare(2.0, EQ, 2L));
+    assertTrue(compare(0.5f, EQ, 0.5d));
+    assertEquals(0.1f == 0.1d, compare(0.1f, EQ, 0.1d));
+  }
+
+  @Test
+  public void nanTest() {
+    for (Comparator comparator : Comparator.values()) {
+      assertEquals(comparator == NEQ, compare(Double.NaN, comparator, Double.NaN));
+      assertEquals(comparator == NEQ, compare(Double.NaN, comparator, 1));
+    }
+  }
+
+  @Test
+  public void nullTest() {
+    assertTrue(compare(null, EQ, null));
+    assertFalse(compare(null, EQ, 1));
+    assertTrue(compare("a", NEQ, null));
+    assertFalse(compare(null, LTE, null));
+    assertFalse(compare(1, GT, null));
+  }
+
+  @Test
+  public void nonNumericTest() {
+    assertTrue(compare("Alice", LT, "Bob"));
+    assertTrue(compare(false, LT, true));
+    assertTrue(compare(Arrays.asList(1, 2), EQ, Arrays.asList(1, 2)));
+    assertFalse(compare(Arrays.asList(1, 2), LT, Arrays.asList(1, 3)));
+    assertFalse(compare("1", EQ, 1));
+    assertTrue(compare("1", NEQ, 1));
+    assertFalse(compare("1", LT, 2));
+  }
+
+  @Test
+  public void dynamicTypeTest() {
+    // the kernel is selected by the literal, property values are checked at evaluation
+    Comparison comparison = new Comparison(new PropertySelector("a", "age"), GT, new Literal(20));
+    ComparisonKernel kernel = comparison.getKernel();
+    assertSame(kernel, comparison.getKernel());
+    assertTrue(kernel.compare(21, 20));
+    assertTrue(kernel.compare(20.5, 20));
+    assertFalse(kernel.compare("21", 20));
+    assertFalse(kernel.compare(null, 20));
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.predicates.expressions;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.matching.GDLMatcher;
+import org.gradoop.gdl.model.comparables.time.IntervalExpression;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.model.predicates.Predicate;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation;
+import org.gradoop.gdl.model.predicates.expressions.IntervalRelation.Relation;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntervalRelationTest {
+
+  private static final String[] FUNCTIONS = {
+    "a.val.overlaps(b.val)",
+    "a.val.fromTo(b.val_from, b.val_to)",
+    "a.val.between(b.val_from, b.val_to)",
+    "a.val.precedes(b.val)",
+    "a.val.succeeds(b.val)",
+    "a.val.immediatelyPrecedes(b.val)",
+    "a.val.immediatelySucceeds(b.val)",
+    "a.val.contains(b.val)",
+    "a.val.contains(b.val_from)",
+    "a.val.equals(b.val)",
+    "a.val.longerThan(b.val)",
+    "a.val.shorterThan(Seconds(3))",
+    "a.val.lengthAtLeast(b.val)",
+    "a.val.lengthAtMost(Seconds(4))",
+    "a.val.asOf(b.val_from)",
+    "a.val.precedes(Interval(b.val_from, Timestamp(1970-01-01T00:00:07)))",
+    "a.val.merge(b.val).overlaps(Interval(Timestamp(1970-01-01T00:00:04), " +
+      "Timestamp(1970-01-01T00:00:05)))",
+    "a.val.join(b.val).longerThan(Seconds(6))",
+    "val.lengthAtLeast(Seconds(1))"
+  };
+
+  private static final String DATA =
+    "(v0 {__val_from: 1000L, __val_to: 5000L}), (v1 {__val_from: 3000L, __val_to: 8000L}), " +
+    "(v2 {__val_from: 5000L, __val_to: 6000L}), (v3 {__val_from: 9000L, __val_to: 9000L}), " +
+    "(v4 {__val_from: 2000L}), (v5 {__val_from: 8000L, __val_to: 7000L}), " +
+    "(v0)-->(v1), (v0)-->(v2), (v0)-->(v3), (v0)-->(v4), (v1)-->(v0), (v1)-->(v2), " +
+    "(v2)-->(v0), (v2)-->(v1), (v2)-->(v3), (v3)-->(v1), (v4)-->(v0), (v4)-->(v2), " +
+    "(v5)-->(v1), (v1)-->(v5), (v0)-->(v0)";
+
+  private static GDLHandler query(String where, boolean intervalRelations) {
+    GDLHandler.Builder builder = new GDLHandler.Builder();
+    if (intervalRelations) {
+      builder.enableIntervalRelations();
+    }
+    return builder.buildFromString("MATCH (a)-[e]->(b) WHERE " + where);
+  }
+
+  @Test
+  public void expandTest() {
+    for (String function : FUNCTIONS) {
+      Predicate relation = query(function, true).getPredicates().get();
+      assertTrue(function, relation instanceof IntervalRelation);
+      assertEquals(function, query(function, false).getPredicates().get(),
+        ((IntervalRelation) relation).expand());
+    }
+  }
+
+  @Test
+  public void evaluationTest() {
+    GDLHandler data = new GDLHandler.Builder().buildFromString(DATA);
+    for (String function : FUNCTIONS) {
+      for (String where : new String[] {function, "NOT " + function}) {
+        long expected = new GDLMatcher(query(where, false), data).count();
+        assertEquals(where, expected, new GDLMatcher(query(where, true), data).count());
+      }
+    }
+    assertEquals(5, new GDLMatcher(query(FUNCTIONS[0], true), data).count());
+  }
+
+  @Test
+  public void holdsTest() {
+    assertTrue(IntervalRelation.holds(Relation.OVERLAPS, 1, 5, 4, 8));
+    assertFalse(IntervalRelation.holds(Relation.OVERLAPS, 1, 5, 5, 8));
+    assertTrue(IntervalRelation.holds(Relation.PRECEDES, 1, 5, 5, 8));
+    assertTrue(IntervalRelation.holds(Relation.IMMEDIATELY_PRECEDES, 1, 5, 5, 8));
+    assertTrue(IntervalRelation.holds(Relation.SUCCEEDS, 5, 8, 1, 5));
+    assertTrue(IntervalRelation.holds(Relation.CONTAINS, 1, 8, 2, 5));
+    assertFalse(IntervalRelation.holds(Relation.CONTAINS, 3, 8, 2, 5));
+    assertTrue(IntervalRelation.holds(Relation.EQUALS, 1, 8, 1, 8));
+    assertTrue(IntervalRelation.holds(Relation.LONGER_THAN, 1, 8, 2, 5));
+    assertFalse(IntervalRelation.holds(Relation.LONGER_THAN, 8, 1, 2, 5));
+    assertTrue(IntervalRelation.holds(Relation.LENGTH_AT_MOST, 2, 5, 1, 4));
+  }
+
+  @Test
+  public void toStringTest() {
+    IntervalExpression aVal = IntervalExpression.of("a", "val");
+    IntervalRelation relation = new IntervalRelation(aVal.merge(IntervalExpression.of("b", "tx")),
+      Relation.OVERLAPS, IntervalExpression.of("c", "val"));
+    assertEquals("Interval(a.VAL_FROM, a.VAL_TO).merge(Interval(b.TX_FROM, b.TX_TO))" +
+      ".overlaps(Interval(c.VAL_FROM, c.VAL_TO))", relation.toString());
+    assertEquals(3, relation.getVariables().size());
+    assertEquals("Interval(a.VAL_FROM, a.VAL_TO).longerThan(Constant(1000))",
+      new IntervalRelation(aVal, Relation.LONGER_THAN, new TimeConstant(1000)).toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidLengthRelationTest() {
+    new IntervalRelation(IntervalExpression.of("a", "val"), Relation.OVERLAPS,
+      new TimeConstant(1000));
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.statistics;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.model.comparables.time.TimeSelector;
+import org.gradoop.gdl.utils.Comparator;
+import org.gradoop.gdl.utils.HyperLogLog;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+public class GraphStatisticsTest {
+
+  private static GraphStatistics socialNetwork() throws IOException {
+    InputStream inputStream = GraphStatisticsTest.class.getResourceAsStream("/social_network.gdl");
+    return new GDLHandler.Builder().enableStatistics().buildFromStream(inputStream)
+      .getStatistics().get();
+  }
+
+  @Test
+  public void disabledByDefaultTest() {
+    assertFalse(new GDLHandler.Builder().buildFromString("(a)-->(b)").getStatistics().isPresent());
+  }
+
+  @Test
+  public void countsTest() throws IOException {
+    GraphStatistics statistics = socialNetwork();
+    assertEquals(11, statistics.getVertexCount());
+    assertEquals(6, statistics.getVertexCount("Person"));
+    assertEquals(3, statistics.getVertexCount("Tag"));
+    assertEquals(0, statistics.getVertexCount("Unknown"));
+    assertEquals(24, statistics.getEdgeCount());
+    assertEquals(10, statistics.getEdgeCount("knows"));
+    assertEquals(10, statistics.getEdgeCount("Person", "knows", "Person"));
+    assertEquals(4, statistics.getEdgeCount("Forum", "hasTag", "Tag"));
+    assertEquals(6, statistics.getEdgeCount("Forum", null, "Person"));
+    assertEquals(0, statistics.getEdgeCount("Tag", null, null));
+    assertEquals(statistics.getEdgeCount(), statistics.getEdgeCount(null, null, null));
+  }
+
+  @Test
+  public void degreeTest() throws IOException {
+    GraphStatistics statistics = socialNetwork();
+    DegreeHistogram tagIn = statistics.getInDegrees("Tag");
+    assertEquals(3, tagIn.getVertexCount());
+    assertEquals(3, tagIn.getMaxDegree());
+    DegreeHistogram tagOut = statistics.getOutDegrees("Tag");
+    assertEquals(3, tagOut.getCount(0));
+    assertEquals(0, tagOut.getAverageDegree(), 0);
+    assertEquals(11, statistics.getOutDegrees(null).getVertexCount());
+    assertEquals(24.0 / 11, statistics.getOutDegrees(null).getAverageDegree(), 1e-9);
+
+    assertEquals(0, DegreeHistogram.bucket(0));
+    assertEquals(1, DegreeHistogram.bucket(1));
+    assertEquals(3, DegreeHistogram.bucket(4));
+    assertEquals(3, DegreeHistogram.bucket(7));
+  }
+
+  @Test
+  public void propertyTest() throws IOException {
+    GraphStatistics statistics = socialNetwork();
+    PropertyStatistics age = statistics.getVertexPropertyStatistics("Person", "age").get();
+    assertEquals(6, age.getCount());
+    assertEquals(4, age.getDistinctCount());
+    assertEquals(20, age.getMin());
+    assertEquals(40, age.getMax());
+    PropertyStatistics city = statistics.getVertexPropertyStatistics("Person", "city").get();
+    assertEquals(3, city.getDistinctCount());
+    assertEquals("Berlin", city.getMin());
+    assertFalse(statistics.getVertexPropertyStatistics("Tag", "age").isPresent());
+    assertEquals(10, statistics.getEdgePropertyStatistics("knows", "since").get().getCount());
+
+    assertEquals(1.0 / 3, statistics.estimateVertexSelectivity("Person", "city",
+      Comparator.EQ, "Leipzig"), 1e-9);
+    assertEquals(0.5, statistics.estimateVertexSelectivity("Person", "age",
+      Comparator.GT, 30), 1e-9);
+    assertEquals(0, statistics.estimateVertexSelectivity("Person", "age",
+      Comparator.LT, 10), 1e-9);
+    assertEquals(1.0 / 6, statistics.estimateVertexSelectivity("Person", "locIP",
+      Comparator.EQ, "127.0.0.1"), 1e-9);
+    assertEquals(0, statistics.estimateVertexSelectivity("Person", "unknown",
+      Comparator.EQ, 1), 1e-9);
+  }
+
+  @Test
+  public void timeAndAppendTest() {
+    GDLHandler handler = new GDLHandler.Builder().enableStatistics().buildFromString(
+      "(a:A {__tx_from: 100L, __tx_to: 200L})<-[:e {__tx_from: 50L}]-(b:B)");
+    GraphStatistics statistics = handler.getStatistics().get();
+    assertEquals(1, statistics.getEdgeCount("B", "e", "A"));
+    assertEquals(50L, statistics.getMinTime(TimeSelector.TimeField.TX_FROM).getAsLong());
+    assertEquals(100L, statistics.getMaxTime(TimeSelector.TimeField.TX_FROM).getAsLong());
+    assertFalse(statistics.getMinTime(TimeSelector.TimeField.VAL_FROM).isPresent());
+
+    handler.append("(a)-[:e]->(c:A {__tx_to: \"2020-01-01\"}), (a)-[:e]->(b)");
+    assertEquals(3, statistics.getVertexCount());
+    assertEquals(1, statistics.getEdgeCount("A", "e", "A"));
+    assertEquals(1, statistics.getEdgeCount("A", "e", "B"));
+    assertEquals(2, statistics.getOutDegrees("A").getMaxDegree());
+    assertTrue(statistics.getMaxTime(TimeSelector.TimeField.TX_TO).getAsLong() > 200L);
+
+    // open values are counted, but do not widen the time range
+    long maxTxTo = statistics.getMaxTime(TimeSelector.TimeField.TX_TO).getAsLong();
+    handler.append("(d:A {__tx_to: \"Infinity\"})");
+    assertEquals(maxTxTo, statistics.getMaxTime(TimeSelector.TimeField.TX_TO).getAsLong());
+    assertEquals(1, statistics.getOpenTimeCount(TimeSelector.TimeField.TX_TO));
+    assertEquals(0, statistics.getOpenTimeCount(TimeSelector.TimeField.TX_FROM));
+  }
+
+  @Test
+  public void hyperLogLogTest() {
+    HyperLogLog sketch = new HyperLogLog();
+    HyperLogLog other = new HyperLogLog();
+    for (long i = 0; i < 100000; i++) {
+      sketch.add(i);
+      sketch.add(Long.toString(i % 1000));
+      other.add((int) (i % 50000));
+    }
+    // 100000 numbers and 1000 strings, standard error of 3.25%
+    assertEquals(101000, sketch.estimate(), 101000 * 0.1);
+    sketch.merge(other);
+    assertEquals(101000, sketch.estimate(), 101000 * 0.1);
+    assertEquals(50000, other.estimate(), 50000 * 0.1);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.statistics;
+
+import org.gradoop.gdl.GDLHandler;
+import org.gradoop.gdl.matching.TemporalIndex;
+import org.gradoop.gdl.model.Vertex;
+import org.gradoop.gdl.model.comparables.time.TimeConstant;
+import org.gradoop.gdl.utils.IsoDateTime;
+import org.gradoop.gdl.utils.TimeProperties;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TemporalAggregationTest {
+
+  private static final TimeConstant DAY = new TimeConstant(1, 0, 0, 0, 0);
+
+  private static final long JAN_1 = IsoDateTime.scan("2020-01-01");
+
+  private static final String GRAPH = "" +
+    "(a:Person {__val_from: \"2020-01-01\", __val_to: \"2020-01-03\", age: 30})" +
+    "(b:Person {__val_from: \"2020-01-02T12:00\", age: 40})" +
+    "(c:Tag {__val_to: \"2020-01-01T23:59:59\"})" +
+    "(a)-[:knows {__val_from: \"2020-01-02\", __val_to: \"2020-01-02\", weight: 0.5}]->(b)" +
+    "(b)-[:knows {__val_from: \"2020-01-03\", weight: 1.5}]->(a)" +
+    "(a)-[:hasTag]->(c)";
+
+  @Test
+  public void countTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+    TemporalAggregation aggregation =
+      new TemporalAggregation(TemporalIndex.Dimension.VAL, JAN_1, DAY, 4);
+
+    TemporalAggregation.Buckets vertices = aggregation.count(handler.getVertices());
+    assertEquals(4, vertices.size());
+    // a ends at the start of day 3 (closed intervals)
+    assertArrayEquals(new long[] {2, 2, 2, 1}, vertices.getCounts());
+    assertEquals(JAN_1 + DAY.getMillis(), vertices.getStart(1));
+    assertEquals(vertices.getStart(2), vertices.getEnd(1));
+
+    Map<String, TemporalAggregation.Buckets> byLabel =
+      aggregation.countByLabel(handler.getVertices());
+    assertArrayEquals(new long[] {1, 2, 2, 1}, byLabel.get("Person").getCounts());
+    assertArrayEquals(new long[] {1, 0, 0, 0}, byLabel.get("Tag").getCounts());
+
+    assertArrayEquals(new long[] {1, 2, 2, 2},
+      aggregation.count(handler.getEdges()).getCounts());
+  }
+
+  @Test
+  public void aggregateTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+    TemporalAggregation aggregation =
+      new TemporalAggregation(TemporalIndex.Dimension.VAL, JAN_1, DAY, 4);
+
+    TemporalAggregation.Buckets ages = aggregation.aggregate(handler.getVertices(), "age");
+    assertEquals(1, ages.getValueCount(0));
+    assertEquals(30.0, ages.getSum(0), 0.0);
+    assertEquals(70.0, ages.getSum(1), 0.0);
+    assertEquals(OptionalDouble.of(30.0), ages.getMin(2));
+    assertEquals(OptionalDouble.of(40.0), ages.getMax(2));
+    assertEquals(OptionalDouble.of(35.0), ages.getAverage(1));
+    assertEquals(OptionalDouble.of(40.0), ages.getMin(3));
+    // c has no age
+    assertEquals(2, ages.getCount(0));
+
+    TemporalAggregation.Buckets weights = aggregation.aggregate(handler.getEdges(), "weight");
+    assertFalse(weights.getMin(0).isPresent());
+    assertEquals(0.0, weights.getSum(0), 0.0);
+    assertEquals(OptionalDouble.of(0.5), weights.getMax(1));
+    assertEquals(OptionalDouble.of(1.5), weights.getMax(2));
+    assertEquals(OptionalDouble.of(1.5), weights.getMin(3));
+  }
+
+  @Test
+  public void degreesTest() {
+    GDLHandler handler = new GDLHandler.Builder().buildFromString(GRAPH);
+    TemporalAggregation aggregation =
+      new TemporalAggregation(TemporalIndex.Dimension.VAL, JAN_1, DAY, 4);
+    long a = handler.getVertexCache().get("a").getId();
+    long c = handler.getVertexCache().get("c").getId();
+
+    Map<Long, TemporalAggregation.Buckets> degrees = aggregation.degrees(handler.getEdges());
+    assertArrayEquals(new long[] {1, 2, 2, 2}, degrees.get(a).getCounts());
+    assertArrayEquals(new long[] {1, 1, 1, 1}, degrees.get(c).getCounts());
+  }
+
+  @Test
+  public void bucketOfTest() {
+    TemporalAggregation aggregation =
+      new TemporalAggregation(TemporalIndex.Dimension.TX, -100, 10, 5);
+    assertEquals(-1, aggregation.bucketOf(-101));
+    assertEquals(0, aggregation.bucketOf(-100));
+    assertEquals(0, aggregation.bucketOf(-91));
+    assertEquals(1, aggregation.bucketOf(-90));
+    assertEquals(4, aggregation.bucketOf(-51));
+    assertEquals(5, aggregation.bucketOf(-50));
+    assertEquals(5, aggregation.bucketOf(Long.MAX_VALUE));
+    assertEquals(-1, aggregation.bucketOf(Long.MIN_VALUE));
+
+    assertArrayEquals(new long[0], new TemporalAggregation(TemporalIndex.Dimension.TX, 0, 1, 0)
+      .count(new GDLHandler.Builder().buildFromString("(a)").getVertices()).getCounts());
+  }
+
+  @Test
+  public void randomTest() {
+    Random random = new Random(11);
+    List<Vertex> vertices = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      Map<String, Object> properties = new HashMap<>();
+      long from = random.nextInt(1000) - 100;
+      if (random.nextInt(8) != 0) {
+        properties.put(TimeProperties.TX_FROM, from);
+      }
+      if (random.nextInt(8) != 0) {
+        properties.put(TimeProperties.TX_TO, from + random.nextInt(200));
+      }
+      if (random.nextInt(4) != 0) {
+        properties.put("x", random.nextInt(50));
+      }
+      Vertex vertex = new Vertex();
+      vertex.setId(i);
+      vertex.setProperties(properties);
+      vertices.add(vertex);
+    }
+    int buckets = 37;
+    long width = 23;
+    TemporalAggregation.Buckets result =
+      new TemporalAggregation(TemporalIndex.Dimension.TX, 0, width, buckets)
+        .aggregate(vertices, "x");
+
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      long start = bucket * width;
+      long end = start + width;
+      long count = 0;
+      long valueCount = 0;
+      double sum = 0;
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (Vertex vertex : vertices) {
+        long from = TimeProperties.getTime(vertex, TemporalIndex.Dimension.TX.getFrom())
+          .orElse(Long.MIN_VALUE);
+        long to = TimeProperties.getTime(vertex, TemporalIndex.Dimension.TX.getTo())
+          .orElse(Long.MAX_VALUE);
+        if (from < end && to >= start) {
+          count++;
+          Object x = vertex.getProperties().get("x");
+          if (x != null) {
+            valueCount++;
+            sum += (Integer) x;
+            min = Math.min(min, (Integer) x);
+            max = Math.max(max, (Integer) x);
+          }
+        }
+      }
+      assertEquals(count, result.getCount(bucket));
+      assertEquals(valueCount, result.getValueCount(bucket));
+      assertEquals(sum, result.getSum(bucket), 1e-9);
+      assertEquals(min, result.getMin(bucket).getAsDouble(), 0.0);
+      assertEquals(max, result.getMax(bucket).getAsDouble(), 0.0);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidWidthTest() {
+    new TemporalAggregation(TemporalIndex.Dimension.VAL, 0, new TimeConstant(0L), 10);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 The GDL Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradoop.gdl.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IsoDateTimeTest {
+
+  @Test
+  public void scanTest() {
+    String[] dates = {"1970-01-01", "1969-12-31T23:59:59", "2020-02-29T12:00", "2000-02-29",
+      "1900-03-01T00:00:01", "0000-01-01", "9999-12-31T23:59:59.999",
+      "2020-04-06T15:33:00.5", "2020-04-06T15:33:00.123456789"};
+    for (String date : dates) {
+      String parseable = date.length() == 10 ? date + "T00:00" : date;
+      long expected = LocalDateTime.parse(parseable).toInstant(ZoneOffset.UTC).toEpochMilli();
+      assertEquals(date, expected, IsoDateTime.scan(date));
+    }
+  }
+
+  @Test
+  public void invalidTest() {
+    String[] dates = {"", "now", "2019-02-29", "2100-02-29", "2020-13-01", "2020-00-10",
+      "2020-04-31", "2020-04-06T24:00", "2020-04-06T12:60", "2020-04-06T12:00:60",
+      "2020-04-06 12:00", "2020/04/06", "2020-04-06T12:00:00.", "2020-04-06T12:00:00.1234567890",
+      "2020-04-06T12", "20-04-06", "+2020-04-06", "2020-04-06T12:00:0a"};
+    for (String date : dates) {
+      assertEquals(date, IsoDateTime.INVALID, IsoDateTime.scan(date));
+    }
+  }
+
+  @Test
+  public void calendarFieldsTest() {
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      long millis = (random.nextLong() % 200_000_000_000_000L);
+      LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+        (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+      assertEquals(time.getYear(), IsoDateTime.getYear(millis));
+      assertEquals(time.getMonthValue(), IsoDateTime.getMonth(millis));
+      assertEquals(time.getDayOfMonth(), IsoDateTime.getDay(millis));
+      assertEquals(time.toLocalDate().toEpochDay(),
+        IsoDateTime.epochDay(time.getYear(), time.getMonthValue(), time.getDayOfMonth()));
+      assertEquals(time.toLocalDate().lengthOfMonth(),
+        IsoDateTime.lengthOfMonth(time.getYear(), time.getMonthValue()));
+    }
+  }
+}